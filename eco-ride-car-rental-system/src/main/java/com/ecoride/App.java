@@ -1,26 +1,181 @@
 package com.ecoride;
 
+import com.ecoride.cli.BatchRunner;
 import com.ecoride.cli.ConsoleUI;
+import com.ecoride.cli.ReplicaShell;
+import com.ecoride.event.EventBus;
+import com.ecoride.event.WaitStrategy;
+import com.ecoride.fleet.ServiceSchedule;
+import com.ecoride.metrics.MetricsRegistry;
+import com.ecoride.metrics.MetricsServer;
+import com.ecoride.metrics.RentalMetrics;
+import com.ecoride.payment.PaymentConfig;
+import com.ecoride.payment.PaymentProcessor;
+import com.ecoride.payment.SimulatedGateway;
+import com.ecoride.pricing.RateCard;
+import com.ecoride.pricing.RateCardSource;
+import com.ecoride.replication.ReplicaNode;
+import com.ecoride.replication.ReplicationPrimary;
 import com.ecoride.repository.*;
 import com.ecoride.service.*;
+import com.ecoride.trace.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 public class App {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // read replica: tail the primary's change log, serve read-only traffic
+        if (args.length == 2 && args[0].equals("--replica")) {
+            runReplica(Path.of(args[1]));
+            return;
+        }
+
+        // headless batch mode: app run [script.txt] [--flag value ...]; no script means stdin
+        String script = null;
+        boolean batch = args.length > 0 && args[0].equals("run");
+        if (batch) {
+            script = args.length > 1 && !args[1].startsWith("--") ? args[1] : null;
+            args = Arrays.copyOfRange(args, script == null ? 1 : 2, args.length);
+        }
+        Map<String, String> options = options(args);
+
         // repositories
         VehicleRepository vehicleRepo = new InMemoryVehicleRepository();
         CustomerRepository customerRepo = new InMemoryCustomerRepository();
         BookingRepository bookingRepo = new InMemoryBookingRepository();
 
+        // hot/cold tiering: finished bookings older than 90 days move to compressed segments on disk;
+        // batch runs keep the tiers but never archive in the background
+        if (options.containsKey("--archive")) {
+            VehicleRepository vehicles = vehicleRepo;
+            CustomerRepository customers = customerRepo;
+            TieredBookingRepository tiered = new TieredBookingRepository(Path.of(options.get("--archive")), 90,
+                    Clock.systemDefaultZone(), id -> customers.findById(id).orElse(null), id -> vehicles.findById(id).orElse(null));
+            if (!batch) tiered.startArchiving(Duration.ofHours(1));
+            bookingRepo = tiered;
+        }
+
+        // primary with change-data-capture: every repository mutation goes to the change log;
+        // periodic snapshots only outside batch runs
+        if (options.containsKey("--changelog")) {
+            ReplicationPrimary primary = new ReplicationPrimary(Path.of(options.get("--changelog")), vehicleRepo, customerRepo, bookingRepo);
+            if (!batch) primary.startSnapshots(Duration.ofMinutes(5));
+            vehicleRepo = primary.vehicles();
+            customerRepo = primary.customers();
+            bookingRepo = primary.bookings();
+        }
+
+        // sampled span tracing: --trace <file> appends spans there, --trace-sample sets the starting rate
+        Tracer tracer = Tracer.disabled();
+        if (options.containsKey("--trace")) {
+            tracer = new Tracer(Path.of(options.get("--trace")), Double.parseDouble(options.getOrDefault("--trace-sample", "0.01")),
+                    Duration.ofSeconds(1));
+            vehicleRepo = new TracingVehicleRepository(vehicleRepo, tracer);
+            customerRepo = new TracingCustomerRepository(customerRepo, tracer);
+            bookingRepo = new TracingBookingRepository(bookingRepo, tracer);
+            Tracer flushOnExit = tracer;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try { flushOnExit.close(); } catch (IOException e) { System.err.println("Trace file not closed: " + e.getMessage()); }
+            }));
+        }
+
         // services
         BookingPolicy policy = new BookingPolicy();
-        PricingService pricing = new PricingService();
+        DynamicPricingEngine surge = new DynamicPricingEngine(vehicleRepo, bookingRepo, Clock.systemDefaultZone());
+        // rate card: --rates <file> is compiled at startup and hot-reloaded on edit; --branch picks its variant
+        RateCardSource rates = new RateCardSource(RateCard.defaults());
+        if (options.containsKey("--rates")) {
+            rates = new RateCardSource(Path.of(options.get("--rates")));
+            if (!batch) rates.watch();
+        }
+        PricingService pricing = new PricingService(surge, rates, options.getOrDefault("--branch", RateCard.DEFAULT_BRANCH));
         CarRentalSystem system = new CarRentalSystem(vehicleRepo, customerRepo, bookingRepo, policy, pricing);
+        system.setTracer(tracer);
+        // admission control: --rate-limit <requests/s per customer> guards book, update and cancel
+        RateLimitedRentalSystem admission = null;
+        if (options.containsKey("--rate-limit")) {
+            double perCustomer = Double.parseDouble(options.get("--rate-limit"));
+            AdmissionLimits d = AdmissionLimits.defaults();
+            admission = new RateLimitedRentalSystem(system, new AdmissionController(new AdmissionLimits(perCustomer,
+                    Math.max(1, (int) Math.ceil(perCustomer * 2)), d.globalPerSecond(), d.globalBurst(), d.maxInFlight())));
+        }
+        // no-show expiry stays off until the desk records pickups
+        BookingLifecycleScheduler lifecycle = new BookingLifecycleScheduler(policy, null);
+        system.setLifecycleScheduler(lifecycle);
+        // odometers and service windows booked ahead of each subtype's thresholds
+        system.setServiceSchedule(ServiceSchedule.defaults());
+
+        if (batch) {
+            // scripts seed or import their own data; nothing runs on a schedule (archiving, snapshots, surge,
+            // lifecycle ticks, rate-card reload), so runs are repeatable
+            int failed;
+            try (Reader in = script == null ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                    : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)) {
+                BatchRunner runner = new BatchRunner(system, System.out);
+                if (admission != null) runner.setAdmission(admission);
+                failed = runner.run(in);
+            }
+            System.exit(failed == 0 ? 0 : 1);
+        }
 
         // seed vehicles
         system.seedVehicles();
         system.seedAdmins(); // default admin: admin / admin123
 
+        // payments go to the in-process gateway; --gateway-latency <ms> and --gateway-failure-rate <0..1> shape it
+        SimulatedGateway gateway = new SimulatedGateway(
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("--gateway-latency", "0"))),
+                Double.parseDouble(options.getOrDefault("--gateway-failure-rate", "0")), 0, System.nanoTime());
+        system.setPaymentProcessor(new PaymentProcessor(gateway, PaymentConfig.defaults(), Clock.systemDefaultZone()));
+
+        // Prometheus scrape endpoint: --metrics-port <port> serves /metrics, fed from the event bus
+        if (options.containsKey("--metrics-port")) {
+            RentalMetrics metrics = new RentalMetrics(new MetricsRegistry(), vehicleRepo, customerRepo, bookingRepo);
+            metrics.bind(system);
+            metrics.bindRateCard(rates);
+            if (admission != null) metrics.bindAdmission(admission.admission());
+            EventBus bus = new EventBus(1024, WaitStrategy.blocking());
+            bus.subscribe("metrics", metrics);
+            bus.start();
+            system.setEventBus(bus);
+            MetricsServer server = new MetricsServer(metrics.registry(), Integer.parseInt(options.get("--metrics-port")));
+            System.out.println("Metrics at http://localhost:" + server.port() + "/metrics");
+        }
+
+        // background surge recomputation and booking lifecycle ticks
+        surge.start(Duration.ofMinutes(1));
+        lifecycle.start(Duration.ofSeconds(30));
+
         // launch CLI
-        new ConsoleUI(system).start();
+        ConsoleUI console = new ConsoleUI(system);
+        if (admission != null) console.setAdmission(admission);
+        console.start();
+    }
+
+    /** {@code --flag value} pairs. */
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) options.put(args[i], args[i + 1]);
+        return options;
+    }
+
+    private static void runReplica(Path changelogDir) throws IOException {
+        ReplicaNode replica = new ReplicaNode(changelogDir, Clock.systemDefaultZone());
+        replica.poll(); // catch up from the latest snapshot before serving
+        replica.start(Duration.ofMillis(200));
+        CarRentalSystem readOnly = new CarRentalSystem(replica.vehicles(), replica.customers(), replica.bookings(),
+                new BookingPolicy(), new PricingService());
+        new ReplicaShell(replica, readOnly).start();
+        replica.stop();
     }
 }
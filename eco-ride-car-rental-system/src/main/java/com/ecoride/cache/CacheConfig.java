@@ -0,0 +1,22 @@
+package com.ecoride.cache;
+
+import java.time.Duration;
+
+/**
+ * Bounds and write mode for a caching repository.
+ *
+ * @param maxWeight           upper bound on the summed entry weights (approximate bytes)
+ * @param writeBehindInterval flush period for buffered writes; null means write-through
+ */
+public record CacheConfig(int maxEntries, long maxWeight, Duration writeBehindInterval) {
+
+    public static CacheConfig writeThrough(int maxEntries, long maxWeight) {
+        return new CacheConfig(maxEntries, maxWeight, null);
+    }
+
+    public static CacheConfig writeBehind(int maxEntries, long maxWeight, Duration interval) {
+        return new CacheConfig(maxEntries, maxWeight, interval);
+    }
+
+    public boolean isWriteBehind() { return writeBehindInterval != null; }
+}
@@ -0,0 +1,18 @@
+package com.ecoride.cache;
+
+/** Point-in-time counters for one cache (and its write-behind buffer, when enabled). */
+public record CacheStats(long hits, long misses, long evictions, long admissionRejects,
+                         long size, long weight,
+                         long writesBuffered, long writesCoalesced, long writesFlushed, long flushes) {
+
+    public long requests() { return hits + misses; }
+
+    public double hitRate() { return requests() == 0 ? 1.0 : (double) hits / requests(); }
+
+    @Override public String toString() {
+        return String.format("hits=%d misses=%d hitRate=%.3f evictions=%d rejected=%d size=%d weight=%d "
+                        + "buffered=%d coalesced=%d flushed=%d flushes=%d",
+                hits, misses, hitRate(), evictions, admissionRejects, size, weight,
+                writesBuffered, writesCoalesced, writesFlushed, flushes);
+    }
+}
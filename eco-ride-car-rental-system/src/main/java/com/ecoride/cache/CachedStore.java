@@ -0,0 +1,117 @@
+package com.ecoride.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/** The cache-plus-buffer plumbing shared by the caching repository decorators. */
+final class CachedStore<V> implements AutoCloseable {
+
+    private final TinyLfuCache<String, V> cache;
+    private final WriteBehindBuffer<String, V> buffer; // null = write-through
+    private final Function<String, Optional<V>> loader;
+    private final Consumer<V> store;
+    private final Function<V, String> idOf;
+    /** The part of a value the store counts by (e.g. vehicle status); null when counts are by presence only. */
+    private final Function<V, ?> facet;
+    /**
+     * Facet of what the store last received for each key. Values are mutable and re-saved as the same
+     * instance, so the store's copy cannot be read back to learn what it counted.
+     */
+    private final Map<String, Object> storedFacet = new ConcurrentHashMap<>();
+
+    CachedStore(CacheConfig config, String name, ToIntFunction<V> weigher, Function<V, String> idOf,
+                Function<String, Optional<V>> loader, Consumer<V> store) {
+        this(config, name, weigher, idOf, loader, store, null);
+    }
+
+    CachedStore(CacheConfig config, String name, ToIntFunction<V> weigher, Function<V, String> idOf,
+                Function<String, Optional<V>> loader, Consumer<V> store, Function<V, ?> facet) {
+        this.idOf = idOf;
+        this.facet = facet;
+        this.loader = loader;
+        this.store = facet == null ? store : v -> {
+            Object f = facet.apply(v);
+            store.accept(v);
+            storedFacet.put(idOf.apply(v), f);
+        };
+        this.cache = new TinyLfuCache<>(config.maxEntries(), config.maxWeight(), weigher);
+        this.buffer = config.isWriteBehind() ? new WriteBehindBuffer<>(this.store, config.writeBehindInterval(), name) : null;
+    }
+
+    Optional<V> get(String id) {
+        V v = cache.getIfPresent(id);
+        if (v == null && buffer != null) v = buffer.pendingValue(id);
+        if (v != null) return Optional.of(v);
+        Optional<V> loaded = loader.apply(id);
+        loaded.ifPresent(x -> {
+            cache.putIfAbsent(id, x);
+            if (facet != null) storedFacet.putIfAbsent(id, facet.apply(x));
+        });
+        return loaded;
+    }
+
+    /** Note what a scan of the store returned, before callers get a chance to change it. */
+    List<V> scanned(List<V> values) {
+        if (facet != null) for (V v : values) storedFacet.putIfAbsent(idOf.apply(v), facet.apply(v));
+        return values;
+    }
+
+    void put(V value) {
+        String id = idOf.apply(value);
+        cache.put(id, value);
+        if (buffer != null) buffer.write(id, value);
+        else store.accept(value);
+    }
+
+    void delete(String id, Consumer<String> storeDelete) {
+        cache.invalidate(id);
+        if (buffer != null) buffer.delete(id, storeDelete);
+        else storeDelete.accept(id);
+        storedFacet.remove(id);
+    }
+
+    /** Scans go to the backing store, so it must have every buffered write first. */
+    void flush() { if (buffer != null) buffer.flush(); }
+
+    /**
+     * The store's count of values whose facet matches {@code counted}, corrected for buffered writes instead
+     * of flushing them: each pending value stands in for what the store last received under its key. That
+     * is read from {@link #storedFacet}, falling back to a store lookup for keys this cache has not seen, so
+     * a metrics scrape never forces a write-behind flush.
+     */
+    int count(IntSupplier stored, Predicate<Object> counted) {
+        int n = stored.getAsInt();
+        if (buffer == null) return n;
+        int[] delta = {0};
+        buffer.forEachPending((id, pending) -> {
+            Object old = storedFacet.get(id);
+            if (old == null) old = loader.apply(id).map(this::facetOf).orElse(null);
+            if (old != null && counted.test(old)) delta[0]--;
+            if (counted.test(facetOf(pending))) delta[0]++;
+        });
+        return n + delta[0];
+    }
+
+    private Object facetOf(V v) { return facet == null ? Boolean.TRUE : facet.apply(v); }
+
+    CacheStats stats() {
+        CacheStats c = cache.stats();
+        if (buffer == null) return c;
+        return new CacheStats(c.hits(), c.misses(), c.evictions(), c.admissionRejects(), c.size(), c.weight(),
+                buffer.buffered(), buffer.coalesced(), buffer.flushed(), buffer.flushes());
+    }
+
+    @Override
+    public void close() { if (buffer != null) buffer.close(); }
+
+    // ---- Approximate heap footprints used as weights ----
+
+    static int stringWeight(String s) { return s == null ? 0 : 40 + s.length(); }
+}
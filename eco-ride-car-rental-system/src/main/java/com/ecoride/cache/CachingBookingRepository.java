@@ -0,0 +1,36 @@
+package com.ecoride.cache;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Caching decorator for any {@link BookingRepository}; see {@link CachingVehicleRepository}. Only the
+ * booking itself is weighed: its customer and vehicle are shared objects held by their own caches.
+ */
+public class CachingBookingRepository implements BookingRepository, AutoCloseable {
+    private final BookingRepository delegate;
+    private final CachedStore<Booking> store;
+
+    public CachingBookingRepository(BookingRepository delegate, CacheConfig config) {
+        this.delegate = delegate;
+        this.store = new CachedStore<>(config, "bookings", CachingBookingRepository::weigh, Booking::getBookingId,
+                delegate::findById, delegate::save);
+    }
+
+    static int weigh(Booking b) { return 160 + CachedStore.stringWeight(b.getBookingId()); }
+
+    @Override public void save(Booking b) { store.put(b); }
+    @Override public Optional<Booking> findById(String id) { return store.get(id); }
+    @Override public List<Booking> findAll() { store.flush(); return delegate.findAll(); }
+    @Override public List<Booking> findByDate(LocalDate date) { store.flush(); return delegate.findByDate(date); }
+    @Override public List<Booking> findActive() { store.flush(); return delegate.findActive(); }
+    @Override public void delete(String id) { store.delete(id, delegate::delete); }
+    @Override public int count() { return store.count(delegate::count, f -> true); }
+
+    public void flush() { store.flush(); }
+    public CacheStats stats() { return store.stats(); }
+    @Override public void close() { store.close(); }
+}
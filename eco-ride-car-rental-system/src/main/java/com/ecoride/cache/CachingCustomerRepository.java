@@ -0,0 +1,33 @@
+package com.ecoride.cache;
+
+import com.ecoride.domain.Customer;
+import com.ecoride.repository.CustomerRepository;
+
+import java.util.*;
+
+/** Caching decorator for any {@link CustomerRepository}; see {@link CachingVehicleRepository}. */
+public class CachingCustomerRepository implements CustomerRepository, AutoCloseable {
+    private final CustomerRepository delegate;
+    private final CachedStore<Customer> store;
+
+    public CachingCustomerRepository(CustomerRepository delegate, CacheConfig config) {
+        this.delegate = delegate;
+        this.store = new CachedStore<>(config, "customers", CachingCustomerRepository::weigh, Customer::getCustomerId,
+                delegate::findById, delegate::save);
+    }
+
+    static int weigh(Customer c) {
+        return 32 + CachedStore.stringWeight(c.getCustomerId()) + CachedStore.stringWeight(c.getName())
+                + CachedStore.stringWeight(c.getContact()) + CachedStore.stringWeight(c.getEmail());
+    }
+
+    @Override public void save(Customer c) { store.put(c); }
+    @Override public Optional<Customer> findById(String id) { return store.get(id); }
+    @Override public List<Customer> findAll() { store.flush(); return delegate.findAll(); }
+    @Override public List<Customer> findByNameContains(String name) { store.flush(); return delegate.findByNameContains(name); }
+    @Override public int count() { return store.count(delegate::count, f -> true); }
+
+    public void flush() { store.flush(); }
+    public CacheStats stats() { return store.stats(); }
+    @Override public void close() { store.close(); }
+}
@@ -0,0 +1,42 @@
+package com.ecoride.cache;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.VehicleRepository;
+
+import java.util.*;
+
+/**
+ * Caching decorator for any {@link VehicleRepository}. {@code findById} reads through a bounded W-TinyLFU
+ * cache; saves go straight to the delegate or, with write-behind configured, are buffered and coalesced.
+ * Category scans always ask the delegate, after flushing buffered writes; counts never flush, they correct
+ * the delegate's count for the writes still buffered.
+ */
+public class CachingVehicleRepository implements VehicleRepository, AutoCloseable {
+    private final VehicleRepository delegate;
+    private final CachedStore<Vehicle> store;
+
+    public CachingVehicleRepository(VehicleRepository delegate, CacheConfig config) {
+        this.delegate = delegate;
+        this.store = new CachedStore<>(config, "vehicles", CachingVehicleRepository::weigh, Vehicle::getVehicleId,
+                delegate::findById, delegate::save, Vehicle::getAvailabilityStatus);
+    }
+
+    static int weigh(Vehicle v) { return 48 + CachedStore.stringWeight(v.getVehicleId()) + CachedStore.stringWeight(v.getModel()); }
+
+    @Override public void save(Vehicle v) { store.put(v); }
+    @Override public Optional<Vehicle> findById(String id) { return store.get(id); }
+    @Override public List<Vehicle> findAll() { store.flush(); return store.scanned(delegate.findAll()); }
+    @Override public void delete(String id) { store.delete(id, delegate::delete); }
+    @Override public List<Vehicle> findAvailableByCategory(Category c) {
+        store.flush();
+        return store.scanned(delegate.findAvailableByCategory(c));
+    }
+    @Override public int count() { return store.count(delegate::count, f -> true); }
+    @Override public int countByStatus(AvailabilityStatus status) {
+        return store.count(() -> delegate.countByStatus(status), f -> f == status);
+    }
+
+    public void flush() { store.flush(); }
+    public CacheStats stats() { return store.stats(); }
+    @Override public void close() { store.close(); }
+}
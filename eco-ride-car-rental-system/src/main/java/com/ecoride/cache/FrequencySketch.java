@@ -0,0 +1,63 @@
+package com.ecoride.cache;
+
+/**
+ * Count-min sketch of 4-bit counters used as the TinyLFU popularity estimate. Sixteen counters are
+ * packed per long; every key touches one counter in each of four rows. When the number of recorded
+ * accesses reaches the sample size all counters are halved, so old popularity fades.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int size = Integer.highestOneBit(Math.max(16, expectedEntries - 1) << 1);
+        this.table = new long[size];
+        this.mask = size - 1;
+        this.sampleSize = 10 * Math.max(16, expectedEntries);
+    }
+
+    int frequency(Object key) {
+        int h = spread(key.hashCode());
+        int min = 15;
+        for (int i = 0; i < 4; i++) {
+            long hash = (h + SEEDS[i]) * SEEDS[i];
+            int index = (int) ((hash + (hash >>> 32)) & mask);
+            int offset = (int) ((hash >>> 8) & 15) << 2;
+            min = Math.min(min, (int) ((table[index] >>> offset) & 15));
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        int h = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            long hash = (h + SEEDS[i]) * SEEDS[i];
+            int index = (int) ((hash + (hash >>> 32)) & mask);
+            int offset = (int) ((hash >>> 8) & 15) << 2;
+            long counter = (table[index] >>> offset) & 15;
+            if (counter < 15) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) reset();
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) table[i] = (table[i] >>> 1) & RESET_MASK;
+        additions >>>= 1;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
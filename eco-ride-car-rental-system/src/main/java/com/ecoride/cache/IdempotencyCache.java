@@ -0,0 +1,130 @@
+package com.ecoride.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of keyed mutations so a client retry gets the original result instead of
+ * running the operation again. The first caller for a key runs the operation; a retry arriving while
+ * it is still running waits for the same result. Failures are forgotten, so a failed request can be retried.
+ *
+ * <p>Entries live for a fixed TTL and the cache holds at most {@code maxEntries}; both are enforced in
+ * creation order from one FIFO queue, so upkeep is O(1) amortised per call and needs no lock.
+ */
+public class IdempotencyCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+    /** {@code fingerprint} describes the request, so a key reused for a different request is caught. */
+    private record Entry(String key, String fingerprint, CompletableFuture<Object> result, long createdAtMillis) {}
+
+    /** Point-in-time counters. */
+    public record Stats(long executed, long duplicates, long inFlightWaits, long mismatches,
+                        long evictions, long expirations, int size) {
+        @Override public String toString() {
+            return String.format("executed=%d duplicates=%d inFlightWaits=%d mismatches=%d evictions=%d expirations=%d size=%d",
+                    executed, duplicates, inFlightWaits, mismatches, evictions, expirations, size);
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder inFlightWaits = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public IdempotencyCache(int maxEntries, Duration ttl, Clock clock) {
+        if (maxEntries < 1 || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("Cache bounds must be positive");
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Run {@code op} once per key. A repeat call with the same key and fingerprint returns the first
+     * call's result (or waits for it); the same key with a different fingerprint is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> op) {
+        long now = clock.millis();
+        purge(now);
+        Entry mine = new Entry(key, fingerprint, new CompletableFuture<>(), now);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, mine);
+            if (existing == null) break;
+            if (now - existing.createdAtMillis() >= ttlMillis) {
+                if (entries.remove(key, existing)) expirations.increment();
+                continue;
+            }
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                mismatches.increment();
+                throw new IllegalArgumentException("Idempotency key " + key + " was already used for a different request.");
+            }
+            duplicates.increment();
+            if (!existing.result().isDone()) inFlightWaits.increment();
+            return (T) await(existing.result());
+        }
+        order.add(mine);
+        trim();
+        try {
+            T value = op.get();
+            executed.increment();
+            mine.result().complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            entries.remove(key, mine);
+            // its queue node too, or keys that keep failing would pile up there until the TTL, past the cap
+            order.remove(mine);
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    public int size() { return entries.size(); }
+
+    public Stats stats() {
+        return new Stats(executed.sum(), duplicates.sum(), inFlightWaits.sum(), mismatches.sum(),
+                evictions.sum(), expirations.sum(), entries.size());
+    }
+
+    /** Drop expired entries from the head of the creation-ordered queue. */
+    private void purge(long now) {
+        Entry head;
+        while ((head = order.peek()) != null && now - head.createdAtMillis() >= ttlMillis) {
+            if (order.remove(head) && entries.remove(head.key(), head)) expirations.increment();
+        }
+    }
+
+    /** Evict oldest-first until back under the entry cap. */
+    private void trim() {
+        while (entries.size() > maxEntries) {
+            Entry oldest = order.poll();
+            if (oldest == null) return;
+            if (entries.remove(oldest.key(), oldest)) evictions.increment();
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
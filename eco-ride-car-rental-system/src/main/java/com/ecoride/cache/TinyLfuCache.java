@@ -0,0 +1,228 @@
+package com.ecoride.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache with W-TinyLFU admission. New entries land in a small LRU window; when the window
+ * overflows, its oldest entry only enters the main segmented-LRU space if the frequency sketch says it
+ * is more popular than the main space's eviction victim. This keeps one-off scans from flushing hot keys.
+ *
+ * <p>Bounded both by entry count and by total weight. All structure changes happen under one lock;
+ * every operation is O(1) apart from eviction loops, which stop as soon as the cache is back in bounds.
+ */
+public class TinyLfuCache<K, V> {
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node<V> {
+        V value;
+        int weight;
+        Region region;
+        Node(V value, int weight, Region region) { this.value = value; this.weight = weight; this.region = region; }
+    }
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final int windowMax;
+    private final int protectedMax;
+    private final ToIntFunction<V> weigher;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // insertion-ordered: first entry is the LRU end
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<V>> protectedRegion = new LinkedHashMap<>();
+    private final Map<K, Node<V>> index = new HashMap<>();
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejects = new LongAdder();
+
+    public TinyLfuCache(int maxEntries, long maxWeight, ToIntFunction<V> weigher) {
+        if (maxEntries < 1 || maxWeight < 1) throw new IllegalArgumentException("Cache bounds must be positive");
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.windowMax = Math.max(1, maxEntries / 100);
+        this.protectedMax = (int) ((maxEntries - windowMax) * 0.8);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<V> n = index.get(key);
+            if (n == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            onHit(key, n);
+            return n.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) { put(key, value, false); }
+
+    /** Cache a loaded value unless a newer one was put while it was loading. */
+    public void putIfAbsent(K key, V value) { put(key, value, true); }
+
+    private void put(K key, V value, boolean onlyIfAbsent) {
+        int w = Math.max(1, weigher.applyAsInt(value));
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<V> n = index.get(key);
+            if (n != null && onlyIfAbsent) return;
+            if (n != null) {
+                totalWeight += w - n.weight;
+                n.value = value;
+                n.weight = w;
+                onHit(key, n);
+            } else {
+                n = new Node<>(value, w, Region.WINDOW);
+                index.put(key, n);
+                window.put(key, n);
+                totalWeight += w;
+                if (window.size() > windowMax) admitFromWindow();
+            }
+            while (totalWeight > maxWeight && !index.isEmpty()) evictOne();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Node<V> n = index.remove(key);
+            if (n != null) {
+                regionOf(n).remove(key);
+                totalWeight -= n.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            index.clear();
+            window.clear();
+            probation.clear();
+            protectedRegion.clear();
+            totalWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try { return index.size(); } finally { lock.unlock(); }
+    }
+
+    public long weight() {
+        lock.lock();
+        try { return totalWeight; } finally { lock.unlock(); }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), rejects.sum(),
+                    index.size(), totalWeight, 0, 0, 0, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---- Policy ----
+
+    private void onHit(K key, Node<V> n) {
+        switch (n.region) {
+            case WINDOW -> { window.remove(key); window.put(key, n); }
+            case PROTECTED -> { protectedRegion.remove(key); protectedRegion.put(key, n); }
+            case PROBATION -> {
+                probation.remove(key);
+                n.region = Region.PROTECTED;
+                protectedRegion.put(key, n);
+                if (protectedRegion.size() > protectedMax) {
+                    // demote the protected LRU back to probation
+                    Map.Entry<K, Node<V>> lru = first(protectedRegion);
+                    protectedRegion.remove(lru.getKey());
+                    lru.getValue().region = Region.PROBATION;
+                    probation.put(lru.getKey(), lru.getValue());
+                }
+            }
+        }
+    }
+
+    /** Move the window's LRU entry into main space, or drop it if it loses to main's victim. */
+    private void admitFromWindow() {
+        Map.Entry<K, Node<V>> candidate = first(window);
+        window.remove(candidate.getKey());
+        int mainSize = probation.size() + protectedRegion.size();
+        if (mainSize < maxEntries - windowMax) {
+            candidate.getValue().region = Region.PROBATION;
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        LinkedHashMap<K, Node<V>> victimRegion = probation.isEmpty() ? protectedRegion : probation;
+        if (victimRegion.isEmpty()) { // no main space at all (tiny caches)
+            rejects.increment();
+            drop(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        Map.Entry<K, Node<V>> victim = first(victimRegion);
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            victimRegion.remove(victim.getKey());
+            drop(victim.getKey(), victim.getValue());
+            candidate.getValue().region = Region.PROBATION;
+            probation.put(candidate.getKey(), candidate.getValue());
+        } else {
+            rejects.increment();
+            drop(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /** Weight-driven eviction: cheapest-to-lose first (probation, then window, then protected). */
+    private void evictOne() {
+        LinkedHashMap<K, Node<V>> from = !probation.isEmpty() ? probation : !window.isEmpty() ? window : protectedRegion;
+        Map.Entry<K, Node<V>> victim = first(from);
+        from.remove(victim.getKey());
+        drop(victim.getKey(), victim.getValue());
+    }
+
+    private void drop(K key, Node<V> n) {
+        index.remove(key);
+        totalWeight -= n.weight;
+        evictions.increment();
+    }
+
+    private LinkedHashMap<K, Node<V>> regionOf(Node<V> n) {
+        return switch (n.region) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedRegion;
+        };
+    }
+
+    private static <K, N> Map.Entry<K, N> first(LinkedHashMap<K, N> map) {
+        Iterator<Map.Entry<K, N>> it = map.entrySet().iterator();
+        return it.next();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecoride.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Buffers writes per key and flushes them to the backing store on a timer. Repeated writes to the same
+ * key between flushes coalesce into one store write of the latest value. Each write is stamped with a
+ * sequence number, so a flush only clears a key if nothing was written to it since; callers may save the
+ * same mutable instance again after changing it, and that save must still reach the store.
+ */
+public class WriteBehindBuffer<K, V> implements AutoCloseable {
+
+    private record Pending<V>(V value, long seq) {}
+
+    private final Map<K, Pending<V>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Consumer<V> store;
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    public WriteBehindBuffer(Consumer<V> store, Duration interval, String name) {
+        this.store = store;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "write-behind-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void write(K key, V value) {
+        buffered.increment();
+        if (pending.put(key, new Pending<>(value, sequence.incrementAndGet())) != null) coalesced.increment();
+    }
+
+    /** Latest buffered value for a key that has not reached the store yet, or null. */
+    public V pendingValue(K key) {
+        Pending<V> p = pending.get(key);
+        return p == null ? null : p.value();
+    }
+
+    /** Drop any buffered write for the key and delete it from the store, without racing a flush. */
+    public synchronized void delete(K key, Consumer<K> storeDelete) {
+        pending.remove(key);
+        storeDelete.accept(key);
+    }
+
+    public int pendingCount() { return pending.size(); }
+
+    /** Visit the writes that have not reached the store yet; a concurrent flush may clear some mid-walk. */
+    public void forEachPending(BiConsumer<K, V> action) { pending.forEach((k, p) -> action.accept(k, p.value())); }
+
+    /** Write every buffered value to the store. Safe to call from any thread. */
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        flushes.increment();
+        for (Map.Entry<K, Pending<V>> e : pending.entrySet()) {
+            Pending<V> p = e.getValue();
+            store.accept(p.value());
+            flushed.increment();
+            // only clear if no newer write arrived while storing, even one of the same instance;
+            // otherwise the next flush picks it up
+            pending.computeIfPresent(e.getKey(), (k, cur) -> cur.seq() == p.seq() ? null : cur);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            System.err.println("Write-behind flush failed: " + ex.getMessage());
+        }
+    }
+
+    long buffered() { return buffered.sum(); }
+    long coalesced() { return coalesced.sum(); }
+    long flushed() { return flushed.sum(); }
+    long flushes() { return flushes.sum(); }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flush();
+    }
+}
@@ -0,0 +1,330 @@
+package com.ecoride.cli;
+
+import com.ecoride.domain.*;
+import com.ecoride.fleet.FleetQuery;
+import com.ecoride.fleet.MaintenanceScheduler;
+import com.ecoride.invoice.EndOfDayInvoicingJob;
+import com.ecoride.invoice.RenderTarget;
+import com.ecoride.payment.ReconciliationJob;
+import com.ecoride.repository.RecordCodec;
+import com.ecoride.service.CarRentalSystem;
+import com.ecoride.service.RateLimitedRentalSystem;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Non-interactive command runner for scripts and nightly jobs. Reads one command per line, runs it against
+ * {@link CarRentalSystem} and writes one plain result line with its timing; output is buffered and only
+ * flushed at the end. A booking can be bound to a variable ({@code $b = book ...}) and referred to later.
+ *
+ * <pre>
+ *   seed
+ *   customer local NIC1 "Alice Perera" 0771234567 alice@ex.com
+ *   $b = book NIC1 HYBRID 2026-07-10 3 250      (category, or a vehicle ID such as C-002)
+ *   update $b start=2026-07-11 days=4 km=300
+ *   pickup $b | cancel $b | complete $b
+ *   $h = hold NIC1 C-002 2026-07-10 3           (claim the car's dates for a few minutes; book converts it)
+ *   release $h
+ *   $w = wait NIC1 LUXURY_SUV 2026-07-10 3 250 (waitlist a category request; booked when a car frees up)
+ *   waitlist $w                               (booking ID once matched, else WAITING or EXPIRED)
+ *   quote HYBRID 2026-07-10 3
+ *   eod 2026-07-12 [plain|json|ansi] [dir]    (complete and invoice every active booking ending that day)
+ *   trace 0.25                                (change the trace sampling rate; needs --trace)
+ *   reconcile invoices.tsv payments.tsv        (match captured payments to invoices; both sorted by booking ID)
+ *   odometer C-002                             (km and rental days so far, committed, and booked service windows)
+ *   serviced C-002 battery-check               (service done: restart its counters and free its window)
+ *   search alice
+ *   fleet "electric, battery >= 50, free 2026-11-01..05"
+ *   import data.tsv | export data.tsv         (RecordCodec lines)
+ *   book ... key=order-123                    (book, update, cancel and complete accept an idempotency key)
+ * </pre>
+ */
+public class BatchRunner {
+
+    private final CarRentalSystem system;
+    private final PrintWriter out;
+    private final Map<String, String> vars = new HashMap<>();
+    private RateLimitedRentalSystem admission; // null: no admission control
+    private int ok, failed;
+
+    public BatchRunner(CarRentalSystem system, OutputStream out) {
+        this.system = system;
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16), false);
+    }
+
+    /** Send book, update and cancel through admission control; rejected commands fail like any other error. */
+    public void setAdmission(RateLimitedRentalSystem admission) { this.admission = admission; }
+
+    public int getOk() { return ok; }
+    public int getFailed() { return failed; }
+
+    /** Run every command from the reader, then print a summary. Returns the number of failed commands. */
+    public int run(Reader script) throws IOException {
+        BufferedReader in = script instanceof BufferedReader br ? br : new BufferedReader(script, 1 << 16);
+        long started = System.nanoTime();
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            String cmd = line.trim();
+            if (cmd.isEmpty() || cmd.startsWith("#")) continue;
+            long t0 = System.nanoTime();
+            try {
+                String result = execute(cmd);
+                ok++;
+                out.printf("OK   %-40s %s (%.3f ms)%n", abbreviate(cmd), result, (System.nanoTime() - t0) / 1e6);
+            } catch (RuntimeException | IOException ex) {
+                failed++;
+                out.printf("ERR  line %d: %s -> %s (%.3f ms)%n", lineNo, abbreviate(cmd), ex.getMessage(), (System.nanoTime() - t0) / 1e6);
+            }
+        }
+        double secs = (System.nanoTime() - started) / 1e9;
+        int total = ok + failed;
+        out.printf("DONE %d commands, %d ok, %d failed in %.3f s (%.0f commands/s)%n",
+                total, ok, failed, secs, secs > 0 ? total / secs : 0);
+        out.flush();
+        return failed;
+    }
+
+    // ---- Commands ----
+
+    String execute(String cmd) throws IOException {
+        List<String> t = tokenize(cmd);
+        String bindTo = null;
+        if (t.size() > 2 && t.get(0).startsWith("$") && t.get(1).equals("=")) {
+            bindTo = t.get(0);
+            t = t.subList(2, t.size());
+        }
+        String verb = t.get(0).toLowerCase(Locale.ROOT);
+        List<String> a = resolve(t.subList(1, t.size()));
+        // a trailing key=<k> makes book/update/cancel/complete idempotent across script re-runs
+        String key = null;
+        if (!a.isEmpty() && a.get(a.size() - 1).startsWith("key=")) {
+            key = a.get(a.size() - 1).substring(4);
+            a = a.subList(0, a.size() - 1);
+        }
+        String result = switch (verb) {
+            case "seed" -> { system.seedVehicles(); yield system.listVehicles().size() + " vehicles"; }
+            case "customer" -> addCustomer(a);
+            case "book" -> book(a, key);
+            case "update" -> update(a, key);
+            case "hold" -> {
+                need(a, 4, "hold <customer> <vehicle> <start> <days>");
+                yield system.placeHold(a.get(0), a.get(1), LocalDate.parse(a.get(2)), Integer.parseInt(a.get(3))).holdId();
+            }
+            case "release" -> { need(a, 1, "release <hold>"); yield system.releaseHold(a.get(0)) ? a.get(0) : "already gone"; }
+            case "wait" -> {
+                need(a, 5, "wait <customer> <category> <start> <days> <km>");
+                yield system.joinWaitlist(a.get(0), Category.valueOf(a.get(1).toUpperCase(Locale.ROOT)), LocalDate.parse(a.get(2)),
+                        Integer.parseInt(a.get(3)), Integer.parseInt(a.get(4))).entryId();
+            }
+            case "waitlist" -> {
+                need(a, 1, "waitlist <entry>");
+                yield system.getWaitlist().fulfilledBooking(a.get(0))
+                        .orElse(system.getWaitlist().find(a.get(0)).isPresent() ? "WAITING" : "EXPIRED");
+            }
+            case "pickup" -> { need(a, 1, "pickup <booking>"); system.recordPickup(a.get(0)); yield a.get(0); }
+            case "cancel" -> {
+                need(a, 1, "cancel <booking>");
+                if (admission != null) admission.cancelBooking(a.get(0), key);
+                else system.cancelBooking(a.get(0), key);
+                yield a.get(0);
+            }
+            case "complete" -> {
+                need(a, 1, "complete <booking>");
+                Invoice inv = system.completeAndInvoice(a.get(0), key);
+                yield inv.getInvoiceId() + " payable " + inv.getFinalPayable().toPlainString();
+            }
+            case "quote" -> {
+                need(a, 3, "quote <category> <start> <days>");
+                yield system.quote(Category.valueOf(a.get(0).toUpperCase(Locale.ROOT)), LocalDate.parse(a.get(1)),
+                        Integer.parseInt(a.get(2))).toPlainString();
+            }
+            case "fleet" -> {
+                need(a, 1, "fleet <query>");
+                yield system.searchFleet(FleetQuery.parse(String.join(" ", a))).stream()
+                        .map(Vehicle::getVehicleId).collect(Collectors.joining(" ", "[", "]"));
+            }
+            case "search" -> { need(a, 1, "search <text>"); yield system.searchBookingsByNameOrId(a.get(0)).size() + " bookings"; }
+            case "eod" -> { need(a, 1, "eod <date> [plain|json|ansi] [dir]"); yield endOfDay(a); }
+            case "trace" -> {
+                need(a, 1, "trace <sample-rate>");
+                if (!system.getTracer().isEnabled()) throw new IllegalStateException("Tracing is off; start with --trace <file>");
+                system.getTracer().setSampleRate(Double.parseDouble(a.get(0)));
+                yield "sampling " + a.get(0);
+            }
+            case "odometer" -> { need(a, 1, "odometer <vehicle>"); yield odometer(a.get(0)); }
+            case "serviced" -> { need(a, 2, "serviced <vehicle> <interval>"); system.recordService(a.get(0), a.get(1)); yield a.get(0) + " " + a.get(1); }
+            case "reconcile" -> { need(a, 2, "reconcile <invoices> <payments>"); yield reconcile(Path.of(a.get(0)), Path.of(a.get(1))); }
+            case "import" -> { need(a, 1, "import <file>"); yield importFile(Path.of(a.get(0))); }
+            case "export" -> { need(a, 1, "export <file>"); yield exportFile(Path.of(a.get(0))); }
+            default -> throw new IllegalArgumentException("Unknown command: " + verb);
+        };
+        if (bindTo != null) {
+            if (!verb.equals("book") && !verb.equals("wait") && !verb.equals("hold")) {
+                throw new IllegalArgumentException("Only book, hold and wait results can be bound to a variable");
+            }
+            vars.put(bindTo, result);
+            return bindTo + "=" + result;
+        }
+        return result;
+    }
+
+    private String addCustomer(List<String> a) {
+        need(a, 1, "customer local|foreign ...");
+        Customer c = switch (a.get(0).toLowerCase(Locale.ROOT)) {
+            case "local" -> { need(a, 5, "customer local <nic> <name> <contact> <email>"); yield new LocalCustomer(a.get(1), a.get(2), a.get(3), a.get(4)); }
+            case "foreign" -> { need(a, 6, "customer foreign <passport> <nationality> <name> <contact> <email>"); yield new ForeignCustomer(a.get(1), a.get(2), a.get(3), a.get(4), a.get(5)); }
+            default -> throw new IllegalArgumentException("Customer type must be local or foreign");
+        };
+        system.addCustomer(c);
+        return c.getCustomerId();
+    }
+
+    private String book(List<String> a, String key) {
+        need(a, 5, "book <customer> <category|vehicle> <start> <days> <km>");
+        LocalDate start = LocalDate.parse(a.get(2));
+        int days = Integer.parseInt(a.get(3));
+        int km = Integer.parseInt(a.get(4));
+        Category category = categoryOrNull(a.get(1));
+        Booking b;
+        if (admission != null) {
+            b = category != null ? admission.bookByCategory(a.get(0), category, start, days, km, key)
+                    : admission.bookSpecific(a.get(0), a.get(1), start, days, km, key);
+        } else {
+            b = category != null ? system.bookByCategory(a.get(0), category, start, days, km, key)
+                    : system.bookSpecific(a.get(0), a.get(1), start, days, km, key);
+        }
+        return b.getBookingId();
+    }
+
+    private String update(List<String> a, String key) {
+        need(a, 2, "update <booking> [start=YYYY-MM-DD] [days=N] [km=N]");
+        LocalDate start = null;
+        Integer days = null, km = null;
+        for (String opt : a.subList(1, a.size())) {
+            int eq = opt.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value but got " + opt);
+            String value = opt.substring(eq + 1);
+            switch (opt.substring(0, eq)) {
+                case "start" -> start = LocalDate.parse(value);
+                case "days" -> days = Integer.parseInt(value);
+                case "km" -> km = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown update field: " + opt);
+            }
+        }
+        Booking b = admission != null ? admission.updateBooking(a.get(0), start, days, km, key)
+                : system.updateBooking(a.get(0), start, days, km, key);
+        return b.getBookingId() + " " + b.getStartDate() + ".." + b.getEndDate();
+    }
+
+    private String endOfDay(List<String> a) throws IOException {
+        RenderTarget target = a.size() > 1 ? RenderTarget.valueOf(a.get(1).toUpperCase(Locale.ROOT)) : RenderTarget.PLAIN;
+        Path dir = Path.of(a.size() > 2 ? a.get(2) : "invoices");
+        EndOfDayInvoicingJob.Report report = new EndOfDayInvoicingJob(system, dir, target,
+                Runtime.getRuntime().availableProcessors()).runForEndDate(LocalDate.parse(a.get(0)));
+        for (EndOfDayInvoicingJob.Item failed : report.failed()) {
+            out.printf("     failed %s: %s%n", failed.bookingId(), failed.error());
+        }
+        return report.completed().size() + " invoiced, " + report.failed().size() + " failed";
+    }
+
+    private String odometer(String vehicleId) {
+        MaintenanceScheduler m = system.getMaintenance().orElseThrow(() -> new IllegalStateException("Service tracking is off."));
+        MaintenanceScheduler.Odometer o = m.odometer(vehicleId);
+        String windows = m.windows(vehicleId).stream().map(w -> w.interval() + " " + w.start() + ".." + w.end())
+                .collect(Collectors.joining(", "));
+        return String.format("%s km=%d days=%d committed=%dkm/%dd service=[%s]",
+                vehicleId, o.totalKm(), o.rentalDays(), o.committedKm(), o.committedDays(), windows);
+    }
+
+    /** Discrepancies are listed as they are found; the summary is the result line. */
+    private String reconcile(Path invoices, Path payments) throws IOException {
+        ReconciliationJob.Summary summary = new ReconciliationJob(d -> out.println("     " + d)).run(invoices, payments);
+        return summary.toString();
+    }
+
+    /** Vehicles and customers first, so bookings later in the file resolve. */
+    private String importFile(Path file) throws IOException {
+        int vehicles = 0, customers = 0, bookings = 0;
+        List<String> bookingLines = new ArrayList<>();
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                switch (line.substring(0, line.indexOf('\t'))) {
+                    case RecordCodec.VEHICLE -> { system.addVehicle(RecordCodec.decodeVehicle(line)); vehicles++; }
+                    case RecordCodec.CUSTOMER -> { system.addCustomer(RecordCodec.decodeCustomer(line)); customers++; }
+                    case RecordCodec.BOOKING -> bookingLines.add(line);
+                    default -> throw new IllegalArgumentException("Unknown record in " + file + ": " + line);
+                }
+            }
+        }
+        for (String line : bookingLines) {
+            system.importBooking(RecordCodec.decodeBooking(line,
+                    id -> system.findCustomer(id).orElse(null), id -> system.findVehicle(id).orElse(null)));
+            bookings++;
+        }
+        return vehicles + " vehicles, " + customers + " customers, " + bookings + " bookings";
+    }
+
+    private String exportFile(Path file) throws IOException {
+        int n = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Vehicle v : system.listVehicles()) { w.write(RecordCodec.encode(v)); w.write('\n'); n++; }
+            for (Customer c : system.listCustomers()) { w.write(RecordCodec.encode(c)); w.write('\n'); n++; }
+            for (Booking b : system.listBookings()) { w.write(RecordCodec.encode(b)); w.write('\n'); n++; }
+        }
+        return n + " records";
+    }
+
+    // ---- Parsing helpers ----
+
+    /** Whitespace-separated tokens; double quotes group words. */
+    static List<String> tokenize(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false, any = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') { quoted = !quoted; any = true; }
+            else if (Character.isWhitespace(ch) && !quoted) {
+                if (any) { out.add(cur.toString()); cur.setLength(0); any = false; }
+            } else { cur.append(ch); any = true; }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quote");
+        if (any) out.add(cur.toString());
+        return out;
+    }
+
+    private List<String> resolve(List<String> args) {
+        List<String> out = new ArrayList<>(args.size());
+        for (String s : args) {
+            if (s.startsWith("$")) {
+                String v = vars.get(s);
+                if (v == null) throw new IllegalArgumentException("Unbound variable " + s);
+                out.add(v);
+            } else {
+                out.add(s);
+            }
+        }
+        return out;
+    }
+
+    private static Category categoryOrNull(String s) {
+        for (Category c : Category.values()) if (c.name().equalsIgnoreCase(s)) return c;
+        return null;
+    }
+
+    private static void need(List<String> a, int n, String usage) {
+        if (a.size() < n) throw new IllegalArgumentException("Usage: " + usage);
+    }
+
+    private static String abbreviate(String cmd) { return cmd.length() <= 40 ? cmd : cmd.substring(0, 37) + "..."; }
+}
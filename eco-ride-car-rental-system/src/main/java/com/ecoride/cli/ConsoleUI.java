@@ -1,18 +1,28 @@
 package com.ecoride.cli;
 
 import com.ecoride.domain.*;
+import com.ecoride.fleet.FleetQuery;
+import com.ecoride.fleet.SlotSuggester;
+import com.ecoride.service.BookingConflictException;
+import com.ecoride.service.BookingPolicy;
 import com.ecoride.service.CarRentalSystem;
+import com.ecoride.service.RateLimitedRentalSystem;
+import com.ecoride.service.ReservationHolds;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class ConsoleUI {
 
     private final CarRentalSystem system;
+    private RateLimitedRentalSystem admission; // null: no admission control
 
     // ============================================================
     // COLOR & ICON CONSTANTS (Theme A - Eco Green)
@@ -42,6 +52,9 @@ public class ConsoleUI {
         this.system = system;
     }
 
+    /** Send bookings, updates and cancellations through admission control. */
+    public void setAdmission(RateLimitedRentalSystem admission) { this.admission = admission; }
+
     // ============================================================
     // SMALL UI HELPERS
     // ============================================================
@@ -160,6 +173,7 @@ public class ConsoleUI {
                     case "7" -> viewBookingsByDate(sc);
                     case "8" -> completeAndInvoice(sc);
                     case "9" -> listVehicles();
+                    case "10" -> searchFleet(sc);
                     case "0" -> {
                         System.out.println(GREY + "Thank you for using EcoRide. Goodbye!" + RESET);
                         return;
@@ -220,6 +234,8 @@ public class ConsoleUI {
 
         System.out.println(NAVY_BLUE + "9)" + RESET + " " + ICON_CAR     + " List vehicles");
 
+        System.out.println(NAVY_BLUE + "10)" + RESET + " 🔍 Search fleet (category, attributes, free dates)");
+
         System.out.println(NAVY_BLUE + "0)" + RESET + " Exit");
 
         System.out.println(GREY + "(Tip: Enter '#' anytime to return to main menu)" + RESET);
@@ -546,38 +562,97 @@ public class ConsoleUI {
         System.out.print("Number of days: ");
         int days = Integer.parseInt(readInput(sc));
 
-        System.out.print("Estimated kilometers: ");
-        int km = Integer.parseInt(readInput(sc));
-
         if (mode.equals("1")) {
             Category cat = askCategory(sc);
-            Booking b = system.bookByCategory(cid, cat, start, days, km);
-            printSuccess("Booked! Booking ID: " + b.getBookingId());
-            System.out.println(GREY + "Vehicle: " + b.getVehicle().getVehicleId() + " (" + b.getVehicle().getModel() + ")" + RESET);
-            System.out.println(GREY + "Start: " + b.getStartDate() + " | End: " + b.getEndDate() + RESET);
-            System.out.println(GREEN + "Deposit charged: LKR 5000" + RESET);
+            System.out.print("Estimated kilometers: ");
+            int km = Integer.parseInt(readInput(sc));
+            if (system.listFreeByCategory(cat, start, start.plusDays(days - 1L)).isEmpty()) {
+                printWarn("No available vehicle in " + cat + " for those dates.");
+                System.out.print("Join the waitlist? (y/n): ");
+                if (readInput(sc).trim().equalsIgnoreCase("y")) {
+                    printSuccess("Waitlisted as " + system.joinWaitlist(cid, cat, start, days, km).entryId()
+                            + " — it will be booked automatically if a car frees up.");
+                }
+                return;
+            }
+            printBooked(admission != null ? admission.bookByCategory(cid, cat, start, days, km, null)
+                    : system.bookByCategory(cid, cat, start, days, km));
             return;
         }
 
-        // Book by specific vehicle
-        printSectionTitle("Available vehicles");
-        List<Vehicle> available = system.listVehicles().stream()
-                .filter(v -> v.getAvailabilityStatus() == AvailabilityStatus.AVAILABLE)
-                .sorted(Comparator.comparing(Vehicle::getVehicleId))
+        // Book by specific vehicle: anything not in maintenance is listed, free ones first
+        printSectionTitle("Vehicles");
+        Set<String> free = system.searchFleet(FleetQuery.all().freeBetween(start, start.plusDays(days - 1L))).stream()
+                .map(Vehicle::getVehicleId).collect(Collectors.toSet());
+        List<Vehicle> vehicles = system.listVehicles().stream()
+                .filter(v -> v.getAvailabilityStatus() != AvailabilityStatus.UNDER_MAINTENANCE)
+                .sorted(Comparator.comparing((Vehicle v) -> !free.contains(v.getVehicleId())).thenComparing(Vehicle::getVehicleId))
                 .toList();
 
-        if (available.isEmpty()) {
-            printWarn("No available vehicles at the moment.");
+        if (vehicles.isEmpty()) {
+            printWarn("No vehicles at the moment.");
             return;
         }
 
-        printVehicleTable(available);
+        printVehicleTable(vehicles);
 
+        // hold the car as soon as it is picked, so another desk cannot take it while km are entered
         String vid = askValidVehicleId(sc);
-        Booking b = system.bookSpecific(cid, vid, start, days, km);
+        ReservationHolds.Hold hold;
+        try {
+            hold = system.placeHold(cid, vid, start, days);
+        } catch (BookingConflictException ex) {
+            printWarn(ex.getMessage());
+            SlotSuggester.Slot pick = chooseSuggestion(sc, ex.getSuggestions());
+            if (pick == null) {
+                printWarn("Booking cancelled by user.");
+                return;
+            }
+            hold = system.placeHold(cid, pick.vehicleId(), pick.start(), days);
+        }
+        System.out.println(GREY + "Holding " + hold.vehicleId() + " " + hold.start() + " → " + hold.end()
+                + " for " + BookingPolicy.HOLD_TTL.toMinutes() + " minutes." + RESET);
+
+        try {
+            System.out.print("Estimated kilometers: ");
+            int km = Integer.parseInt(readInput(sc));
+            printBooked(admission != null ? admission.bookSpecific(cid, hold.vehicleId(), hold.start(), days, km, null)
+                    : system.bookSpecific(cid, hold.vehicleId(), hold.start(), days, km));
+        } finally {
+            system.releaseHold(hold.holdId()); // no-op once the booking consumed it
+        }
+    }
 
-        printSuccess("Booking complete! ID: " + b.getBookingId());
-        System.out.println(GREEN + "Deposit charged: LKR 5000" + RESET);
+    private void printBooked(Booking b) {
+        printSuccess("Booked! Booking ID: " + b.getBookingId());
+        System.out.println(GREY + "Vehicle: " + b.getVehicle().getVehicleId() + " (" + b.getVehicle().getModel() + ")" + RESET);
+        System.out.println(GREY + "Start: " + b.getStartDate() + " | End: " + b.getEndDate() + RESET);
+        System.out.println(GREEN + "Deposit charged: LKR " + b.getDeposit().toPlainString() + RESET);
+    }
+
+    /** List the conflict's alternatives as numbered options; null when there are none or the user declines. */
+    private SlotSuggester.Slot chooseSuggestion(Scanner sc, SlotSuggester.Suggestions s) {
+        if (s.isEmpty()) {
+            printWarn("No free window nearby.");
+            return null;
+        }
+        List<SlotSuggester.Slot> options = new ArrayList<>(s.sameVehicle());
+        options.addAll(s.alternatives());
+        printSectionTitle("Nearest options");
+        for (int i = 0; i < options.size(); i++) {
+            SlotSuggester.Slot o = options.get(i);
+            String label = i < s.sameVehicle().size() ? "same vehicle" : "alternative";
+            System.out.printf("  %d) %s  %s → %s  (%s)%n", i + 1, o.vehicleId(), o.start(), o.end(), label);
+        }
+        if (!s.complete()) System.out.println(GREY + "(search stopped early; more options may exist)" + RESET);
+        System.out.print("Choose an option (blank to cancel): ");
+        String in = readInput(sc);
+        try {
+            int n = Integer.parseInt(in.trim());
+            return n >= 1 && n <= options.size() ? options.get(n - 1) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     // ============================================================
@@ -618,12 +693,23 @@ public class ConsoleUI {
         System.out.print("New total km (blank = no change): ");
         String dk = readInput(sc);
 
-        Booking b = system.updateBooking(
-                id,
-                newStart,
-                dd.isBlank() ? null : Integer.parseInt(dd),
-                dk.isBlank() ? null : Integer.parseInt(dk)
-        );
+        Integer newDays = dd.isBlank() ? null : Integer.parseInt(dd);
+        Integer newKm = dk.isBlank() ? null : Integer.parseInt(dk);
+        Booking b;
+        try {
+            b = admission != null ? admission.updateBooking(id, newStart, newDays, newKm, null)
+                    : system.updateBooking(id, newStart, newDays, newKm);
+        } catch (BookingConflictException ex) {
+            printWarn(ex.getMessage());
+            SlotSuggester.Suggestions same = new SlotSuggester.Suggestions(ex.getSuggestions().sameVehicle(), List.of(), true);
+            SlotSuggester.Slot pick = chooseSuggestion(sc, same);
+            if (pick == null) {
+                printWarn("Booking left unchanged.");
+                return;
+            }
+            b = admission != null ? admission.updateBooking(id, pick.start(), newDays, newKm, null)
+                    : system.updateBooking(id, pick.start(), newDays, newKm);
+        }
 
         printSuccess("Booking updated: " + b.getBookingId());
     }
@@ -635,7 +721,8 @@ public class ConsoleUI {
         printHeader("CANCEL BOOKING", ICON_BOOKING);
 
         String id = askValidBookingId(sc);
-        system.cancelBooking(id);
+        if (admission != null) admission.cancelBooking(id, null);
+        else system.cancelBooking(id);
 
         printSuccess("Booking successfully cancelled.");
     }
@@ -709,6 +796,33 @@ public class ConsoleUI {
         printVehicleTable(vehicles);
     }
 
+    // ============================================================
+    // FLEET SEARCH
+    // ============================================================
+    private void searchFleet(Scanner sc) {
+        printHeader("SEARCH FLEET", "🔍");
+        System.out.println(GREY + "Example: electric, battery >= 50, free 2026-11-01..05" + RESET);
+        System.out.println(GREY + "Attributes: battery, charging, efficiency, engine, driver" + RESET);
+        System.out.print("Query: ");
+        String text = readInput(sc);
+
+        FleetQuery query;
+        try {
+            query = FleetQuery.parse(text);
+        } catch (RuntimeException e) {
+            printError("Invalid query: " + e.getMessage());
+            return;
+        }
+        System.out.println(GREY + "Plan: " + system.explainFleetQuery(query) + RESET);
+
+        List<Vehicle> vehicles = system.searchFleet(query);
+        if (vehicles.isEmpty()) {
+            printWarn("No vehicles match.");
+        } else {
+            printVehicleTable(vehicles);
+        }
+    }
+
     // ============================================================
     // TABLE HELPERS
     // ============================================================
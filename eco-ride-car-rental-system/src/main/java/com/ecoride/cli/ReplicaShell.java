@@ -0,0 +1,59 @@
+package com.ecoride.cli;
+
+import com.ecoride.domain.*;
+import com.ecoride.replication.ReplicaNode;
+import com.ecoride.service.CarRentalSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/** Plain read-only prompt for a replica node: searches and reports run against replicated state. */
+public class ReplicaShell {
+
+    private final ReplicaNode replica;
+    private final CarRentalSystem system;
+    private final PrintStream out = System.out;
+
+    public ReplicaShell(ReplicaNode replica, CarRentalSystem system) {
+        this.replica = replica;
+        this.system = system;
+    }
+
+    public void start() throws IOException {
+        out.println("EcoRide read replica. Commands: vehicles | search <text> | date <YYYY-MM-DD> | lag | exit");
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        out.print("replica> ");
+        while ((line = in.readLine()) != null) {
+            String cmd = line.trim();
+            try {
+                if (cmd.equals("exit")) return;
+                else if (cmd.equals("vehicles")) {
+                    List<Vehicle> vs = system.listVehicles();
+                    vs.sort(Comparator.comparing(Vehicle::getVehicleId));
+                    vs.forEach(out::println);
+                } else if (cmd.startsWith("search ")) {
+                    system.searchBookingsByNameOrId(cmd.substring(7).trim()).forEach(out::println);
+                } else if (cmd.startsWith("date ")) {
+                    system.viewBookingsByDate(LocalDate.parse(cmd.substring(5).trim())).forEach(out::println);
+                } else if (cmd.equals("lag")) {
+                    out.println("applied seq=" + replica.getAppliedSequence()
+                            + " entries=" + replica.getEntriesApplied()
+                            + " snapshots=" + replica.getSnapshotsLoaded()
+                            + " pendingBytes=" + replica.getPendingBytes()
+                            + " lagMs=" + replica.getLagMillis());
+                } else if (!cmd.isEmpty()) {
+                    out.println("Unknown command: " + cmd);
+                }
+            } catch (RuntimeException ex) {
+                out.println("Error: " + ex.getMessage());
+            }
+            out.print("replica> ");
+        }
+    }
+}
@@ -3,16 +3,24 @@ package com.ecoride.domain;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
 
+/**
+ * A rental booking. Kept compact because there can be millions in memory: dates are epoch days, the
+ * booking time is whole epoch seconds and the deposit and quoted base price are in cents. The getters
+ * rebuild the usual {@code LocalDate}/{@code BigDecimal} values on demand.
+ */
 public class Booking {
-    private String bookingId;
-    private LocalDateTime bookingDate;
-    private LocalDate startDate;
-    private LocalDate endDate;
+    private final String bookingId;
+    private final long bookedAtEpochSecond;
+    private int startDay;
+    private int endDay;
     private int totalKm;
-    private BigDecimal deposit;
+    private final long depositCents;
+    /** Base price quoted when the dates were booked, surge included; -1 when priced from the rate card in force. */
+    private long quotedBaseCents = -1;
     private BookingStatus status;
+    private boolean pickedUp;
 
     private Customer customer;
     private Vehicle vehicle;
@@ -20,33 +28,39 @@ public class Booking {
     public Booking(String bookingId, LocalDateTime bookingDate, LocalDate startDate, LocalDate endDate, int totalKm,
                    BigDecimal deposit, BookingStatus status, Customer customer, Vehicle vehicle) {
         this.bookingId = bookingId;
-        this.bookingDate = bookingDate;
-        this.startDate = startDate;
-        this.endDate = endDate;
+        this.bookedAtEpochSecond = bookingDate.toEpochSecond(ZoneOffset.UTC);
+        this.startDay = (int) startDate.toEpochDay();
+        this.endDay = (int) endDate.toEpochDay();
         this.totalKm = totalKm;
-        this.deposit = deposit;
+        this.depositCents = toCents(deposit);
         this.status = status;
         this.customer = customer;
         this.vehicle = vehicle;
     }
 
     public String getBookingId() { return bookingId; }
-    public LocalDateTime getBookingDate() { return bookingDate; }
-    public LocalDate getStartDate() { return startDate; }
-    public LocalDate getEndDate() { return endDate; }
+    public LocalDateTime getBookingDate() { return LocalDateTime.ofEpochSecond(bookedAtEpochSecond, 0, ZoneOffset.UTC); }
+    public LocalDate getStartDate() { return LocalDate.ofEpochDay(startDay); }
+    public LocalDate getEndDate() { return LocalDate.ofEpochDay(endDay); }
+    public int getStartEpochDay() { return startDay; }
+    public int getEndEpochDay() { return endDay; }
     public int getTotalKm() { return totalKm; }
-    public BigDecimal getDeposit() { return deposit; }
+    public long getDepositCents() { return depositCents; }
+    public BigDecimal getDeposit() { return fromCents(depositCents); }
+    /** The base price quoted for the booked dates, or null if none was recorded. */
+    public BigDecimal getQuotedBase() { return quotedBaseCents < 0 ? null : fromCents(quotedBaseCents); }
     public BookingStatus getStatus() { return status; }
     public Customer getCustomer() { return customer; }
     public Vehicle getVehicle() { return vehicle; }
+    public boolean isPickedUp() { return pickedUp; }
 
     public void setTotalKm(int km) { this.totalKm = km; }
-    public void setStartDate(LocalDate d) { this.startDate = d; }
-    public void setEndDate(LocalDate d) { this.endDate = d; }
+    public void setStartDate(LocalDate d) { this.startDay = (int) d.toEpochDay(); }
+    public void setEndDate(LocalDate d) { this.endDay = (int) d.toEpochDay(); }
+    public void setQuotedBase(BigDecimal base) { this.quotedBaseCents = base == null ? -1 : toCents(base); }
 
     public int rentalDays() {
-        long d = ChronoUnit.DAYS.between(startDate, endDate) + 1; // inclusive
-        return (int)Math.max(1, d);
+        return Math.max(1, endDay - startDay + 1); // inclusive
     }
 
     public BigDecimal calculateBasePrice() {
@@ -76,7 +90,7 @@ public class Booking {
 
     public BigDecimal calculateFinalAmount() {
         BigDecimal subtotal = calculateBasePrice().subtract(calculateDiscount()).add(calculateExtraKmCharge()).add(calculateTax());
-        BigDecimal finalPayable = subtotal.subtract(deposit);
+        BigDecimal finalPayable = subtotal.subtract(getDeposit());
         return finalPayable.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO : finalPayable;
     }
 
@@ -84,6 +98,10 @@ public class Booking {
         this.status = BookingStatus.ACTIVE;
     }
 
+    public void markPickedUp() {
+        this.pickedUp = true;
+    }
+
     public void complete() {
         this.status = BookingStatus.COMPLETED;
     }
@@ -93,6 +111,21 @@ public class Booking {
     }
 
     @Override public String toString() {
-        return bookingId + " | " + startDate + " to " + endDate + " | " + vehicle.getVehicleId() + " | " + customer.getCustomerId() + " | " + status;
+        return bookingId + " | " + getStartDate() + " to " + getEndDate() + " | " + vehicle.getVehicleId() + " | " + customer.getCustomerId() + " | " + status;
+    }
+
+    // ---- Money in cents ----
+
+    private static long toCents(BigDecimal amount) {
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must be a whole number of cents: " + amount);
+        }
+    }
+
+    /** Whole amounts come back at scale 0, so they print and compare like the values that were stored. */
+    public static BigDecimal fromCents(long cents) {
+        return cents % 100 == 0 ? BigDecimal.valueOf(cents / 100) : BigDecimal.valueOf(cents, 2);
     }
 }
@@ -0,0 +1,14 @@
+package com.ecoride.domain;
+
+import java.math.BigDecimal;
+
+/** The priced lines of a booking, as they appear on its invoice. */
+public record Charges(BigDecimal basePrice, BigDecimal extraKmCharge, BigDecimal discount, BigDecimal tax,
+                      BigDecimal depositDeducted, BigDecimal finalPayable) {
+
+    /** Charges from the built-in category rates, as {@link Booking}'s own calculations give them. */
+    public static Charges of(Booking b) {
+        return new Charges(b.calculateBasePrice(), b.calculateExtraKmCharge(), b.calculateDiscount(),
+                b.calculateTax(), b.getDeposit(), b.calculateFinalAmount());
+    }
+}
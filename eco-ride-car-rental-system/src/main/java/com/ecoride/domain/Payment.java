@@ -4,19 +4,32 @@ import java.math.BigDecimal;
 
 public class Payment {
 
+    /** What a payment was taken for. */
+    public enum Purpose { DEPOSIT, SETTLEMENT }
+
     private String paymentId;
+    private String bookingId;
+    private Purpose purpose;
     private BigDecimal amount;
     private String method;
     private String status;
 
     public Payment(String id, BigDecimal amount, String method, String status) {
+        this(id, null, null, amount, method, status);
+    }
+
+    public Payment(String id, String bookingId, Purpose purpose, BigDecimal amount, String method, String status) {
         this.paymentId = id;
+        this.bookingId = bookingId;
+        this.purpose = purpose;
         this.amount = amount;
         this.method = method;
         this.status = status;
     }
 
     public String getPaymentId() { return paymentId; }
+    public String getBookingId() { return bookingId; }
+    public Purpose getPurpose() { return purpose; }
     public BigDecimal getAmount() { return amount; }
     public String getMethod() { return method; }
     public String getStatus() { return status; }
@@ -25,6 +38,8 @@ public class Payment {
     public String toString() {
         return "Payment {" +
                 "id='" + paymentId + '\'' +
+                ", booking='" + bookingId + '\'' +
+                ", purpose=" + purpose +
                 ", amount=" + amount +
                 ", method='" + method + '\'' +
                 ", status='" + status + '\'' +
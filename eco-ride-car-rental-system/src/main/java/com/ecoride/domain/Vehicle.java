@@ -4,24 +4,23 @@ import java.util.Objects;
 
 public abstract class Vehicle {
     protected String vehicleId;
-    protected String model;
-    protected Category category;
+    protected VehicleModel spec; // interned model name + category
     protected AvailabilityStatus availabilityStatus;
 
     protected Vehicle(String vehicleId, String model, Category category, AvailabilityStatus status) {
         this.vehicleId = vehicleId;
-        this.model = model;
-        this.category = category;
+        this.spec = VehicleModel.of(model, category);
         this.availabilityStatus = status;
     }
 
     public String getVehicleId() { return vehicleId; }
-    public String getModel() { return model; }
-    public Category getCategory() { return category; }
+    public String getModel() { return spec.getName(); }
+    public Category getCategory() { return spec.getCategory(); }
+    public VehicleModel getSpec() { return spec; }
     public AvailabilityStatus getAvailabilityStatus() { return availabilityStatus; }
 
-    public void setModel(String model) { this.model = model; }
-    public void setCategory(Category category) { this.category = category; }
+    public void setModel(String model) { this.spec = VehicleModel.of(model, spec.getCategory()); }
+    public void setCategory(Category category) { this.spec = VehicleModel.of(spec.getName(), category); }
     public void setAvailabilityStatus(AvailabilityStatus status) { this.availabilityStatus = status; }
 
     public boolean checkAvailability() { return availabilityStatus == AvailabilityStatus.AVAILABLE; }
@@ -29,7 +28,7 @@ public abstract class Vehicle {
     public void markAvailable() { this.availabilityStatus = AvailabilityStatus.AVAILABLE; }
 
     @Override public String toString() {
-        return vehicleId + " | " + model + " | " + category + " | " + availabilityStatus;
+        return vehicleId + " | " + spec.getName() + " | " + spec.getCategory() + " | " + availabilityStatus;
     }
 
     @Override public boolean equals(Object o) {
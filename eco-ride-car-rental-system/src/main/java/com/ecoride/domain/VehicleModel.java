@@ -0,0 +1,30 @@
+package com.ecoride.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flyweight for the model name and category every car of that model shares. Instances are interned, so a
+ * fleet of a thousand "Toyota Axio"s holds one name string and one reference each.
+ */
+public final class VehicleModel {
+
+    private static final Map<String, VehicleModel> POOL = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Category category;
+
+    private VehicleModel(String name, Category category) {
+        this.name = name;
+        this.category = category;
+    }
+
+    public static VehicleModel of(String name, Category category) {
+        return POOL.computeIfAbsent(category.ordinal() + "|" + name, k -> new VehicleModel(name, category));
+    }
+
+    public String getName() { return name; }
+    public Category getCategory() { return category; }
+
+    @Override public String toString() { return name + " (" + category + ")"; }
+}
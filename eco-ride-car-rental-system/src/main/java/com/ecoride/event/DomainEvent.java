@@ -0,0 +1,66 @@
+package com.ecoride.event;
+
+import com.ecoride.domain.AvailabilityStatus;
+import com.ecoride.domain.Booking;
+import com.ecoride.domain.Category;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A ring-buffer slot. Instances are pre-allocated by {@link EventBus} and overwritten in place on every
+ * publish, so handlers must copy anything they want to keep beyond {@code onEvent}.
+ * Fields that do not apply to an event type are null (or {@link Long#MIN_VALUE} for dates).
+ */
+public final class DomainEvent {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    EventType type;
+    long timestampMillis;
+    String bookingId;
+    String customerId;
+    String vehicleId;
+    String invoiceId;
+    Category category;
+    AvailabilityStatus vehicleStatus;
+    AvailabilityStatus previousVehicleStatus;
+    BigDecimal amount;
+    long depositCents = NO_AMOUNT; // booking events carry the deposit unboxed, so publishing allocates nothing
+    long startEpochDay = NO_DATE;
+    long endEpochDay = NO_DATE;
+
+    DomainEvent() {}
+
+    void clear() {
+        type = null;
+        timestampMillis = 0;
+        bookingId = customerId = vehicleId = invoiceId = null;
+        category = null;
+        vehicleStatus = previousVehicleStatus = null;
+        amount = null;
+        depositCents = NO_AMOUNT;
+        startEpochDay = endEpochDay = NO_DATE;
+    }
+
+    public EventType getType() { return type; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public String getBookingId() { return bookingId; }
+    public String getCustomerId() { return customerId; }
+    public String getVehicleId() { return vehicleId; }
+    public String getInvoiceId() { return invoiceId; }
+    public Category getCategory() { return category; }
+    public AvailabilityStatus getVehicleStatus() { return vehicleStatus; }
+    public AvailabilityStatus getPreviousVehicleStatus() { return previousVehicleStatus; }
+    /** The invoice's final payable, or a booking's deposit (built on demand from {@link #getDepositCents()}). */
+    public BigDecimal getAmount() { return amount != null || depositCents == NO_AMOUNT ? amount : Booking.fromCents(depositCents); }
+    /** A booking event's deposit in cents, or 0 for other events. */
+    public long getDepositCents() { return depositCents == NO_AMOUNT ? 0 : depositCents; }
+    public LocalDate getStartDate() { return startEpochDay == NO_DATE ? null : LocalDate.ofEpochDay(startEpochDay); }
+    public LocalDate getEndDate() { return endEpochDay == NO_DATE ? null : LocalDate.ofEpochDay(endEpochDay); }
+
+    @Override public String toString() {
+        return type + " | " + (bookingId != null ? bookingId : vehicleId) + " @ " + timestampMillis;
+    }
+}
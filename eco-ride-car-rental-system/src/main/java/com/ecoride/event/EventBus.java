@@ -0,0 +1,232 @@
+package com.ecoride.event;
+
+import com.ecoride.domain.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process domain event bus over a pre-allocated ring buffer, in the style of the LMAX Disruptor.
+ *
+ * <p>Producers claim a sequence with one atomic increment, overwrite the slot in place and mark it
+ * available, so publishing allocates nothing. Each subscriber runs on its own thread, tracks its own
+ * sequence, and receives every event in publish order in batches of whatever is available. A producer
+ * only waits when it would lap the slowest subscriber.
+ *
+ * <p>Subscribe before {@link #start()}; anything published after {@link #halt()} is dropped, including
+ * by a producer already waiting for a slot. Subscribers whose thread has exited stop gating producers,
+ * so publishing never blocks on a bus that can no longer make progress.
+ */
+public class EventBus {
+
+    private final DomainEvent[] ring;
+    private final int mask;
+    private final int indexShift;
+    /** Per slot, the lap number of the sequence last published into it. */
+    private final AtomicIntegerArray available;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final WaitStrategy waitStrategy;
+
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private volatile Subscriber[] gating = new Subscriber[0];
+    private volatile boolean running;
+    private volatile boolean halted;
+
+    public EventBus(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.ring = new DomainEvent[bufferSize];
+        for (int i = 0; i < bufferSize; i++) ring[i] = new DomainEvent();
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.available = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) available.set(i, -1);
+        this.waitStrategy = waitStrategy;
+    }
+
+    public synchronized void subscribe(String name, EventHandler handler) {
+        if (running || halted) throw new IllegalStateException("Subscribe before the bus starts.");
+        subscribers.add(new Subscriber(name, handler));
+        gating = subscribers.toArray(new Subscriber[0]);
+    }
+
+    public synchronized void start() {
+        if (running || halted) return;
+        running = true;
+        for (Subscriber s : gating) s.thread.start();
+    }
+
+    /** Stop accepting events, let every subscriber drain what was already published, and join them. */
+    public synchronized void halt() {
+        if (halted) return;
+        halted = true;
+        running = false;
+        waitStrategy.signalAllWhenBlocking();
+        for (Subscriber s : gating) {
+            try {
+                s.thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public long getCursor() { return cursor.get(); }
+
+    public int getBufferSize() { return ring.length; }
+
+    // ---- Publishing (allocation-free) ----
+
+    public long publishBooking(EventType type, Booking b) {
+        if (halted) return -1;
+        long seq = claim();
+        if (seq < 0) return -1;
+        DomainEvent e = ring[(int) seq & mask];
+        e.clear();
+        e.type = type;
+        e.timestampMillis = System.currentTimeMillis();
+        e.bookingId = b.getBookingId();
+        e.customerId = b.getCustomer().getCustomerId();
+        e.vehicleId = b.getVehicle().getVehicleId();
+        e.category = b.getVehicle().getCategory();
+        e.startEpochDay = b.getStartEpochDay();
+        e.endEpochDay = b.getEndEpochDay();
+        e.depositCents = b.getDepositCents();
+        publish(seq);
+        return seq;
+    }
+
+    public long publishVehicleStatus(Vehicle v, AvailabilityStatus previous) {
+        if (halted) return -1;
+        long seq = claim();
+        if (seq < 0) return -1;
+        DomainEvent e = ring[(int) seq & mask];
+        e.clear();
+        e.type = EventType.VEHICLE_STATUS_CHANGED;
+        e.timestampMillis = System.currentTimeMillis();
+        e.vehicleId = v.getVehicleId();
+        e.category = v.getCategory();
+        e.vehicleStatus = v.getAvailabilityStatus();
+        e.previousVehicleStatus = previous;
+        publish(seq);
+        return seq;
+    }
+
+    public long publishInvoice(Invoice inv) {
+        if (halted) return -1;
+        Booking b = inv.getBooking();
+        long seq = claim();
+        if (seq < 0) return -1;
+        DomainEvent e = ring[(int) seq & mask];
+        e.clear();
+        e.type = EventType.INVOICE_ISSUED;
+        e.timestampMillis = System.currentTimeMillis();
+        e.invoiceId = inv.getInvoiceId();
+        e.bookingId = b.getBookingId();
+        e.customerId = b.getCustomer().getCustomerId();
+        e.vehicleId = b.getVehicle().getVehicleId();
+        e.category = b.getVehicle().getCategory();
+        e.amount = inv.getFinalPayable();
+        publish(seq);
+        return seq;
+    }
+
+    /**
+     * Claim the next sequence, waiting while the slowest live subscriber still owns its slot. A subscriber
+     * whose thread has exited no longer holds slots back, since waiting on it would hang the caller. Returns
+     * -1, leaving the sequence unpublished, if the bus halts while waiting.
+     */
+    private long claim() {
+        long seq = cursor.incrementAndGet();
+        long wrapPoint = seq - ring.length;
+        while (wrapPoint > minimumSubscriberSequence()) {
+            if (halted) return -1;
+            LockSupport.parkNanos(1_000); // back-pressure: the slowest subscriber still owns this slot
+        }
+        return seq;
+    }
+
+    private void publish(long seq) {
+        available.lazySet((int) seq & mask, (int) (seq >>> indexShift));
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * Lowest sequence among subscribers whose thread has not exited (one not started yet still counts);
+     * Long.MAX_VALUE when there are none.
+     */
+    private long minimumSubscriberSequence() {
+        long min = Long.MAX_VALUE;
+        for (Subscriber s : gating) {
+            if (s.thread.getState() != Thread.State.TERMINATED) min = Math.min(min, s.sequence.get());
+        }
+        return min;
+    }
+
+    private boolean isPublished(long seq) {
+        return available.get((int) seq & mask) == (int) (seq >>> indexShift);
+    }
+
+    /** Highest sequence in {@code [from, claimed]} such that every slot up to it is published. */
+    private long highestPublished(long from, long claimed) {
+        for (long s = from; s <= claimed; s++) {
+            if (!isPublished(s)) return s - 1;
+        }
+        return claimed;
+    }
+
+    private final class Subscriber implements Runnable {
+        private final String name;
+        private final EventHandler handler;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Thread thread;
+        private final LongSupplier published = cursor::get;
+        private final BooleanSupplier live = () -> running;
+
+        Subscriber(String name, EventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+            this.thread = new Thread(this, "event-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            while (true) {
+                long claimed;
+                try {
+                    claimed = waitStrategy.waitFor(next, published, live);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (claimed < next) {
+                    if (!running) return; // halted and fully drained
+                    continue;
+                }
+                long hi = highestPublished(next, claimed);
+                if (hi < next) {
+                    if (!running) return; // halted: a claim abandoned at halt is never filled
+                    Thread.onSpinWait(); // a producer has claimed but not yet filled the slot
+                    continue;
+                }
+                for (long s = next; s <= hi; s++) {
+                    try {
+                        handler.onEvent(ring[(int) s & mask], s, s == hi);
+                    } catch (Exception ex) {
+                        System.err.println("Event handler '" + name + "' failed at sequence " + s + ": " + ex.getMessage());
+                    }
+                }
+                sequence.set(hi);
+                next = hi + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecoride.event;
+
+/** Consumer of bus events; each subscriber runs on its own thread and sees every event in order. */
+@FunctionalInterface
+public interface EventHandler {
+    /**
+     * @param endOfBatch true for the last event currently available, a natural point to flush buffered work
+     */
+    void onEvent(DomainEvent event, long sequence, boolean endOfBatch) throws Exception;
+}
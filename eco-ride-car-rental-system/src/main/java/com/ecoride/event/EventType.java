@@ -0,0 +1,10 @@
+package com.ecoride.event;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_UPDATED,
+    BOOKING_CANCELLED,
+    BOOKING_COMPLETED,
+    INVOICE_ISSUED,
+    VEHICLE_STATUS_CHANGED
+}
@@ -0,0 +1,96 @@
+package com.ecoride.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/** How an idle consumer waits for the next sequence; trades latency against CPU burn. */
+public interface WaitStrategy {
+
+    /**
+     * Wait until {@code cursor} reaches {@code sequence}, or {@code running} turns false.
+     * Returns the cursor value last observed, which is below {@code sequence} only when halting.
+     */
+    long waitFor(long sequence, LongSupplier cursor, BooleanSupplier running) throws InterruptedException;
+
+    /** Called by producers after each publish; only blocking strategies need to do anything. */
+    default void signalAllWhenBlocking() {}
+
+    /** Lowest latency; burns a core per consumer. */
+    static WaitStrategy busySpin() {
+        return (sequence, cursor, running) -> {
+            long available;
+            while ((available = cursor.getAsLong()) < sequence && running.getAsBoolean()) Thread.onSpinWait();
+            return available;
+        };
+    }
+
+    /** Spins briefly, then yields the CPU between checks. */
+    static WaitStrategy yielding() {
+        return (sequence, cursor, running) -> {
+            long available;
+            int spins = 100;
+            while ((available = cursor.getAsLong()) < sequence && running.getAsBoolean()) {
+                if (spins > 0) { spins--; Thread.onSpinWait(); }
+                else Thread.yield();
+            }
+            return available;
+        };
+    }
+
+    /** Spins, yields, then parks for {@code sleepNanos}; a good default for background consumers. */
+    static WaitStrategy sleeping(long sleepNanos) {
+        return (sequence, cursor, running) -> {
+            long available;
+            int counter = 200;
+            while ((available = cursor.getAsLong()) < sequence && running.getAsBoolean()) {
+                if (counter > 100) { counter--; Thread.onSpinWait(); }
+                else if (counter > 0) { counter--; Thread.yield(); }
+                else LockSupport.parkNanos(sleepNanos);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+            return available;
+        };
+    }
+
+    /** Parks on a condition until a producer signals; lowest CPU use, highest wake-up latency. */
+    static WaitStrategy blocking() {
+        return new Blocking();
+    }
+
+    final class Blocking implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+
+        private Blocking() {}
+
+        @Override
+        public long waitFor(long sequence, LongSupplier cursor, BooleanSupplier running) throws InterruptedException {
+            long available = cursor.getAsLong();
+            if (available >= sequence) return available;
+            lock.lock();
+            try {
+                while ((available = cursor.getAsLong()) < sequence && running.getAsBoolean()) {
+                    // timed wait so a halt is noticed even without a final signal
+                    published.await(10, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecoride.fleet;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-vehicle timeline of blocked date ranges (inclusive epoch days). Each vehicle's blocks sit in a
+ * tree ordered by start day, and the timeline remembers its longest block, so an overlap check only
+ * looks at blocks starting between {@code from - longest} and {@code to}. Blocks are identified by
+ * owner (a booking, hold or service window ID), and putting a block for an existing owner moves it.
+ */
+public class AvailabilityCalendar {
+
+    /** BOOKING blocks belong to active bookings, HOLD blocks to short-lived desk holds, MAINTENANCE to service windows. */
+    public enum BlockKind { BOOKING, HOLD, MAINTENANCE }
+
+    public record Block(String ownerId, BlockKind kind, String vehicleId, int startDay, int endDay) {
+        public LocalDate start() { return LocalDate.ofEpochDay(startDay); }
+        public LocalDate end() { return LocalDate.ofEpochDay(endDay); }
+        boolean overlaps(int from, int to) { return startDay <= to && endDay >= from; }
+    }
+
+    /** A free stretch of days, inclusive. */
+    public record Gap(int startDay, int endDay) {
+        public LocalDate start() { return LocalDate.ofEpochDay(startDay); }
+        public LocalDate end() { return LocalDate.ofEpochDay(endDay); }
+        public int length() { return endDay - startDay + 1; }
+    }
+
+    private static final Comparator<Block> ORDER =
+            Comparator.comparingInt(Block::startDay).thenComparing(Block::ownerId);
+
+    /** One vehicle's blocks; all access synchronizes on the timeline. */
+    private static final class Timeline {
+        final TreeSet<Block> blocks = new TreeSet<>(ORDER);
+        int longest; // max(endDay - startDay), never shrinks; only widens the search window
+
+        List<Block> overlapping(int from, int to, String ignoreOwner) {
+            List<Block> out = new ArrayList<>(2);
+            Block upper = new Block("\uFFFF", BlockKind.BOOKING, null, to, to);
+            for (Block b : blocks.headSet(upper, true).descendingSet()) {
+                if (b.startDay() < from - longest) break;
+                if (b.overlaps(from, to) && !b.ownerId().equals(ignoreOwner)) out.add(b);
+            }
+            return out;
+        }
+
+        List<Gap> gaps(int from, int to, String ignoreOwner, Predicate<Block> skip) {
+            List<Gap> out = new ArrayList<>();
+            int cursor = from;
+            Block lower = new Block("", BlockKind.BOOKING, null, from - longest, from - longest);
+            for (Block b : blocks.tailSet(lower, true)) {
+                if (b.startDay() > to) break;
+                if (b.endDay() < cursor || b.ownerId().equals(ignoreOwner) || skip.test(b)) continue;
+                if (b.startDay() > cursor) out.add(new Gap(cursor, b.startDay() - 1));
+                cursor = Math.max(cursor, b.endDay() + 1);
+                if (cursor > to) return out;
+            }
+            out.add(new Gap(cursor, to));
+            return out;
+        }
+    }
+
+    private final Map<String, Timeline> byVehicle = new ConcurrentHashMap<>();
+    private final Map<String, Block> byOwner = new ConcurrentHashMap<>();
+
+    /** Block a vehicle for an owner, replacing that owner's previous block if it had one. */
+    public void put(String ownerId, BlockKind kind, String vehicleId, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) throw new IllegalArgumentException("Block ends before it starts");
+        Block block = new Block(ownerId, kind, vehicleId, (int) start.toEpochDay(), (int) end.toEpochDay());
+        remove(ownerId);
+        Timeline t = byVehicle.computeIfAbsent(vehicleId, k -> new Timeline());
+        synchronized (t) {
+            t.blocks.add(block);
+            t.longest = Math.max(t.longest, block.endDay() - block.startDay());
+        }
+        byOwner.put(ownerId, block);
+    }
+
+    public Optional<Block> remove(String ownerId) {
+        Block old = byOwner.remove(ownerId);
+        if (old == null) return Optional.empty();
+        Timeline t = byVehicle.get(old.vehicleId());
+        if (t != null) synchronized (t) { t.blocks.remove(old); }
+        return Optional.of(old);
+    }
+
+    public Optional<Block> find(String ownerId) { return Optional.ofNullable(byOwner.get(ownerId)); }
+
+    public boolean isFree(String vehicleId, LocalDate from, LocalDate to) { return conflicts(vehicleId, from, to, null).isEmpty(); }
+
+    /** Like {@link #isFree(String, LocalDate, LocalDate)}, but blocks matching {@code skip} (e.g. expired holds) do not count. */
+    public boolean isFree(String vehicleId, LocalDate from, LocalDate to, Predicate<Block> skip) {
+        for (Block b : conflicts(vehicleId, from, to, null)) if (!skip.test(b)) return false;
+        return true;
+    }
+
+    /** Blocks on the vehicle overlapping [from, to], ignoring the given owner's own block. */
+    public List<Block> conflicts(String vehicleId, LocalDate from, LocalDate to, String ignoreOwner) {
+        Timeline t = byVehicle.get(vehicleId);
+        if (t == null) return List.of();
+        synchronized (t) {
+            return t.overlapping((int) from.toEpochDay(), (int) to.toEpochDay(), ignoreOwner);
+        }
+    }
+
+    /** Free stretches of the vehicle's timeline within [from, to], in date order, treating the given owner's block as free. */
+    public List<Gap> gaps(String vehicleId, LocalDate from, LocalDate to, String ignoreOwner) {
+        return gaps(vehicleId, from, to, ignoreOwner, b -> false);
+    }
+
+    /** As above, also treating blocks that match {@code skip} (e.g. expired holds the wheel has not cleared yet) as free. */
+    public List<Gap> gaps(String vehicleId, LocalDate from, LocalDate to, String ignoreOwner, Predicate<Block> skip) {
+        int f = (int) from.toEpochDay(), t = (int) to.toEpochDay();
+        if (t < f) return List.of();
+        Timeline tl = byVehicle.get(vehicleId);
+        if (tl == null) return List.of(new Gap(f, t));
+        synchronized (tl) {
+            return tl.gaps(f, t, ignoreOwner, skip);
+        }
+    }
+
+    /** The vehicle's blocks in start order. */
+    public List<Block> blocks(String vehicleId) {
+        Timeline t = byVehicle.get(vehicleId);
+        if (t == null) return List.of();
+        synchronized (t) {
+            return new ArrayList<>(t.blocks);
+        }
+    }
+
+    public void removeVehicle(String vehicleId) {
+        Timeline t = byVehicle.remove(vehicleId);
+        if (t == null) return;
+        synchronized (t) {
+            for (Block b : t.blocks) byOwner.remove(b.ownerId(), b);
+        }
+    }
+}
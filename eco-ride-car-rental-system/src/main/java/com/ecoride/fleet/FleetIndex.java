@@ -0,0 +1,82 @@
+package com.ecoride.fleet;
+
+import com.ecoride.domain.*;
+
+import java.util.*;
+
+/**
+ * Secondary indexes over the fleet: vehicle IDs by category, and a sorted value-to-IDs map per
+ * {@link VehicleAttribute}. Re-putting a vehicle moves its entries, so it must be called after edits.
+ */
+public class FleetIndex {
+
+    private final Map<Category, Set<String>> byCategory = new EnumMap<>(Category.class);
+    private final Map<VehicleAttribute, TreeMap<Double, Set<String>>> ranges = new EnumMap<>(VehicleAttribute.class);
+    /** What each vehicle is currently indexed under, so updates can remove the old entries. */
+    private final Map<String, Category> indexedCategory = new HashMap<>();
+    private final Map<String, double[]> indexedValues = new HashMap<>();
+
+    public FleetIndex() {
+        for (Category c : Category.values()) byCategory.put(c, new HashSet<>());
+        for (VehicleAttribute a : VehicleAttribute.values()) ranges.put(a, new TreeMap<>());
+    }
+
+    public synchronized void put(Vehicle v) {
+        remove(v.getVehicleId());
+        String id = v.getVehicleId();
+        byCategory.get(v.getCategory()).add(id);
+        indexedCategory.put(id, v.getCategory());
+        VehicleAttribute[] attrs = VehicleAttribute.values();
+        double[] values = new double[attrs.length];
+        for (VehicleAttribute a : attrs) {
+            double value = a.valueOf(v);
+            values[a.ordinal()] = value;
+            if (!Double.isNaN(value)) ranges.get(a).computeIfAbsent(value, k -> new HashSet<>()).add(id);
+        }
+        indexedValues.put(id, values);
+    }
+
+    public synchronized void remove(String vehicleId) {
+        Category c = indexedCategory.remove(vehicleId);
+        if (c != null) byCategory.get(c).remove(vehicleId);
+        double[] values = indexedValues.remove(vehicleId);
+        if (values == null) return;
+        for (VehicleAttribute a : VehicleAttribute.values()) {
+            double value = values[a.ordinal()];
+            if (Double.isNaN(value)) continue;
+            TreeMap<Double, Set<String>> tree = ranges.get(a);
+            Set<String> ids = tree.get(value);
+            if (ids != null && ids.remove(vehicleId) && ids.isEmpty()) tree.remove(value);
+        }
+    }
+
+    public synchronized void rebuild(Collection<Vehicle> fleet) {
+        for (String id : new ArrayList<>(indexedCategory.keySet())) remove(id);
+        fleet.forEach(this::put);
+    }
+
+    public synchronized int size() { return indexedCategory.size(); }
+
+    public synchronized Set<String> all() { return new HashSet<>(indexedCategory.keySet()); }
+
+    public synchronized Set<String> byCategory(Category c) { return new HashSet<>(byCategory.get(c)); }
+
+    public synchronized int countCategory(Category c) { return byCategory.get(c).size(); }
+
+    /** IDs whose attribute lies in [min, max]. */
+    public synchronized Set<String> range(VehicleAttribute a, double min, double max) {
+        Set<String> out = new HashSet<>();
+        for (Set<String> ids : ranges.get(a).subMap(min, true, max, true).values()) out.addAll(ids);
+        return out;
+    }
+
+    /** Size of {@link #range}, counting no further than {@code cap} (the planner only needs to know if it beats the best so far). */
+    public synchronized int countRange(VehicleAttribute a, double min, double max, int cap) {
+        int n = 0;
+        for (Set<String> ids : ranges.get(a).subMap(min, true, max, true).values()) {
+            n += ids.size();
+            if (n >= cap) return cap;
+        }
+        return n;
+    }
+}
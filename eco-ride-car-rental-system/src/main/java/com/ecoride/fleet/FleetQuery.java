@@ -0,0 +1,185 @@
+package com.ecoride.fleet;
+
+import com.ecoride.domain.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Composable fleet search, e.g. electric cars with a battery of at least 50 kWh that are free from
+ * 2026-11-01 to 2026-11-05:
+ *
+ * <pre>
+ *   FleetQuery.all().category(Category.ELECTRIC).atLeast(VehicleAttribute.BATTERY_KWH, 50)
+ *             .freeBetween(LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 5))
+ *   FleetQuery.parse("electric, battery >= 50, free 2026-11-01..05")
+ * </pre>
+ *
+ * {@link #plan} picks the most selective indexed predicate (category or an attribute range) to produce
+ * candidates; every predicate, including the un-indexed status and free-window ones, is then checked
+ * against the live vehicle.
+ */
+public final class FleetQuery {
+
+    private Category category;
+    private AvailabilityStatus status;
+    private final Map<VehicleAttribute, double[]> ranges = new EnumMap<>(VehicleAttribute.class);
+    private LocalDate freeFrom, freeTo;
+
+    private FleetQuery() {}
+
+    public static FleetQuery all() { return new FleetQuery(); }
+
+    public FleetQuery category(Category c) { this.category = c; return this; }
+
+    public FleetQuery status(AvailabilityStatus s) { this.status = s; return this; }
+
+    /** Narrows any earlier bound on the same attribute. */
+    public FleetQuery between(VehicleAttribute a, double min, double max) {
+        double[] r = ranges.computeIfAbsent(a, k -> new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY});
+        r[0] = Math.max(r[0], min);
+        r[1] = Math.min(r[1], max);
+        return this;
+    }
+
+    public FleetQuery atLeast(VehicleAttribute a, double min) { return between(a, min, Double.POSITIVE_INFINITY); }
+
+    public FleetQuery atMost(VehicleAttribute a, double max) { return between(a, Double.NEGATIVE_INFINITY, max); }
+
+    /** Not under maintenance and no calendar block overlapping [from, to]. */
+    public FleetQuery freeBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("Free window ends before it starts");
+        this.freeFrom = from;
+        this.freeTo = to;
+        return this;
+    }
+
+    // ---- Planning & execution ----
+
+    /** How a query will run: the driving index, its estimated candidate count, and the residual filters. */
+    public record Plan(String driver, int estimate, Set<String> candidates, List<String> filters) {
+        @Override public String toString() { return driver + " (~" + estimate + ") then filter " + filters; }
+    }
+
+    public Plan plan(FleetIndex index) {
+        int best = index.size();
+        String driver = "full scan";
+        Function<FleetIndex, Set<String>> fetch = FleetIndex::all;
+        if (category != null) {
+            int n = index.countCategory(category);
+            if (n < best) {
+                best = n;
+                driver = "category index " + category;
+                Category c = category;
+                fetch = ix -> ix.byCategory(c);
+            }
+        }
+        for (Map.Entry<VehicleAttribute, double[]> e : ranges.entrySet()) {
+            VehicleAttribute a = e.getKey();
+            double min = e.getValue()[0], max = e.getValue()[1];
+            int n = index.countRange(a, min, max, best);
+            if (n < best) {
+                best = n;
+                driver = "range index " + a + " [" + min + ", " + max + "]";
+                fetch = ix -> ix.range(a, min, max);
+            }
+        }
+        return new Plan(driver, best, fetch.apply(index), describeFilters());
+    }
+
+    /** Run against the index, re-checking each candidate against the live vehicle; results sorted by ID. */
+    public List<Vehicle> execute(FleetIndex index, AvailabilityCalendar calendar, Function<String, Optional<Vehicle>> lookup) {
+        return execute(index, calendar, lookup, b -> false);
+    }
+
+    /** As above, with calendar blocks matching {@code stale} (expired holds) not counting against the free window. */
+    public List<Vehicle> execute(FleetIndex index, AvailabilityCalendar calendar, Function<String, Optional<Vehicle>> lookup,
+                                 Predicate<AvailabilityCalendar.Block> stale) {
+        List<Vehicle> out = new ArrayList<>();
+        for (String id : plan(index).candidates()) {
+            lookup.apply(id).filter(v -> matches(v, calendar, stale)).ifPresent(out::add);
+        }
+        out.sort(Comparator.comparing(Vehicle::getVehicleId));
+        return out;
+    }
+
+    public boolean matches(Vehicle v, AvailabilityCalendar calendar) { return matches(v, calendar, b -> false); }
+
+    public boolean matches(Vehicle v, AvailabilityCalendar calendar, Predicate<AvailabilityCalendar.Block> stale) {
+        if (category != null && v.getCategory() != category) return false;
+        if (status != null && v.getAvailabilityStatus() != status) return false;
+        for (Map.Entry<VehicleAttribute, double[]> e : ranges.entrySet()) {
+            double value = e.getKey().valueOf(v);
+            if (Double.isNaN(value) || value < e.getValue()[0] || value > e.getValue()[1]) return false;
+        }
+        if (freeFrom != null) {
+            if (v.getAvailabilityStatus() == AvailabilityStatus.UNDER_MAINTENANCE) return false;
+            if (!calendar.isFree(v.getVehicleId(), freeFrom, freeTo, stale)) return false;
+        }
+        return true;
+    }
+
+    private List<String> describeFilters() {
+        List<String> f = new ArrayList<>();
+        if (category != null) f.add("category=" + category);
+        if (status != null) f.add("status=" + status);
+        ranges.forEach((a, r) -> f.add(a.getAlias() + " in [" + r[0] + ", " + r[1] + "]"));
+        if (freeFrom != null) f.add("free " + freeFrom + ".." + freeTo);
+        return f;
+    }
+
+    @Override public String toString() { return String.join(", ", describeFilters()); }
+
+    // ---- Text form ----
+
+    /**
+     * Comma-separated terms: a category name, {@code status <STATUS>}, {@code <attribute> >=|<=|= <number>},
+     * or {@code free <from>..<to>} where {@code to} may be a full date, {@code MM-DD} or just the day.
+     */
+    public static FleetQuery parse(String text) {
+        FleetQuery q = all();
+        for (String raw : text.split(",")) {
+            String term = raw.trim();
+            if (term.isEmpty()) continue;
+            String lower = term.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("free ")) {
+                String[] range = term.substring(5).trim().split("\\.\\.");
+                LocalDate from = LocalDate.parse(range[0].trim());
+                q.freeBetween(from, range.length > 1 ? completeDate(from, range[1].trim()) : from);
+            } else if (lower.startsWith("status ")) {
+                q.status(AvailabilityStatus.valueOf(term.substring(7).trim().toUpperCase(Locale.ROOT)));
+            } else if (term.contains(">=") || term.contains("<=") || term.contains("=")) {
+                String op = term.contains(">=") ? ">=" : term.contains("<=") ? "<=" : "=";
+                String[] parts = term.split(op, 2);
+                VehicleAttribute a = VehicleAttribute.parse(parts[0]);
+                double value = Double.parseDouble(parts[1].trim().replaceAll("(?i)[a-z]+$", "")); // "50kWh" -> 50
+                switch (op) {
+                    case ">=" -> q.atLeast(a, value);
+                    case "<=" -> q.atMost(a, value);
+                    default -> q.between(a, value, value);
+                }
+            } else {
+                q.category(parseCategory(term));
+            }
+        }
+        return q;
+    }
+
+    private static LocalDate completeDate(LocalDate from, String to) {
+        return switch (to.length()) {
+            case 1, 2 -> from.withDayOfMonth(Integer.parseInt(to));
+            case 5 -> LocalDate.parse(from.getYear() + "-" + to);
+            default -> LocalDate.parse(to);
+        };
+    }
+
+    private static Category parseCategory(String s) {
+        String k = s.replaceAll("[\\s-]+", "_");
+        for (Category c : Category.values()) {
+            if (c.name().equalsIgnoreCase(k) || c.getDisplayName().equalsIgnoreCase(s)) return c;
+        }
+        throw new IllegalArgumentException("Unknown category or filter: " + s);
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecoride.fleet;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.domain.BookingStatus;
+import com.ecoride.domain.Vehicle;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Per-vehicle odometer and rental-day counters, and the service windows they call for. Counters move by
+ * one booking at a time: its km and days are committed when it is made or changed, taken back when it is
+ * cancelled and made actual when it completes, so nothing is ever recounted from the repository.
+ *
+ * <p>After each change the vehicle's {@link ServiceSchedule} intervals are checked against actual plus
+ * committed use. Once an interval is within its lead of the threshold, a
+ * {@link AvailabilityCalendar.BlockKind#MAINTENANCE} block is put on the calendar ahead of the booking that
+ * would take the vehicle over, and moved forward if a later booking brings the crossing earlier. It is
+ * taken back when cancellations or shorter bookings mean the interval is no longer due, and booked again if
+ * its dates pass without the service being recorded. Bookings route around the window instead of being
+ * cancelled when the work falls due.
+ *
+ * <p>Callers hold whatever lock makes calendar check-and-block atomic with bookings; the scheduler's own
+ * state is guarded by its monitor.
+ */
+public class MaintenanceScheduler {
+
+    public static final int DEFAULT_HORIZON_DAYS = 180;
+
+    public record Odometer(String vehicleId, long totalKm, long rentalDays, long committedKm, long committedDays) {}
+
+    public record Window(String ownerId, String vehicleId, String interval, LocalDate start, LocalDate end) {}
+
+    private static final class Usage {
+        long km, days;                    // completed rentals
+        long committedKm, committedDays;  // active bookings
+        final Map<String, long[]> lastService = new HashMap<>(); // interval -> {km, days} when last serviced
+    }
+
+    private record Commitment(String vehicleId, int km, int days) {}
+
+    private final AvailabilityCalendar calendar;
+    private final ServiceSchedule schedule;
+    private final int horizonDays;
+    private final Map<String, Usage> usage = new HashMap<>();
+    private final Map<String, Commitment> commitments = new HashMap<>();
+    private final Map<String, Window> windows = new HashMap<>();
+
+    public MaintenanceScheduler(AvailabilityCalendar calendar, ServiceSchedule schedule, int horizonDays) {
+        if (horizonDays < 1) throw new IllegalArgumentException("Horizon must be at least one day");
+        this.calendar = calendar;
+        this.schedule = schedule;
+        this.horizonDays = horizonDays;
+    }
+
+    /** Seed counters from existing bookings, then plan every vehicle they mention. */
+    public synchronized List<Window> load(Collection<Booking> bookings, LocalDate today) {
+        Map<String, Vehicle> vehicles = new LinkedHashMap<>();
+        for (Booking b : bookings) {
+            if (b.getStatus() == BookingStatus.COMPLETED) addActual(b);
+            else if (b.getStatus() == BookingStatus.ACTIVE) commit(b);
+            else continue;
+            vehicles.put(b.getVehicle().getVehicleId(), b.getVehicle());
+        }
+        List<Window> placed = new ArrayList<>();
+        for (Vehicle v : vehicles.values()) placed.addAll(plan(v, today));
+        return placed;
+    }
+
+    /** A booking was made or changed; returns any windows this placed. */
+    public synchronized List<Window> booked(Booking b, LocalDate today) {
+        commit(b);
+        return plan(b.getVehicle(), today);
+    }
+
+    /** A booking went away; a window it alone made necessary is taken back. */
+    public synchronized void cancelled(Booking b, LocalDate today) {
+        uncommit(b.getBookingId());
+        plan(b.getVehicle(), today);
+    }
+
+    /** A rental finished: its km and days become part of the vehicle's history. */
+    public synchronized List<Window> completed(Booking b, LocalDate today) {
+        uncommit(b.getBookingId());
+        addActual(b);
+        return plan(b.getVehicle(), today);
+    }
+
+    /** The work was done: restart the interval's counters from here and free its window, returned if it had one. */
+    public synchronized Optional<Window> serviced(Vehicle v, String interval) {
+        if (schedule.intervals(v).stream().noneMatch(i -> i.name().equals(interval))) {
+            throw new IllegalArgumentException("No " + interval + " interval for " + v.getVehicleId());
+        }
+        Usage u = usage.computeIfAbsent(v.getVehicleId(), k -> new Usage());
+        u.lastService.put(interval, new long[]{u.km, u.days});
+        String owner = ownerId(v.getVehicleId(), interval);
+        Window w = windows.get(owner);
+        unplace(owner);
+        return Optional.ofNullable(w);
+    }
+
+    public synchronized void forget(String vehicleId) {
+        usage.remove(vehicleId);
+        windows.values().removeIf(w -> w.vehicleId().equals(vehicleId));
+        commitments.values().removeIf(c -> c.vehicleId().equals(vehicleId));
+    }
+
+    public synchronized Odometer odometer(String vehicleId) {
+        Usage u = usage.get(vehicleId);
+        return u == null ? new Odometer(vehicleId, 0, 0, 0, 0)
+                : new Odometer(vehicleId, u.km, u.days, u.committedKm, u.committedDays);
+    }
+
+    /** The vehicle's booked service windows. */
+    public synchronized List<Window> windows(String vehicleId) {
+        List<Window> out = new ArrayList<>();
+        for (Window w : windows.values()) if (w.vehicleId().equals(vehicleId)) out.add(w);
+        out.sort(Comparator.comparing(Window::start));
+        return out;
+    }
+
+    public static String ownerId(String vehicleId, String interval) { return "M-" + vehicleId + "-" + interval; }
+
+    // ---- Counters ----
+
+    private void commit(Booking b) {
+        uncommit(b.getBookingId());
+        Commitment c = new Commitment(b.getVehicle().getVehicleId(), b.getTotalKm(), b.rentalDays());
+        commitments.put(b.getBookingId(), c);
+        Usage u = usage.computeIfAbsent(c.vehicleId(), k -> new Usage());
+        u.committedKm += c.km();
+        u.committedDays += c.days();
+    }
+
+    private void uncommit(String bookingId) {
+        Commitment c = commitments.remove(bookingId);
+        if (c == null) return;
+        Usage u = usage.get(c.vehicleId());
+        u.committedKm -= c.km();
+        u.committedDays -= c.days();
+    }
+
+    private void addActual(Booking b) {
+        Usage u = usage.computeIfAbsent(b.getVehicle().getVehicleId(), k -> new Usage());
+        u.km += b.getTotalKm();
+        u.days += b.rentalDays();
+    }
+
+    // ---- Planning ----
+
+    /** Where committed use crosses an interval: start day of the booking that goes over (or -1), and the last booked day. */
+    private record Forecast(int crossingDay, int lastBookedDay) {}
+
+    private List<Window> plan(Vehicle v, LocalDate today) {
+        List<Window> placed = new ArrayList<>(0);
+        Usage u = usage.get(v.getVehicleId());
+        if (u == null) return placed;
+        for (ServiceSchedule.Interval i : schedule.intervals(v)) {
+            long[] last = u.lastService.getOrDefault(i.name(), new long[2]);
+            long kmSince = u.km - last[0], daysSince = u.days - last[1];
+            double share = 1 - schedule.lead();
+            boolean due = (i.everyKm() > 0 && kmSince + u.committedKm >= i.everyKm() * share)
+                    || (i.everyRentalDays() > 0 && daysSince + u.committedDays >= i.everyRentalDays() * share);
+            String owner = ownerId(v.getVehicleId(), i.name());
+            Window current = windows.get(owner);
+            if (!due) {
+                // a cancellation or a shorter booking took the need away: give the days back
+                if (current != null) unplace(owner);
+                continue;
+            }
+            Forecast f = forecast(v.getVehicleId(), i, kmSince, daysSince);
+            if (current != null) {
+                // still upcoming and ahead of the booking that goes over: keep it. A window that passed without
+                // the service being recorded, or that a new booking has overtaken, is booked again.
+                boolean upcoming = !current.end().isBefore(today);
+                if (upcoming && (f.crossingDay() < 0 || current.end().toEpochDay() < f.crossingDay())) continue;
+                unplace(owner);
+            }
+            Window w = place(owner, v.getVehicleId(), i, today, f);
+            if (w != null && !w.equals(current)) placed.add(w);
+        }
+        return placed;
+    }
+
+    private Forecast forecast(String vehicleId, ServiceSchedule.Interval i, long km, long days) {
+        int crossing = -1, lastBooked = -1;
+        for (AvailabilityCalendar.Block b : calendar.blocks(vehicleId)) {
+            Commitment c = b.kind() == AvailabilityCalendar.BlockKind.BOOKING ? commitments.get(b.ownerId()) : null;
+            if (c == null) continue;
+            lastBooked = Math.max(lastBooked, b.endDay());
+            km += c.km();
+            days += c.days();
+            boolean over = (i.everyKm() > 0 && km > i.everyKm()) || (i.everyRentalDays() > 0 && days > i.everyRentalDays());
+            if (over && crossing < 0) crossing = b.startDay();
+        }
+        return new Forecast(crossing, lastBooked);
+    }
+
+    /**
+     * Book the window as late as possible before the booking that goes over, so the service comes after
+     * all the use the interval allows. With no such booking it goes right after the last one; when there is
+     * no room before the crossing (or it is already under way) it takes the first free gap.
+     */
+    private Window place(String owner, String vehicleId, ServiceSchedule.Interval i, LocalDate today, Forecast f) {
+        int length = i.durationDays();
+        LocalDate start = null;
+        if (f.crossingDay() > today.toEpochDay()) {
+            List<AvailabilityCalendar.Gap> gaps = calendar.gaps(vehicleId, today, LocalDate.ofEpochDay(f.crossingDay() - 1L), null);
+            for (int k = gaps.size() - 1; k >= 0 && start == null; k--) {
+                if (gaps.get(k).length() >= length) start = gaps.get(k).end().minusDays(length - 1L);
+            }
+        } else if (f.crossingDay() < 0) {
+            LocalDate from = f.lastBookedDay() >= today.toEpochDay() ? LocalDate.ofEpochDay(f.lastBookedDay() + 1L) : today;
+            start = firstFit(vehicleId, from, from.plusDays(horizonDays), length);
+        }
+        if (start == null) start = firstFit(vehicleId, today, today.plusDays(horizonDays), length);
+        if (start == null) return null; // fully booked for the horizon; retried on the next change
+        Window w = new Window(owner, vehicleId, i.name(), start, start.plusDays(length - 1L));
+        calendar.put(owner, AvailabilityCalendar.BlockKind.MAINTENANCE, vehicleId, w.start(), w.end());
+        windows.put(owner, w);
+        return w;
+    }
+
+    private void unplace(String owner) {
+        windows.remove(owner);
+        calendar.remove(owner);
+    }
+
+    private LocalDate firstFit(String vehicleId, LocalDate from, LocalDate to, int length) {
+        for (AvailabilityCalendar.Gap g : calendar.gaps(vehicleId, from, to, null)) if (g.length() >= length) return g.start();
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecoride.fleet;
+
+import com.ecoride.domain.*;
+
+import java.util.*;
+
+/**
+ * Service intervals per vehicle subtype. A vehicle gets the intervals registered for its own class, or
+ * failing that for the nearest superclass. An interval falls due after {@code everyKm} kilometres or
+ * {@code everyRentalDays} days on hire since its last service, whichever comes first (0 = not used).
+ */
+public final class ServiceSchedule {
+
+    public record Interval(String name, int everyKm, int everyRentalDays, int durationDays) {
+        public Interval {
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("Service interval needs a name");
+            if (everyKm < 0 || everyRentalDays < 0 || (everyKm == 0 && everyRentalDays == 0)) {
+                throw new IllegalArgumentException("Service interval needs a km or rental-day threshold");
+            }
+            if (durationDays < 1) throw new IllegalArgumentException("Service takes at least one day");
+        }
+    }
+
+    /** Default share of an interval left when its window is booked: 0.1 books it at 90% of the threshold. */
+    public static final double DEFAULT_LEAD = 0.1;
+
+    private final Map<Class<? extends Vehicle>, List<Interval>> byType;
+    private final double lead;
+
+    private ServiceSchedule(Map<Class<? extends Vehicle>, List<Interval>> byType, double lead) {
+        this.byType = Map.copyOf(byType);
+        this.lead = lead;
+    }
+
+    /** Workshop defaults: battery health checks for electrics, oil changes for petrol cars. */
+    public static ServiceSchedule defaults() {
+        return builder()
+                .add(ElectricCar.class, new Interval("battery-check", 10_000, 120, 1))
+                .add(ElectricCar.class, new Interval("tyre-rotation", 12_000, 0, 1))
+                .add(HybridCar.class, new Interval("hybrid-service", 10_000, 180, 1))
+                .add(CompactPetrolCar.class, new Interval("oil-change", 5_000, 120, 1))
+                .add(LuxurySUVCar.class, new Interval("major-service", 15_000, 180, 2))
+                .build();
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    /** The intervals that apply to a vehicle, in registration order. */
+    public List<Interval> intervals(Vehicle v) {
+        for (Class<?> c = v.getClass(); c != null && Vehicle.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            List<Interval> found = byType.get(c);
+            if (found != null) return found;
+        }
+        return List.of();
+    }
+
+    public double lead() { return lead; }
+
+    public static final class Builder {
+        private final Map<Class<? extends Vehicle>, List<Interval>> byType = new HashMap<>();
+        private double lead = DEFAULT_LEAD;
+
+        public Builder add(Class<? extends Vehicle> type, Interval interval) {
+            List<Interval> list = byType.computeIfAbsent(type, k -> new ArrayList<>());
+            if (list.stream().anyMatch(i -> i.name().equals(interval.name()))) {
+                throw new IllegalArgumentException("Duplicate interval " + interval.name() + " for " + type.getSimpleName());
+            }
+            list.add(interval);
+            return this;
+        }
+
+        public Builder lead(double lead) {
+            if (lead < 0 || lead >= 1) throw new IllegalArgumentException("Lead must be in [0, 1)");
+            this.lead = lead;
+            return this;
+        }
+
+        public ServiceSchedule build() {
+            Map<Class<? extends Vehicle>, List<Interval>> copy = new HashMap<>();
+            byType.forEach((k, v) -> copy.put(k, List.copyOf(v)));
+            return new ServiceSchedule(copy, lead);
+        }
+    }
+}
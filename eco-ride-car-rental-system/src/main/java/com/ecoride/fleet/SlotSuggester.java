@@ -0,0 +1,91 @@
+package com.ecoride.fleet;
+
+import com.ecoride.domain.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Finds the nearest workable alternatives to a booking that conflicted: other start dates for the same
+ * vehicle, and the soonest-available other vehicles of the same category. Both come from walking the
+ * free gaps in the {@link AvailabilityCalendar}, never from scanning bookings. The search stops when its
+ * time budget runs out and says so, so a large fleet cannot stall the caller.
+ */
+public class SlotSuggester {
+
+    /** A bookable window. */
+    public record Slot(String vehicleId, LocalDate start, LocalDate end) {}
+
+    /** {@code complete} is false when the budget ran out before every candidate vehicle was examined. */
+    public record Suggestions(List<Slot> sameVehicle, List<Slot> alternatives, boolean complete) {
+        public boolean isEmpty() { return sameVehicle.isEmpty() && alternatives.isEmpty(); }
+    }
+
+    public static final int DEFAULT_HORIZON_DAYS = 60;
+
+    private final AvailabilityCalendar calendar;
+    private final FleetIndex index;
+    private final Function<String, Optional<Vehicle>> lookup;
+    private final int horizonDays;
+    /** Blocks that no longer count, e.g. expired holds the timing wheel has not cleared yet. */
+    private final Predicate<AvailabilityCalendar.Block> stale;
+
+    public SlotSuggester(AvailabilityCalendar calendar, FleetIndex index, Function<String, Optional<Vehicle>> lookup, int horizonDays,
+                         Predicate<AvailabilityCalendar.Block> stale) {
+        this.calendar = calendar;
+        this.index = index;
+        this.lookup = lookup;
+        this.horizonDays = horizonDays;
+        this.stale = stale;
+    }
+
+    /**
+     * @param ignoreOwner a booking being moved, whose current dates count as free (null for new bookings)
+     * @param earliest    first start date the booking rules allow
+     * @param limit       maximum suggestions in each list
+     */
+    public Suggestions suggest(String vehicleId, String ignoreOwner, LocalDate requested, int days, LocalDate earliest,
+                               int limit, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        LocalDate from = requested.minusDays(horizonDays).isBefore(earliest) ? earliest : requested.minusDays(horizonDays);
+        LocalDate to = requested.plusDays(horizonDays + days - 1L);
+        int target = (int) requested.toEpochDay();
+
+        List<Slot> same = nearest(vehicleId, ignoreOwner, from, to, target, days, limit);
+
+        Vehicle requestedVehicle = lookup.apply(vehicleId).orElse(null);
+        List<Slot> alternatives = new ArrayList<>();
+        boolean complete = true;
+        if (requestedVehicle != null) {
+            List<String> others = new ArrayList<>(index.byCategory(requestedVehicle.getCategory()));
+            Collections.sort(others);
+            for (String other : others) {
+                if (System.nanoTime() > deadline) { complete = false; break; }
+                if (other.equals(vehicleId)) continue;
+                Optional<Vehicle> v = lookup.apply(other);
+                if (v.isEmpty() || v.get().getAvailabilityStatus() == AvailabilityStatus.UNDER_MAINTENANCE) continue;
+                alternatives.addAll(nearest(other, null, from, to, target, days, 1));
+            }
+            alternatives.sort(Comparator.comparingLong((Slot s) -> Math.abs(s.start().toEpochDay() - target))
+                    .thenComparing(Slot::start).thenComparing(Slot::vehicleId));
+            if (alternatives.size() > limit) alternatives = new ArrayList<>(alternatives.subList(0, limit));
+        }
+        return new Suggestions(same, alternatives, complete);
+    }
+
+    /** For every gap long enough, the start inside it closest to the target; then the closest overall. */
+    private List<Slot> nearest(String vehicleId, String ignoreOwner, LocalDate from, LocalDate to, int target, int days, int limit) {
+        List<Slot> out = new ArrayList<>();
+        for (AvailabilityCalendar.Gap g : calendar.gaps(vehicleId, from, to, ignoreOwner, stale)) {
+            if (g.length() < days) continue;
+            int latestStart = g.endDay() - days + 1;
+            int start = Math.max(g.startDay(), Math.min(target, latestStart));
+            out.add(new Slot(vehicleId, LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(start + days - 1L)));
+        }
+        out.sort(Comparator.comparingLong((Slot s) -> Math.abs(s.start().toEpochDay() - target)).thenComparing(Slot::start));
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+}
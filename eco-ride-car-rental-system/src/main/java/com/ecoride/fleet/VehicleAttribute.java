@@ -0,0 +1,37 @@
+package com.ecoride.fleet;
+
+import com.ecoride.domain.*;
+
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/** Numeric subtype attributes that fleet queries can filter and range-index on. NaN means "not applicable". */
+public enum VehicleAttribute {
+    BATTERY_KWH("battery", v -> v instanceof ElectricCar e ? e.getBatteryCapacity()
+            : v instanceof HybridCar h ? h.getBatteryCapacity() : Double.NaN),
+    CHARGING_HOURS("charging", v -> v instanceof ElectricCar e ? e.getChargingTime() : Double.NaN),
+    FUEL_EFFICIENCY("efficiency", v -> v instanceof HybridCar h ? h.getFuelEfficiency() : Double.NaN),
+    ENGINE_LITRES("engine", v -> v instanceof CompactPetrolCar c ? c.getEngineCapacity() : Double.NaN),
+    DRIVER_INCLUDED("driver", v -> v instanceof LuxurySUVCar l ? (l.isDriverIncluded() ? 1 : 0) : Double.NaN);
+
+    private final String alias;
+    private final ToDoubleFunction<Vehicle> extractor;
+
+    VehicleAttribute(String alias, ToDoubleFunction<Vehicle> extractor) {
+        this.alias = alias;
+        this.extractor = extractor;
+    }
+
+    public double valueOf(Vehicle v) { return extractor.applyAsDouble(v); }
+
+    public String getAlias() { return alias; }
+
+    /** Accepts the enum name or its short alias, case-insensitively. */
+    public static VehicleAttribute parse(String s) {
+        String k = s.trim().toLowerCase(Locale.ROOT);
+        for (VehicleAttribute a : values()) {
+            if (a.alias.equals(k) || a.name().toLowerCase(Locale.ROOT).equals(k)) return a;
+        }
+        throw new IllegalArgumentException("Unknown vehicle attribute: " + s);
+    }
+}
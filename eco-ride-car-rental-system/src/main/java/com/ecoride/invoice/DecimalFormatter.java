@@ -0,0 +1,72 @@
+package com.ecoride.invoice;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Allocation-light number and date formatting for invoices, replacing {@code String.format("%,.2f")} and
+ * {@code DateTimeFormatter}. Output is locale-independent: ',' groups thousands and '.' is the decimal point.
+ */
+public final class DecimalFormatter {
+
+    private DecimalFormatter() {}
+
+    /** Two decimals, rounded half-up like {@code %.2f}; optionally grouped like {@code %,.2f}. */
+    public static void appendMoney(StringBuilder sb, BigDecimal amount, boolean grouping) {
+        BigDecimal r = amount.setScale(2, RoundingMode.HALF_UP);
+        if (r.precision() > 18) { // beyond long range: slow path
+            appendPlain(sb, r.toPlainString(), grouping);
+            return;
+        }
+        long unscaled = r.unscaledValue().longValue();
+        if (unscaled < 0) { sb.append('-'); unscaled = -unscaled; }
+        appendWhole(sb, unscaled / 100, grouping);
+        int cents = (int) (unscaled % 100);
+        sb.append('.').append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10));
+    }
+
+    public static void appendWhole(StringBuilder sb, long value, boolean grouping) {
+        if (value < 0) { sb.append('-'); value = -value; }
+        char[] buf = new char[26];
+        int pos = buf.length, digits = 0;
+        do {
+            if (grouping && digits > 0 && digits % 3 == 0) buf[--pos] = ',';
+            buf[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+            digits++;
+        } while (value > 0);
+        sb.append(buf, pos, buf.length - pos);
+    }
+
+    /** {@code yyyy-MM-dd HH:mm}. */
+    public static void appendDateTime(StringBuilder sb, LocalDateTime t) {
+        appendPadded(sb, t.getYear(), 4);
+        sb.append('-');
+        appendPadded(sb, t.getMonthValue(), 2);
+        sb.append('-');
+        appendPadded(sb, t.getDayOfMonth(), 2);
+        sb.append(' ');
+        appendPadded(sb, t.getHour(), 2);
+        sb.append(':');
+        appendPadded(sb, t.getMinute(), 2);
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        int start = sb.length();
+        appendWhole(sb, value, false);
+        while (sb.length() - start < width) sb.insert(start, '0');
+    }
+
+    private static void appendPlain(StringBuilder sb, String plain, boolean grouping) {
+        int dot = plain.indexOf('.');
+        int start = plain.startsWith("-") ? 1 : 0;
+        sb.append(plain, 0, start);
+        for (int i = start; i < dot; i++) {
+            sb.append(plain.charAt(i));
+            int left = dot - i - 1;
+            if (grouping && left > 0 && left % 3 == 0) sb.append(',');
+        }
+        sb.append(plain, dot, plain.length());
+    }
+}
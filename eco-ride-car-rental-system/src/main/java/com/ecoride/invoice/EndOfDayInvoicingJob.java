@@ -0,0 +1,121 @@
+package com.ecoride.invoice;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.domain.Invoice;
+import com.ecoride.service.CarRentalSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Completes and invoices many bookings at once. Each booking is completed, invoiced and rendered on a
+ * fork-join pool; rendered invoices are appended to one file per rental end date as soon as they are
+ * ready, so memory does not grow with the batch. A booking that cannot be completed is reported in the
+ * result and the rest of the batch carries on.
+ */
+public class EndOfDayInvoicingJob {
+
+    /** Outcome for one booking: the invoice and the file it went to, or the reason it failed. */
+    public record Item(String bookingId, String invoiceId, Path file, String error) {
+        public boolean isSuccess() { return error == null; }
+    }
+
+    public record Report(List<Item> items, long elapsedMillis) {
+        public List<Item> completed() { return items.stream().filter(Item::isSuccess).collect(Collectors.toList()); }
+        public List<Item> failed() { return items.stream().filter(i -> !i.isSuccess()).collect(Collectors.toList()); }
+    }
+
+    private final CarRentalSystem system;
+    private final Path outputDir;
+    private final RenderTarget target;
+    private final int parallelism;
+
+    public EndOfDayInvoicingJob(CarRentalSystem system, Path outputDir, RenderTarget target, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1");
+        this.system = system;
+        this.outputDir = outputDir;
+        this.target = target;
+        this.parallelism = parallelism;
+    }
+
+    /** Every booking that is still ACTIVE and ends on the given date. */
+    public Report runForEndDate(LocalDate date) throws IOException {
+        List<String> ids = system.listActiveBookingsEndingOn(date).stream().map(Booking::getBookingId).collect(Collectors.toList());
+        return run(ids);
+    }
+
+    public Report run(Collection<String> bookingIds) throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(outputDir);
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(bookingIds)); // a duplicate would only fail anyway
+        Map<LocalDate, Writer> writers = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Item> items = pool.submit(() -> ids.parallelStream().map(id -> process(id, writers)).collect(Collectors.toList())).get();
+            return new Report(items, (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("End-of-day invoicing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("End-of-day invoicing failed", e.getCause());
+        } finally {
+            pool.shutdown();
+            IOException closeFailure = null;
+            for (Writer w : writers.values()) {
+                try { w.close(); } catch (IOException ex) { closeFailure = ex; }
+            }
+            if (closeFailure != null) throw closeFailure;
+        }
+    }
+
+    private Item process(String bookingId, Map<LocalDate, Writer> writers) {
+        Invoice invoice;
+        try {
+            invoice = system.completeAndInvoice(bookingId);
+        } catch (RuntimeException ex) {
+            return new Item(bookingId, null, null, ex.getMessage());
+        }
+        LocalDate day = invoice.getBooking().getEndDate();
+        Path file = fileFor(day);
+        try {
+            StringBuilder sb = new StringBuilder(1024);
+            InvoiceRenderer.template(target).render(invoice, sb);
+            Writer w = writers.computeIfAbsent(day, d -> open(file));
+            synchronized (w) {
+                w.append(sb);
+            }
+            return new Item(bookingId, invoice.getInvoiceId(), file, null);
+        } catch (RuntimeException | IOException ex) {
+            // the booking is completed; only its output is missing, so say which invoice to re-render
+            return new Item(bookingId, invoice.getInvoiceId(), null, "Invoice " + invoice.getInvoiceId() + " not written: " + ex.getMessage());
+        }
+    }
+
+    Path fileFor(LocalDate day) {
+        String ext = switch (target) {
+            case JSON -> ".jsonl";
+            case ANSI -> ".ansi";
+            case PLAIN -> ".txt";
+        };
+        return outputDir.resolve("invoices-" + day + ext);
+    }
+
+    private static Writer open(Path file) {
+        try {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecoride.invoice;
+
+import com.ecoride.domain.Invoice;
+
+import java.io.IOException;
+
+/**
+ * Entry point for invoice output. The built-in layouts are compiled once per target on first use:
+ * the console layout for ANSI and PLAIN, and a flat JSON document.
+ */
+public final class InvoiceRenderer {
+
+    private static final String RULE = "==============================================================\n";
+
+    public static final String CONSOLE_LAYOUT =
+            "\n"
+            + "[[green]]" + RULE
+            + "                       🧾  ECO RIDE INVOICE                   \n"
+            + RULE + "[[reset]]"
+            + "[[navy]]Invoice ID   : [[reset]]{{invoiceId}}\n"
+            + "[[navy]]Created At   : [[reset]]{{createdAt}}\n\n"
+            + "[[brightGreen]]📘 BOOKING DETAILS[[reset]]\n"
+            + "[[white]]Booking ID   : {{bookingId}}\n"
+            + "Customer     : {{customerName}} ({{customerId}})\n"
+            + "Vehicle      : {{vehicleId}} - {{vehicleModel}}\n"
+            + "Category     : {{category}}\n"
+            + "Rental Days  : {{rentalDays}}\n"
+            + "Total KM     : {{totalKm}} km   [[grey]](Free KM: {{freeKm}})[[reset]]\n"
+            + "\n"
+            + "[[brightGreen]]💰 PRICE BREAKDOWN[[reset]]\n"
+            + "[[white]]Base Price        : LKR {{basePrice}}\n"
+            + "Extra KM Charge   : LKR {{extraKmCharge}}\n"
+            + "Discount Applied  : -LKR {{discount}}\n"
+            + "Tax               : LKR {{tax}}\n"
+            + "Deposit Deducted  : -LKR {{deposit}}\n"
+            + "[[grey]]--------------------------------------------------------------\n[[reset]]"
+            + "[[navy]]TOTAL PAYABLE     : [[brightGreen]]LKR {{finalPayable}}\n[[reset]]"
+            + "[[green]]" + RULE
+            + "        Thank you for choosing EcoRide! Drive Safe 🚗💚        \n"
+            + RULE + "[[reset]]";
+
+    public static final String JSON_LAYOUT =
+            "{\"invoiceId\":{{invoiceId}},\"createdAt\":{{createdAt}},"
+            + "\"bookingId\":{{bookingId}},\"customerId\":{{customerId}},\"customerName\":{{customerName}},"
+            + "\"vehicleId\":{{vehicleId}},\"vehicleModel\":{{vehicleModel}},\"category\":{{category}},"
+            + "\"rentalDays\":{{rentalDays}},\"totalKm\":{{totalKm}},\"freeKm\":{{freeKm}},\"currency\":\"LKR\","
+            + "\"basePrice\":{{basePrice}},\"extraKmCharge\":{{extraKmCharge}},\"discount\":{{discount}},"
+            + "\"tax\":{{tax}},\"depositDeducted\":{{deposit}},\"finalPayable\":{{finalPayable}}}\n";
+
+    private static final InvoiceTemplate ANSI = InvoiceTemplate.compile(CONSOLE_LAYOUT, RenderTarget.ANSI);
+    private static final InvoiceTemplate PLAIN = InvoiceTemplate.compile(CONSOLE_LAYOUT, RenderTarget.PLAIN);
+    private static final InvoiceTemplate JSON = InvoiceTemplate.compile(JSON_LAYOUT, RenderTarget.JSON);
+
+    private InvoiceRenderer() {}
+
+    public static InvoiceTemplate template(RenderTarget target) {
+        return switch (target) {
+            case ANSI -> ANSI;
+            case PLAIN -> PLAIN;
+            case JSON -> JSON;
+        };
+    }
+
+    public static String render(Invoice invoice, RenderTarget target) { return template(target).render(invoice); }
+
+    public static void render(Invoice invoice, RenderTarget target, Appendable out) throws IOException {
+        template(target).render(invoice, out);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecoride.invoice;
+
+import com.ecoride.domain.Invoice;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An invoice layout compiled for one {@link RenderTarget}. The source is text with {@code {{field}}}
+ * value slots and {@code [[style]]} tags; compiling resolves the styles for the target, merges adjacent
+ * literals and binds each slot to its accessor, so rendering is a straight walk over a part array.
+ * Compiled templates are immutable and safe to share between threads.
+ */
+public final class InvoiceTemplate {
+
+    private enum Kind { TEXT, NUMBER, MONEY, DATE_TIME }
+
+    private record Field(Kind kind, Function<Invoice, Object> value) {}
+
+    private static final Map<String, Field> FIELDS = Map.ofEntries(
+            Map.entry("invoiceId", new Field(Kind.TEXT, Invoice::getInvoiceId)),
+            Map.entry("createdAt", new Field(Kind.DATE_TIME, Invoice::getCreatedAt)),
+            Map.entry("bookingId", new Field(Kind.TEXT, i -> i.getBooking().getBookingId())),
+            Map.entry("customerId", new Field(Kind.TEXT, i -> i.getBooking().getCustomer().getCustomerId())),
+            Map.entry("customerName", new Field(Kind.TEXT, i -> i.getBooking().getCustomer().getName())),
+            Map.entry("vehicleId", new Field(Kind.TEXT, i -> i.getBooking().getVehicle().getVehicleId())),
+            Map.entry("vehicleModel", new Field(Kind.TEXT, i -> i.getBooking().getVehicle().getModel())),
+            Map.entry("category", new Field(Kind.TEXT, i -> i.getBooking().getVehicle().getCategory().getDisplayName())),
+            Map.entry("rentalDays", new Field(Kind.NUMBER, i -> i.getBooking().rentalDays())),
+            Map.entry("totalKm", new Field(Kind.NUMBER, i -> i.getBooking().getTotalKm())),
+            Map.entry("freeKm", new Field(Kind.NUMBER, i -> i.getBooking().freeKmTotal())),
+            Map.entry("basePrice", new Field(Kind.MONEY, Invoice::getBasePrice)),
+            Map.entry("extraKmCharge", new Field(Kind.MONEY, Invoice::getExtraKmCharge)),
+            Map.entry("discount", new Field(Kind.MONEY, Invoice::getDiscount)),
+            Map.entry("tax", new Field(Kind.MONEY, Invoice::getTax)),
+            Map.entry("deposit", new Field(Kind.MONEY, Invoice::getDepositDeducted)),
+            Map.entry("finalPayable", new Field(Kind.MONEY, Invoice::getFinalPayable)));
+
+    private final RenderTarget target;
+    private final Object[] parts; // String literal or Field slot
+    private final int sizeHint;
+
+    private InvoiceTemplate(RenderTarget target, Object[] parts, int sizeHint) {
+        this.target = target;
+        this.parts = parts;
+        this.sizeHint = sizeHint;
+    }
+
+    public static InvoiceTemplate compile(String source, RenderTarget target) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            if (source.startsWith("{{", i)) {
+                int end = source.indexOf("}}", i + 2);
+                if (end < 0) throw new IllegalArgumentException("Unclosed {{ at " + i);
+                String name = source.substring(i + 2, end).trim();
+                Field f = FIELDS.get(name);
+                if (f == null) throw new IllegalArgumentException("Unknown invoice field: " + name);
+                if (literal.length() > 0) { parts.add(literal.toString()); literal.setLength(0); }
+                parts.add(f);
+                i = end + 2;
+            } else if (source.startsWith("[[", i)) {
+                int end = source.indexOf("]]", i + 2);
+                if (end < 0) throw new IllegalArgumentException("Unclosed [[ at " + i);
+                literal.append(target.style(source.substring(i + 2, end).trim()));
+                i = end + 2;
+            } else {
+                literal.append(source.charAt(i++));
+            }
+        }
+        if (literal.length() > 0) parts.add(literal.toString());
+        int literalChars = parts.stream().filter(p -> p instanceof String).mapToInt(p -> ((String) p).length()).sum();
+        return new InvoiceTemplate(target, parts.toArray(), literalChars + 24 * parts.size());
+    }
+
+    public RenderTarget getTarget() { return target; }
+
+    public String render(Invoice invoice) {
+        StringBuilder sb = new StringBuilder(sizeHint);
+        render(invoice, sb);
+        return sb.toString();
+    }
+
+    /** Append to a caller-owned buffer, which can be cleared and reused across invoices. */
+    public void render(Invoice invoice, StringBuilder sb) {
+        for (Object part : parts) {
+            if (part instanceof String s) sb.append(s);
+            else appendValue(sb, (Field) part, invoice);
+        }
+    }
+
+    /** Stream to a writer; value slots are formatted through one small scratch buffer. */
+    public void render(Invoice invoice, Appendable out) throws IOException {
+        StringBuilder scratch = new StringBuilder(64);
+        for (Object part : parts) {
+            if (part instanceof String s) {
+                out.append(s);
+            } else {
+                scratch.setLength(0);
+                appendValue(scratch, (Field) part, invoice);
+                out.append(scratch);
+            }
+        }
+    }
+
+    private void appendValue(StringBuilder sb, Field f, Invoice invoice) {
+        Object v = f.value().apply(invoice);
+        switch (f.kind()) {
+            case TEXT -> target.appendText(sb, String.valueOf(v));
+            case NUMBER -> DecimalFormatter.appendWhole(sb, ((Number) v).longValue(), false);
+            case MONEY -> DecimalFormatter.appendMoney(sb, (BigDecimal) v, target.groupsMoney());
+            case DATE_TIME -> {
+                if (target.quotesDates()) sb.append('"');
+                DecimalFormatter.appendDateTime(sb, (LocalDateTime) v);
+                if (target.quotesDates()) sb.append('"');
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecoride.invoice;
+
+import java.util.Map;
+
+/**
+ * Output format a template is compiled for. The target decides what style tags turn into and how each
+ * kind of value is written: ANSI and PLAIN differ only in colour codes, JSON quotes text and writes
+ * money as bare numbers.
+ */
+public enum RenderTarget {
+    ANSI, PLAIN, JSON;
+
+    private static final Map<String, String> ANSI_STYLES = Map.of(
+            "reset", "\u001B[0m",
+            "green", "\u001B[32m",
+            "brightGreen", "\u001B[92m",
+            "white", "\u001B[37m",
+            "grey", "\u001B[90m",
+            "navy", "\u001B[34m");
+
+    String style(String name) {
+        if (!ANSI_STYLES.containsKey(name)) throw new IllegalArgumentException("Unknown style: " + name);
+        return this == ANSI ? ANSI_STYLES.get(name) : "";
+    }
+
+    void appendText(StringBuilder sb, String s) {
+        if (this != JSON) { sb.append(s); return; }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    boolean groupsMoney() { return this != JSON; }
+
+    boolean quotesDates() { return this == JSON; }
+}
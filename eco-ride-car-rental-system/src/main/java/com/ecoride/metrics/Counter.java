@@ -0,0 +1,50 @@
+package com.ecoride.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/** A monotonically increasing total, optionally split by labels. Increments are contention-free adds. */
+public class Counter implements MetricsRegistry.Family {
+
+    /** The counter for one combination of label values. */
+    public static final class Child {
+        private final DoubleAdder value = new DoubleAdder();
+        public void inc() { value.add(1); }
+        public void add(double amount) {
+            if (amount < 0) throw new IllegalArgumentException("Counters only go up");
+            value.add(amount);
+        }
+        public double get() { return value.sum(); }
+    }
+
+    private final String name, help;
+    private final String[] labelNames;
+    private final ConcurrentHashMap<List<String>, Child> children = new ConcurrentHashMap<>();
+
+    Counter(String name, String help, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = labelNames.clone();
+    }
+
+    @Override public String name() { return name; }
+
+    public Child labels(String... values) {
+        if (values.length != labelNames.length) throw new IllegalArgumentException(name + " takes labels " + Arrays.toString(labelNames));
+        return children.computeIfAbsent(List.of(values), k -> new Child());
+    }
+
+    public void inc() { labels().inc(); }
+    public void add(double amount) { labels().add(amount); }
+
+    @Override
+    public void render(StringBuilder out) {
+        MetricsRegistry.header(out, name, help, "counter");
+        List<Map.Entry<List<String>, Child>> sorted = new ArrayList<>(children.entrySet());
+        sorted.sort(Map.Entry.comparingByKey(Comparator.comparing(Object::toString)));
+        for (Map.Entry<List<String>, Child> e : sorted) {
+            MetricsRegistry.sample(out, name, labelNames, e.getKey(), null, null, e.getValue().get());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecoride.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distribution over fixed buckets (upper bounds in seconds), optionally split by labels. An
+ * observation is a short scan of the bounds and one add; buckets are stored per bucket and made
+ * cumulative only when rendered.
+ */
+public class Histogram implements MetricsRegistry.Family {
+
+    /** 1 ms to 10 s, roughly doubling. */
+    public static final double[] LATENCY_BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    /** The histogram for one combination of label values. */
+    public final class Child {
+        private final LongAdder[] counts = new LongAdder[bounds.length + 1]; // last is +Inf
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Child() { for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder(); }
+
+        public void observe(double seconds) {
+            int i = 0;
+            while (i < bounds.length && seconds > bounds[i]) i++;
+            counts[i].increment();
+            sum.add(seconds);
+        }
+
+        public void observeNanos(long nanos) { observe(nanos / 1e9); }
+
+        public long count() {
+            long n = 0;
+            for (LongAdder c : counts) n += c.sum();
+            return n;
+        }
+    }
+
+    private final String name, help;
+    private final double[] bounds;
+    private final String[] labelNames;
+    private final ConcurrentHashMap<List<String>, Child> children = new ConcurrentHashMap<>();
+
+    Histogram(String name, String help, double[] bucketsSeconds, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.bounds = bucketsSeconds.clone();
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) throw new IllegalArgumentException("Histogram buckets must be increasing");
+        }
+        this.labelNames = labelNames.clone();
+    }
+
+    @Override public String name() { return name; }
+
+    public Child labels(String... values) {
+        if (values.length != labelNames.length) throw new IllegalArgumentException(name + " takes labels " + Arrays.toString(labelNames));
+        return children.computeIfAbsent(List.of(values), k -> new Child());
+    }
+
+    @Override
+    public void render(StringBuilder out) {
+        MetricsRegistry.header(out, name, help, "histogram");
+        List<Map.Entry<List<String>, Child>> sorted = new ArrayList<>(children.entrySet());
+        sorted.sort(Map.Entry.comparingByKey(Comparator.comparing(Object::toString)));
+        for (Map.Entry<List<String>, Child> e : sorted) {
+            Child c = e.getValue();
+            long cumulative = 0;
+            for (int i = 0; i <= bounds.length; i++) {
+                cumulative += c.counts[i].sum();
+                String le = i < bounds.length ? MetricsRegistry.format(bounds[i]) : "+Inf";
+                MetricsRegistry.sample(out, name + "_bucket", labelNames, e.getKey(), "le", le, cumulative);
+            }
+            MetricsRegistry.sample(out, name + "_sum", labelNames, e.getKey(), null, null, c.sum.sum());
+            MetricsRegistry.sample(out, name + "_count", labelNames, e.getKey(), null, null, cumulative);
+        }
+    }
+}
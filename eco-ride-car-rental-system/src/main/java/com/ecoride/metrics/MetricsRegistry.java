@@ -0,0 +1,109 @@
+package com.ecoride.metrics;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Metrics rendered in the Prometheus text exposition format (version 0.0.4). Counters and histograms
+ * are updated in place by the code they measure; gauges and counter functions are callbacks read at
+ * scrape time, so they must be O(1) reads of state kept up to date elsewhere, never scans.
+ */
+public class MetricsRegistry {
+
+    /** Something that can write its samples; one per metric family. */
+    interface Family {
+        String name();
+        void render(StringBuilder out);
+    }
+
+    private final List<Family> families = new CopyOnWriteArrayList<>();
+    private final Set<String> names = Collections.synchronizedSet(new HashSet<>());
+
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(new Counter(name, help, labelNames));
+    }
+
+    public Histogram histogram(String name, String help, double[] bucketsSeconds, String... labelNames) {
+        return register(new Histogram(name, help, bucketsSeconds, labelNames));
+    }
+
+    /** A single gauge read at scrape time. */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        register(new Sampled(name, help, "gauge", null, () -> Map.of("", value.getAsDouble())));
+    }
+
+    /** One gauge per label value, all read together at scrape time. */
+    public void gauge(String name, String help, String labelName, Supplier<Map<String, ? extends Number>> values) {
+        register(new Sampled(name, help, "gauge", labelName, values));
+    }
+
+    /** Monotonic totals kept by someone else (e.g. cache statistics), one per label value. */
+    public void counterFunction(String name, String help, String labelName, Supplier<Map<String, ? extends Number>> values) {
+        register(new Sampled(name, help, "counter", labelName, values));
+    }
+
+    /** Every family, in registration order. */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family f : families) f.render(out);
+        return out.toString();
+    }
+
+    private <F extends Family> F register(F family) {
+        if (!family.name().matches("[a-zA-Z_:][a-zA-Z0-9_:]*")) throw new IllegalArgumentException("Invalid metric name: " + family.name());
+        if (!names.add(family.name())) throw new IllegalArgumentException("Metric already registered: " + family.name());
+        families.add(family);
+        return family;
+    }
+
+    // ---- Text format ----
+
+    static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    static void sample(StringBuilder out, String name, String[] labelNames, List<String> labelValues, String extraLabel,
+                       String extraValue, double value) {
+        out.append(name);
+        boolean any = false;
+        for (int i = 0; i < labelNames.length; i++) {
+            out.append(any ? ',' : '{');
+            any = true;
+            label(out, labelNames[i], labelValues.get(i));
+        }
+        if (extraLabel != null) {
+            out.append(any ? ',' : '{');
+            any = true;
+            label(out, extraLabel, extraValue);
+        }
+        if (any) out.append('}');
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static void label(StringBuilder out, String name, String value) {
+        out.append(name).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+    }
+
+    static String format(double v) {
+        if (Double.isNaN(v)) return "NaN";
+        if (Double.isInfinite(v)) return v > 0 ? "+Inf" : "-Inf";
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return Long.toString((long) v);
+        return Double.toString(v);
+    }
+
+    /** Callback-backed gauges and counters. */
+    private record Sampled(String name, String help, String type, String labelName,
+                           Supplier<Map<String, ? extends Number>> values) implements Family {
+        @Override public void render(StringBuilder out) {
+            header(out, name, help, type);
+            String[] none = {};
+            for (Map.Entry<String, ? extends Number> e : new TreeMap<>(values.get()).entrySet()) {
+                sample(out, name, none, List.of(), labelName, e.getKey(), e.getValue().doubleValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecoride.metrics;
+
+import com.ecoride.cache.CacheStats;
+import com.ecoride.domain.AvailabilityStatus;
+import com.ecoride.domain.Category;
+import com.ecoride.event.DomainEvent;
+import com.ecoride.event.EventHandler;
+import com.ecoride.pricing.RateCardSource;
+import com.ecoride.repository.BookingRepository;
+import com.ecoride.repository.CustomerRepository;
+import com.ecoride.repository.VehicleRepository;
+import com.ecoride.service.AdmissionController;
+import com.ecoride.service.CarRentalSystem;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The rental system's metrics. Booking and revenue counters are fed from the event bus (subscribe this
+ * as a handler), so the request path pays nothing beyond the publish it already does. The active-booking
+ * gauge is counted once at startup and then kept up from the same events; fleet and repository gauges
+ * read the repositories' maintained counts, never their contents.
+ */
+public class RentalMetrics implements EventHandler {
+
+    private final MetricsRegistry registry;
+    private final Counter bookings;
+    private final Counter revenue;
+    private final Counter deposits;
+    private final AtomicLong active = new AtomicLong();
+    private final Map<String, Supplier<CacheStats>> caches = new TreeMap<>();
+
+    public RentalMetrics(MetricsRegistry registry, VehicleRepository vehicles, CustomerRepository customers,
+                         BookingRepository bookings) {
+        this.registry = registry;
+        this.bookings = registry.counter("ecoride_bookings_total", "Booking lifecycle events by category.", "category", "event");
+        this.revenue = registry.counter("ecoride_revenue_lkr_total", "Invoiced amount payable, by category.", "category");
+        this.deposits = registry.counter("ecoride_deposits_lkr_total", "Deposits taken on new bookings, by category.", "category");
+        active.set(bookings.findActive().size());
+        registry.gauge("ecoride_bookings_active", "Bookings that are reserved and not yet finished.", active::get);
+        registry.gauge("ecoride_fleet_vehicles", "Vehicles by availability status.", "status", () -> {
+            Map<String, Integer> byStatus = new HashMap<>();
+            for (AvailabilityStatus s : AvailabilityStatus.values()) byStatus.put(s.name(), vehicles.countByStatus(s));
+            return byStatus;
+        });
+        registry.gauge("ecoride_repository_entries", "Records held by each repository.", "repository",
+                () -> Map.of("vehicles", vehicles.count(), "customers", customers.count(), "bookings", bookings.count()));
+        registry.counterFunction("ecoride_cache_hits_total", "Cache hits.", "cache", () -> cacheValues(CacheStats::hits));
+        registry.counterFunction("ecoride_cache_misses_total", "Cache misses.", "cache", () -> cacheValues(CacheStats::misses));
+        registry.gauge("ecoride_cache_hit_ratio", "Hits over lookups since start.", "cache", () -> cacheValues(CacheStats::hitRate));
+    }
+
+    /** Export a cache's hit counters under {@code cache="<name>"}. */
+    public synchronized void bindCache(String name, Supplier<CacheStats> stats) { caches.put(name, stats); }
+
+    /**
+     * Export the system's idempotency cache and install an operation latency histogram on it. Replays of a
+     * stored result count as hits, first executions as misses.
+     */
+    public void bind(CarRentalSystem system) {
+        bindCache("idempotency", () -> {
+            var s = system.idempotencyStats();
+            return new CacheStats(s.duplicates(), s.executed(), s.evictions() + s.expirations(), 0, s.size(), s.size(), 0, 0, 0, 0);
+        });
+        system.setLatencyHistogram(registry.histogram("ecoride_operation_duration_seconds",
+                "Booking operation latency.", Histogram.LATENCY_BUCKETS, "operation"));
+    }
+
+    /** Export rate card reloads, so a card that failed to parse (and left the previous one in force) shows up. */
+    public void bindRateCard(RateCardSource rates) {
+        registry.counterFunction("ecoride_rate_card_reloads_total", "Rate card reloads by outcome.", "result",
+                () -> Map.of("ok", rates.reloads(), "failed", rates.failedReloads()));
+    }
+
+    /** Export admission decisions and the requests currently admitted. */
+    public void bindAdmission(AdmissionController admission) {
+        registry.counterFunction("ecoride_admission_total", "Booking requests by admission outcome.", "result", () -> {
+            AdmissionController.Stats s = admission.stats();
+            return Map.of("admitted", s.admitted(), "customer_rate", s.rejectedCustomerRate(),
+                    "global_rate", s.rejectedGlobalRate(), "overloaded", s.rejectedOverloaded());
+        });
+        registry.gauge("ecoride_admission_in_flight", "Admitted booking requests still running.", () -> admission.stats().inFlight());
+    }
+
+    public MetricsRegistry registry() { return registry; }
+
+    @Override
+    public void onEvent(DomainEvent e, long sequence, boolean endOfBatch) {
+        Category c = e.getCategory();
+        String category = c == null ? "unknown" : c.name();
+        switch (e.getType()) {
+            case BOOKING_CREATED -> {
+                bookings.labels(category, "created").inc();
+                active.incrementAndGet();
+                deposits.labels(category).add(e.getDepositCents() / 100.0);
+            }
+            case BOOKING_UPDATED -> bookings.labels(category, "updated").inc();
+            case BOOKING_CANCELLED -> {
+                bookings.labels(category, "cancelled").inc();
+                active.decrementAndGet();
+            }
+            case BOOKING_COMPLETED -> {
+                bookings.labels(category, "completed").inc();
+                active.decrementAndGet();
+            }
+            case INVOICE_ISSUED -> {
+                if (e.getAmount() != null) revenue.labels(category).add(e.getAmount().doubleValue());
+            }
+            case VEHICLE_STATUS_CHANGED -> { } // fleet gauge reads the repository's status counts
+        }
+    }
+
+    private synchronized Map<String, Double> cacheValues(ToDoubleFunction<CacheStats> f) {
+        Map<String, Double> out = new HashMap<>();
+        for (Map.Entry<String, Supplier<CacheStats>> e : caches.entrySet()) out.put(e.getKey(), f.applyAsDouble(e.getValue().get()));
+        return out;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecoride.payment;
+
+/** The gateway's answer for one request: approved with a reference, or declined with a reason. */
+public record GatewayResult(String requestId, boolean approved, String reference, String reason) {
+
+    public static GatewayResult approved(String requestId, String reference) { return new GatewayResult(requestId, true, reference, null); }
+    public static GatewayResult declined(String requestId, String reason) { return new GatewayResult(requestId, false, null, reason); }
+}
@@ -0,0 +1,7 @@
+package com.ecoride.payment;
+
+/** The gateway could not process a batch (timeout, outage); the batch may be retried as is. */
+public class GatewayUnavailableException extends IllegalStateException {
+
+    public GatewayUnavailableException(String message) { super(message); }
+}
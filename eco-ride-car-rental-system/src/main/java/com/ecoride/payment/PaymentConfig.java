@@ -0,0 +1,25 @@
+package com.ecoride.payment;
+
+import java.time.Duration;
+
+/**
+ * Tuning for {@link PaymentProcessor}. A batch goes out when it holds {@code maxBatchSize} requests or
+ * its first request has waited {@code maxBatchDelay}. Failed batches are retried up to
+ * {@code maxAttempts} times in all, after a random delay of up to {@code baseBackoff}, doubling with
+ * each attempt and capped at {@code maxBackoff}; the breaker opens after {@code breakerThreshold} failed batches in a row.
+ */
+public record PaymentConfig(int maxBatchSize, Duration maxBatchDelay, int senders, int maxAttempts,
+                            Duration baseBackoff, Duration maxBackoff, int breakerThreshold, Duration breakerOpenFor) {
+
+    public PaymentConfig {
+        if (maxBatchSize < 1 || senders < 1 || maxAttempts < 1) throw new IllegalArgumentException("Batch size, senders and attempts must be at least 1");
+        if (maxBatchDelay.isNegative() || baseBackoff.isNegative() || maxBackoff.compareTo(baseBackoff) < 0) {
+            throw new IllegalArgumentException("Delays must be non-negative and maxBackoff at least baseBackoff");
+        }
+    }
+
+    public static PaymentConfig defaults() {
+        return new PaymentConfig(50, Duration.ofMillis(20), 4, 6, Duration.ofMillis(100), Duration.ofSeconds(5),
+                5, Duration.ofSeconds(10));
+    }
+}
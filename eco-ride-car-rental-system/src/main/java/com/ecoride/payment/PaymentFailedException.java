@@ -0,0 +1,14 @@
+package com.ecoride.payment;
+
+/** A payment could not be taken after every retry, or the processor shut down first. */
+public class PaymentFailedException extends IllegalStateException {
+
+    private final String requestId;
+
+    public PaymentFailedException(String requestId, String message) {
+        super("Payment " + requestId + " failed: " + message);
+        this.requestId = requestId;
+    }
+
+    public String getRequestId() { return requestId; }
+}
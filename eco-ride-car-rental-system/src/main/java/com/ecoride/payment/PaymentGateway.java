@@ -0,0 +1,17 @@
+package com.ecoride.payment;
+
+import java.util.List;
+
+/**
+ * A card processor that accepts charges in batches. Implementations must treat {@link PaymentRequest#requestId()}
+ * as an idempotency key, answering a repeated id with the original result.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charge every request in the batch and return one result per request. Declines are results, not
+     * errors; throw {@link GatewayUnavailableException} when the batch could not be processed at all. Any
+     * other runtime exception is handled the same way: the batch is retried and counts against the breaker.
+     */
+    List<GatewayResult> charge(List<PaymentRequest> batch);
+}
@@ -0,0 +1,48 @@
+package com.ecoride.payment;
+
+import com.ecoride.domain.Payment;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Final outcome of every payment request the processor handled: captured, declined or failed. */
+public class PaymentLedger {
+
+    public static final String CAPTURED = "CAPTURED";
+    public static final String DECLINED = "DECLINED";
+    public static final String FAILED = "FAILED";
+
+    /** Ledger order: by booking, deposit before settlement. */
+    public static final Comparator<Payment> BY_BOOKING = Comparator.comparing(Payment::getBookingId)
+            .thenComparing(Payment::getPurpose).thenComparing(Payment::getPaymentId);
+
+    /** requestId -> outcome; a request id is recorded once however often it was retried. */
+    private final ConcurrentHashMap<String, Payment> byRequest = new ConcurrentHashMap<>();
+
+    void record(String requestId, Payment p) { byRequest.put(requestId, p); }
+
+    public int size() { return byRequest.size(); }
+
+    /** Snapshot of every recorded payment, sorted by booking. */
+    public List<Payment> payments() {
+        List<Payment> all = new ArrayList<>(byRequest.values());
+        all.sort(BY_BOOKING);
+        return all;
+    }
+
+    public List<Payment> forBooking(String bookingId) {
+        return payments().stream().filter(p -> bookingId.equals(p.getBookingId())).toList();
+    }
+
+    /** Total captured against a booking. */
+    public BigDecimal captured(String bookingId) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Payment p : byRequest.values()) {
+            if (bookingId.equals(p.getBookingId()) && CAPTURED.equals(p.getStatus())) sum = sum.add(p.getAmount());
+        }
+        return sum;
+    }
+}
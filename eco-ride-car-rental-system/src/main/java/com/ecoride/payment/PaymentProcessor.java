@@ -0,0 +1,247 @@
+package com.ecoride.payment;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.domain.Invoice;
+import com.ecoride.domain.Payment;
+import com.ecoride.util.CircuitBreaker;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes payments off the booking path. {@link #submit} only queues the request and returns a future;
+ * a dispatcher thread groups queued requests into batches and hands each batch to a sender thread,
+ * which calls the gateway. A batch the gateway could not process is retried after a jittered
+ * exponential backoff, and a {@link CircuitBreaker} stops hammering a gateway that keeps failing —
+ * batches arriving while it is open count as failed attempts and back off like any other failure.
+ *
+ * <p>Declines complete the future normally with a {@code DECLINED} payment; only running out of
+ * attempts completes it exceptionally, with {@link PaymentFailedException}. Every outcome goes to the
+ * {@link PaymentLedger}. Submitting a request id that is already in flight returns the same future.
+ */
+public class PaymentProcessor implements AutoCloseable {
+
+    public static final String DEFAULT_METHOD = "CARD";
+
+    /** Point-in-time counters. */
+    public record Stats(long submitted, long captured, long declined, long failed, long batches, long retries,
+                        long gatewayErrors, long breakerRejections, CircuitBreaker.State breaker, int pending) {
+        @Override public String toString() {
+            return String.format("submitted=%d captured=%d declined=%d failed=%d batches=%d retries=%d gatewayErrors=%d breakerRejections=%d breaker=%s pending=%d",
+                    submitted, captured, declined, failed, batches, retries, gatewayErrors, breakerRejections, breaker, pending);
+        }
+    }
+
+    private record Pending(PaymentRequest request, CompletableFuture<Payment> future, int attempt) {
+        Pending next() { return new Pending(request, future, attempt + 1); }
+    }
+
+    private final PaymentGateway gateway;
+    private final PaymentConfig config;
+    private final CircuitBreaker breaker;
+    private final PaymentLedger ledger = new PaymentLedger();
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Payment>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService retries;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder gatewayErrors = new LongAdder();
+    private final LongAdder breakerRejections = new LongAdder();
+
+    public PaymentProcessor(PaymentGateway gateway, PaymentConfig config, Clock clock) {
+        this.gateway = gateway;
+        this.config = config;
+        this.breaker = new CircuitBreaker(config.breakerThreshold(), config.breakerOpenFor(), clock);
+        this.senders = Executors.newFixedThreadPool(config.senders(), daemon("payment-send"));
+        this.retries = Executors.newSingleThreadScheduledExecutor(daemon("payment-retry"));
+        this.dispatcher = daemon("payment-dispatch").newThread(this::dispatch);
+        dispatcher.start();
+    }
+
+    // ---- Submission ----
+
+    /** Queue a charge; never blocks. The future completes with the captured or declined payment. */
+    public CompletableFuture<Payment> submit(PaymentRequest request) {
+        if (closed) return CompletableFuture.failedFuture(new PaymentFailedException(request.requestId(), "payment processor is closed"));
+        CompletableFuture<Payment> mine = new CompletableFuture<>();
+        CompletableFuture<Payment> existing = inFlight.putIfAbsent(request.requestId(), mine);
+        if (existing != null) return existing;
+        submitted.increment();
+        queue.add(new Pending(request, mine, 1));
+        return mine;
+    }
+
+    /** Capture a booking's deposit. Nothing is charged, and the future holds null, when the deposit is zero. */
+    public CompletableFuture<Payment> captureDeposit(Booking b) {
+        return charge("DEP-" + b.getBookingId(), b.getBookingId(), Payment.Purpose.DEPOSIT, b.getDeposit());
+    }
+
+    /** Charge what is left to pay on an invoice. Nothing is charged, and the future holds null, when that is zero. */
+    public CompletableFuture<Payment> settle(Invoice invoice) {
+        String bookingId = invoice.getBooking().getBookingId();
+        return charge("SET-" + bookingId, bookingId, Payment.Purpose.SETTLEMENT, invoice.getFinalPayable());
+    }
+
+    private CompletableFuture<Payment> charge(String requestId, String bookingId, Payment.Purpose purpose, BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) return CompletableFuture.completedFuture(null);
+        return submit(new PaymentRequest(requestId, bookingId, purpose, amount, DEFAULT_METHOD));
+    }
+
+    public PaymentLedger ledger() { return ledger; }
+
+    public CircuitBreaker.State breakerState() { return breaker.state(); }
+
+    public Stats stats() {
+        return new Stats(submitted.sum(), captured.sum(), declined.sum(), failed.sum(), batches.sum(), retried.sum(),
+                gatewayErrors.sum(), breakerRejections.sum(), breaker.state(), inFlight.size());
+    }
+
+    /** Wait until everything submitted so far has an outcome. Returns false on timeout. */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        CompletableFuture<?> all = CompletableFuture.allOf(inFlight.values().toArray(new CompletableFuture<?>[0]));
+        try {
+            all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // individual failures are reported through their own futures
+        } catch (TimeoutException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /** Stop taking work; anything not yet settled fails with {@link PaymentFailedException}. */
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        retries.shutdownNow();
+        senders.shutdown();
+        try {
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (String id : new ArrayList<>(inFlight.keySet())) {
+            CompletableFuture<Payment> f = inFlight.remove(id);
+            if (f != null) f.completeExceptionally(new PaymentFailedException(id, "payment processor closed"));
+        }
+    }
+
+    // ---- Batching and sending ----
+
+    private void dispatch() {
+        try {
+            while (!closed) {
+                List<Pending> batch = new ArrayList<>(config.maxBatchSize());
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + config.maxBatchDelay().toNanos();
+                while (batch.size() < config.maxBatchSize()) {
+                    long wait = deadline - System.nanoTime();
+                    Pending p = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (p == null) break;
+                    batch.add(p);
+                }
+                try {
+                    senders.execute(() -> send(batch));
+                } catch (RejectedExecutionException e) {
+                    return; // closing
+                }
+            }
+        } catch (InterruptedException e) {
+            // closing
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        batches.increment();
+        if (!breaker.tryAcquire()) {
+            breakerRejections.add(batch.size());
+            retryOrFail(batch, "circuit breaker open");
+            return;
+        }
+        List<GatewayResult> results;
+        try {
+            results = gateway.charge(batch.stream().map(Pending::request).toList());
+        } catch (RuntimeException ex) {
+            // any gateway failure, not just the declared one: the breaker must see it (or a half-open probe
+            // never ends) and every future in the batch must still complete
+            breaker.onFailure();
+            gatewayErrors.increment();
+            retryOrFail(batch, ex.getMessage() != null ? ex.getMessage() : ex.toString());
+            return;
+        }
+        if (results == null) results = List.of();
+        breaker.onSuccess();
+        Map<String, GatewayResult> byId = new HashMap<>();
+        for (GatewayResult r : results) byId.put(r.requestId(), r);
+        List<Pending> unanswered = new ArrayList<>();
+        for (Pending p : batch) {
+            GatewayResult r = byId.get(p.request().requestId());
+            if (r == null) unanswered.add(p);
+            else complete(p, r);
+        }
+        if (!unanswered.isEmpty()) retryOrFail(unanswered, "no result from gateway");
+    }
+
+    private void complete(Pending p, GatewayResult r) {
+        PaymentRequest req = p.request();
+        Payment payment = new Payment(r.approved() ? r.reference() : req.requestId(), req.bookingId(), req.purpose(),
+                req.amount(), req.method(), r.approved() ? PaymentLedger.CAPTURED : PaymentLedger.DECLINED);
+        ledger.record(req.requestId(), payment);
+        (r.approved() ? captured : declined).increment();
+        inFlight.remove(req.requestId(), p.future());
+        p.future().complete(payment);
+    }
+
+    private void retryOrFail(List<Pending> batch, String reason) {
+        for (Pending p : batch) {
+            if (p.attempt() >= config.maxAttempts() || closed) {
+                fail(p, reason);
+                continue;
+            }
+            retried.increment();
+            try {
+                retries.schedule(() -> queue.add(p.next()), backoffMillis(p.attempt()), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                fail(p, "payment processor closed");
+            }
+        }
+    }
+
+    private void fail(Pending p, String reason) {
+        PaymentRequest req = p.request();
+        ledger.record(req.requestId(), new Payment(req.requestId(), req.bookingId(), req.purpose(), req.amount(),
+                req.method(), PaymentLedger.FAILED));
+        failed.increment();
+        inFlight.remove(req.requestId(), p.future());
+        p.future().completeExceptionally(new PaymentFailedException(req.requestId(), reason));
+    }
+
+    /** "Full jitter": uniform in [0, min(max, base * 2^(attempt-1))], so retrying clients spread out. */
+    private long backoffMillis(int attempt) {
+        long base = config.baseBackoff().toMillis();
+        long cap = config.maxBackoff().toMillis();
+        long ceiling = attempt >= 31 ? cap : Math.min(cap, base << (attempt - 1));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
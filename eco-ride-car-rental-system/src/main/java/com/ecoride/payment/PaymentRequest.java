@@ -0,0 +1,17 @@
+package com.ecoride.payment;
+
+import com.ecoride.domain.Payment;
+
+import java.math.BigDecimal;
+
+/**
+ * One charge to send to the gateway. {@code requestId} is the gateway's idempotency key: it stays the
+ * same across retries, so a charge the gateway took before a timeout is not taken twice.
+ */
+public record PaymentRequest(String requestId, String bookingId, Payment.Purpose purpose, BigDecimal amount, String method) {
+
+    public PaymentRequest {
+        if (requestId == null || requestId.isBlank()) throw new IllegalArgumentException("Payment request id is required");
+        if (amount == null || amount.signum() <= 0) throw new IllegalArgumentException("Payment amount must be positive");
+    }
+}
@@ -0,0 +1,229 @@
+package com.ecoride.payment;
+
+import com.ecoride.domain.Invoice;
+import com.ecoride.domain.Payment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Nightly check that what each invoice says was taken matches the payments captured for its booking.
+ * Both inputs must be sorted by booking ID; the job walks them together in one merge-join pass and
+ * keeps only per-booking running totals, so memory stays flat however many records there are.
+ * Discrepancies go to a sink as they are found.
+ *
+ * <p>For each booking the captured DEPOSIT payments must add up to the invoice's deposit deducted and
+ * the captured SETTLEMENT payments to its final payable. Declined and failed attempts are ignored.
+ * A booking with only a deposit and no invoice is still open (or was cancelled) and is counted, not
+ * reported; a settlement with no invoice is reported.
+ *
+ * <p>File format, one tab-separated record per line ({@link #encode(Invoice)}, {@link #encode(Payment)}):
+ * <pre>
+ *   invoices:  bookingId  invoiceId  depositDeducted  finalPayable
+ *   payments:  bookingId  paymentId  purpose  amount  status
+ * </pre>
+ * Booking IDs compare as Java strings, which matches {@code LC_ALL=C sort -t$'\t' -k1,1} for ASCII IDs.
+ */
+public class ReconciliationJob {
+
+    public enum Kind { AMOUNT_MISMATCH, MISSING_PAYMENT, UNINVOICED_PAYMENT, DUPLICATE_INVOICE, DUPLICATE_PAYMENT }
+
+    /** The invoice fields reconciliation needs. */
+    public record InvoiceLine(String bookingId, String invoiceId, BigDecimal depositDeducted, BigDecimal finalPayable) {
+        public static InvoiceLine of(Invoice i) {
+            return new InvoiceLine(i.getBooking().getBookingId(), i.getInvoiceId(), i.getDepositDeducted(), i.getFinalPayable());
+        }
+    }
+
+    public record Discrepancy(Kind kind, String bookingId, BigDecimal expected, BigDecimal actual, String detail) {
+        @Override public String toString() {
+            return kind + " " + bookingId + (expected != null ? " expected " + expected.toPlainString() : "")
+                    + (actual != null ? " captured " + actual.toPlainString() : "") + (detail != null ? " (" + detail + ")" : "");
+        }
+    }
+
+    public record Summary(long invoices, long payments, long bookings, long matched, long openDeposits, Map<Kind, Long> discrepancies) {
+        public long discrepancyCount() { return discrepancies.values().stream().mapToLong(Long::longValue).sum(); }
+        @Override public String toString() {
+            return String.format("%d invoices, %d payments, %d bookings: %d matched, %d open deposits, %d discrepancies %s",
+                    invoices, payments, bookings, matched, openDeposits, discrepancyCount(), discrepancies);
+        }
+    }
+
+    private final Consumer<Discrepancy> sink;
+    private final EnumMap<Kind, Long> counts = new EnumMap<>(Kind.class);
+    private long invoices, payments, bookings, matched, openDeposits;
+
+    public ReconciliationJob(Consumer<Discrepancy> sink) { this.sink = sink; }
+
+    /** Reconcile two files in the format above. */
+    public Summary run(Path invoiceFile, Path paymentFile) throws IOException {
+        try (BufferedReader inv = Files.newBufferedReader(invoiceFile, StandardCharsets.UTF_8);
+             BufferedReader pay = Files.newBufferedReader(paymentFile, StandardCharsets.UTF_8)) {
+            return run(lines(inv, ReconciliationJob::decodeInvoice), lines(pay, ReconciliationJob::decodePayment));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Reconcile two iterators, each sorted by booking ID. */
+    public Summary run(Iterator<InvoiceLine> invoiceStream, Iterator<Payment> paymentStream) {
+        counts.clear();
+        invoices = payments = bookings = matched = openDeposits = 0;
+        Sorted<InvoiceLine> inv = new Sorted<>(invoiceStream, InvoiceLine::bookingId, "invoice");
+        Sorted<Payment> pay = new Sorted<>(paymentStream, Payment::getBookingId, "payment");
+        while (inv.peek() != null || pay.peek() != null) {
+            String key = inv.peek() == null ? pay.key()
+                    : pay.peek() == null ? inv.key()
+                    : min(inv.key(), pay.key());
+            bookings++;
+            reconcileBooking(key, inv, pay);
+        }
+        return new Summary(invoices, payments, bookings, matched, openDeposits, Collections.unmodifiableMap(new EnumMap<>(counts)));
+    }
+
+    /** Consume every record for one booking from both streams and check them against each other. */
+    private void reconcileBooking(String bookingId, Sorted<InvoiceLine> inv, Sorted<Payment> pay) {
+        long before = total();
+        InvoiceLine invoice = null;
+        while (inv.peek() != null && inv.key().equals(bookingId)) {
+            InvoiceLine next = inv.next();
+            invoices++;
+            if (invoice != null) report(Kind.DUPLICATE_INVOICE, bookingId, null, null, invoice.invoiceId() + " and " + next.invoiceId());
+            else invoice = next;
+        }
+        BigDecimal deposits = BigDecimal.ZERO, settlements = BigDecimal.ZERO;
+        int depositCount = 0, settlementCount = 0;
+        while (pay.peek() != null && pay.key().equals(bookingId)) {
+            Payment p = pay.next();
+            payments++;
+            if (!PaymentLedger.CAPTURED.equals(p.getStatus())) continue;
+            if (p.getPurpose() == Payment.Purpose.DEPOSIT) { deposits = deposits.add(p.getAmount()); depositCount++; }
+            else { settlements = settlements.add(p.getAmount()); settlementCount++; }
+        }
+
+        if (depositCount > 1) report(Kind.DUPLICATE_PAYMENT, bookingId, null, deposits, depositCount + " deposits captured");
+        if (settlementCount > 1) report(Kind.DUPLICATE_PAYMENT, bookingId, null, settlements, settlementCount + " settlements captured");
+        if (invoice == null) {
+            if (settlementCount > 0) report(Kind.UNINVOICED_PAYMENT, bookingId, null, settlements, "settlement without invoice");
+            else if (depositCount > 0) openDeposits++;
+            return;
+        }
+        check(bookingId, "deposit", invoice.depositDeducted(), deposits, depositCount);
+        check(bookingId, "settlement", invoice.finalPayable(), settlements, settlementCount);
+        if (total() == before) matched++;
+    }
+
+    private void check(String bookingId, String what, BigDecimal expected, BigDecimal captured, int count) {
+        BigDecimal want = expected == null ? BigDecimal.ZERO : expected;
+        if (count == 0 && want.signum() > 0) report(Kind.MISSING_PAYMENT, bookingId, want, null, "no " + what);
+        else if (count > 0 && want.compareTo(captured) != 0) report(Kind.AMOUNT_MISMATCH, bookingId, want, captured, what);
+    }
+
+    private void report(Kind kind, String bookingId, BigDecimal expected, BigDecimal actual, String detail) {
+        counts.merge(kind, 1L, Long::sum);
+        sink.accept(new Discrepancy(kind, bookingId, expected, actual, detail));
+    }
+
+    private long total() { return counts.values().stream().mapToLong(Long::longValue).sum(); }
+
+    private static String min(String a, String b) { return a.compareTo(b) <= 0 ? a : b; }
+
+    // ---- Record format ----
+
+    public static String encode(Invoice i) {
+        return String.join("\t", i.getBooking().getBookingId(), i.getInvoiceId(),
+                i.getDepositDeducted().toPlainString(), i.getFinalPayable().toPlainString());
+    }
+
+    public static String encode(Payment p) {
+        return String.join("\t", p.getBookingId(), p.getPaymentId(), p.getPurpose().name(),
+                p.getAmount().toPlainString(), p.getStatus());
+    }
+
+    public static InvoiceLine decodeInvoice(String line) {
+        String[] f = fields(line, 4);
+        return new InvoiceLine(f[0], f[1], new BigDecimal(f[2]), new BigDecimal(f[3]));
+    }
+
+    public static Payment decodePayment(String line) {
+        String[] f = fields(line, 5);
+        return new Payment(f[1], f[0], Payment.Purpose.valueOf(f[2]), new BigDecimal(f[3]), null, f[4]);
+    }
+
+    private static String[] fields(String line, int n) {
+        String[] f = line.split("\t", -1);
+        if (f.length != n) throw new IllegalArgumentException("Expected " + n + " fields but got " + f.length + ": " + line);
+        return f;
+    }
+
+    /** Lazily decoded lines, skipping blanks. */
+    private static <T> Iterator<T> lines(BufferedReader r, Function<String, T> decode) {
+        return new Iterator<>() {
+            private String next = advance();
+
+            private String advance() {
+                try {
+                    String line;
+                    do line = r.readLine(); while (line != null && line.isEmpty());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override public boolean hasNext() { return next != null; }
+
+            @Override public T next() {
+                if (next == null) throw new NoSuchElementException();
+                T value = decode.apply(next);
+                next = advance();
+                return value;
+            }
+        };
+    }
+
+    /** One-element lookahead that also rejects input going backwards in booking ID order. */
+    private static final class Sorted<T> {
+        private final Iterator<T> it;
+        private final Function<T, String> keyOf;
+        private final String name;
+        private T head;
+        private String lastKey;
+
+        Sorted(Iterator<T> it, Function<T, String> keyOf, String name) {
+            this.it = it;
+            this.keyOf = keyOf;
+            this.name = name;
+            fill();
+        }
+
+        T peek() { return head; }
+        String key() { return keyOf.apply(head); }
+
+        T next() {
+            T value = head;
+            fill();
+            return value;
+        }
+
+        private void fill() {
+            head = it.hasNext() ? it.next() : null;
+            if (head == null) return;
+            String k = keyOf.apply(head);
+            if (k == null) throw new IllegalArgumentException("The " + name + " stream has a record without a booking ID");
+            if (lastKey != null && k.compareTo(lastKey) < 0) {
+                throw new IllegalArgumentException("The " + name + " stream is not sorted by booking ID: " + k + " after " + lastKey);
+            }
+            lastKey = k;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecoride.payment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for a card gateway, for development and offline load tests. Each batch takes
+ * {@code latency}, fails outright with probability {@code failureRate}, and otherwise declines each
+ * request with probability {@code declineRate}. Repeated request ids get their first answer back, as a
+ * real gateway's idempotency keys would. Seeded, so a run's outcomes can be reproduced.
+ */
+public class SimulatedGateway implements PaymentGateway {
+
+    private final Duration latency;
+    private volatile double failureRate;
+    private final double declineRate;
+    private final SplittableRandom random;
+    private final ConcurrentHashMap<String, GatewayResult> processed = new ConcurrentHashMap<>();
+    private final AtomicLong references = new AtomicLong();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder charged = new LongAdder();
+
+    public SimulatedGateway(Duration latency, double failureRate, double declineRate, long seed) {
+        if (latency.isNegative()) throw new IllegalArgumentException("Latency must not be negative");
+        checkRate(failureRate);
+        checkRate(declineRate);
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /** Always approves, instantly. */
+    public static SimulatedGateway instant() { return new SimulatedGateway(Duration.ZERO, 0, 0, 1); }
+
+    @Override
+    public List<GatewayResult> charge(List<PaymentRequest> batch) {
+        calls.increment();
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GatewayUnavailableException("Interrupted while waiting for the gateway");
+            }
+        }
+        if (roll() < failureRate) throw new GatewayUnavailableException("Simulated gateway outage");
+        List<GatewayResult> results = new ArrayList<>(batch.size());
+        for (PaymentRequest r : batch) {
+            results.add(processed.computeIfAbsent(r.requestId(), id -> {
+                if (roll() < declineRate) return GatewayResult.declined(id, "Simulated decline");
+                charged.increment();
+                return GatewayResult.approved(id, "PAY-" + references.incrementAndGet());
+            }));
+        }
+        return results;
+    }
+
+    /** Change the outage rate on the fly, e.g. to simulate the gateway going down and coming back. */
+    public void setFailureRate(double failureRate) {
+        checkRate(failureRate);
+        this.failureRate = failureRate;
+    }
+
+    /** Batches received, including failed ones. */
+    public long calls() { return calls.sum(); }
+
+    /** Distinct requests approved. */
+    public long charged() { return charged.sum(); }
+
+    private synchronized double roll() { return random.nextDouble(); }
+
+    private static void checkRate(double rate) {
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("Rates must be between 0 and 1");
+    }
+}
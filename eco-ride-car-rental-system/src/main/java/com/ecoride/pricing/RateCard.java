@@ -0,0 +1,235 @@
+package com.ecoride.pricing;
+
+import com.ecoride.domain.Category;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.*;
+
+/**
+ * Immutable, compiled rate card: category rates, long-rental discount tiers, seasonal fee multipliers
+ * and per-branch variants. Everything is resolved at compile time into arrays indexed by branch and
+ * category ordinal (and day of year for seasons), so a lookup is a couple of array reads and pricing
+ * code can hold one card for a whole calculation without locking.
+ *
+ * <p>Text format, one directive per line ({@code #} starts a comment). A leading {@code @branch}
+ * applies the directive to that branch only; anything a branch does not set falls back to the default.
+ * <pre>
+ *   deposit 5000
+ *   category ELECTRIC fee=10000 freeKm=200 extraKm=40 tax=0.08
+ *   discount 7 0.10                      (rentals of 7+ days get 10% off the base price)
+ *   season peak 12-15..01-05 1.25 ELECTRIC HYBRID   (no categories = all)
+ *   &#64;kandy deposit 7500
+ *   &#64;kandy category LUXURY_SUV fee=16000
+ *   &#64;kandy discount 5 0.05           (a branch with its own tiers replaces the default tiers)
+ * </pre>
+ * Seasons apply to every branch; when seasons overlap for a category, the one declared later wins.
+ */
+public final class RateCard {
+
+    public static final String DEFAULT_BRANCH = "default";
+
+    private static final int CATEGORIES = Category.values().length;
+    private static final int DAYS_OF_YEAR = 366; // indexed by day of a leap year, so Feb 29 has a slot
+
+    private final Map<String, Integer> branchIndex;
+    private final BigDecimal[] deposit;            // [branch]
+    private final BigDecimal[][] dailyFee;         // [branch][category]
+    private final int[][] freeKmPerDay;
+    private final BigDecimal[][] extraKmCharge;
+    private final BigDecimal[][] taxRate;
+    private final int[][] discountMinDays;         // [branch][tier], ascending
+    private final BigDecimal[][] discountRate;
+    private final byte[][] seasonOfDay;            // [category][day of year] -> season + 1, 0 = none
+    private final BigDecimal[][] seasonMultiplier; // [season][category], null = no change
+    private final String[] seasonNames;
+
+    private RateCard(Builder b) {
+        List<String> branches = new ArrayList<>(b.branches);
+        int n = branches.size();
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) index.put(branches.get(i), i);
+        this.branchIndex = Map.copyOf(index);
+        this.deposit = new BigDecimal[n];
+        this.dailyFee = new BigDecimal[n][CATEGORIES];
+        this.freeKmPerDay = new int[n][CATEGORIES];
+        this.extraKmCharge = new BigDecimal[n][CATEGORIES];
+        this.taxRate = new BigDecimal[n][CATEGORIES];
+        this.discountMinDays = new int[n][];
+        this.discountRate = new BigDecimal[n][];
+        for (int i = 0; i < n; i++) {
+            String br = branches.get(i);
+            deposit[i] = b.deposit.getOrDefault(br, b.deposit.get(DEFAULT_BRANCH));
+            for (Category c : Category.values()) {
+                int k = c.ordinal();
+                dailyFee[i][k] = b.value(br, c, "fee", c.getDailyRentalFee());
+                freeKmPerDay[i][k] = b.value(br, c, "freeKm", BigDecimal.valueOf(c.getFreeKmPerDay())).intValueExact();
+                extraKmCharge[i][k] = b.value(br, c, "extraKm", c.getExtraKmCharge());
+                taxRate[i][k] = b.value(br, c, "tax", c.getTaxRate());
+            }
+            TreeMap<Integer, BigDecimal> tiers = b.discounts.getOrDefault(br, b.discounts.get(DEFAULT_BRANCH));
+            discountMinDays[i] = tiers.keySet().stream().mapToInt(Integer::intValue).toArray();
+            discountRate[i] = tiers.values().toArray(new BigDecimal[0]);
+        }
+        this.seasonOfDay = new byte[CATEGORIES][DAYS_OF_YEAR];
+        this.seasonMultiplier = new BigDecimal[b.seasons.size()][];
+        this.seasonNames = new String[b.seasons.size()];
+        for (int s = 0; s < b.seasons.size(); s++) {
+            Season season = b.seasons.get(s);
+            seasonNames[s] = season.name;
+            seasonMultiplier[s] = new BigDecimal[CATEGORIES];
+            for (Category c : season.categories) seasonMultiplier[s][c.ordinal()] = season.multiplier;
+            int from = dayIndex(season.from), to = dayIndex(season.to);
+            for (int d = from; ; d = (d + 1) % DAYS_OF_YEAR) { // ranges may wrap past New Year
+                // only the season's own categories: a later season for some categories leaves the others' rates alone
+                for (Category c : season.categories) seasonOfDay[c.ordinal()][d] = (byte) (s + 1);
+                if (d == to) break;
+            }
+        }
+    }
+
+    /** The built-in card: the {@link Category} rates, 10% off rentals of 7+ days and a LKR 5000 deposit. */
+    public static RateCard defaults() { return new Builder().build(); }
+
+    // ---- Lookups ----
+
+    /** Index of a branch for the other lookups; unknown branches get the default rates. */
+    public int branch(String name) {
+        Integer i = name == null ? null : branchIndex.get(name);
+        return i != null ? i : branchIndex.get(DEFAULT_BRANCH);
+    }
+
+    public Set<String> branches() { return branchIndex.keySet(); }
+
+    public BigDecimal deposit(int branch) { return deposit[branch]; }
+    public BigDecimal dailyFee(int branch, Category c) { return dailyFee[branch][c.ordinal()]; }
+    public int freeKmPerDay(int branch, Category c) { return freeKmPerDay[branch][c.ordinal()]; }
+    public BigDecimal extraKmCharge(int branch, Category c) { return extraKmCharge[branch][c.ordinal()]; }
+    public BigDecimal taxRate(int branch, Category c) { return taxRate[branch][c.ordinal()]; }
+
+    /** Discount rate for a rental of the given length, or null when no tier applies. */
+    public BigDecimal discountRate(int branch, int days) {
+        int[] mins = discountMinDays[branch];
+        BigDecimal rate = null;
+        for (int t = 0; t < mins.length && mins[t] <= days; t++) rate = discountRate[branch][t];
+        return rate;
+    }
+
+    /** Seasonal fee multiplier for a category on a date, or null when no season applies. */
+    public BigDecimal seasonMultiplier(Category c, LocalDate date) {
+        int s = seasonOfDay[c.ordinal()][dayIndex(MonthDay.from(date))];
+        return s == 0 ? null : seasonMultiplier[s - 1][c.ordinal()];
+    }
+
+    public boolean hasSeasons() { return seasonNames.length > 0; }
+
+    private static int dayIndex(MonthDay md) { return md.atYear(2000).getDayOfYear() - 1; }
+
+    // ---- Parsing ----
+
+    public static RateCard parse(String text) {
+        Builder b = new Builder();
+        int lineNo = 0;
+        for (String raw : text.split("\n")) {
+            lineNo++;
+            int hash = raw.indexOf('#');
+            String line = (hash >= 0 ? raw.substring(0, hash) : raw).trim();
+            if (line.isEmpty()) continue;
+            try {
+                b.directive(line);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Rate card line " + lineNo + ": " + ex.getMessage(), ex);
+            }
+        }
+        return b.build();
+    }
+
+    private record Season(String name, MonthDay from, MonthDay to, BigDecimal multiplier, Set<Category> categories) {}
+
+    private static final class Builder {
+        final LinkedHashSet<String> branches = new LinkedHashSet<>(List.of(DEFAULT_BRANCH));
+        final Map<String, BigDecimal> deposit = new HashMap<>(Map.of(DEFAULT_BRANCH, new BigDecimal("5000")));
+        /** branch -> "CATEGORY.field" -> value */
+        final Map<String, Map<String, BigDecimal>> categoryValues = new HashMap<>();
+        final Map<String, TreeMap<Integer, BigDecimal>> discounts = new HashMap<>();
+        final List<Season> seasons = new ArrayList<>();
+        boolean defaultDiscounts = true;
+
+        Builder() {
+            discounts.put(DEFAULT_BRANCH, new TreeMap<>(Map.of(7, new BigDecimal("0.10"))));
+        }
+
+        BigDecimal value(String branch, Category c, String field, BigDecimal builtIn) {
+            String key = c.name() + "." + field;
+            BigDecimal v = categoryValues.getOrDefault(branch, Map.of()).get(key);
+            if (v == null) v = categoryValues.getOrDefault(DEFAULT_BRANCH, Map.of()).get(key);
+            return v != null ? v : builtIn;
+        }
+
+        void directive(String line) {
+            String[] t = line.split("\\s+");
+            String branch = DEFAULT_BRANCH;
+            int i = 0;
+            if (t[0].startsWith("@")) {
+                branch = t[0].substring(1);
+                if (branch.isEmpty()) throw new IllegalArgumentException("Empty branch name");
+                branches.add(branch);
+                i = 1;
+            }
+            if (i >= t.length) throw new IllegalArgumentException("Missing directive");
+            switch (t[i]) {
+                case "deposit" -> deposit.put(branch, money(arg(t, i + 1)));
+                case "category" -> {
+                    Category c = Category.valueOf(arg(t, i + 1).toUpperCase(Locale.ROOT));
+                    Map<String, BigDecimal> values = categoryValues.computeIfAbsent(branch, k -> new HashMap<>());
+                    for (int k = i + 2; k < t.length; k++) {
+                        int eq = t[k].indexOf('=');
+                        if (eq < 0) throw new IllegalArgumentException("Expected field=value but got " + t[k]);
+                        String field = t[k].substring(0, eq);
+                        if (!List.of("fee", "freeKm", "extraKm", "tax").contains(field)) {
+                            throw new IllegalArgumentException("Unknown category field: " + field);
+                        }
+                        BigDecimal v = money(t[k].substring(eq + 1));
+                        if (field.equals("freeKm")) v.intValueExact();
+                        values.put(c.name() + "." + field, v);
+                    }
+                }
+                case "discount" -> {
+                    if (branch.equals(DEFAULT_BRANCH) && defaultDiscounts) {
+                        discounts.get(DEFAULT_BRANCH).clear(); // a file's tiers replace the built-in one
+                        defaultDiscounts = false;
+                    }
+                    int minDays = Integer.parseInt(arg(t, i + 1));
+                    if (minDays < 1) throw new IllegalArgumentException("Discount tier must start at 1 day or more");
+                    discounts.computeIfAbsent(branch, k -> new TreeMap<>()).put(minDays, money(arg(t, i + 2)));
+                }
+                case "season" -> {
+                    if (!branch.equals(DEFAULT_BRANCH)) throw new IllegalArgumentException("Seasons apply to every branch");
+                    String[] range = arg(t, i + 2).split("\\.\\.");
+                    if (range.length != 2) throw new IllegalArgumentException("Season range must be MM-DD..MM-DD");
+                    Set<Category> cats = EnumSet.noneOf(Category.class);
+                    for (int k = i + 4; k < t.length; k++) cats.add(Category.valueOf(t[k].toUpperCase(Locale.ROOT)));
+                    if (cats.isEmpty()) cats = EnumSet.allOf(Category.class);
+                    if (seasons.size() == Byte.MAX_VALUE) throw new IllegalArgumentException("Too many seasons");
+                    seasons.add(new Season(arg(t, i + 1), MonthDay.parse("--" + range[0]), MonthDay.parse("--" + range[1]),
+                            money(arg(t, i + 3)), cats));
+                }
+                default -> throw new IllegalArgumentException("Unknown directive: " + t[i]);
+            }
+        }
+
+        RateCard build() { return new RateCard(this); }
+
+        private static String arg(String[] t, int i) {
+            if (i >= t.length) throw new IllegalArgumentException("Missing value");
+            return t[i];
+        }
+
+        private static BigDecimal money(String s) {
+            BigDecimal v = new BigDecimal(s);
+            if (v.signum() < 0) throw new IllegalArgumentException("Negative value: " + s);
+            return v;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecoride.pricing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The rate card currently in force. A card is parsed and compiled completely before it is published
+ * with a single reference swap, so readers always see either the old card or the new one. Optionally
+ * watches its file and reloads on change; a file that fails to parse is counted in {@link #failedReloads()}
+ * with its {@link #lastError()}, and the previous card stays in force.
+ */
+public class RateCardSource implements Closeable {
+
+    private final AtomicReference<RateCard> current;
+    private final Path file;
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+    private volatile String lastError;
+    private WatchService watcher;
+    private Thread watchThread;
+
+    /** A fixed card that never reloads. */
+    public RateCardSource(RateCard card) {
+        this.current = new AtomicReference<>(card);
+        this.file = null;
+    }
+
+    /** Load the file now; call {@link #watch()} to follow later edits. */
+    public RateCardSource(Path file) throws IOException {
+        this.file = file;
+        this.current = new AtomicReference<>(RateCard.parse(Files.readString(file, StandardCharsets.UTF_8)));
+    }
+
+    /** Snapshot to use for one whole calculation. */
+    public RateCard current() { return current.get(); }
+
+    public long reloads() { return reloads.sum(); }
+    public long failedReloads() { return failedReloads.sum(); }
+    public String lastError() { return lastError; }
+
+    /** Re-read the file. Returns false, keeping the old card, if the file cannot be read or parsed. */
+    public boolean reload() {
+        if (file == null) return false;
+        try {
+            RateCard next = RateCard.parse(Files.readString(file, StandardCharsets.UTF_8));
+            current.set(next);
+            reloads.increment();
+            lastError = null;
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            failedReloads.increment();
+            lastError = ex.getMessage(); // surfaced through failedReloads()/lastError()
+            return false;
+        }
+    }
+
+    /** Start a daemon thread that reloads whenever the file is created, modified or replaced. */
+    public synchronized void watch() throws IOException {
+        if (file == null || watchThread != null) return;
+        Path dir = file.toAbsolutePath().getParent();
+        Path name = file.getFileName();
+        watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        WatchService ws = watcher;
+        watchThread = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = ws.take();
+                    boolean ours = false;
+                    for (WatchEvent<?> e : key.pollEvents()) ours |= name.equals(e.context());
+                    key.reset();
+                    if (!ours) continue;
+                    // editors write in several steps; let the burst settle, then drop its leftover events
+                    TimeUnit.MILLISECONDS.sleep(50);
+                    WatchKey more;
+                    while ((more = ws.poll()) != null) { more.pollEvents(); more.reset(); }
+                    reload();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            }
+        }, "rate-card-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) watcher.close();
+        if (watchThread != null) watchThread.interrupt();
+        watcher = null;
+        watchThread = null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecoride.replication;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, sequence-numbered log of repository mutations, written as rolling segment files.
+ *
+ * <p>Each line is {@code seq TAB epochMillis TAB PUT TAB <record>} or
+ * {@code seq TAB epochMillis TAB DELETE TAB <kind> TAB <id>}, where the record is a {@link RecordCodec}
+ * line carrying the full state of the entity. Every PUT is a complete upsert, so replaying an entry twice
+ * is harmless. A snapshot holds the full state at some sequence; once one is written, segments that are
+ * entirely older are deleted, which bounds how much a lagging or new replica has to replay.
+ */
+public class ChangeLog implements Closeable {
+
+    public static final String PUT = "PUT";
+    public static final String DELETE = "DELETE";
+
+    static final String SEGMENT_PREFIX = "changes-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path dir;
+    private final int entriesPerSegment;
+    private long sequence;
+    private int segmentEntries;
+    private Writer out;
+
+    public ChangeLog(Path dir, int entriesPerSegment) throws IOException {
+        this.dir = dir;
+        this.entriesPerSegment = entriesPerSegment;
+        Files.createDirectories(dir);
+        resume();
+    }
+
+    /** Last sequence written (0 when the log is empty). */
+    public synchronized long getSequence() { return sequence; }
+
+    public Path getDirectory() { return dir; }
+
+    public long appendPut(Vehicle v) { return append(PUT + '\t' + RecordCodec.encode(v)); }
+    public long appendPut(Customer c) { return append(PUT + '\t' + RecordCodec.encode(c)); }
+    public long appendPut(Booking b) { return append(PUT + '\t' + RecordCodec.encode(b)); }
+
+    public long appendDelete(String kind, String id) {
+        return append(DELETE + '\t' + kind + '\t' + RecordCodec.join(List.of(id)));
+    }
+
+    private synchronized long append(String body) {
+        try {
+            if (out == null || segmentEntries >= entriesPerSegment) roll(sequence + 1);
+            long seq = ++sequence;
+            out.write(Long.toString(seq));
+            out.write('\t');
+            out.write(Long.toString(System.currentTimeMillis()));
+            out.write('\t');
+            out.write(body);
+            out.write('\n');
+            out.flush(); // make the entry visible to tailing replicas immediately
+            segmentEntries++;
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Change log append failed", e);
+        }
+    }
+
+    /**
+     * Write the full repository state as of the current sequence, then delete segments the snapshot
+     * makes redundant. Appends are blocked while the snapshot is written.
+     */
+    public synchronized long writeSnapshot(VehicleRepository vehicles, CustomerRepository customers,
+                                           BookingRepository bookings) throws IOException {
+        long seq = sequence;
+        Path target = dir.resolve(snapshotName(seq));
+        Path tmp = dir.resolve(snapshotName(seq) + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            w.write("SNAPSHOT\t" + seq + "\n");
+            for (Vehicle v : vehicles.findAll()) { w.write(RecordCodec.encode(v)); w.write('\n'); }
+            for (Customer c : customers.findAll()) { w.write(RecordCodec.encode(c)); w.write('\n'); }
+            for (Booking b : bookings.findAll()) { w.write(RecordCodec.encode(b)); w.write('\n'); }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (Path old : listFiles(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (firstSequence(old, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < seq) Files.deleteIfExists(old);
+        }
+        // a segment is redundant when the next one starts at or before the first entry after the snapshot
+        List<Path> segments = listFiles(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) <= seq + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+        return seq;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) out.close();
+        out = null;
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        if (out != null) out.close();
+        Path segment = dir.resolve(SEGMENT_PREFIX + String.format("%020d", firstSeq) + SEGMENT_SUFFIX);
+        out = Files.newBufferedWriter(segment, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        segmentEntries = 0;
+    }
+
+    /** Pick up the sequence after a restart; new entries go to a fresh segment. */
+    private void resume() throws IOException {
+        List<Path> segments = listFiles(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (Path snap : listFiles(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            sequence = Math.max(sequence, firstSequence(snap, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+        }
+        if (segments.isEmpty()) return;
+        try (Stream<String> lines = Files.lines(segments.get(segments.size() - 1), StandardCharsets.UTF_8)) {
+            lines.filter(l -> !l.isEmpty()).forEach(l -> sequence = Math.max(sequence, Long.parseLong(l.substring(0, l.indexOf('\t')))));
+        }
+    }
+
+    // ---- File naming, shared with ReplicaNode ----
+
+    static String snapshotName(long seq) { return SNAPSHOT_PREFIX + String.format("%020d", seq) + SNAPSHOT_SUFFIX; }
+
+    static long firstSequence(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    /** Matching files sorted by the sequence in their name. */
+    static List<Path> listFiles(Path dir, String prefix, String suffix) throws IOException {
+        List<Path> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path p : ds) out.add(p);
+        }
+        out.sort((a, b) -> Long.compare(firstSequence(a, prefix, suffix), firstSequence(b, prefix, suffix)));
+        return out;
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecoride.replication;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read replica that tails a {@link ChangeLog} directory and applies it to its own in-memory repositories.
+ * It bootstraps from the newest snapshot, then follows segments by byte offset, so a poll only reads
+ * what was appended since the last one. If the entries it needs have been pruned it re-bootstraps.
+ */
+public class ReplicaNode {
+
+    private final Path dir;
+    private final Clock clock;
+    private final VehicleRepository vehicles = new InMemoryVehicleRepository();
+    private final CustomerRepository customers = new InMemoryCustomerRepository();
+    private final BookingRepository bookings = new InMemoryBookingRepository();
+
+    private Path segment;
+    private long offset;
+    private volatile long appliedSequence;
+    private volatile long lastAppliedCommitMillis;
+    private volatile long pendingBytes;
+    private volatile long entriesApplied;
+    private volatile int snapshotsLoaded;
+    private ScheduledExecutorService tailer;
+
+    public ReplicaNode(Path dir, Clock clock) {
+        this.dir = dir;
+        this.clock = clock;
+    }
+
+    public VehicleRepository vehicles() { return vehicles; }
+    public CustomerRepository customers() { return customers; }
+    public BookingRepository bookings() { return bookings; }
+
+    // ---- Lag metrics ----
+
+    public long getAppliedSequence() { return appliedSequence; }
+    public long getEntriesApplied() { return entriesApplied; }
+    public int getSnapshotsLoaded() { return snapshotsLoaded; }
+    /** Bytes of log written by the primary that this replica has not read yet. */
+    public long getPendingBytes() { return pendingBytes; }
+    /** Age of the newest applied entry while behind, 0 once caught up. */
+    public long getLagMillis() {
+        return pendingBytes == 0 ? 0 : Math.max(0, clock.millis() - lastAppliedCommitMillis);
+    }
+
+    // ---- Tailing ----
+
+    /** Apply everything currently in the log. Returns the number of entries applied. */
+    public synchronized int poll() throws IOException {
+        if (segment == null && !bootstrap()) return 0;
+        int applied = 0;
+        while (true) {
+            if (!Files.exists(segment)) {
+                // pruned under us: the snapshot that replaced it has everything we skipped
+                if (!bootstrap()) return applied;
+                continue;
+            }
+            applied += readSegment();
+            Path next = nextSegment();
+            if (next == null) break;
+            segment = next;
+            offset = 0;
+        }
+        pendingBytes = unreadBytes();
+        return applied;
+    }
+
+    public synchronized void start(Duration pollInterval) {
+        if (tailer != null) return;
+        tailer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-tail");
+            t.setDaemon(true);
+            return t;
+        });
+        tailer.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Replica poll failed: " + ex.getMessage());
+            }
+        }, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (tailer != null) tailer.shutdownNow();
+        tailer = null;
+    }
+
+    /** Load the newest snapshot (if any) and position at the segment holding the next entry. */
+    private boolean bootstrap() throws IOException {
+        List<Path> snapshots = ChangeLog.listFiles(dir, ChangeLog.SNAPSHOT_PREFIX, ChangeLog.SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            Path snap = snapshots.get(snapshots.size() - 1);
+            long snapSeq = ChangeLog.firstSequence(snap, ChangeLog.SNAPSHOT_PREFIX, ChangeLog.SNAPSHOT_SUFFIX);
+            if (snapSeq > appliedSequence) loadSnapshot(snap, snapSeq);
+        }
+        List<Path> segments = ChangeLog.listFiles(dir, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX);
+        segment = null;
+        offset = 0;
+        for (Path p : segments) {
+            if (ChangeLog.firstSequence(p, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX) <= appliedSequence + 1) segment = p;
+        }
+        if (segment == null && !segments.isEmpty()) segment = segments.get(0);
+        return segment != null;
+    }
+
+    private void loadSnapshot(Path snap, long snapSeq) throws IOException {
+        Set<String> vehicleIds = new HashSet<>();
+        Set<String> bookingIds = new HashSet<>();
+        List<String> lines = Files.readAllLines(snap, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty()) continue;
+            applyPut(line);
+            if (line.startsWith(RecordCodec.VEHICLE + "\t")) vehicleIds.add(RecordCodec.idOf(line));
+            if (line.startsWith(RecordCodec.BOOKING + "\t")) bookingIds.add(RecordCodec.idOf(line));
+        }
+        // anything we hold that the snapshot does not was deleted while we were away
+        for (Vehicle v : vehicles.findAll()) if (!vehicleIds.contains(v.getVehicleId())) vehicles.delete(v.getVehicleId());
+        for (Booking b : bookings.findAll()) if (!bookingIds.contains(b.getBookingId())) bookings.delete(b.getBookingId());
+        appliedSequence = snapSeq;
+        snapshotsLoaded++;
+    }
+
+    private int readSegment() throws IOException {
+        byte[] bytes;
+        try (SeekableByteChannel ch = Files.newByteChannel(segment, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size <= offset) return 0;
+            ByteBuffer buf = ByteBuffer.allocate((int) (size - offset));
+            ch.position(offset);
+            while (buf.hasRemaining() && ch.read(buf) > 0) { /* fill */ }
+            bytes = buf.array();
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        int end = lastNewline(bytes);
+        if (end < 0) return 0; // only a partial line so far
+        int applied = 0;
+        for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isEmpty()) continue;
+            if (applyEntry(line)) applied++;
+        }
+        offset += end + 1;
+        return applied;
+    }
+
+    private boolean applyEntry(String line) {
+        int t1 = line.indexOf('\t');
+        int t2 = line.indexOf('\t', t1 + 1);
+        int t3 = line.indexOf('\t', t2 + 1);
+        long seq = Long.parseLong(line.substring(0, t1));
+        if (seq <= appliedSequence) return false;
+        long commitMillis = Long.parseLong(line.substring(t1 + 1, t2));
+        String op = line.substring(t2 + 1, t3);
+        String body = line.substring(t3 + 1);
+        if (ChangeLog.PUT.equals(op)) {
+            applyPut(body);
+        } else {
+            String[] f = RecordCodec.split(body, null);
+            if (RecordCodec.VEHICLE.equals(f[0])) vehicles.delete(f[1]);
+            else if (RecordCodec.BOOKING.equals(f[0])) bookings.delete(f[1]);
+        }
+        appliedSequence = seq;
+        lastAppliedCommitMillis = commitMillis;
+        entriesApplied++;
+        return true;
+    }
+
+    private void applyPut(String record) {
+        switch (record.substring(0, record.indexOf('\t'))) {
+            case RecordCodec.VEHICLE -> {
+                Vehicle incoming = RecordCodec.decodeVehicle(record);
+                Vehicle existing = vehicles.findById(incoming.getVehicleId()).orElse(null);
+                if (existing == null || !RecordCodec.copyVehicleState(incoming, existing)) vehicles.save(incoming);
+            }
+            case RecordCodec.CUSTOMER -> {
+                Customer incoming = RecordCodec.decodeCustomer(record);
+                Customer existing = customers.findById(incoming.getCustomerId()).orElse(null);
+                if (existing == null) customers.save(incoming);
+                else RecordCodec.copyCustomerState(incoming, existing);
+            }
+            case RecordCodec.BOOKING -> bookings.save(RecordCodec.decodeBooking(record,
+                    id -> customers.findById(id).orElse(null), id -> vehicles.findById(id).orElse(null)));
+            default -> throw new IllegalArgumentException("Unknown record: " + record);
+        }
+    }
+
+    private Path nextSegment() throws IOException {
+        long current = ChangeLog.firstSequence(segment, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX);
+        for (Path p : ChangeLog.listFiles(dir, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX)) {
+            if (ChangeLog.firstSequence(p, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX) > current) return p;
+        }
+        return null;
+    }
+
+    private long unreadBytes() {
+        try {
+            long pending = Math.max(0, Files.size(segment) - offset);
+            long current = ChangeLog.firstSequence(segment, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX);
+            for (Path p : ChangeLog.listFiles(dir, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX)) {
+                if (ChangeLog.firstSequence(p, ChangeLog.SEGMENT_PREFIX, ChangeLog.SEGMENT_SUFFIX) > current) pending += Files.size(p);
+            }
+            return pending;
+        } catch (NoSuchFileException e) {
+            return pendingBytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int lastNewline(byte[] bytes) {
+        for (int i = bytes.length - 1; i >= 0; i--) if (bytes[i] == '\n') return i;
+        return -1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecoride.replication;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.repository.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/** Writes through to the delegate, then records the mutation in the change log. */
+public class ReplicatedBookingRepository implements BookingRepository {
+    private final BookingRepository delegate;
+    private final ChangeLog log;
+
+    public ReplicatedBookingRepository(BookingRepository delegate, ChangeLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override public void save(Booking b) { delegate.save(b); log.appendPut(b); }
+    @Override public Optional<Booking> findById(String id) { return delegate.findById(id); }
+    @Override public List<Booking> findAll() { return delegate.findAll(); }
+    @Override public List<Booking> findByDate(LocalDate date) { return delegate.findByDate(date); }
+    @Override public List<Booking> findActive() { return delegate.findActive(); }
+    @Override public int count() { return delegate.count(); }
+    @Override public void delete(String id) { delegate.delete(id); log.appendDelete(RecordCodec.BOOKING, id); }
+}
@@ -0,0 +1,24 @@
+package com.ecoride.replication;
+
+import com.ecoride.domain.Customer;
+import com.ecoride.repository.*;
+
+import java.util.*;
+
+/** Writes through to the delegate, then records the mutation in the change log. */
+public class ReplicatedCustomerRepository implements CustomerRepository {
+    private final CustomerRepository delegate;
+    private final ChangeLog log;
+
+    public ReplicatedCustomerRepository(CustomerRepository delegate, ChangeLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override public void save(Customer c) { delegate.save(c); log.appendPut(c); }
+    @Override public Optional<Customer> findById(String id) { return delegate.findById(id); }
+    @Override public List<Customer> findAll() { return delegate.findAll(); }
+    @Override public List<Customer> findByNameContains(String name) { return delegate.findByNameContains(name); }
+    @Override public Map<String, Customer> findAllById(Collection<String> ids) { return delegate.findAllById(ids); }
+    @Override public int count() { return delegate.count(); }
+}
@@ -0,0 +1,26 @@
+package com.ecoride.replication;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+
+import java.util.*;
+
+/** Writes through to the delegate, then records the mutation in the change log. */
+public class ReplicatedVehicleRepository implements VehicleRepository {
+    private final VehicleRepository delegate;
+    private final ChangeLog log;
+
+    public ReplicatedVehicleRepository(VehicleRepository delegate, ChangeLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override public void save(Vehicle v) { delegate.save(v); log.appendPut(v); }
+    @Override public Optional<Vehicle> findById(String id) { return delegate.findById(id); }
+    @Override public List<Vehicle> findAll() { return delegate.findAll(); }
+    @Override public void delete(String id) { delegate.delete(id); log.appendDelete(RecordCodec.VEHICLE, id); }
+    @Override public List<Vehicle> findAvailableByCategory(Category c) { return delegate.findAvailableByCategory(c); }
+    @Override public Map<String, Vehicle> findAllById(Collection<String> ids) { return delegate.findAllById(ids); }
+    @Override public int count() { return delegate.count(); }
+    @Override public int countByStatus(AvailabilityStatus status) { return delegate.countByStatus(status); }
+}
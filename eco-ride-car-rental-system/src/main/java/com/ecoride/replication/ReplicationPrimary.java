@@ -0,0 +1,64 @@
+package com.ecoride.replication;
+
+import com.ecoride.repository.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary side of replication: wraps the repositories so every mutation lands in a {@link ChangeLog},
+ * and periodically snapshots so replicas never replay more than one snapshot interval of changes.
+ */
+public class ReplicationPrimary implements Closeable {
+
+    public static final int DEFAULT_ENTRIES_PER_SEGMENT = 10_000;
+
+    private final ChangeLog log;
+    private final VehicleRepository vehicles;
+    private final CustomerRepository customers;
+    private final BookingRepository bookings;
+    private ScheduledExecutorService snapshotter;
+
+    public ReplicationPrimary(Path dir, VehicleRepository vehicles, CustomerRepository customers,
+                              BookingRepository bookings) throws IOException {
+        this.log = new ChangeLog(dir, DEFAULT_ENTRIES_PER_SEGMENT);
+        this.vehicles = new ReplicatedVehicleRepository(vehicles, log);
+        this.customers = new ReplicatedCustomerRepository(customers, log);
+        this.bookings = new ReplicatedBookingRepository(bookings, log);
+    }
+
+    public ChangeLog log() { return log; }
+    public VehicleRepository vehicles() { return vehicles; }
+    public CustomerRepository customers() { return customers; }
+    public BookingRepository bookings() { return bookings; }
+
+    public long snapshot() throws IOException { return log.writeSnapshot(vehicles, customers, bookings); }
+
+    public synchronized void startSnapshots(Duration period) {
+        if (snapshotter != null) return;
+        snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "changelog-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotter.scheduleAtFixedRate(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Snapshot failed: " + ex.getMessage());
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (snapshotter != null) snapshotter.shutdownNow();
+        snapshotter = null;
+        log.close();
+    }
+}
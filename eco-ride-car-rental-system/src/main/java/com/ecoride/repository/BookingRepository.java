@@ -1,6 +1,7 @@
 package com.ecoride.repository;
 
 import com.ecoride.domain.Booking;
+import com.ecoride.domain.BookingStatus;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -10,4 +11,14 @@ public interface BookingRepository {
     List<Booking> findAll();
     List<Booking> findByDate(LocalDate date);
     void delete(String id);
+
+    /** Bookings still in progress. Implementations that tier old bookings out of the heap can skip them here. */
+    default List<Booking> findActive() {
+        List<Booking> active = new ArrayList<>();
+        for (Booking b : findAll()) if (b.getStatus() == BookingStatus.ACTIVE) active.add(b);
+        return active;
+    }
+
+    /** Number of bookings stored. Implementations should answer without a scan. */
+    default int count() { return findAll().size(); }
 }
@@ -9,4 +9,14 @@ public interface CustomerRepository {
     Optional<Customer> findById(String id);
     List<Customer> findAll();
     List<Customer> findByNameContains(String name);
+
+    /** Resolve many IDs in one call; IDs that do not exist are absent from the result. */
+    default Map<String, Customer> findAllById(Collection<String> ids) {
+        Map<String, Customer> found = new HashMap<>();
+        for (String id : ids) findById(id).ifPresent(x -> found.put(id, x));
+        return found;
+    }
+
+    /** Number of customers stored. Implementations should answer without a scan. */
+    default int count() { return findAll().size(); }
 }
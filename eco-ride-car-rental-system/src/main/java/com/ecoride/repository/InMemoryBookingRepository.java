@@ -14,6 +14,7 @@ public class InMemoryBookingRepository implements BookingRepository {
     @Override public Optional<Booking> findById(String id) { return Optional.ofNullable(data.get(id)); }
     @Override public List<Booking> findAll() { return new ArrayList<>(data.values()); }
     @Override public void delete(String id) { data.remove(id); }
+    @Override public int count() { return data.size(); }
 
     @Override public List<Booking> findByDate(LocalDate date) {
         return data.values().stream()
@@ -12,6 +12,7 @@ public class InMemoryCustomerRepository implements CustomerRepository {
     @Override public void save(Customer c) { data.put(c.getCustomerId(), c); }
     @Override public Optional<Customer> findById(String id) { return Optional.ofNullable(data.get(id)); }
     @Override public List<Customer> findAll() { return new ArrayList<>(data.values()); }
+    @Override public int count() { return data.size(); }
 
     @Override public List<Customer> findByNameContains(String name) {
         String q = name.toLowerCase(Locale.ROOT);
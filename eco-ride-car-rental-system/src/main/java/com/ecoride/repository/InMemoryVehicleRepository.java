@@ -4,15 +4,37 @@ import com.ecoride.domain.*;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 public class InMemoryVehicleRepository implements VehicleRepository {
     private final Map<String, Vehicle> data = new ConcurrentHashMap<>();
+    /** Status each vehicle had when last saved, and the running count per status, so counting never scans. */
+    private final Map<String, AvailabilityStatus> savedStatus = new ConcurrentHashMap<>();
+    private final Map<AvailabilityStatus, LongAdder> statusCounts = new EnumMap<>(AvailabilityStatus.class);
 
-    @Override public void save(Vehicle v) { data.put(v.getVehicleId(), v); }
+    public InMemoryVehicleRepository() {
+        for (AvailabilityStatus s : AvailabilityStatus.values()) statusCounts.put(s, new LongAdder());
+    }
+
+    @Override public void save(Vehicle v) {
+        data.put(v.getVehicleId(), v);
+        AvailabilityStatus now = v.getAvailabilityStatus();
+        AvailabilityStatus before = savedStatus.put(v.getVehicleId(), now);
+        if (before != now) {
+            if (before != null) statusCounts.get(before).decrement();
+            statusCounts.get(now).increment();
+        }
+    }
     @Override public Optional<Vehicle> findById(String id) { return Optional.ofNullable(data.get(id)); }
     @Override public List<Vehicle> findAll() { return new ArrayList<>(data.values()); }
-    @Override public void delete(String id) { data.remove(id); }
+    @Override public void delete(String id) {
+        data.remove(id);
+        AvailabilityStatus before = savedStatus.remove(id);
+        if (before != null) statusCounts.get(before).decrement();
+    }
+    @Override public int count() { return data.size(); }
+    @Override public int countByStatus(AvailabilityStatus status) { return statusCounts.get(status).intValue(); }
 
     @Override public List<Vehicle> findAvailableByCategory(Category c) {
         return data.values().stream()
@@ -0,0 +1,181 @@
+package com.ecoride.repository;
+
+import com.ecoride.domain.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Single-line, tab-separated text form of vehicles, customers and bookings, shared by everything that
+ * writes repository state outside the heap. Bookings refer to their customer and vehicle by ID, so
+ * decoding one needs resolvers for both.
+ */
+public final class RecordCodec {
+
+    public static final String VEHICLE = "V";
+    public static final String CUSTOMER = "C";
+    public static final String BOOKING = "B";
+
+    private RecordCodec() {}
+
+    // ---- Vehicles ----
+
+    public static String encode(Vehicle v) {
+        List<String> f = new ArrayList<>(8);
+        f.add(VEHICLE);
+        f.add(v.getCategory().name());
+        f.add(v.getVehicleId());
+        f.add(v.getModel());
+        f.add(v.getAvailabilityStatus().name());
+        if (v instanceof HybridCar h) { f.add(num(h.getBatteryCapacity())); f.add(num(h.getFuelEfficiency())); }
+        else if (v instanceof ElectricCar e) { f.add(num(e.getBatteryCapacity())); f.add(num(e.getChargingTime())); }
+        else if (v instanceof LuxurySUVCar l) { f.add(l.getLuxuryFeatures()); f.add(String.valueOf(l.isDriverIncluded())); }
+        else if (v instanceof CompactPetrolCar c) { f.add(num(c.getEngineCapacity())); f.add(c.getTransmission()); }
+        return join(f);
+    }
+
+    public static Vehicle decodeVehicle(String line) {
+        String[] f = split(line, VEHICLE);
+        Category cat = Category.valueOf(f[1]);
+        String id = f[2], model = f[3];
+        boolean attrs = f.length >= 7;
+        Vehicle v = switch (cat) {
+            case HYBRID -> new HybridCar(id, model, attrs ? dbl(f[5]) : 0, attrs ? dbl(f[6]) : 0);
+            case ELECTRIC -> new ElectricCar(id, model, attrs ? dbl(f[5]) : 0, attrs ? dbl(f[6]) : 0);
+            case LUXURY_SUV -> new LuxurySUVCar(id, model, attrs ? f[5] : "", attrs && Boolean.parseBoolean(f[6]));
+            case COMPACT_PETROL -> new CompactPetrolCar(id, model, attrs ? dbl(f[5]) : 0, attrs ? f[6] : "AUTO");
+        };
+        v.setAvailabilityStatus(AvailabilityStatus.valueOf(f[4]));
+        return v;
+    }
+
+    /** Copy decoded state onto an existing instance so bookings that point at it see the update. */
+    public static boolean copyVehicleState(Vehicle from, Vehicle to) {
+        if (from.getClass() != to.getClass()) return false;
+        to.setModel(from.getModel());
+        to.setAvailabilityStatus(from.getAvailabilityStatus());
+        if (from instanceof HybridCar a && to instanceof HybridCar b) {
+            b.setBatteryCapacity(a.getBatteryCapacity()); b.setFuelEfficiency(a.getFuelEfficiency());
+        } else if (from instanceof ElectricCar a && to instanceof ElectricCar b) {
+            b.setBatteryCapacity(a.getBatteryCapacity()); b.setChargingTime(a.getChargingTime());
+        } else if (from instanceof LuxurySUVCar a && to instanceof LuxurySUVCar b) {
+            b.setLuxuryFeatures(a.getLuxuryFeatures()); b.setDriverIncluded(a.isDriverIncluded());
+        } else if (from instanceof CompactPetrolCar a && to instanceof CompactPetrolCar b) {
+            b.setEngineCapacity(a.getEngineCapacity()); b.setTransmission(a.getTransmission());
+        }
+        return true;
+    }
+
+    // ---- Customers ----
+
+    public static String encode(Customer c) {
+        if (c instanceof ForeignCustomer fc) {
+            return join(List.of(CUSTOMER, "FOREIGN", fc.getPassportNumber(), nz(fc.getNationality()),
+                    nz(c.getName()), nz(c.getContact()), nz(c.getEmail())));
+        }
+        return join(List.of(CUSTOMER, "LOCAL", c.getCustomerId(), nz(c.getName()), nz(c.getContact()), nz(c.getEmail())));
+    }
+
+    public static Customer decodeCustomer(String line) {
+        String[] f = split(line, CUSTOMER);
+        if ("FOREIGN".equals(f[1])) return new ForeignCustomer(f[2], f[3], f[4], f[5], f[6]);
+        return new LocalCustomer(f[2], f[3], f[4], f[5]);
+    }
+
+    public static void copyCustomerState(Customer from, Customer to) {
+        to.setName(from.getName());
+        to.setContact(from.getContact());
+        to.setEmail(from.getEmail());
+    }
+
+    // ---- Bookings ----
+
+    public static String encode(Booking b) {
+        return join(List.of(BOOKING, b.getBookingId(), b.getBookingDate().toString(), b.getStartDate().toString(),
+                b.getEndDate().toString(), String.valueOf(b.getTotalKm()), b.getDeposit().toPlainString(),
+                b.getStatus().name(), String.valueOf(b.isPickedUp()),
+                b.getCustomer().getCustomerId(), b.getVehicle().getVehicleId(),
+                b.getQuotedBase() == null ? "" : b.getQuotedBase().toPlainString()));
+    }
+
+    public static Booking decodeBooking(String line, Function<String, Customer> customers, Function<String, Vehicle> vehicles) {
+        String[] f = split(line, BOOKING);
+        Customer c = customers.apply(f[9]);
+        Vehicle v = vehicles.apply(f[10]);
+        if (c == null || v == null) {
+            throw new IllegalStateException("Booking " + f[1] + " refers to unknown customer or vehicle");
+        }
+        Booking b = new Booking(f[1], LocalDateTime.parse(f[2]), LocalDate.parse(f[3]), LocalDate.parse(f[4]),
+                Integer.parseInt(f[5]), new BigDecimal(f[6]), BookingStatus.valueOf(f[7]), c, v);
+        if (Boolean.parseBoolean(f[8])) b.markPickedUp();
+        if (f.length > 11 && !f[11].isEmpty()) b.setQuotedBase(new BigDecimal(f[11])); // absent in older records
+        return b;
+    }
+
+    /** The ID field of any encoded record, without decoding the rest. */
+    public static String idOf(String line) {
+        String[] f = split(line, null);
+        return switch (f[0]) {
+            case VEHICLE -> f[2];
+            case CUSTOMER -> f[2];
+            case BOOKING -> f[1];
+            default -> throw new IllegalArgumentException("Unknown record kind: " + f[0]);
+        };
+    }
+
+    // ---- Field escaping ----
+
+    public static String join(List<String> fields) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) sb.append('\t');
+            escape(fields.get(i), sb);
+        }
+        return sb.toString();
+    }
+
+    public static String[] split(String line, String expectedKind) {
+        List<String> out = new ArrayList<>(12);
+        StringBuilder cur = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '\\' && i + 1 < line.length()) {
+                char n = line.charAt(++i);
+                cur.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+            } else if (ch == '\t') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        out.add(cur.toString());
+        String[] f = out.toArray(new String[0]);
+        if (expectedKind != null && !expectedKind.equals(f[0])) {
+            throw new IllegalArgumentException("Expected a " + expectedKind + " record but got: " + f[0]);
+        }
+        return f;
+    }
+
+    private static void escape(String s, StringBuilder sb) {
+        if (s == null) return;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\\' -> sb.append("\\\\");
+                default -> sb.append(ch);
+            }
+        }
+    }
+
+    private static String nz(String s) { return s == null ? "" : s; }
+    private static String num(double d) { return Double.toString(d); }
+    private static double dbl(String s) { return Double.parseDouble(s); }
+}
@@ -0,0 +1,324 @@
+package com.ecoride.repository;
+
+import com.ecoride.domain.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Booking repository with a hot in-heap tier and a cold on-disk tier. {@link #archive()} moves COMPLETED
+ * and CANCELLED bookings that ended more than {@code archiveAfterDays} ago into a new immutable segment.
+ *
+ * <p>A segment holds its bookings sorted by ID in gzip blocks of {@value #BLOCK_SIZE} records. Its
+ * sidecar index keeps the first ID and byte range of every block plus the segment's start-date range,
+ * so a lookup by ID decompresses one block and a lookup by date skips segments outside the range.
+ * Cold bookings are decoded on demand and not retained. Hot entries shadow cold ones, and newer
+ * segments shadow older ones; deletes of cold bookings are recorded as tombstones.
+ */
+public class TieredBookingRepository implements BookingRepository, Closeable {
+
+    static final int BLOCK_SIZE = 128;
+    private static final String SEGMENT_PREFIX = "bookings-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TOMBSTONES = "tombstones.txt";
+
+    /** Sparse index of one cold segment, loaded from its sidecar file. */
+    private static final class Segment {
+        final Path file;
+        final int count;
+        final LocalDate minStart, maxStart;
+        final String lastId;
+        final String[] firstIds;
+        final long[] offsets;
+        final int[] lengths;
+
+        Segment(Path file, int count, LocalDate minStart, LocalDate maxStart, String lastId,
+                String[] firstIds, long[] offsets, int[] lengths) {
+            this.file = file; this.count = count; this.minStart = minStart; this.maxStart = maxStart;
+            this.lastId = lastId; this.firstIds = firstIds; this.offsets = offsets; this.lengths = lengths;
+        }
+
+        /** Block that would hold the ID, or -1 if it is outside the segment's ID range. */
+        int blockFor(String id) {
+            if (id.compareTo(firstIds[0]) < 0 || id.compareTo(lastId) > 0) return -1;
+            int i = Arrays.binarySearch(firstIds, id);
+            return i >= 0 ? i : -i - 2;
+        }
+
+        boolean mayStartOn(LocalDate d) { return !d.isBefore(minStart) && !d.isAfter(maxStart); }
+    }
+
+    private final Path dir;
+    private final int archiveAfterDays;
+    private final Clock clock;
+    private final Function<String, Customer> customers;
+    private final Function<String, Vehicle> vehicles;
+
+    private final Map<String, Booking> hot = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>(); // oldest first
+    private final Set<String> tombstones = ConcurrentHashMap.newKeySet();
+    private final LongAdder blocksRead = new LongAdder();
+    private int nextSegment = 1;
+    private ScheduledExecutorService archiver;
+
+    public TieredBookingRepository(Path dir, int archiveAfterDays, Clock clock,
+                                   Function<String, Customer> customers, Function<String, Vehicle> vehicles) throws IOException {
+        if (archiveAfterDays < 0) throw new IllegalArgumentException("archiveAfterDays must not be negative");
+        this.dir = dir;
+        this.archiveAfterDays = archiveAfterDays;
+        this.clock = clock;
+        this.customers = customers;
+        this.vehicles = vehicles;
+        Files.createDirectories(dir);
+        load();
+    }
+
+    // ---- BookingRepository ----
+
+    @Override public void save(Booking b) {
+        hot.put(b.getBookingId(), b);
+        if (tombstones.remove(b.getBookingId())) appendTombstone('+', b.getBookingId());
+    }
+
+    @Override public Optional<Booking> findById(String id) {
+        Booking b = hot.get(id);
+        if (b != null) return Optional.of(b);
+        if (tombstones.contains(id)) return Optional.empty();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment s = segments.get(i);
+            int block = s.blockFor(id);
+            if (block < 0) continue;
+            for (String line : readBlock(s, block)) {
+                if (RecordCodec.idOf(line).equals(id)) return Optional.of(decode(line));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Every booking, hot and cold. Reads all cold segments; prefer {@link #findActive()} where it fits. */
+    @Override public List<Booking> findAll() { return collect(s -> true, b -> true); }
+
+    @Override public List<Booking> findByDate(LocalDate date) {
+        return collect(s -> s.mayStartOn(date), b -> b.getStartDate().equals(date));
+    }
+
+    /** Only terminal bookings are archived, so active ones are always hot. */
+    @Override public List<Booking> findActive() {
+        return hot.values().stream().filter(b -> b.getStatus() == BookingStatus.ACTIVE).collect(Collectors.toList());
+    }
+
+    /** Hot plus archived, less deletions; a cold booking saved again since archiving is counted twice. */
+    @Override public int count() { return hot.size() + coldCount() - tombstones.size(); }
+
+    @Override public void delete(String id) {
+        hot.remove(id);
+        if (!tombstones.contains(id) && inCold(id) && tombstones.add(id)) appendTombstone('-', id);
+    }
+
+    // ---- Tiering ----
+
+    /** Move eligible bookings to a new cold segment. Returns how many were archived. */
+    public synchronized int archive() throws IOException {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(archiveAfterDays);
+        List<Booking> batch = hot.values().stream()
+                .filter(b -> b.getStatus() != BookingStatus.ACTIVE && b.getEndDate().isBefore(cutoff))
+                .sorted(Comparator.comparing(Booking::getBookingId))
+                .collect(Collectors.toList());
+        if (batch.isEmpty()) return 0;
+
+        Map<String, String> encoded = new LinkedHashMap<>();
+        for (Booking b : batch) encoded.put(b.getBookingId(), RecordCodec.encode(b));
+        segments.add(writeSegment(new ArrayList<>(encoded.values()), batch));
+        // a booking saved again while we were writing stays hot; the newer copy wins
+        for (Booking b : batch) {
+            String line = encoded.get(b.getBookingId());
+            hot.computeIfPresent(b.getBookingId(), (id, cur) -> cur == b && RecordCodec.encode(cur).equals(line) ? null : cur);
+        }
+        return batch.size();
+    }
+
+    public synchronized void startArchiving(Duration period) {
+        if (archiver != null) return;
+        archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        archiver.scheduleWithFixedDelay(() -> {
+            try {
+                archive();
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Booking archive failed: " + ex.getMessage());
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (archiver != null) archiver.shutdownNow();
+        archiver = null;
+    }
+
+    public int hotCount() { return hot.size(); }
+    public int coldCount() { return segments.stream().mapToInt(s -> s.count).sum(); }
+    public int segmentCount() { return segments.size(); }
+    /** Cold blocks decompressed so far, a proxy for how often reads miss the hot tier. */
+    public long coldBlocksRead() { return blocksRead.sum(); }
+
+    // ---- Segment files ----
+
+    private Segment writeSegment(List<String> lines, List<Booking> batch) throws IOException {
+        String name = SEGMENT_PREFIX + String.format("%06d", nextSegment++);
+        Path seg = dir.resolve(name + SEGMENT_SUFFIX);
+        int blocks = (lines.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        String[] firstIds = new String[blocks];
+        long[] offsets = new long[blocks];
+        int[] lengths = new int[blocks];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(seg))) {
+            long offset = 0;
+            for (int blk = 0; blk < blocks; blk++) {
+                List<String> part = lines.subList(blk * BLOCK_SIZE, Math.min(lines.size(), (blk + 1) * BLOCK_SIZE));
+                ByteArrayOutputStream buf = new ByteArrayOutputStream();
+                try (Writer w = new OutputStreamWriter(new GZIPOutputStream(buf), StandardCharsets.UTF_8)) {
+                    for (String line : part) { w.write(line); w.write('\n'); }
+                }
+                firstIds[blk] = RecordCodec.idOf(part.get(0));
+                offsets[blk] = offset;
+                lengths[blk] = buf.size();
+                buf.writeTo(out);
+                offset += buf.size();
+            }
+        }
+        LocalDate min = batch.stream().map(Booking::getStartDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate max = batch.stream().map(Booking::getStartDate).max(Comparator.naturalOrder()).orElseThrow();
+        String lastId = batch.get(batch.size() - 1).getBookingId();
+
+        // the index is written last and atomically: a segment without one is ignored on load
+        StringBuilder idx = new StringBuilder();
+        idx.append(RecordCodec.join(List.of(String.valueOf(lines.size()), min.toString(), max.toString(), lastId))).append('\n');
+        for (int blk = 0; blk < blocks; blk++) {
+            idx.append(RecordCodec.join(List.of(firstIds[blk], String.valueOf(offsets[blk]), String.valueOf(lengths[blk])))).append('\n');
+        }
+        Path tmp = dir.resolve(name + INDEX_SUFFIX + ".tmp");
+        Files.writeString(tmp, idx, StandardCharsets.UTF_8);
+        Files.move(tmp, dir.resolve(name + INDEX_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Segment(seg, lines.size(), min, max, lastId, firstIds, offsets, lengths);
+    }
+
+    private List<String> readBlock(Segment s, int block) {
+        byte[] bytes = new byte[s.lengths[block]];
+        try (FileChannel ch = FileChannel.open(s.file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            long pos = s.offsets[block];
+            while (buf.hasRemaining()) {
+                int n = ch.read(buf, pos);
+                if (n < 0) throw new EOFException("Truncated segment " + s.file);
+                pos += n;
+            }
+            blocksRead.increment();
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8))) {
+                return r.lines().collect(Collectors.toList());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + s.file, e);
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + INDEX_SUFFIX)) {
+            for (Path p : ds) indexes.add(p);
+        }
+        indexes.sort(Comparator.comparing(p -> p.getFileName().toString()));
+        for (Path idx : indexes) {
+            String name = idx.getFileName().toString();
+            String base = name.substring(0, name.length() - INDEX_SUFFIX.length());
+            List<String> lines = Files.readAllLines(idx, StandardCharsets.UTF_8);
+            String[] head = RecordCodec.split(lines.get(0), null);
+            int blocks = lines.size() - 1;
+            String[] firstIds = new String[blocks];
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                String[] f = RecordCodec.split(lines.get(i + 1), null);
+                firstIds[i] = f[0];
+                offsets[i] = Long.parseLong(f[1]);
+                lengths[i] = Integer.parseInt(f[2]);
+            }
+            segments.add(new Segment(dir.resolve(base + SEGMENT_SUFFIX), Integer.parseInt(head[0]),
+                    LocalDate.parse(head[1]), LocalDate.parse(head[2]), head[3], firstIds, offsets, lengths));
+            nextSegment = Math.max(nextSegment, Integer.parseInt(base.substring(SEGMENT_PREFIX.length())) + 1);
+        }
+        Path ts = dir.resolve(TOMBSTONES);
+        if (Files.exists(ts)) {
+            for (String line : Files.readAllLines(ts, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) continue;
+                if (line.charAt(0) == '-') tombstones.add(line.substring(1));
+                else tombstones.remove(line.substring(1));
+            }
+        }
+    }
+
+    private void appendTombstone(char op, String id) {
+        try {
+            Files.writeString(dir.resolve(TOMBSTONES), op + id + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record deletion of " + id, e);
+        }
+    }
+
+    // ---- Helpers ----
+
+    /** Hot bookings plus every visible cold one from the segments the filter keeps, newest version only. */
+    private List<Booking> collect(Predicate<Segment> segmentFilter, Predicate<Booking> keep) {
+        List<Booking> out = new ArrayList<>();
+        Set<String> seen = new HashSet<>(hot.keySet());
+        for (Booking b : hot.values()) if (keep.test(b)) out.add(b);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment s = segments.get(i);
+            if (!segmentFilter.test(s)) continue;
+            for (int blk = 0; blk < s.firstIds.length; blk++) {
+                for (String line : readBlock(s, blk)) {
+                    String id = RecordCodec.idOf(line);
+                    if (tombstones.contains(id) || !seen.add(id)) continue;
+                    Booking b = decode(line);
+                    if (keep.test(b)) out.add(b);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** True when a cold block actually holds the ID; the sparse index only says which block might. */
+    private boolean inCold(String id) {
+        for (Segment s : segments) {
+            int block = s.blockFor(id);
+            if (block < 0) continue;
+            for (String line : readBlock(s, block)) if (RecordCodec.idOf(line).equals(id)) return true;
+        }
+        return false;
+    }
+
+    private Booking decode(String line) { return RecordCodec.decodeBooking(line, customers, vehicles); }
+}
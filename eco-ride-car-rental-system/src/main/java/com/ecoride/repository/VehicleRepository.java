@@ -10,4 +10,21 @@ public interface VehicleRepository {
     List<Vehicle> findAll();
     void delete(String id);
     List<Vehicle> findAvailableByCategory(Category c);
+
+    /** Resolve many IDs in one call; IDs that do not exist are absent from the result. */
+    default Map<String, Vehicle> findAllById(Collection<String> ids) {
+        Map<String, Vehicle> found = new HashMap<>();
+        for (String id : ids) findById(id).ifPresent(x -> found.put(id, x));
+        return found;
+    }
+
+    /** Number of vehicles stored. Implementations should answer without a scan. */
+    default int count() { return findAll().size(); }
+
+    /** Number of vehicles whose saved status is {@code status}. Implementations should answer without a scan. */
+    default int countByStatus(AvailabilityStatus status) {
+        int n = 0;
+        for (Vehicle v : findAll()) if (v.getAvailabilityStatus() == status) n++;
+        return n;
+    }
 }
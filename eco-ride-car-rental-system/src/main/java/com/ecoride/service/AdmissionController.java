@@ -0,0 +1,125 @@
+package com.ecoride.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for the booking path: a token bucket per customer, one global bucket, and a cap on
+ * requests in flight. Anything over a limit is rejected at once with an
+ * {@link AdmissionRejectedException}; nothing queues, so a flood cannot build up latency for everyone else.
+ *
+ * <p>Each bucket is a single {@code AtomicLong} holding its theoretical arrival time (the GCRA form of a
+ * token bucket), updated by CAS, so admission never takes a lock. Limits can be swapped at runtime with
+ * {@link #setLimits} and apply from the next request.
+ */
+public class AdmissionController {
+
+    /** Idle customer buckets are swept once the map grows past this, at most once per {@link #SWEEP_INTERVAL_NANOS}. */
+    static final int SWEEP_THRESHOLD = 10_000;
+    static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** Point-in-time counters. */
+    public record Stats(long admitted, long rejectedCustomerRate, long rejectedGlobalRate, long rejectedOverloaded,
+                        int inFlight, int trackedCustomers) {
+        public long rejected() { return rejectedCustomerRate + rejectedGlobalRate + rejectedOverloaded; }
+    }
+
+    private final LongSupplier nanoTime;
+    private volatile AdmissionLimits limits;
+    private final Map<String, AtomicLong> customerBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong globalBucket = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong nextSweep;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedCustomer = new LongAdder();
+    private final LongAdder rejectedGlobal = new LongAdder();
+    private final LongAdder rejectedOverload = new LongAdder();
+
+    public AdmissionController(AdmissionLimits limits) { this(limits, System::nanoTime); }
+
+    /** @param nanoTime monotonic time source, replaceable in tests */
+    public AdmissionController(AdmissionLimits limits, LongSupplier nanoTime) {
+        this.limits = limits;
+        this.nanoTime = nanoTime;
+        this.nextSweep = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public AdmissionLimits getLimits() { return limits; }
+
+    /** Swap the limits; every bucket starts afresh, since debt accrued at the old rate means nothing at the new one. */
+    public void setLimits(AdmissionLimits limits) {
+        this.limits = limits;
+        customerBuckets.clear();
+        globalBucket.set(Long.MIN_VALUE);
+    }
+
+    /** Run {@code op} if the customer, the system and the in-flight cap all allow it; otherwise fail fast. */
+    public <T> T admit(String customerId, Supplier<T> op) {
+        AdmissionLimits l = limits;
+        long now = nanoTime.getAsLong();
+        long customerInterval = interval(l.perCustomerPerSecond());
+        AtomicLong bucket = customerBuckets.computeIfAbsent(customerId, k -> new AtomicLong(Long.MIN_VALUE));
+        if (!take(bucket, now, customerInterval, l.perCustomerBurst())) {
+            rejectedCustomer.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.CUSTOMER_RATE,
+                    "Too many requests for customer " + customerId + "; try again shortly.");
+        }
+        if (!take(globalBucket, now, interval(l.globalPerSecond()), l.globalBurst())) {
+            bucket.addAndGet(-customerInterval); // hand the customer's token back
+            rejectedGlobal.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.GLOBAL_RATE,
+                    "The booking service is busy; try again shortly.");
+        }
+        if (inFlight.incrementAndGet() > l.maxInFlight()) {
+            inFlight.decrementAndGet();
+            rejectedOverload.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.OVERLOADED,
+                    "Too many bookings in progress; try again shortly.");
+        }
+        try {
+            admitted.increment();
+            return op.get();
+        } finally {
+            inFlight.decrementAndGet();
+            if (customerBuckets.size() > SWEEP_THRESHOLD) maybeSweep(now);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(admitted.sum(), rejectedCustomer.sum(), rejectedGlobal.sum(), rejectedOverload.sum(),
+                inFlight.get(), customerBuckets.size());
+    }
+
+    /**
+     * GCRA: the bucket stores when it would be empty again if requests kept arriving at the limit. A request
+     * fits if that time is less than a burst's worth of intervals ahead of now.
+     */
+    private static boolean take(AtomicLong bucket, long now, long interval, int burst) {
+        long tolerance = interval * (burst - 1L);
+        while (true) {
+            long tat = bucket.get();
+            long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat; // difference form survives nanoTime wrap
+            if (base - now > tolerance) return false;
+            if (bucket.compareAndSet(tat, base + interval)) return true;
+        }
+    }
+
+    /** One request per interval pays for the sweep; the CAS picks it, everyone else skips straight past. */
+    private void maybeSweep(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) sweep(now);
+    }
+
+    /** Drop buckets that have fully refilled; they behave exactly like a fresh one. */
+    private void sweep(long now) {
+        customerBuckets.values().removeIf(b -> b.get() == Long.MIN_VALUE || b.get() - now <= 0);
+    }
+
+    private static long interval(double perSecond) { return (long) (1_000_000_000L / perSecond); }
+}
@@ -0,0 +1,18 @@
+package com.ecoride.service;
+
+/**
+ * Rate and concurrency limits for {@link AdmissionController}. Rates are requests per second; a burst is
+ * how many requests may arrive back to back after a quiet spell. {@code maxInFlight} caps how many
+ * admitted requests may be running at once.
+ */
+public record AdmissionLimits(double perCustomerPerSecond, int perCustomerBurst,
+                              double globalPerSecond, int globalBurst, int maxInFlight) {
+
+    public AdmissionLimits {
+        if (perCustomerPerSecond <= 0 || globalPerSecond <= 0) throw new IllegalArgumentException("Rates must be positive");
+        if (perCustomerBurst < 1 || globalBurst < 1 || maxInFlight < 1) throw new IllegalArgumentException("Bursts and in-flight cap must be at least 1");
+    }
+
+    /** Generous defaults for a branch desk: a customer is capped well above what an agent can type. */
+    public static AdmissionLimits defaults() { return new AdmissionLimits(5, 10, 500, 1000, 64); }
+}
@@ -0,0 +1,16 @@
+package com.ecoride.service;
+
+/** The request was turned away before doing any work; the caller may retry later. */
+public class AdmissionRejectedException extends IllegalStateException {
+
+    public enum Reason { CUSTOMER_RATE, GLOBAL_RATE, OVERLOADED }
+
+    private final Reason reason;
+
+    public AdmissionRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() { return reason; }
+}
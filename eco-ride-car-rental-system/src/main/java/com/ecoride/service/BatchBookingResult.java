@@ -0,0 +1,32 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.Booking;
+
+import java.util.List;
+
+/** Outcome of {@link CarRentalSystem#bookBatch}: either every item was booked or none was. */
+public class BatchBookingResult {
+
+    public enum Outcome { BOOKED, REJECTED, NOT_COMMITTED }
+
+    public record Item(int index, BookingRequest request, Outcome outcome, Booking booking, String error) {}
+
+    private final boolean committed;
+    private final List<Item> items;
+
+    BatchBookingResult(boolean committed, List<Item> items) {
+        this.committed = committed;
+        this.items = List.copyOf(items);
+    }
+
+    public boolean isCommitted() { return committed; }
+    public List<Item> getItems() { return items; }
+
+    public List<Booking> bookings() {
+        return items.stream().filter(i -> i.booking() != null).map(Item::booking).toList();
+    }
+
+    public long rejectedCount() {
+        return items.stream().filter(i -> i.outcome() == Outcome.REJECTED).count();
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecoride.service;
+
+import com.ecoride.fleet.SlotSuggester.Suggestions;
+
+/**
+ * The requested dates overlap another booking on the vehicle. Carries the nearest workable alternatives
+ * so callers can offer them instead of making the user guess again.
+ */
+public class BookingConflictException extends IllegalStateException {
+
+    private final String vehicleId;
+    private final transient Suggestions suggestions;
+
+    public BookingConflictException(String vehicleId, Suggestions suggestions) {
+        super("Vehicle is not available for the selected dates.");
+        this.vehicleId = vehicleId;
+        this.suggestions = suggestions;
+    }
+
+    public String getVehicleId() { return vehicleId; }
+    public Suggestions getSuggestions() { return suggestions; }
+}
@@ -0,0 +1,111 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.util.TimingWheel;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires {@link LifecycleEvent}s for each booking from a {@link TimingWheel}, so the cost of a booking
+ * is a handful of O(1) timer insertions instead of a periodic scan over every booking.
+ * Time comes from the policy's {@link Clock}; tests move a fixed clock and call {@link #advance()}.
+ */
+public class BookingLifecycleScheduler {
+
+    /** Receives fired transitions; called on the thread that advances the wheel. */
+    public interface Listener {
+        void onLifecycleEvent(String bookingId, LifecycleEvent event);
+    }
+
+    static final long TICK_MILLIS = Duration.ofMinutes(1).toMillis();
+    static final int WHEEL_SIZE = 1440; // one revolution per day
+
+    private record Transition(String bookingId, LifecycleEvent event) {}
+
+    private final BookingPolicy policy;
+    private final Clock clock;
+    private final Duration noShowGrace;
+    private final TimingWheel<Transition> wheel;
+    private final Map<String, List<TimingWheel.Timeout<Transition>>> timers = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService ticker;
+
+    /** @param noShowGrace how long after the start date an un-collected booking expires; null disables no-show expiry */
+    public BookingLifecycleScheduler(BookingPolicy policy, Duration noShowGrace) {
+        this.policy = policy;
+        this.clock = policy.clock();
+        this.noShowGrace = noShowGrace;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, clock.millis());
+    }
+
+    public void addListener(Listener l) { listeners.add(l); }
+
+    /** (Re)schedule every transition for a booking, replacing any timers it already had. */
+    public void schedule(Booking b) {
+        List<TimingWheel.Timeout<Transition>> ts = new ArrayList<>(4);
+        String id = b.getBookingId();
+        ts.add(wheel.schedule(new Transition(id, LifecycleEvent.AMENDMENT_WINDOW_CLOSED), millis(policy.amendWindowClosesAt(b))));
+        ts.add(wheel.schedule(new Transition(id, LifecycleEvent.RENTAL_STARTED), millis(b.getStartDate())));
+        if (noShowGrace != null) {
+            long noShowAt = millis(b.getStartDate()) + noShowGrace.toMillis();
+            ts.add(wheel.schedule(new Transition(id, LifecycleEvent.NO_SHOW_EXPIRED), noShowAt));
+        }
+        ts.add(wheel.schedule(new Transition(id, LifecycleEvent.RENTAL_ENDED), millis(b.getEndDate().plusDays(1))));
+        cancelAll(timers.put(id, ts));
+    }
+
+    /** Drop every pending transition for a booking (cancelled or completed). */
+    public void cancel(String bookingId) { cancelAll(timers.remove(bookingId)); }
+
+    public int pending() { return wheel.pending(); }
+
+    /** Fire everything that is due according to the clock. Returns the number of events fired. */
+    public synchronized int advance() {
+        return wheel.advanceTo(clock.millis(), this::dispatch);
+    }
+
+    private void dispatch(Transition t) {
+        if (t.event() == LifecycleEvent.RENTAL_ENDED) timers.remove(t.bookingId());
+        for (Listener l : listeners) {
+            try {
+                l.onLifecycleEvent(t.bookingId(), t.event());
+            } catch (RuntimeException ex) {
+                System.err.println("Lifecycle listener failed for " + t.bookingId() + " " + t.event() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    private static void cancelAll(List<TimingWheel.Timeout<Transition>> ts) {
+        if (ts != null) ts.forEach(TimingWheel.Timeout::cancel);
+    }
+
+    private long millis(LocalDate d) { return d.atStartOfDay(clock.getZone()).toInstant().toEpochMilli(); }
+
+    private long millis(LocalDateTime t) { return t.atZone(clock.getZone()).toInstant().toEpochMilli(); }
+
+    // ---- Background ticking ----
+
+    public synchronized void start(Duration tickInterval) {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-lifecycle");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickInterval.toMillis(), tickInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (ticker == null) return;
+        ticker.shutdownNow();
+        ticker = null;
+    }
+}
@@ -3,28 +3,71 @@ package com.ecoride.service;
 import com.ecoride.domain.*;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
 public class BookingPolicy {
+    /** Built-in deposit; the deposit actually taken comes from the rate card in force (see PricingService). */
     public static final BigDecimal DEPOSIT = new BigDecimal("5000");
+    public static final int MIN_LEAD_DAYS = 3;
+    public static final int AMEND_WINDOW_DAYS = 2;
+    /** How long a desk hold keeps a vehicle's dates while the booking is being finished. */
+    public static final Duration HOLD_TTL = Duration.ofMinutes(10);
+
+    private final Clock clock;
+
+    public BookingPolicy() { this(Clock.systemDefaultZone()); }
+
+    public BookingPolicy(Clock clock) { this.clock = clock; }
+
+    /** The time source every booking rule (and the booking timestamps) is evaluated against. */
+    public Clock clock() { return clock; }
 
     public void ensureCanBook(Vehicle v, LocalDate startDate) {
+        ensureCanBook(v, startDate, LocalDate.now(clock));
+    }
+
+    /** Same rules against a caller-supplied date, so a whole batch is judged by one clock reading. */
+    public void ensureCanBook(Vehicle v, LocalDate startDate, LocalDate today) {
         if (v.getAvailabilityStatus() != AvailabilityStatus.AVAILABLE) {
             throw new IllegalStateException("Vehicle is not available.");
         }
-        LocalDate today = LocalDate.now();
+        ensureLeadTime(startDate, today);
+    }
+
+    /**
+     * Rules for date-based booking: the vehicle must not be under maintenance and the start must respect
+     * the lead time. Whether the dates are free is the availability calendar's call, not the status flag's.
+     */
+    public void ensureBookable(Vehicle v, LocalDate startDate, LocalDate today) {
+        if (v.getAvailabilityStatus() == AvailabilityStatus.UNDER_MAINTENANCE) {
+            throw new IllegalStateException("Vehicle is under maintenance.");
+        }
+        ensureLeadTime(startDate, today);
+    }
+
+    /** First start date {@link #ensureLeadTime} accepts. */
+    public LocalDate earliestStart(LocalDate today) { return today.plusDays(MIN_LEAD_DAYS); }
+
+    public void ensureLeadTime(LocalDate startDate, LocalDate today) {
         long daysAhead = ChronoUnit.DAYS.between(today, startDate);
-        if (daysAhead < 3) {
+        if (daysAhead < MIN_LEAD_DAYS) {
             throw new IllegalArgumentException("Booking must be scheduled at least 3 days in advance.");
         }
     }
 
     public void ensureCanAmendOrCancel(Booking booking) {
-        long daysSince = ChronoUnit.DAYS.between(booking.getBookingDate(), LocalDateTime.now());
-        if (daysSince > 2) {
+        long daysSince = ChronoUnit.DAYS.between(booking.getBookingDate(), LocalDateTime.now(clock));
+        if (daysSince > AMEND_WINDOW_DAYS) {
             throw new IllegalStateException("Cannot update/cancel after 2 days from reservation.");
         }
     }
+
+    /** The instant after which {@link #ensureCanAmendOrCancel} starts rejecting the booking. */
+    public LocalDateTime amendWindowClosesAt(Booking booking) {
+        return booking.getBookingDate().plus(Duration.ofDays(AMEND_WINDOW_DAYS + 1));
+    }
 }
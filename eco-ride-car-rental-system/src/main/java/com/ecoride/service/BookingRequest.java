@@ -0,0 +1,23 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.Category;
+
+import java.time.LocalDate;
+
+/** One item of a bulk booking: either a specific vehicle or any available vehicle of a category. */
+public record BookingRequest(String customerId, String vehicleId, Category category,
+                             LocalDate start, int days, int totalKm) {
+
+    public BookingRequest {
+        // caught here, not while the batch is grouped, where it would sink every other item too
+        if (vehicleId == null && category == null) throw new IllegalArgumentException("Booking request needs a vehicle or a category.");
+    }
+
+    public static BookingRequest specific(String customerId, String vehicleId, LocalDate start, int days, int totalKm) {
+        return new BookingRequest(customerId, vehicleId, null, start, days, totalKm);
+    }
+
+    public static BookingRequest byCategory(String customerId, Category category, LocalDate start, int days, int totalKm) {
+        return new BookingRequest(customerId, null, category, start, days, totalKm);
+    }
+}
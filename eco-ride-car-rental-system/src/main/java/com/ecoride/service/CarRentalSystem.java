@@ -1,12 +1,27 @@
 package com.ecoride.service;
 
+import com.ecoride.cache.IdempotencyCache;
 import com.ecoride.domain.*;
+import com.ecoride.event.EventBus;
+import com.ecoride.event.EventType;
+import com.ecoride.fleet.AvailabilityCalendar;
+import com.ecoride.fleet.FleetIndex;
+import com.ecoride.fleet.FleetQuery;
+import com.ecoride.fleet.MaintenanceScheduler;
+import com.ecoride.fleet.ServiceSchedule;
+import com.ecoride.fleet.SlotSuggester;
+import com.ecoride.metrics.Histogram;
+import com.ecoride.payment.PaymentProcessor;
 import com.ecoride.repository.*;
+import com.ecoride.trace.Tracer;
 import com.ecoride.util.IdGenerator;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class CarRentalSystem {
@@ -15,6 +30,33 @@ public class CarRentalSystem {
     private final CustomerRepository customerRepo;
     private final BookingRepository bookingRepo;
     private final BookingPolicy policy;
+    private final PricingService pricing;
+    private BookingLifecycleScheduler lifecycle;
+    private EventBus events;
+    private PaymentProcessor payments;
+    private MaintenanceScheduler maintenance;
+    private Tracer tracer = Tracer.disabled();
+    private Histogram latency;
+    /**
+     * Guards the availability check-and-reserve step so single and batch bookings cannot double-book,
+     * and every change to the calendar's booking blocks and the vehicle status derived from them.
+     * Lock order: this lock first, then a booking's own monitor.
+     */
+    private final Object reservationLock = new Object();
+    /** Date ranges each vehicle is taken, kept in step with active bookings. */
+    private final AvailabilityCalendar calendar = new AvailabilityCalendar();
+    private final FleetIndex fleetIndex = new FleetIndex();
+    private final SlotSuggester suggester;
+    private final ReservationHolds holds;
+    /** Results of keyed mutations, so client retries do not book or charge twice. */
+    private final IdempotencyCache idempotency;
+    /** How long a conflicting booking may spend looking for alternatives before answering with what it has. */
+    private static final Duration SUGGESTION_BUDGET = Duration.ofMillis(25);
+    private static final int SUGGESTION_LIMIT = 3;
+    private final Waitlist waitlist = new Waitlist();
+    /** How far either side of freed dates a waitlisted request may reach into the surrounding free gap. */
+    private static final int WAITLIST_REACH_DAYS = 30;
+    private static final int MAX_MATCHES_PER_RELEASE = 4;
     /** Simple in-memory admin credential store: adminId -> password */
     private final Map<String, String> adminUsers = new HashMap<>();
 
@@ -24,6 +66,43 @@ public class CarRentalSystem {
         this.customerRepo = customerRepo;
         this.bookingRepo = bookingRepo;
         this.policy = policy;
+        this.pricing = pricing;
+        this.idempotency = new IdempotencyCache(IdempotencyCache.DEFAULT_MAX_ENTRIES, IdempotencyCache.DEFAULT_TTL, policy.clock());
+        this.holds = new ReservationHolds(calendar, policy.clock(), BookingPolicy.HOLD_TTL);
+        this.suggester = new SlotSuggester(calendar, fleetIndex, vehicleRepo::findById, SlotSuggester.DEFAULT_HORIZON_DAYS,
+                holds::isStale);
+        fleetIndex.rebuild(vehicleRepo.findAll());
+        for (Booking b : bookingRepo.findActive()) blockCalendar(b);
+    }
+
+    /** Attach a lifecycle scheduler; bookings created afterwards get their time-driven transitions. */
+    public void setLifecycleScheduler(BookingLifecycleScheduler lifecycle) {
+        this.lifecycle = lifecycle;
+        lifecycle.addListener(this::onLifecycleEvent);
+    }
+
+    /** Attach a started event bus; booking, invoice and vehicle status changes are published to it. */
+    public void setEventBus(EventBus events) { this.events = events; }
+
+    /** Attach a tracer; booking operations and their steps are recorded as spans when sampled. */
+    public void setTracer(Tracer tracer) { this.tracer = tracer; }
+    public Tracer getTracer() { return tracer; }
+
+    /** Attach a histogram labelled by operation; every booking operation's wall time is recorded in it. */
+    public void setLatencyHistogram(Histogram latency) { this.latency = latency; }
+
+    /** Attach a payment processor; deposits are captured on booking and invoices settled on completion. */
+    public void setPaymentProcessor(PaymentProcessor payments) { this.payments = payments; }
+
+    /**
+     * Track odometers and book service windows ahead of each vehicle's thresholds. Existing bookings are
+     * replayed once to seed the counters; from then on they move with each booking.
+     */
+    public void setServiceSchedule(ServiceSchedule schedule) {
+        synchronized (reservationLock) {
+            maintenance = new MaintenanceScheduler(calendar, schedule, MaintenanceScheduler.DEFAULT_HORIZON_DAYS);
+            maintenance.load(bookingRepo.findAll(), LocalDate.now(policy.clock()));
+        }
     }
 
     // ---- Admin auth ----
@@ -41,109 +120,557 @@ public class CarRentalSystem {
      }
 
     // ---- Vehicles ----
-    public void addVehicle(Vehicle v) { vehicleRepo.save(v); }
-    public void updateVehicle(Vehicle v) { vehicleRepo.save(v); }
-    public void removeVehicle(String id) { vehicleRepo.delete(id); }
+    public void addVehicle(Vehicle v) { vehicleRepo.save(v); fleetIndex.put(v); }
+    public void updateVehicle(Vehicle v) { vehicleRepo.save(v); fleetIndex.put(v); }
+    public void removeVehicle(String id) {
+        vehicleRepo.delete(id);
+        fleetIndex.remove(id);
+        synchronized (reservationLock) {
+            calendar.removeVehicle(id);
+            if (maintenance != null) maintenance.forget(id);
+        }
+    }
     public List<Vehicle> listVehicles() { return vehicleRepo.findAll(); }
+    public Optional<Vehicle> findVehicle(String id) { return vehicleRepo.findById(id); }
     public void changeAvailability(String id, AvailabilityStatus status) {
         Vehicle v = vehicleRepo.findById(id).orElseThrow(() -> new IllegalArgumentException("Not found"));
-        v.setAvailabilityStatus(status);
-        vehicleRepo.save(v);
+        synchronized (reservationLock) { setVehicleStatus(v, status); }
     }
     public List<Vehicle> listAvailableByCategory(Category c) { return vehicleRepo.findAvailableByCategory(c); }
 
+    /** Vehicles of the category that are not under maintenance and have no block overlapping the dates. */
+    public List<Vehicle> listFreeByCategory(Category c, LocalDate start, LocalDate end) {
+        holds.expireDue();
+        List<Vehicle> out = new ArrayList<>();
+        for (Vehicle v : bookableInCategory(c)) {
+            if (isFree(v.getVehicleId(), start, end, null)) out.add(v);
+        }
+        return out;
+    }
+
+    /** No live booking or hold overlaps the dates, apart from the given owner's own block. */
+    private boolean isFree(String vehicleId, LocalDate start, LocalDate end, String ignoreOwner) {
+        for (AvailabilityCalendar.Block b : calendar.conflicts(vehicleId, start, end, ignoreOwner)) {
+            if (!holds.isStale(b)) return false;
+        }
+        return true;
+    }
+
+    private List<Vehicle> bookableInCategory(Category c) {
+        List<String> ids = new ArrayList<>(fleetIndex.byCategory(c));
+        Collections.sort(ids);
+        List<Vehicle> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            vehicleRepo.findById(id).filter(v -> v.getAvailabilityStatus() != AvailabilityStatus.UNDER_MAINTENANCE).ifPresent(out::add);
+        }
+        return out;
+    }
+
+    /** Attribute/category/free-window search, planned against the fleet indexes. */
+    public List<Vehicle> searchFleet(FleetQuery q) { holds.expireDue(); return q.execute(fleetIndex, calendar, vehicleRepo::findById, holds::isStale); }
+    public FleetQuery.Plan explainFleetQuery(FleetQuery q) { return q.plan(fleetIndex); }
+    /** Re-index after vehicles were changed behind the system's back (e.g. on a replica). */
+    public void reindexFleet() { fleetIndex.rebuild(vehicleRepo.findAll()); }
+    public AvailabilityCalendar getCalendar() { return calendar; }
+
     // ---- Customers ----
     public void addCustomer(Customer c) { customerRepo.save(c); }
     public Optional<Customer> findCustomer(String id) { return customerRepo.findById(id); }
     public List<Customer> searchCustomersByName(String name) { return customerRepo.findByNameContains(name); }
+    public List<Customer> listCustomers() { return customerRepo.findAll(); }
 
     // ---- Booking ----
+    /** Surge-aware base price for a prospective booking; reads the published surge table only. */
+    public BigDecimal quote(Category category, LocalDate start, int days) {
+        return pricing.quoteBasePrice(category, start, days);
+    }
+
     public Booking bookByCategory(String customerId, Category category, LocalDate start, int days, int totalKm) {
-        List<Vehicle> avail = listAvailableByCategory(category);
-        if (avail.isEmpty()) throw new IllegalStateException("No available vehicle in " + category);
-        return bookSpecific(customerId, avail.get(0).getVehicleId(), start, days, totalKm);
+        try (Op op = op("byCategory")) {
+            List<Vehicle> free = listFreeByCategory(category, start, start.plusDays(days - 1L));
+            if (free.isEmpty()) throw new NoVehicleAvailableException(category);
+            return bookSpecific(customerId, free.get(0).getVehicleId(), start, days, totalKm);
+        }
     }
 
+    /**
+     * Book a given vehicle. Availability is judged by date: a vehicle reserved for other dates can still
+     * be booked. If the dates overlap another booking a {@link BookingConflictException} carries the
+     * nearest free windows for the vehicle and the soonest alternatives in its category.
+     */
     public Booking bookSpecific(String customerId, String vehicleId, LocalDate start, int days, int totalKm) {
-        Customer c = customerRepo.findById(customerId).orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+        try (Op op = op("book")) {
+            Customer c;
+            try (Tracer.Span s = tracer.span("customer.lookup")) {
+                c = customerRepo.findById(customerId).orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+            }
+            Vehicle v;
+            try (Tracer.Span s = tracer.span("vehicle.lookup")) {
+                v = vehicleRepo.findById(vehicleId).orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+            }
+            if (days < 1) throw new IllegalArgumentException("Booking must be at least one day.");
+            LocalDateTime now = LocalDateTime.now(policy.clock());
+            holds.expireDue();
+            Booking b = null;
+            Tracer.Span waiting = tracer.span("reservation.lockWait");
+            synchronized (reservationLock) {
+                waiting.close();
+                try (Tracer.Span s = tracer.span("policy.check")) {
+                    policy.ensureBookable(v, start, now.toLocalDate());
+                }
+                // the customer's own hold on the car does not count against them; booking consumes it
+                ReservationHolds.Hold hold = holds.heldBy(customerId, vehicleId).orElse(null);
+                String ignore = hold != null ? hold.holdId() : null;
+                boolean free;
+                try (Tracer.Span s = tracer.span("conflict.scan")) {
+                    free = isFree(vehicleId, start, start.plusDays(days - 1L), ignore);
+                }
+                if (free) {
+                    if (hold != null) holds.consume(hold);
+                    b = reserve(c, v, start, days, totalKm, now);
+                    if (maintenance != null) maintenance.booked(b, now.toLocalDate());
+                }
+            }
+            // suggestions are worked out after the lock is released so a slow search never blocks bookings
+            if (b == null) {
+                try (Tracer.Span s = tracer.span("conflict.suggest")) {
+                    throw new BookingConflictException(vehicleId, suggestAlternatives(vehicleId, null, start, days));
+                }
+            }
+            if (events != null) events.publishBooking(EventType.BOOKING_CREATED, b); // outside the lock, like the other events
+            if (lifecycle != null) lifecycle.schedule(b);
+            return b;
+        }
+    }
+
+    // ---- Idempotent variants ----
+    // Each takes a client-chosen key last; a retry with the same key returns the first result without
+    // running the operation again. A null key runs the plain operation.
+
+    public Booking bookByCategory(String customerId, Category category, LocalDate start, int days, int totalKm, String idempotencyKey) {
+        return once(idempotencyKey, "bookByCategory", List.of(customerId, category, start, days, totalKm),
+                () -> bookByCategory(customerId, category, start, days, totalKm));
+    }
+
+    public Booking bookSpecific(String customerId, String vehicleId, LocalDate start, int days, int totalKm, String idempotencyKey) {
+        return once(idempotencyKey, "bookSpecific", List.of(customerId, vehicleId, start, days, totalKm),
+                () -> bookSpecific(customerId, vehicleId, start, days, totalKm));
+    }
+
+    public Booking updateBooking(String bookingId, LocalDate newStart, Integer newDays, Integer newTotalKm, String idempotencyKey) {
+        return once(idempotencyKey, "updateBooking", Arrays.asList(bookingId, newStart, newDays, newTotalKm),
+                () -> updateBooking(bookingId, newStart, newDays, newTotalKm));
+    }
+
+    public void cancelBooking(String bookingId, String idempotencyKey) {
+        once(idempotencyKey, "cancelBooking", List.of(bookingId), () -> { cancelBooking(bookingId); return null; });
+    }
+
+    public Invoice completeAndInvoice(String bookingId, String idempotencyKey) {
+        return once(idempotencyKey, "completeAndInvoice", List.of(bookingId), () -> completeAndInvoice(bookingId));
+    }
+
+    public IdempotencyCache.Stats idempotencyStats() { return idempotency.stats(); }
+
+    private <T> T once(String key, String operation, List<?> args, Supplier<T> op) {
+        if (key == null) return op.get();
+        return idempotency.execute(key, operation + args, op);
+    }
+
+    // ---- Holds ----
+
+    /**
+     * Claim a vehicle's dates for {@link BookingPolicy#HOLD_TTL} while the rest of a booking is filled in.
+     * Other agents see the dates as taken; the customer's {@link #bookSpecific} turns the hold into the booking.
+     */
+    public ReservationHolds.Hold placeHold(String customerId, String vehicleId, LocalDate start, int days) {
+        customerRepo.findById(customerId).orElseThrow(() -> new IllegalArgumentException("Customer not found"));
         Vehicle v = vehicleRepo.findById(vehicleId).orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
-        policy.ensureCanBook(v, start);
+        if (days < 1) throw new IllegalArgumentException("Booking must be at least one day.");
+        LocalDate end = start.plusDays(days - 1L);
+        holds.expireDue();
+        synchronized (reservationLock) {
+            policy.ensureBookable(v, start, LocalDate.now(policy.clock()));
+            String previous = holds.heldBy(customerId, vehicleId).map(ReservationHolds.Hold::holdId).orElse(null);
+            if (isFree(vehicleId, start, end, previous)) return holds.place(customerId, vehicleId, start, end);
+        }
+        throw new BookingConflictException(vehicleId, suggestAlternatives(vehicleId, null, start, days));
+    }
 
-        String bookingId = "R-" + IdGenerator.shortId();
-        Booking b = new Booking(bookingId, LocalDateTime.now(), start, start.plusDays(days-1), totalKm,
-                BookingPolicy.DEPOSIT, BookingStatus.ACTIVE, c, v);
-        v.markReserved();
-        vehicleRepo.save(v);
-        bookingRepo.save(b);
-        return b;
+    public boolean releaseHold(String holdId) { return holds.release(holdId); }
+
+    public ReservationHolds getHolds() { return holds; }
+
+    /**
+     * Nearest bookable windows for the vehicle, and the soonest other vehicles of the same category.
+     * {@code movingBookingId} names a booking being rescheduled, whose own dates count as free.
+     */
+    public SlotSuggester.Suggestions suggestAlternatives(String vehicleId, String movingBookingId, LocalDate start, int days) {
+        LocalDate earliest = policy.earliestStart(LocalDate.now(policy.clock()));
+        return suggester.suggest(vehicleId, movingBookingId, start, days, earliest, SUGGESTION_LIMIT, SUGGESTION_BUDGET);
     }
 
-    public Booking updateBooking(String bookingId, LocalDate newStart, Integer newDays, Integer newTotalKm) {
-        Booking b = bookingRepo.findById(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
-        policy.ensureCanAmendOrCancel(b);
-        if (newStart != null) {
+    /**
+     * Book many items all-or-nothing. Customers and vehicles are resolved in bulk, every rule is judged
+     * against one clock reading, and category items draw from one availability list per category.
+     * If any item is rejected nothing is committed and the other items report NOT_COMMITTED.
+     */
+    public BatchBookingResult bookBatch(List<BookingRequest> requests) {
+        try (Op op = op("batch")) {
+            LocalDateTime now = LocalDateTime.now(policy.clock());
+            LocalDate today = now.toLocalDate();
+
+            Set<String> customerIds = new HashSet<>();
+            Set<String> vehicleIds = new HashSet<>();
+            Set<Category> categories = EnumSet.noneOf(Category.class);
+            for (BookingRequest r : requests) {
+                customerIds.add(r.customerId());
+                if (r.vehicleId() != null) vehicleIds.add(r.vehicleId());
+                else categories.add(r.category());
+            }
+            Map<String, Customer> customers = customerRepo.findAllById(customerIds);
+            Map<String, Vehicle> vehicles = vehicleRepo.findAllById(vehicleIds);
+            holds.expireDue();
 
-            // Allow update if the only conflict is the SAME booking
-            boolean conflict =
-                bookingRepo.findAll().stream()
-                    .filter(x -> !x.getBookingId().equals(bookingId)) // exclude this booking
-                    .anyMatch(x -> x.getVehicle().getVehicleId().equals(b.getVehicle().getVehicleId()) &&
-                                x.getStatus() == BookingStatus.ACTIVE &&
-                                !newStart.isAfter(x.getEndDate()) &&
-                                !newStart.isBefore(x.getStartDate()));
+            BatchBookingResult result;
+            synchronized (reservationLock) {
+                Map<Category, List<Vehicle>> pools = new EnumMap<>(Category.class);
+                for (Category c : categories) pools.put(c, bookableInCategory(c));
+                // dates earlier items of this batch have taken, per vehicle; nothing is in the real calendar yet
+                AvailabilityCalendar claimed = new AvailabilityCalendar();
+
+                // pass 1: allocate and validate every item without touching state
+                Vehicle[] allocated = new Vehicle[requests.size()];
+                String[] errors = new String[requests.size()];
+                boolean ok = true;
+                for (int i = 0; i < requests.size(); i++) {
+                    BookingRequest r = requests.get(i);
+                    try {
+                        if (!customers.containsKey(r.customerId())) throw new IllegalArgumentException("Customer not found");
+                        if (r.days() < 1) throw new IllegalArgumentException("Booking must be at least one day.");
+                        allocated[i] = allocate(r, vehicles, pools, claimed);
+                        policy.ensureBookable(allocated[i], r.start(), today);
+                        claimed.put(String.valueOf(i), AvailabilityCalendar.BlockKind.BOOKING, allocated[i].getVehicleId(),
+                                r.start(), r.start().plusDays(r.days() - 1L));
+                    } catch (RuntimeException ex) {
+                        errors[i] = ex.getMessage();
+                        ok = false;
+                    }
+                }
+
+                // pass 2: commit everything, or report why nothing was committed
+                List<BatchBookingResult.Item> items = new ArrayList<>(requests.size());
+                for (int i = 0; i < requests.size(); i++) {
+                    BookingRequest r = requests.get(i);
+                    if (!ok) {
+                        items.add(errors[i] != null
+                                ? new BatchBookingResult.Item(i, r, BatchBookingResult.Outcome.REJECTED, null, errors[i])
+                                : new BatchBookingResult.Item(i, r, BatchBookingResult.Outcome.NOT_COMMITTED, null, "Batch rejected"));
+                        continue;
+                    }
+                    Booking b = reserve(customers.get(r.customerId()), allocated[i], r.start(), r.days(), r.totalKm(), now);
+                    items.add(new BatchBookingResult.Item(i, r, BatchBookingResult.Outcome.BOOKED, b, null));
+                }
+                result = new BatchBookingResult(ok, items);
+                // service windows are planned once every item holds its dates, so none lands on a later item
+                if (ok && maintenance != null) result.bookings().forEach(b -> maintenance.booked(b, today));
+                if (ok && lifecycle != null) result.bookings().forEach(lifecycle::schedule);
+            }
+            // published outside the lock, so a stalled subscriber cannot hold up every booking
+            if (events != null) for (Booking b : result.bookings()) events.publishBooking(EventType.BOOKING_CREATED, b);
+            return result;
+        }
+    }
 
-            if (conflict) {
-                throw new IllegalArgumentException("Vehicle is not available on the selected new start date.");
+    /** Pick the item's vehicle: free on its dates, including dates claimed by earlier items of the batch. */
+    private Vehicle allocate(BookingRequest r, Map<String, Vehicle> vehicles,
+                             Map<Category, List<Vehicle>> pools, AvailabilityCalendar claimed) {
+        LocalDate end = r.start().plusDays(r.days() - 1L);
+        if (r.vehicleId() != null) {
+            Vehicle v = vehicles.get(r.vehicleId());
+            if (v == null) throw new IllegalArgumentException("Vehicle not found");
+            if (!claimed.isFree(v.getVehicleId(), r.start(), end) || !isFree(v.getVehicleId(), r.start(), end, null)) {
+                throw new IllegalStateException("Vehicle is not available.");
             }
+            return v;
+        }
+        for (Vehicle v : pools.get(r.category())) {
+            if (claimed.isFree(v.getVehicleId(), r.start(), end) && isFree(v.getVehicleId(), r.start(), end, null)) return v;
+        }
+        throw new NoVehicleAvailableException(r.category());
+    }
 
-            // Now safe to update
-            b.setStartDate(newStart);
-            int days = newDays != null ? newDays : b.rentalDays();
-            b.setEndDate(newStart.plusDays(days - 1));
+    /**
+     * Create and persist an ACTIVE booking; callers hold {@code reservationLock}, have run the policy, and
+     * themselves plan maintenance around the new booking and publish BOOKING_CREATED once the lock is released.
+     */
+    private Booking reserve(Customer c, Vehicle v, LocalDate start, int days, int totalKm, LocalDateTime now) {
+        try (Tracer.Span span = tracer.span("booking.reserve")) {
+            String bookingId;
+            do bookingId = "R-" + IdGenerator.shortId(); while (bookingRepo.findById(bookingId).isPresent()); // short IDs can collide
+            Booking b = new Booking(bookingId, now, start, start.plusDays(days-1), totalKm,
+                    pricing.deposit(), BookingStatus.ACTIVE, c, v);
+            b.setQuotedBase(pricing.quoteBasePrice(v.getCategory(), start, days)); // the invoice charges what was quoted
+            setVehicleStatus(v, AvailabilityStatus.RESERVED);
+            bookingRepo.save(b);
+            blockCalendar(b);
+            if (payments != null) payments.captureDeposit(b); // queued only; outcome lands in the payment ledger
+            return b;
         }
-        if (newDays != null && newStart == null) {
-            b.setEndDate(b.getStartDate().plusDays(newDays-1));
+    }
+
+    private void blockCalendar(Booking b) {
+        calendar.put(b.getBookingId(), AvailabilityCalendar.BlockKind.BOOKING, b.getVehicle().getVehicleId(),
+                b.getStartDate(), b.getEndDate());
+    }
+
+    /**
+     * A booking on the vehicle ended or went away: it is AVAILABLE again unless another booking still
+     * holds it. Maintenance is left alone. Callers hold {@code reservationLock}, so a booking being made
+     * on the same vehicle cannot slip in between the check and the status change.
+     */
+    private void releaseVehicle(Vehicle v, String bookingId) {
+        if (v.getAvailabilityStatus() == AvailabilityStatus.UNDER_MAINTENANCE) return;
+        boolean stillBooked = calendar.blocks(v.getVehicleId()).stream()
+                .anyMatch(x -> x.kind() == AvailabilityCalendar.BlockKind.BOOKING && !x.ownerId().equals(bookingId));
+        setVehicleStatus(v, stillBooked ? AvailabilityStatus.RESERVED : AvailabilityStatus.AVAILABLE);
+    }
+
+    /** Single place vehicle status moves, so every change is persisted and published. */
+    private void setVehicleStatus(Vehicle v, AvailabilityStatus status) {
+        AvailabilityStatus previous = v.getAvailabilityStatus();
+        v.setAvailabilityStatus(status);
+        vehicleRepo.save(v);
+        if (events != null && previous != status) events.publishVehicleStatus(v, previous);
+    }
+
+    public Booking updateBooking(String bookingId, LocalDate newStart, Integer newDays, Integer newTotalKm) {
+        try (Op op = op("update")) {
+            Booking b = bookingRepo.findById(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+            policy.ensureCanAmendOrCancel(b);
+            String vehicleId = b.getVehicle().getVehicleId();
+            if (newDays != null && newDays < 1) throw new IllegalArgumentException("Booking must be at least one day.");
+            LocalDate start;
+            int days;
+            boolean free;
+            synchronized (reservationLock) {
+                synchronized (b) {
+                    // re-checked under the lock: a cancel or completion that won the race must not get its block back
+                    if (b.getStatus() != BookingStatus.ACTIVE) throw new IllegalStateException("Only active bookings can be updated.");
+                    // unchanged fields are read here, so a concurrent update to the other field is not undone
+                    start = newStart != null ? newStart : b.getStartDate();
+                    days = newDays != null ? newDays : b.rentalDays();
+                    // the booking's own block is ignored, so shifting within its current dates is always allowed
+                    free = isFree(vehicleId, start, start.plusDays(days - 1L), bookingId);
+                    if (free) {
+                        boolean moved = !start.equals(b.getStartDate()) || days != b.rentalDays();
+                        b.setStartDate(start);
+                        b.setEndDate(start.plusDays(days - 1L));
+                        if (moved) b.setQuotedBase(pricing.quoteBasePrice(b.getVehicle().getCategory(), start, days));
+                        if (newTotalKm != null) b.setTotalKm(newTotalKm);
+                        bookingRepo.save(b);
+                        blockCalendar(b);
+                        if (maintenance != null) maintenance.booked(b, LocalDate.now(policy.clock()));
+                    }
+                }
+            }
+            if (!free) throw new BookingConflictException(vehicleId, suggestAlternatives(vehicleId, bookingId, start, days));
+            if (events != null) events.publishBooking(EventType.BOOKING_UPDATED, b);
+            if (lifecycle != null) lifecycle.schedule(b);
+            return b;
         }
-        if (newTotalKm != null) b.setTotalKm(newTotalKm);
-        bookingRepo.save(b);
-        return b;
     }
 
     public void cancelBooking(String bookingId) {
+        try (Op op = op("cancel")) {
+            Booking b = bookingRepo.findById(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+            policy.ensureCanAmendOrCancel(b);
+            synchronized (reservationLock) {
+                synchronized (b) {
+                    if (b.getStatus() != BookingStatus.ACTIVE) throw new IllegalStateException("Only active bookings can be cancelled.");
+                    b.cancelBooking();
+                }
+                bookingRepo.save(b);
+                calendar.remove(bookingId);
+                if (maintenance != null) maintenance.cancelled(b, LocalDate.now(policy.clock()));
+                releaseVehicle(b.getVehicle(), bookingId);
+            }
+            if (events != null) events.publishBooking(EventType.BOOKING_CANCELLED, b);
+            if (lifecycle != null) lifecycle.cancel(bookingId);
+            offerFreedDates(b.getVehicle(), b.getStartDate(), b.getEndDate());
+        }
+    }
+
+    /** Record that the customer collected the vehicle, which stops no-show expiry. */
+    public void recordPickup(String bookingId) {
         Booking b = bookingRepo.findById(bookingId).orElseThrow(() -> new IllegalArgumentException("Booking not found"));
-        policy.ensureCanAmendOrCancel(b);
-        b.cancelBooking();
-        Vehicle v = b.getVehicle();
-        v.markAvailable();
-        vehicleRepo.save(v);
+        synchronized (b) { // against a concurrent no-show expiry
+            if (b.getStatus() != BookingStatus.ACTIVE) {
+                throw new IllegalStateException("Only active bookings can be picked up.");
+            }
+            b.markPickedUp();
+        }
         bookingRepo.save(b);
     }
 
     public Invoice completeAndInvoice(String bookingId) {
-        var opt = bookingRepo.findById(bookingId);
+        try (Op op = op("complete")) {
+            var opt = bookingRepo.findById(bookingId);
 
-        if (opt.isEmpty()) {
-            throw new IllegalArgumentException("Booking not found: " + bookingId);
-        }
+            if (opt.isEmpty()) {
+                throw new IllegalArgumentException("Booking not found: " + bookingId);
+            }
+
+            Booking b = opt.get();
 
-        Booking b = opt.get();
+            // check-and-complete is atomic per booking, so parallel end-of-day runs cannot invoice twice
+            synchronized (reservationLock) {
+                synchronized (b) {
+                    // ❌ Cannot complete cancelled bookings
+                    if (b.getStatus() == BookingStatus.CANCELLED) {
+                        throw new IllegalStateException("Cannot complete a cancelled booking.");
+                    }
 
-        // ❌ Cannot complete cancelled bookings
-        if (b.getStatus() == BookingStatus.CANCELLED) {
-            throw new IllegalStateException("Cannot complete a cancelled booking.");
+                    // ❌ Cannot complete already completed bookings
+                    if (b.getStatus() == BookingStatus.COMPLETED) {
+                        throw new IllegalStateException("Booking already completed.");
+                    }
+
+                    // Proceed with normal completion
+                    b.complete();   // sets status to COMPLETED
+                }
+                bookingRepo.save(b);
+                calendar.remove(bookingId);
+                if (maintenance != null) maintenance.completed(b, LocalDate.now(policy.clock()));
+                releaseVehicle(b.getVehicle(), bookingId);
+            }
+            if (lifecycle != null) lifecycle.cancel(bookingId);
+            Invoice invoice;
+            try (Tracer.Span s = tracer.span("pricing.charges")) {
+                invoice = new Invoice(b, pricing.charges(b));
+            }
+            if (payments != null) payments.settle(invoice);
+            if (events != null) {
+                events.publishBooking(EventType.BOOKING_COMPLETED, b);
+                events.publishInvoice(invoice);
+            }
+            // returned early: the rest of the rental period is free again
+            LocalDate today = LocalDate.now(policy.clock());
+            if (!b.getEndDate().isBefore(today)) offerFreedDates(b.getVehicle(), today, b.getEndDate());
+            return invoice;
         }
+    }
+
+    // ---- Waitlist ----
+
+    /** Record a category request that could not be served; it is booked automatically when a fitting car frees up. */
+    public Waitlist.Entry joinWaitlist(String customerId, Category category, LocalDate start, int days, int totalKm) {
+        customerRepo.findById(customerId).orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+        LocalDateTime now = LocalDateTime.now(policy.clock());
+        policy.ensureLeadTime(start, now.toLocalDate());
+        return waitlist.add(customerId, category, start, days, totalKm, now);
+    }
+
+    public Waitlist getWaitlist() { return waitlist; }
 
-        // ❌ Cannot complete already completed bookings
-        if (b.getStatus() == BookingStatus.COMPLETED) {
-            throw new IllegalStateException("Booking already completed.");
+    /**
+     * Dates on the vehicle were released: book the best waiting requests into the free gap around them.
+     * Each match is one bounded probe of the category's waitlist.
+     */
+    private void offerFreedDates(Vehicle v, LocalDate from, LocalDate to) {
+        if (waitlist.size() == 0 || v.getAvailabilityStatus() == AvailabilityStatus.UNDER_MAINTENANCE) return;
+        LocalDate earliest = policy.earliestStart(LocalDate.now(policy.clock()));
+        waitlist.expireBefore(earliest);
+        if (to.isBefore(earliest)) return;
+        if (from.isBefore(earliest)) from = earliest;
+        LocalDate reachFrom = from.minusDays(WAITLIST_REACH_DAYS).isBefore(earliest) ? earliest : from.minusDays(WAITLIST_REACH_DAYS);
+        List<Waitlist.Entry> deferred = new ArrayList<>(0);
+        try {
+            for (int i = 0; i < MAX_MATCHES_PER_RELEASE; i++) {
+                Waitlist.Entry match = null;
+                for (AvailabilityCalendar.Gap g : calendar.gaps(v.getVehicleId(), reachFrom, to.plusDays(WAITLIST_REACH_DAYS), null, holds::isStale)) {
+                    if (g.endDay() < from.toEpochDay() || g.startDay() > to.toEpochDay()) continue;
+                    // claimed, not just found: a concurrent release in the category cannot book the same entry
+                    match = waitlist.claim(v.getCategory(), g.start(), g.end()).orElse(null);
+                    if (match != null) break;
+                }
+                if (match == null) return;
+                try {
+                    Booking b = bookSpecific(match.customerId(), v.getVehicleId(), match.start(), match.days(), match.totalKm());
+                    waitlist.markFulfilled(match, b.getBookingId());
+                } catch (BookingConflictException ex) {
+                    deferred.add(match); // dates taken meanwhile (a hold, a service window, another release): keep waiting
+                } catch (RuntimeException ex) {
+                    // permanent, e.g. the customer was removed: do not retry it forever
+                }
+            }
+        } finally {
+            for (Waitlist.Entry e : deferred) waitlist.restore(e);
         }
+    }
 
-        // Proceed with normal completion
-        b.complete();   // sets status to COMPLETED
-        return new Invoice(b);
+    // ---- Lifecycle transitions ----
+    private void onLifecycleEvent(String bookingId, LifecycleEvent event) {
+        Booking b = bookingRepo.findById(bookingId).orElse(null);
+        if (b == null || b.getStatus() != BookingStatus.ACTIVE) return;
+        switch (event) {
+            case RENTAL_ENDED -> {
+                // rental period is over: free the car even if the return has not been invoiced yet
+                synchronized (reservationLock) { releaseVehicle(b.getVehicle(), bookingId); }
+            }
+            case NO_SHOW_EXPIRED -> {
+                synchronized (reservationLock) {
+                    synchronized (b) {
+                        if (b.isPickedUp() || b.getStatus() != BookingStatus.ACTIVE) return;
+                        b.cancelBooking();
+                    }
+                    bookingRepo.save(b);
+                    calendar.remove(bookingId);
+                    if (maintenance != null) maintenance.cancelled(b, LocalDate.now(policy.clock()));
+                    releaseVehicle(b.getVehicle(), bookingId);
+                }
+                if (events != null) events.publishBooking(EventType.BOOKING_CANCELLED, b);
+                lifecycle.cancel(bookingId);
+                offerFreedDates(b.getVehicle(), b.getStartDate(), b.getEndDate());
+            }
+            default -> { /* informational only: AMENDMENT_WINDOW_CLOSED, RENTAL_STARTED */ }
+        }
     }
 
     public Optional<Booking> findBookingById(String id) { return bookingRepo.findById(id); }
+    public List<Booking> listBookings() { return bookingRepo.findAll(); }
+
+    public List<Booking> listActiveBookingsEndingOn(LocalDate d) {
+        return bookingRepo.findActive().stream().filter(b -> b.getEndDate().equals(d)).collect(Collectors.toList());
+    }
+
+    /** Load an existing booking as-is (no policy checks), e.g. from an export of another system. */
+    public void importBooking(Booking b) {
+        bookingRepo.save(b);
+        if (maintenance != null && b.getStatus() == BookingStatus.COMPLETED) {
+            synchronized (reservationLock) { maintenance.completed(b, LocalDate.now(policy.clock())); }
+        }
+        if (b.getStatus() != BookingStatus.ACTIVE) return;
+        synchronized (reservationLock) {
+            blockCalendar(b);
+            if (maintenance != null) maintenance.booked(b, LocalDate.now(policy.clock()));
+        }
+        if (lifecycle != null) lifecycle.schedule(b);
+    }
+
+    // ---- Maintenance ----
+
+    /** Odometer and service windows are tracked once {@link #setServiceSchedule} has been called. */
+    public Optional<MaintenanceScheduler> getMaintenance() { return Optional.ofNullable(maintenance); }
+
+    /** The workshop finished an interval's service: its counters restart and its calendar window is freed. */
+    public void recordService(String vehicleId, String interval) {
+        if (maintenance == null) throw new IllegalStateException("Service tracking is off.");
+        Vehicle v = vehicleRepo.findById(vehicleId).orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+        Optional<MaintenanceScheduler.Window> freed;
+        synchronized (reservationLock) { freed = maintenance.serviced(v, interval); }
+        freed.ifPresent(w -> offerFreedDates(v, w.start(), w.end()));
+    }
 
     public List<Booking> searchBookingsByNameOrId(String q) {
         String query = q.toLowerCase(Locale.ROOT);
@@ -178,4 +705,19 @@ public class CarRentalSystem {
         addVehicle(new ElectricCar("C-004", "BYD Atto 3", 60, 8.0));
         addVehicle(new CompactPetrolCar("C-005", "Toyota Corolla", 1.5, "AUTO"));
     }
+
+    // ---- Instrumentation ----
+
+    /** A booking operation's root span, also timed into the latency histogram when one is attached. */
+    private Op op(String name) {
+        Histogram h = latency;
+        return new Op(tracer.span("booking." + name), h == null ? null : h.labels(name), System.nanoTime());
+    }
+
+    private record Op(Tracer.Span span, Histogram.Child timer, long startNanos) implements AutoCloseable {
+        @Override public void close() {
+            span.close();
+            if (timer != null) timer.observeNanos(System.nanoTime() - startNanos);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes demand-driven surge multipliers from calendar occupancy and recent booking velocity.
+ * A background scheduler rebuilds a {@link SurgeTable} and swaps it in with a single volatile write,
+ * so {@link PricingService} can quote without locking or touching the repositories.
+ */
+public class DynamicPricingEngine {
+
+    public static final int HORIZON_DAYS = 90;
+
+    /** Occupancy below this share of the fleet is never surged. */
+    static final double OCCUPANCY_THRESHOLD = 0.60;
+    static final double OCCUPANCY_WEIGHT = 0.35;
+    static final double VELOCITY_WEIGHT = 0.15;
+    static final double MAX_MULTIPLIER = 1.50;
+
+    private final VehicleRepository vehicleRepo;
+    private final BookingRepository bookingRepo;
+    private final Clock clock;
+
+    private volatile SurgeTable table;
+    private ScheduledExecutorService scheduler;
+
+    public DynamicPricingEngine(VehicleRepository vehicleRepo, BookingRepository bookingRepo, Clock clock) {
+        this.vehicleRepo = vehicleRepo;
+        this.bookingRepo = bookingRepo;
+        this.clock = clock;
+        this.table = SurgeTable.flat(LocalDate.now(clock));
+    }
+
+    public SurgeTable currentTable() { return table; }
+
+    public double multiplier(Category c, LocalDate date) { return table.multiplier(c, date); }
+
+    /** Rebuild the surge table from the repositories and publish it. */
+    public SurgeTable recompute() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDateTime velocityWindowStart = LocalDateTime.now(clock).minusHours(24);
+        int categories = Category.values().length;
+
+        int[] fleet = new int[categories];
+        for (Vehicle v : vehicleRepo.findAll()) {
+            if (v.getAvailabilityStatus() != AvailabilityStatus.UNDER_MAINTENANCE) fleet[v.getCategory().ordinal()]++;
+        }
+
+        // difference arrays: +1 at the first occupied day, -1 after the last one
+        int[][] delta = new int[categories][HORIZON_DAYS + 1];
+        int[] recent = new int[categories];
+        for (Booking b : bookingRepo.findActive()) {
+            int cat = b.getVehicle().getCategory().ordinal();
+            if (!b.getBookingDate().isBefore(velocityWindowStart)) recent[cat]++;
+
+            long from = Math.max(0, b.getStartEpochDay() - today.toEpochDay());
+            long to = Math.min(HORIZON_DAYS - 1, b.getEndEpochDay() - today.toEpochDay());
+            if (from > to) continue;
+            delta[cat][(int) from]++;
+            delta[cat][(int) to + 1]--;
+        }
+
+        double[][] multipliers = new double[categories][HORIZON_DAYS];
+        for (int cat = 0; cat < categories; cat++) {
+            double velocity = fleet[cat] == 0 ? 0 : Math.min(1.0, (double) recent[cat] / fleet[cat]);
+            int occupied = 0;
+            for (int day = 0; day < HORIZON_DAYS; day++) {
+                occupied += delta[cat][day];
+                double occupancy = fleet[cat] == 0 ? 0 : Math.min(1.0, (double) occupied / fleet[cat]);
+                multipliers[cat][day] = surge(occupancy, velocity);
+            }
+        }
+
+        SurgeTable next = new SurgeTable(today, multipliers);
+        table = next;
+        return next;
+    }
+
+    static double surge(double occupancy, double velocity) {
+        double load = Math.max(0, occupancy - OCCUPANCY_THRESHOLD) / (1 - OCCUPANCY_THRESHOLD);
+        double m = 1.0 + OCCUPANCY_WEIGHT * load + VELOCITY_WEIGHT * velocity;
+        return Math.min(MAX_MULTIPLIER, m);
+    }
+
+    // ---- Background recomputation ----
+
+    public synchronized void start(Duration period) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "surge-pricing");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::recomputeQuietly, 0, period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    private void recomputeQuietly() {
+        try {
+            recompute();
+        } catch (RuntimeException ex) {
+            // keep the last published table; the next run will try again
+            System.err.println("Surge recomputation failed: " + ex.getMessage());
+        }
+    }
+}
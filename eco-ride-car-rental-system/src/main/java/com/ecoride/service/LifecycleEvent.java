@@ -0,0 +1,9 @@
+package com.ecoride.service;
+
+/** Time-driven transitions fired by {@link BookingLifecycleScheduler}. */
+public enum LifecycleEvent {
+    AMENDMENT_WINDOW_CLOSED,
+    RENTAL_STARTED,
+    RENTAL_ENDED,
+    NO_SHOW_EXPIRED
+}
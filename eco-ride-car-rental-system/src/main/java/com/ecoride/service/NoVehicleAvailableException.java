@@ -0,0 +1,16 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.Category;
+
+/** No vehicle of the requested category is free for the dates. Callers that can look elsewhere catch this by type. */
+public class NoVehicleAvailableException extends IllegalStateException {
+
+    private final Category category;
+
+    public NoVehicleAvailableException(Category category) {
+        super("No available vehicle in " + category);
+        this.category = category;
+    }
+
+    public Category getCategory() { return category; }
+}
@@ -1,18 +1,98 @@
 package com.ecoride.service;
 
 import com.ecoride.domain.*;
+import com.ecoride.pricing.RateCard;
+import com.ecoride.pricing.RateCardSource;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 
 public class PricingService {
 
-    public BigDecimal basePrice(Booking b) { return b.calculateBasePrice(); }
+    /** Optional surge source; without one every quote uses the flat category fee. */
+    private final DynamicPricingEngine surge;
+    /** Rates in force; each calculation reads one card snapshot, so a reload never splits a price. */
+    private final RateCardSource rates;
+    private final String branch;
 
-    public BigDecimal extraKmCharge(Booking b) { return b.calculateExtraKmCharge(); }
+    public PricingService() { this(null); }
 
-    public BigDecimal discount(Booking b) { return b.calculateDiscount(); }
+    public PricingService(DynamicPricingEngine surge) { this(surge, new RateCardSource(RateCard.defaults()), RateCard.DEFAULT_BRANCH); }
 
-    public BigDecimal tax(Booking b) { return b.calculateTax(); }
+    public PricingService(DynamicPricingEngine surge, RateCardSource rates, String branch) {
+        this.surge = surge;
+        this.rates = rates;
+        this.branch = branch;
+    }
 
-    public BigDecimal finalPayable(Booking b) { return b.calculateFinalAmount(); }
+    public RateCardSource rates() { return rates; }
+
+    public BigDecimal basePrice(Booking b) { return charges(b).basePrice(); }
+
+    public BigDecimal extraKmCharge(Booking b) { return charges(b).extraKmCharge(); }
+
+    public BigDecimal discount(Booking b) { return charges(b).discount(); }
+
+    public BigDecimal tax(Booking b) { return charges(b).tax(); }
+
+    public BigDecimal finalPayable(Booking b) { return charges(b).finalPayable(); }
+
+    /** Deposit taken on new bookings at this branch. */
+    public BigDecimal deposit() {
+        RateCard card = rates.current();
+        return card.deposit(card.branch(branch));
+    }
+
+    /**
+     * Every invoice line for a booking, priced against one rate card snapshot. The base is the price quoted
+     * when the dates were booked, surge included, so the invoice matches the quote; bookings without one
+     * are priced from the card.
+     */
+    public Charges charges(Booking b) {
+        RateCard card = rates.current();
+        int br = card.branch(branch);
+        Category c = b.getVehicle().getCategory();
+        int days = b.rentalDays();
+
+        BigDecimal base = b.getQuotedBase() != null ? b.getQuotedBase() : rentalFee(card, br, c, b.getStartDate(), days, null);
+        int extraKm = Math.max(0, b.getTotalKm() - card.freeKmPerDay(br, c) * days);
+        BigDecimal extra = card.extraKmCharge(br, c).multiply(BigDecimal.valueOf(extraKm));
+        BigDecimal rate = card.discountRate(br, days);
+        BigDecimal discount = rate == null ? BigDecimal.ZERO : base.multiply(rate);
+        BigDecimal tax = base.subtract(discount).add(extra).multiply(card.taxRate(br, c));
+        BigDecimal payable = base.subtract(discount).add(extra).add(tax).subtract(b.getDeposit());
+        return new Charges(base, extra, discount, tax, b.getDeposit(), payable.signum() < 0 ? BigDecimal.ZERO : payable);
+    }
+
+    /** Sum of daily fees, each day scaled by its season and (when quoting) its surge multiplier. */
+    private static BigDecimal rentalFee(RateCard card, int br, Category c, LocalDate start, int days, SurgeTable surge) {
+        BigDecimal fee = card.dailyFee(br, c);
+        if (!card.hasSeasons() && surge == null) return fee.multiply(BigDecimal.valueOf(days));
+        BigDecimal total = BigDecimal.ZERO;
+        boolean scaled = surge != null;
+        for (int i = 0; i < days; i++) {
+            LocalDate d = start.plusDays(i);
+            BigDecimal season = card.seasonMultiplier(c, d);
+            BigDecimal day = season == null ? fee : fee.multiply(season);
+            if (surge != null) day = day.multiply(BigDecimal.valueOf(surge.multiplier(c, d)));
+            scaled |= season != null;
+            total = total.add(day);
+        }
+        // unscaled days keep the fee's own scale, so out-of-season prices look exactly like flat ones
+        return scaled ? total.setScale(2, RoundingMode.HALF_UP) : total;
+    }
+
+    // ---- Demand-driven quotes ----
+
+    public double surgeMultiplier(Category c, LocalDate date) {
+        return surge == null ? 1.0 : surge.multiplier(c, date);
+    }
+
+    /** Base rental price for a prospective booking, with each day priced at that day's season and surge. */
+    public BigDecimal quoteBasePrice(Category c, LocalDate start, int days) {
+        RateCard card = rates.current();
+        // one snapshot of each table for the whole quote
+        return rentalFee(card, card.branch(branch), c, start, days, surge == null ? null : surge.currentTable());
+    }
 }
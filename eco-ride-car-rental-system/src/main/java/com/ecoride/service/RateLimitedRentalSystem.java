@@ -0,0 +1,46 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.*;
+
+import java.time.LocalDate;
+
+/**
+ * The customer-facing booking entry points of a {@link CarRentalSystem}, each passed through an
+ * {@link AdmissionController} first. Reads and desk operations go to the system directly. Used by the
+ * console and batch runner when the app starts with {@code --rate-limit}.
+ */
+public class RateLimitedRentalSystem {
+
+    private final CarRentalSystem system;
+    private final AdmissionController admission;
+
+    public RateLimitedRentalSystem(CarRentalSystem system, AdmissionController admission) {
+        this.system = system;
+        this.admission = admission;
+    }
+
+    public CarRentalSystem system() { return system; }
+    public AdmissionController admission() { return admission; }
+
+    public Booking bookByCategory(String customerId, Category category, LocalDate start, int days, int totalKm, String idempotencyKey) {
+        return admission.admit(customerId, () -> system.bookByCategory(customerId, category, start, days, totalKm, idempotencyKey));
+    }
+
+    public Booking bookSpecific(String customerId, String vehicleId, LocalDate start, int days, int totalKm, String idempotencyKey) {
+        return admission.admit(customerId, () -> system.bookSpecific(customerId, vehicleId, start, days, totalKm, idempotencyKey));
+    }
+
+    public Booking updateBooking(String bookingId, LocalDate newStart, Integer newDays, Integer newTotalKm, String idempotencyKey) {
+        return admission.admit(customerOf(bookingId),
+                () -> system.updateBooking(bookingId, newStart, newDays, newTotalKm, idempotencyKey));
+    }
+
+    public void cancelBooking(String bookingId, String idempotencyKey) {
+        admission.admit(customerOf(bookingId), () -> { system.cancelBooking(bookingId, idempotencyKey); return null; });
+    }
+
+    private String customerOf(String bookingId) {
+        return system.findBookingById(bookingId).map(b -> b.getCustomer().getCustomerId())
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecoride.service;
+
+import com.ecoride.fleet.AvailabilityCalendar;
+import com.ecoride.util.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived claims on a vehicle and date range, taken while a desk agent finishes a booking. A hold is
+ * an ordinary {@link AvailabilityCalendar.BlockKind#HOLD} block, so every availability query sees it,
+ * and expires on its own through a {@link TimingWheel}.
+ *
+ * <p>There is no shared lock: holds live in a concurrent map, and whoever removes a hold from the map
+ * (expiry, release or conversion into a booking) is the one that clears its calendar block. Expiry is
+ * driven by whichever thread calls {@link #expireDue()} first; concurrent callers just skip the advance.
+ * A hold past its deadline is treated as gone even before the wheel has caught up.
+ */
+public class ReservationHolds {
+
+    static final long TICK_MILLIS = 1000;
+    static final int WHEEL_SIZE = 1024;
+
+    public record Hold(String holdId, String customerId, String vehicleId, LocalDate start, LocalDate end, long expiresAtMillis) {}
+
+    private final AvailabilityCalendar calendar;
+    private final Clock clock;
+    private final Duration ttl;
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    /** customerId|vehicleId -> holdId, so a booking finds the hold it should consume. */
+    private final ConcurrentHashMap<String, String> byCustomerVehicle = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TimingWheel.Timeout<String>> timers = new ConcurrentHashMap<>();
+    private final TimingWheel<String> wheel;
+    private final AtomicBoolean advancing = new AtomicBoolean();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ReservationHolds(AvailabilityCalendar calendar, Clock clock, Duration ttl) {
+        this.calendar = calendar;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, clock.millis());
+    }
+
+    /**
+     * Record a hold and block its dates. The caller has already checked the dates are free and holds
+     * whatever lock makes that check-and-block atomic with bookings. A customer's earlier hold on the same
+     * vehicle is replaced.
+     */
+    public Hold place(String customerId, String vehicleId, LocalDate start, LocalDate end) {
+        Hold h = new Hold("H-" + sequence.incrementAndGet(), customerId, vehicleId, start, end, clock.millis() + ttl.toMillis());
+        String previous = byCustomerVehicle.put(key(customerId, vehicleId), h.holdId());
+        if (previous != null) release(previous);
+        holds.put(h.holdId(), h);
+        calendar.put(h.holdId(), AvailabilityCalendar.BlockKind.HOLD, vehicleId, start, end);
+        timers.put(h.holdId(), wheel.schedule(h.holdId(), h.expiresAtMillis()));
+        return h;
+    }
+
+    /** The customer's live hold on the vehicle, if any. */
+    public Optional<Hold> heldBy(String customerId, String vehicleId) {
+        String id = byCustomerVehicle.get(key(customerId, vehicleId));
+        return id == null ? Optional.empty() : find(id);
+    }
+
+    public Optional<Hold> find(String holdId) {
+        Hold h = holds.get(holdId);
+        return h != null && isLive(h) ? Optional.of(h) : Optional.empty();
+    }
+
+    /** True when the block's owner is a hold that has expired or been released; such blocks do not count. */
+    public boolean isStale(AvailabilityCalendar.Block b) {
+        return b.kind() == AvailabilityCalendar.BlockKind.HOLD && find(b.ownerId()).isEmpty();
+    }
+
+    /** Drop a hold and free its dates. Returns false if it was already gone. */
+    public boolean release(String holdId) {
+        Hold h = holds.remove(holdId);
+        if (h == null) return false;
+        byCustomerVehicle.remove(key(h.customerId(), h.vehicleId()), holdId);
+        TimingWheel.Timeout<String> t = timers.remove(holdId);
+        if (t != null) t.cancel();
+        calendar.remove(holdId);
+        return true;
+    }
+
+    /** Take a live hold for conversion into a booking. Returns false if it expired first. */
+    public boolean consume(Hold h) {
+        return isLive(h) && release(h.holdId());
+    }
+
+    public int size() { return holds.size(); }
+
+    /** Expire every hold whose deadline has passed. Cheap when nothing is due; never blocks. */
+    public int expireDue() {
+        if (!advancing.compareAndSet(false, true)) return 0;
+        try {
+            int[] expired = {0};
+            wheel.advanceTo(clock.millis(), id -> {
+                timers.remove(id);
+                if (release(id)) expired[0]++;
+            });
+            return expired[0];
+        } finally {
+            advancing.set(false);
+        }
+    }
+
+    private boolean isLive(Hold h) { return clock.millis() < h.expiresAtMillis(); }
+
+    private static String key(String customerId, String vehicleId) { return customerId + '|' + vehicleId; }
+}
@@ -0,0 +1,181 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Routing facade over independent {@link CarRentalSystem} shards. Vehicles, and the bookings made on
+ * them, live in exactly one shard chosen by a router (vehicle-ID hash by default, or a branch map);
+ * customers are shared. Every shard runs its mutations on its own single-threaded executor, so shards
+ * never contend with each other. Category booking and searches fan out to all shards in parallel.
+ */
+public class ShardedCarRentalSystem implements AutoCloseable {
+
+    private final CarRentalSystem[] shards;
+    private final ExecutorService[] executors;
+    private final ToIntFunction<String> router;
+    private final CustomerRepository customers = new InMemoryCustomerRepository();
+    /** bookingId -> shard, filled as bookings are made so later calls route without a fan-out. */
+    private final Map<String, Integer> bookingShard = new ConcurrentHashMap<>();
+    /** Rotating first shard for category bookings. */
+    private final AtomicInteger nextStart = new AtomicInteger();
+
+    public ShardedCarRentalSystem(int shardCount, ToIntFunction<String> router, Clock clock) {
+        this.shards = new CarRentalSystem[shardCount];
+        this.executors = new ExecutorService[shardCount];
+        this.router = router;
+        BookingPolicy policy = new BookingPolicy(clock);
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new CarRentalSystem(new InMemoryVehicleRepository(), customers,
+                    new InMemoryBookingRepository(), policy, new PricingService());
+            final int shard = i;
+            executors[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "rental-shard-" + shard);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /** Partition by vehicle-ID hash. */
+    public static ToIntFunction<String> hashRouter(int shardCount) {
+        return vehicleId -> Math.floorMod(vehicleId.hashCode(), shardCount);
+    }
+
+    /** Partition by branch: vehicles map to their branch's shard; unknown vehicles fall back to hashing. */
+    public static ToIntFunction<String> branchRouter(Map<String, Integer> vehicleBranch, int shardCount) {
+        ToIntFunction<String> fallback = hashRouter(shardCount);
+        return vehicleId -> {
+            Integer branch = vehicleBranch.get(vehicleId);
+            return branch != null ? Math.floorMod(branch, shardCount) : fallback.applyAsInt(vehicleId);
+        };
+    }
+
+    public int shardCount() { return shards.length; }
+
+    public int shardOf(String vehicleId) { return router.applyAsInt(vehicleId); }
+
+    // ---- Vehicles & customers ----
+
+    public void addVehicle(Vehicle v) { onShard(shardOf(v.getVehicleId()), s -> { s.addVehicle(v); return null; }); }
+
+    public void addCustomer(Customer c) { customers.save(c); }
+
+    public Optional<Customer> findCustomer(String id) { return customers.findById(id); }
+
+    public List<Vehicle> listVehicles() { return fanOut(CarRentalSystem::listVehicles); }
+
+    public List<Vehicle> listAvailableByCategory(Category c) { return fanOut(s -> s.listAvailableByCategory(c)); }
+
+    // ---- Booking ----
+
+    public Booking bookSpecific(String customerId, String vehicleId, LocalDate start, int days, int totalKm) {
+        int shard = shardOf(vehicleId);
+        Booking b = onShard(shard, s -> s.bookSpecific(customerId, vehicleId, start, days, totalKm));
+        bookingShard.put(b.getBookingId(), shard);
+        return b;
+    }
+
+    /**
+     * Ask every shard for a car free on the dates in parallel, then book on the first shard that still has one,
+     * starting from a round-robin shard so category bookings spread instead of filling shard 0 first.
+     */
+    public Booking bookByCategory(String customerId, Category category, LocalDate start, int days, int totalKm) {
+        List<Future<Boolean>> probes = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            CarRentalSystem s = shards[i];
+            probes.add(executors[i].submit(() -> !s.listFreeByCategory(category, start, start.plusDays(days - 1L)).isEmpty()));
+        }
+        int first = Math.floorMod(nextStart.getAndIncrement(), shards.length);
+        for (int k = 0; k < shards.length; k++) {
+            int i = (first + k) % shards.length;
+            if (!await(probes.get(i))) continue;
+            try {
+                Booking b = onShard(i, s -> s.bookByCategory(customerId, category, start, days, totalKm));
+                bookingShard.put(b.getBookingId(), i);
+                return b;
+            } catch (NoVehicleAvailableException | BookingConflictException ex) {
+                // the car went between the probe and the booking; try the next shard
+            }
+        }
+        throw new NoVehicleAvailableException(category);
+    }
+
+    public Booking updateBooking(String bookingId, LocalDate newStart, Integer newDays, Integer newTotalKm) {
+        return onShard(locate(bookingId), s -> s.updateBooking(bookingId, newStart, newDays, newTotalKm));
+    }
+
+    public void cancelBooking(String bookingId) {
+        onShard(locate(bookingId), s -> { s.cancelBooking(bookingId); return null; });
+    }
+
+    public Invoice completeAndInvoice(String bookingId) {
+        return onShard(locate(bookingId), s -> s.completeAndInvoice(bookingId));
+    }
+
+    public Optional<Booking> findBookingById(String id) {
+        Integer shard = bookingShard.get(id);
+        if (shard != null) return shards[shard].findBookingById(id);
+        return fanOut(s -> s.findBookingById(id).map(List::of).orElse(List.of())).stream().findFirst();
+    }
+
+    public List<Booking> searchBookingsByNameOrId(String q) { return fanOut(s -> s.searchBookingsByNameOrId(q)); }
+
+    public List<Booking> viewBookingsByDate(LocalDate d) { return fanOut(s -> s.viewBookingsByDate(d)); }
+
+    @Override
+    public void close() {
+        for (ExecutorService e : executors) e.shutdownNow();
+    }
+
+    // ---- Routing helpers ----
+
+    private int locate(String bookingId) {
+        Integer shard = bookingShard.get(bookingId);
+        if (shard != null) return shard;
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i].findBookingById(bookingId).isPresent()) {
+                bookingShard.put(bookingId, i);
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Booking not found");
+    }
+
+    private <T> T onShard(int shard, Function<CarRentalSystem, T> op) {
+        CarRentalSystem s = shards[shard];
+        return await(executors[shard].submit(() -> op.apply(s)));
+    }
+
+    /** Run a read on every shard concurrently and concatenate the results in shard order. */
+    private <T> List<T> fanOut(Function<CarRentalSystem, List<T>> op) {
+        List<CompletableFuture<List<T>>> parts = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            CarRentalSystem s = shards[i];
+            parts.add(CompletableFuture.supplyAsync(() -> op.apply(s), executors[i]));
+        }
+        List<T> merged = new ArrayList<>();
+        for (CompletableFuture<List<T>> p : parts) merged.addAll(await(p));
+        return merged;
+    }
+
+    private static <T> T await(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.Category;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable per-category, per-date surge multipliers published by {@link DynamicPricingEngine}.
+ * Lookups are a bounds check plus an array read, so readers never need a lock.
+ */
+public final class SurgeTable {
+
+    private final long baseEpochDay;
+    private final double[][] multipliers; // [category ordinal][day offset from base]
+
+    SurgeTable(LocalDate baseDate, double[][] multipliers) {
+        this.baseEpochDay = baseDate.toEpochDay();
+        this.multipliers = multipliers;
+    }
+
+    /** A table with no surge anywhere, used before the first recomputation. */
+    public static SurgeTable flat(LocalDate baseDate) {
+        return new SurgeTable(baseDate, new double[Category.values().length][0]);
+    }
+
+    public LocalDate getBaseDate() { return LocalDate.ofEpochDay(baseEpochDay); }
+
+    public int horizonDays() { return multipliers[0].length; }
+
+    /** Multiplier for a category on a date; dates outside the computed horizon are not surged. */
+    public double multiplier(Category c, LocalDate date) {
+        long offset = date.toEpochDay() - baseEpochDay;
+        double[] row = multipliers[c.ordinal()];
+        if (offset < 0 || offset >= row.length) return 1.0;
+        return row[(int) offset];
+    }
+}
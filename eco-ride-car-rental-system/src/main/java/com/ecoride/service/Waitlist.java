@@ -0,0 +1,117 @@
+package com.ecoride.service;
+
+import com.ecoride.domain.Category;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Category booking requests that could not be served, kept until capacity frees up. Each category's
+ * entries sit in a tree ordered by start day, so matching a freed window only probes the entries that
+ * start inside it — a bounded number of them — and picks the longest-waiting one that fits.
+ * That keeps a cancellation at O(log n) however long the waitlist grows.
+ */
+public class Waitlist {
+
+    /** Entries examined per match; beyond this the oldest fitting entry seen so far wins. */
+    public static final int MAX_PROBES = 32;
+
+    public record Entry(String entryId, String customerId, Category category, int startDay, int endDay,
+                        int totalKm, long sequence, LocalDateTime requestedAt) {
+        public LocalDate start() { return LocalDate.ofEpochDay(startDay); }
+        public LocalDate end() { return LocalDate.ofEpochDay(endDay); }
+        public int days() { return endDay - startDay + 1; }
+    }
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingInt(Entry::startDay).thenComparingLong(Entry::sequence);
+
+    private final Map<Category, TreeSet<Entry>> byCategory = new EnumMap<>(Category.class);
+    private final Map<String, Entry> byId = new HashMap<>();
+    /** entryId -> bookingId for entries that were matched. */
+    private final Map<String, String> fulfilled = new HashMap<>();
+    private long sequence;
+
+    public Waitlist() {
+        for (Category c : Category.values()) byCategory.put(c, new TreeSet<>(ORDER));
+    }
+
+    public synchronized Entry add(String customerId, Category category, LocalDate start, int days, int totalKm,
+                                  LocalDateTime now) {
+        if (days < 1) throw new IllegalArgumentException("Booking must be at least one day.");
+        long seq = ++sequence;
+        Entry e = new Entry("W-" + seq, customerId, category, (int) start.toEpochDay(),
+                (int) start.toEpochDay() + days - 1, totalKm, seq, now);
+        byCategory.get(category).add(e);
+        byId.put(e.entryId(), e);
+        return e;
+    }
+
+    public synchronized Optional<Entry> remove(String entryId) {
+        Entry e = byId.remove(entryId);
+        if (e != null) byCategory.get(e.category()).remove(e);
+        return Optional.ofNullable(e);
+    }
+
+    public synchronized Optional<Entry> find(String entryId) { return Optional.ofNullable(byId.get(entryId)); }
+
+    /** Booking an entry was turned into, if it has been matched. */
+    public synchronized Optional<String> fulfilledBooking(String entryId) { return Optional.ofNullable(fulfilled.get(entryId)); }
+
+    public synchronized void markFulfilled(Entry e, String bookingId) {
+        remove(e.entryId());
+        fulfilled.put(e.entryId(), bookingId);
+    }
+
+    public synchronized int size() { return byId.size(); }
+
+    public synchronized List<Entry> waiting(Category c) { return new ArrayList<>(byCategory.get(c)); }
+
+    /**
+     * The entry to offer a freed window [from, to] of the category: among the first {@link #MAX_PROBES}
+     * entries starting inside the window, the oldest request whose whole range fits.
+     */
+    public synchronized Optional<Entry> bestFit(Category c, LocalDate from, LocalDate to) {
+        int f = (int) from.toEpochDay(), t = (int) to.toEpochDay();
+        if (t < f) return Optional.empty();
+        Entry lo = new Entry("", null, c, f, f, 0, Long.MIN_VALUE, null);
+        Entry hi = new Entry("", null, c, t, t, 0, Long.MAX_VALUE, null);
+        Entry best = null;
+        int probes = 0;
+        for (Entry e : byCategory.get(c).subSet(lo, true, hi, true)) {
+            if (++probes > MAX_PROBES) break;
+            if (e.endDay() <= t && (best == null || e.sequence() < best.sequence())) best = e;
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Take the {@link #bestFit} entry off the waitlist in one step, so concurrent releases cannot offer
+     * the same entry twice. Hand it back with {@link #restore} if it could not be booked after all.
+     */
+    public synchronized Optional<Entry> claim(Category c, LocalDate from, LocalDate to) {
+        Optional<Entry> best = bestFit(c, from, to);
+        best.ifPresent(e -> remove(e.entryId()));
+        return best;
+    }
+
+    /** Put a claimed entry back in its original place in the queue. */
+    public synchronized void restore(Entry e) {
+        if (fulfilled.containsKey(e.entryId()) || byId.putIfAbsent(e.entryId(), e) != null) return;
+        byCategory.get(e.category()).add(e);
+    }
+
+    /** Drop entries starting before the given day; they can no longer be booked. Returns how many went. */
+    public synchronized int expireBefore(LocalDate earliestStart) {
+        int cutoff = (int) earliestStart.toEpochDay();
+        int removed = 0;
+        for (TreeSet<Entry> set : byCategory.values()) {
+            SortedSet<Entry> stale = set.headSet(new Entry("", null, null, cutoff, cutoff, 0, Long.MIN_VALUE, null));
+            for (Entry e : stale) byId.remove(e.entryId());
+            removed += stale.size();
+            stale.clear();
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecoride.trace;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finished spans of one thread, waiting for the flusher. A single-producer single-consumer ring: only
+ * the owning thread appends and only the flusher drains, so neither side locks; each publishes its
+ * position with an ordered store. A full ring drops the new span rather than blocking the caller.
+ */
+final class SpanBuffer {
+
+    /** longs per span: traceId, spanId and parentId packed, nameId, start (epoch nanos), duration, threadId */
+    static final int FIELDS = 6;
+
+    private final long[] slots;
+    private final int mask;
+    private final long threadId;
+    private final WeakReference<Thread> owner;
+    private final AtomicLong tail = new AtomicLong(); // spans written, advanced by the owner
+    private final AtomicLong head = new AtomicLong(); // spans read, advanced by the flusher
+
+    SpanBuffer(int capacity, Thread owner) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Span buffer capacity must be a power of two");
+        this.slots = new long[capacity * FIELDS];
+        this.mask = capacity - 1;
+        this.threadId = owner.getId();
+        this.owner = new WeakReference<>(owner);
+    }
+
+    /** The owning thread has ended, so once drained this buffer will never fill again. */
+    boolean ownerGone() {
+        Thread t = owner.get();
+        return t == null || !t.isAlive();
+    }
+
+    /** Owner thread only. Returns false, dropping the span, when the flusher has fallen a full ring behind. */
+    boolean append(long traceId, int spanId, int parentId, int nameId, long startEpochNanos, long durationNanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) return false;
+        int i = (int) (t & mask) * FIELDS;
+        slots[i] = traceId;
+        slots[i + 1] = ((long) spanId << 32) | (parentId & 0xFFFFFFFFL);
+        slots[i + 2] = nameId;
+        slots[i + 3] = startEpochNanos;
+        slots[i + 4] = durationNanos;
+        slots[i + 5] = threadId;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Flusher thread only. Hands every published span to the sink, then frees their slots. */
+    int drain(TraceFile.Writer sink) throws IOException {
+        long h = head.get(), t = tail.get();
+        for (long k = h; k < t; k++) {
+            int i = (int) (k & mask) * FIELDS;
+            long ids = slots[i + 1];
+            sink.span(slots[i], (int) (ids >>> 32), (int) ids, (int) slots[i + 2], slots[i + 3], slots[i + 4], slots[i + 5]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+}
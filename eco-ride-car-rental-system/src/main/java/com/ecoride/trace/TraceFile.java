@@ -0,0 +1,119 @@
+package com.ecoride.trace;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The binary span file. After an 8-byte magic, it is a sequence of records: a name record
+ * ({@code 1}, id, UTF name) the first time a span name is used, then span records ({@code 2}, trace id,
+ * span id, parent id, name id, start in epoch nanos, duration in nanos, thread id) with every number a
+ * variable-length unsigned integer, so a typical span takes about 20 bytes. Appending to an existing file
+ * starts a new segment with its own name table. A file cut off mid-record (the process died while
+ * writing) reads back up to the last whole record.
+ */
+public final class TraceFile {
+
+    private static final byte[] MAGIC = "ECOTRCE1".getBytes(StandardCharsets.US_ASCII);
+    private static final int NAME = 1;
+    private static final int SPAN = 2;
+
+    private TraceFile() {}
+
+    /** Streams records to a file; single-threaded (the tracer's flusher). */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private int namesWritten;
+
+        public Writer(Path file) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+            out.write(MAGIC);
+        }
+
+        /** Write name records for any names interned since the last call. */
+        void names(List<String> all) throws IOException {
+            for (; namesWritten < all.size(); namesWritten++) {
+                out.writeByte(NAME);
+                writeVar(namesWritten);
+                out.writeUTF(all.get(namesWritten));
+            }
+        }
+
+        void span(long traceId, int spanId, int parentId, int nameId, long startEpochNanos, long durationNanos, long threadId) throws IOException {
+            out.writeByte(SPAN);
+            writeVar(traceId);
+            writeVar(spanId);
+            writeVar(parentId);
+            writeVar(nameId);
+            writeVar(startEpochNanos);
+            writeVar(durationNanos);
+            writeVar(threadId);
+        }
+
+        public void flush() throws IOException { out.flush(); }
+
+        @Override public void close() throws IOException { out.close(); }
+
+        private void writeVar(long v) throws IOException {
+            while ((v & ~0x7FL) != 0) {
+                out.writeByte((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.writeByte((int) v);
+        }
+    }
+
+    /** Hand every span in the file to {@code sink}, in file order. Returns how many were read. */
+    public static long read(Path file, Consumer<TraceSpan> sink) throws IOException {
+        long count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            List<String> names = new ArrayList<>();
+            byte[] magic = new byte[MAGIC.length];
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) return count;
+                try {
+                    if (tag == MAGIC[0]) { // a new segment
+                        magic[0] = (byte) tag;
+                        in.readFully(magic, 1, magic.length - 1);
+                        if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a trace file: " + file);
+                        names.clear();
+                    } else if (tag == NAME) {
+                        int id = (int) readVar(in);
+                        String name = in.readUTF();
+                        while (names.size() <= id) names.add(null);
+                        names.set(id, name);
+                    } else if (tag == SPAN) {
+                        long traceId = readVar(in);
+                        int spanId = (int) readVar(in), parentId = (int) readVar(in), nameId = (int) readVar(in);
+                        long start = readVar(in), duration = readVar(in), thread = readVar(in);
+                        sink.accept(new TraceSpan(traceId, spanId, parentId, nameId < names.size() ? names.get(nameId) : "?",
+                                start, duration, thread));
+                        count++;
+                    } else {
+                        throw new IOException("Corrupt trace file " + file + " after " + count + " spans");
+                    }
+                } catch (EOFException e) {
+                    return count; // truncated final record
+                }
+            }
+        }
+    }
+
+    private static long readVar(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            if (shift > 63) throw new IOException("Malformed number in trace file");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecoride.trace;
+
+/** One finished span as read back from a trace file. {@code parentId} is 0 for a trace's root span. */
+public record TraceSpan(long traceId, int spanId, int parentId, String name, long startEpochNanos, long durationNanos, long threadId) {
+    public boolean isRoot() { return parentId == 0; }
+}
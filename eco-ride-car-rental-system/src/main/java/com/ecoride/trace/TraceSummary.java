@@ -0,0 +1,86 @@
+package com.ecoride.trace;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Summarizes a trace file: time per span name, then the slowest traces as span trees.
+ *
+ * <pre>
+ *   java -cp target/classes com.ecoride.trace.TraceSummary trace.bin [slowest=10] [root-name]
+ * </pre>
+ * Reads the file twice — once to rank traces by root duration, once to collect the spans of the
+ * slowest — so memory stays bounded by the number of distinct span names and the traces shown.
+ */
+public class TraceSummary {
+
+    private static final class NameStats {
+        long count, totalNanos, maxNanos;
+    }
+
+    private record Ranked(long traceId, long durationNanos, String root) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: TraceSummary <trace-file> [slowest=10] [root-name]");
+            System.exit(2);
+        }
+        int slowest = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        summarize(Path.of(args[0]), slowest, args.length > 2 ? args[2] : null, System.out);
+    }
+
+    /** Print the summary; {@code rootName}, when given, ranks only traces whose root span has that name. */
+    public static void summarize(Path file, int slowest, String rootName, PrintStream out) throws IOException {
+        Map<String, NameStats> byName = new TreeMap<>();
+        PriorityQueue<Ranked> top = new PriorityQueue<>(Comparator.comparingLong(Ranked::durationNanos));
+        long spans = TraceFile.read(file, s -> {
+            NameStats st = byName.computeIfAbsent(s.name(), k -> new NameStats());
+            st.count++;
+            st.totalNanos += s.durationNanos();
+            st.maxNanos = Math.max(st.maxNanos, s.durationNanos());
+            if (s.isRoot() && (rootName == null || rootName.equals(s.name()))) {
+                top.add(new Ranked(s.traceId(), s.durationNanos(), s.name()));
+                if (top.size() > slowest) top.poll();
+            }
+        });
+
+        out.printf("%d spans, %d span names%n%n", spans, byName.size());
+        out.printf("%-44s %10s %12s %12s %12s%n", "span", "count", "total ms", "mean ms", "max ms");
+        byName.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().totalNanos, a.getValue().totalNanos))
+                .forEach(e -> {
+                    NameStats st = e.getValue();
+                    out.printf("%-44s %10d %12.3f %12.3f %12.3f%n", e.getKey(), st.count, ms(st.totalNanos),
+                            ms(st.totalNanos / st.count), ms(st.maxNanos));
+                });
+
+        Map<Long, List<TraceSpan>> wanted = new HashMap<>();
+        for (Ranked r : top) wanted.put(r.traceId(), new ArrayList<>());
+        TraceFile.read(file, s -> {
+            List<TraceSpan> list = wanted.get(s.traceId());
+            if (list != null) list.add(s);
+        });
+        List<Ranked> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingLong(Ranked::durationNanos).reversed());
+        out.printf("%nslowest %d traces%n", ranked.size());
+        for (Ranked r : ranked) {
+            out.printf("%ntrace %d  %s  %.3f ms%n", r.traceId(), r.root(), ms(r.durationNanos()));
+            List<TraceSpan> trace = wanted.get(r.traceId());
+            Map<Integer, List<TraceSpan>> children = new HashMap<>();
+            for (TraceSpan s : trace) children.computeIfAbsent(s.parentId(), k -> new ArrayList<>()).add(s);
+            for (List<TraceSpan> c : children.values()) c.sort(Comparator.comparingLong(TraceSpan::startEpochNanos));
+            printTree(out, children, 0, 1);
+        }
+    }
+
+    private static void printTree(PrintStream out, Map<Integer, List<TraceSpan>> children, int parent, int depth) {
+        for (TraceSpan s : children.getOrDefault(parent, List.of())) {
+            out.printf("%s%-" + Math.max(1, 44 - 2 * depth) + "s %10.3f ms%n", "  ".repeat(depth), s.name(), ms(s.durationNanos()));
+            printTree(out, children, s.spanId(), depth + 1);
+        }
+    }
+
+    private static double ms(long nanos) { return nanos / 1e6; }
+}
@@ -0,0 +1,209 @@
+package com.ecoride.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampled span tracing. The decision to trace is made once per trace, at its root span, with the current
+ * sampling rate; every span nested under a sampled root on the same thread is recorded, and nothing
+ * under an unsampled one is. Spans are timed with {@link System#nanoTime()} and, when they close, go into
+ * the thread's own {@link SpanBuffer} without locking. A background flusher drains every buffer into a
+ * {@link TraceFile} at a fixed interval.
+ *
+ * <pre>
+ *   try (Tracer.Span s = tracer.span("booking.book")) { ... }
+ * </pre>
+ * The rate can be changed at any time with {@link #setSampleRate}; 0 turns tracing into a thread-local
+ * read per span.
+ */
+public class Tracer implements Closeable {
+
+    public static final int BUFFER_SPANS = 4096;
+
+    /** An open span; close it on the thread that opened it, innermost first (try-with-resources does both). */
+    public static class Span implements AutoCloseable {
+        private final Context ctx;
+        private final int spanId, parentId, nameId;
+        private final long startNanos;
+
+        private Span(Context ctx, int spanId, int parentId, int nameId, long startNanos) {
+            this.ctx = ctx;
+            this.spanId = spanId;
+            this.parentId = parentId;
+            this.nameId = nameId;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (ctx == null) return;
+            Tracer t = ctx.tracer;
+            long duration = System.nanoTime() - startNanos;
+            ctx.current = parentId;
+            ctx.depth--;
+            if (!ctx.buffer.append(ctx.traceId, spanId, parentId, nameId, t.epochOffsetNanos + startNanos, duration)) {
+                t.dropped.increment();
+            }
+        }
+    }
+
+    private static final Span NOOP = new Span(null, 0, 0, 0, 0);
+
+    /** Per-thread trace state; only its own thread touches it, apart from the flusher draining the buffer. */
+    private static final class Context {
+        final Tracer tracer;
+        final SpanBuffer buffer;
+        final Span unsampled;
+        long traceId;
+        int nextSpanId, current, depth;
+        boolean sampled;
+
+        Context(Tracer tracer, SpanBuffer buffer) {
+            this.tracer = tracer;
+            this.buffer = buffer;
+            this.unsampled = new Span(null, 0, 0, 0, 0) {
+                @Override public void close() { depth--; }
+            };
+        }
+    }
+
+    private volatile double sampleRate;
+    private final ThreadLocal<Context> context;
+    private final List<SpanBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, Integer> nameIds = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>(); // guarded by itself
+    private final AtomicLong traceIds = new AtomicLong(System.currentTimeMillis() << 16); // distinct across runs appending to one file
+    private final long epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    private final LongAdder traces = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final TraceFile.Writer writer;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    /** A tracer that records nothing; what a system without {@code --trace} uses. */
+    public static Tracer disabled() { return new Tracer(); }
+
+    private Tracer() {
+        this.sampleRate = 0;
+        this.context = new ThreadLocal<>();
+        this.writer = null;
+        this.flusher = null;
+    }
+
+    /** Append spans to {@code file}, flushing every {@code flushInterval}. */
+    public Tracer(Path file, double sampleRate, Duration flushInterval) throws IOException {
+        setSampleRate(sampleRate);
+        this.context = ThreadLocal.withInitial(() -> {
+            SpanBuffer b = new SpanBuffer(BUFFER_SPANS, Thread.currentThread());
+            buffers.add(b);
+            return new Context(this, b);
+        });
+        this.writer = new TraceFile.Writer(file);
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        this.flusher = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(intervalMillis);
+                    flush();
+                }
+            } catch (InterruptedException e) {
+                // closed
+            } catch (IOException e) {
+                System.err.println("Tracing stopped, trace file not writable: " + e.getMessage());
+                this.sampleRate = 0;
+            }
+        }, "trace-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** Open a span; a root span decides whether the whole trace is sampled. */
+    public Span span(String name) {
+        if (writer == null || closed) return NOOP;
+        Context ctx = context.get();
+        if (ctx.depth == 0) {
+            double rate = sampleRate;
+            if (rate <= 0) return NOOP;
+            ctx.sampled = rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+            if (ctx.sampled) {
+                ctx.traceId = traceIds.incrementAndGet();
+                ctx.nextSpanId = 0;
+                ctx.current = 0;
+                traces.increment();
+            }
+        }
+        ctx.depth++;
+        if (!ctx.sampled) return ctx.unsampled;
+        int id = ++ctx.nextSpanId;
+        Span s = new Span(ctx, id, ctx.current, nameId(name), System.nanoTime());
+        ctx.current = id;
+        return s;
+    }
+
+    public void setSampleRate(double rate) {
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        this.sampleRate = rate;
+    }
+
+    public double getSampleRate() { return sampleRate; }
+    public boolean isEnabled() { return writer != null; }
+
+    public long traces() { return traces.sum(); }
+    public long spansWritten() { return written.sum(); }
+    /** Spans lost because a thread's buffer was full when they closed. */
+    public long spansDropped() { return dropped.sum(); }
+
+    /** Write out everything buffered so far. Called by the flusher; safe to call from elsewhere too. */
+    public synchronized void flush() throws IOException {
+        if (writer == null) return;
+        synchronized (names) { writer.names(names); } // names before the spans that use them
+        if (closed) return;
+        for (SpanBuffer b : buffers) {
+            boolean gone = b.ownerGone(); // checked first: a thread seen dead has appended its last span
+            written.add(b.drain(writer));
+            if (gone) buffers.remove(b);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer == null) return;
+        flusher.interrupt();
+        try {
+            flusher.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (closed) return;
+            flush();
+            closed = true;
+            writer.close();
+        }
+    }
+
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) return id;
+        synchronized (names) {
+            id = nameIds.get(name);
+            if (id == null) {
+                id = names.size();
+                names.add(name);
+                nameIds.put(name, id);
+            }
+            return id;
+        }
+    }
+}
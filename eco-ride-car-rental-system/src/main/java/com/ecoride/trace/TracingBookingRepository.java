@@ -0,0 +1,26 @@
+package com.ecoride.trace;
+
+import com.ecoride.domain.Booking;
+import com.ecoride.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/** Times every call to the delegate as a {@code repo.bookings.*} span. */
+public class TracingBookingRepository implements BookingRepository {
+    private final BookingRepository delegate;
+    private final Tracer tracer;
+
+    public TracingBookingRepository(BookingRepository delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override public void save(Booking b) { try (Tracer.Span s = tracer.span("repo.bookings.save")) { delegate.save(b); } }
+    @Override public Optional<Booking> findById(String id) { try (Tracer.Span s = tracer.span("repo.bookings.findById")) { return delegate.findById(id); } }
+    @Override public List<Booking> findAll() { try (Tracer.Span s = tracer.span("repo.bookings.findAll")) { return delegate.findAll(); } }
+    @Override public List<Booking> findByDate(LocalDate date) { try (Tracer.Span s = tracer.span("repo.bookings.findByDate")) { return delegate.findByDate(date); } }
+    @Override public List<Booking> findActive() { try (Tracer.Span s = tracer.span("repo.bookings.findActive")) { return delegate.findActive(); } }
+    @Override public void delete(String id) { try (Tracer.Span s = tracer.span("repo.bookings.delete")) { delegate.delete(id); } }
+    @Override public int count() { return delegate.count(); }
+}
@@ -0,0 +1,24 @@
+package com.ecoride.trace;
+
+import com.ecoride.domain.Customer;
+import com.ecoride.repository.CustomerRepository;
+
+import java.util.*;
+
+/** Times every call to the delegate as a {@code repo.customers.*} span. */
+public class TracingCustomerRepository implements CustomerRepository {
+    private final CustomerRepository delegate;
+    private final Tracer tracer;
+
+    public TracingCustomerRepository(CustomerRepository delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override public void save(Customer c) { try (Tracer.Span s = tracer.span("repo.customers.save")) { delegate.save(c); } }
+    @Override public Optional<Customer> findById(String id) { try (Tracer.Span s = tracer.span("repo.customers.findById")) { return delegate.findById(id); } }
+    @Override public List<Customer> findAll() { try (Tracer.Span s = tracer.span("repo.customers.findAll")) { return delegate.findAll(); } }
+    @Override public List<Customer> findByNameContains(String name) { try (Tracer.Span s = tracer.span("repo.customers.findByNameContains")) { return delegate.findByNameContains(name); } }
+    @Override public int count() { return delegate.count(); }
+    @Override public Map<String, Customer> findAllById(Collection<String> ids) { try (Tracer.Span s = tracer.span("repo.customers.findAllById")) { return delegate.findAllById(ids); } }
+}
@@ -0,0 +1,28 @@
+package com.ecoride.trace;
+
+import com.ecoride.domain.AvailabilityStatus;
+import com.ecoride.domain.Category;
+import com.ecoride.domain.Vehicle;
+import com.ecoride.repository.VehicleRepository;
+
+import java.util.*;
+
+/** Times every call to the delegate as a {@code repo.vehicles.*} span. */
+public class TracingVehicleRepository implements VehicleRepository {
+    private final VehicleRepository delegate;
+    private final Tracer tracer;
+
+    public TracingVehicleRepository(VehicleRepository delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override public void save(Vehicle v) { try (Tracer.Span s = tracer.span("repo.vehicles.save")) { delegate.save(v); } }
+    @Override public Optional<Vehicle> findById(String id) { try (Tracer.Span s = tracer.span("repo.vehicles.findById")) { return delegate.findById(id); } }
+    @Override public List<Vehicle> findAll() { try (Tracer.Span s = tracer.span("repo.vehicles.findAll")) { return delegate.findAll(); } }
+    @Override public void delete(String id) { try (Tracer.Span s = tracer.span("repo.vehicles.delete")) { delegate.delete(id); } }
+    @Override public List<Vehicle> findAvailableByCategory(Category c) { try (Tracer.Span s = tracer.span("repo.vehicles.findAvailableByCategory")) { return delegate.findAvailableByCategory(c); } }
+    @Override public int count() { return delegate.count(); }
+    @Override public int countByStatus(AvailabilityStatus status) { return delegate.countByStatus(status); }
+    @Override public Map<String, Vehicle> findAllById(Collection<String> ids) { try (Tracer.Span s = tracer.span("repo.vehicles.findAllById")) { return delegate.findAllById(ids); } }
+}
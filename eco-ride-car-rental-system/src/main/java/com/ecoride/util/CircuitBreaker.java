@@ -0,0 +1,67 @@
+package com.ecoride.util;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Stops calling a failing dependency for a while. After {@code failureThreshold} consecutive failures
+ * the breaker opens and refuses calls; once {@code openFor} has passed it lets a single probe through
+ * (half-open), and that probe's outcome closes or re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+    private long opens;
+
+    public CircuitBreaker(int failureThreshold, Duration openFor, Clock clock) {
+        if (failureThreshold < 1 || openFor.isNegative()) throw new IllegalArgumentException("Breaker threshold must be at least 1");
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openFor.toMillis();
+        this.clock = clock;
+    }
+
+    /** May a call go out now? A true answer must be followed by {@link #onSuccess()} or {@link #onFailure()}. */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED: return true;
+            case OPEN:
+                if (clock.millis() - openedAt < openMillis) return false;
+                state = State.HALF_OPEN;
+                probing = true;
+                return true;
+            default:
+                if (probing) return false;
+                probing = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probing = false;
+    }
+
+    public synchronized void onFailure() {
+        probing = false;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+            failures = 0;
+            opens++;
+        }
+    }
+
+    public synchronized State state() { return state; }
+
+    /** How many times the breaker has opened. */
+    public synchronized long opens() { return opens; }
+}
@@ -0,0 +1,120 @@
+package com.ecoride.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel. Scheduling and cancelling are O(1): new timeouts are queued lock-free and
+ * dropped into their bucket the next time the wheel advances, and a cancelled timeout is simply
+ * skipped when its bucket comes round. Deadlines further out than one revolution carry a round count.
+ *
+ * <p>Time is supplied by the caller ({@link #advanceTo}), so the wheel itself never reads a clock.
+ * Only one thread may advance the wheel at a time; any thread may schedule or cancel.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final Queue<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) throw new IllegalArgumentException("tick and wheel size must be positive");
+        this.tickMillis = tickMillis;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new ArrayDeque<>();
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> t = new Timeout<>(payload, deadlineMillis, this);
+        pending.incrementAndGet();
+        incoming.add(t);
+        return t;
+    }
+
+    /** Number of scheduled timeouts that have neither fired nor been cancelled. */
+    public int pending() { return pending.get(); }
+
+    /**
+     * Fire, in deadline-tick order, every timeout whose tick has elapsed by {@code nowMillis}.
+     * Timeouts whose deadline is already past fire on the next tick. Returns the number fired.
+     */
+    public int advanceTo(long nowMillis, Consumer<T> handler) {
+        long targetTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (currentTick < targetTick) {
+            drainIncoming();
+            currentTick++;
+            Iterator<Timeout<T>> it = buckets[(int) (currentTick % buckets.length)].iterator();
+            while (it.hasNext()) {
+                Timeout<T> t = it.next();
+                if (t.cancelled) {
+                    it.remove();
+                } else if (t.rounds <= 0) {
+                    it.remove();
+                    if (t.expire()) {
+                        handler.accept(t.payload);
+                        fired++;
+                    }
+                } else {
+                    t.rounds--;
+                }
+            }
+        }
+        return fired;
+    }
+
+    /** Move queued timeouts into buckets; {@code currentTick} is the last tick already processed. */
+    private void drainIncoming() {
+        Timeout<T> t;
+        while ((t = incoming.poll()) != null) {
+            if (t.cancelled) continue;
+            long tick = Math.max(t.deadlineMillis / tickMillis, currentTick + 1);
+            t.rounds = (tick - currentTick - 1) / buckets.length;
+            buckets[(int) (tick % buckets.length)].add(t);
+        }
+    }
+
+    /** Handle for a scheduled payload. */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMillis;
+        private final TimingWheel<T> wheel;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+        private long rounds;
+
+        private Timeout(T payload, long deadlineMillis, TimingWheel<T> wheel) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+            this.wheel = wheel;
+        }
+
+        public T getPayload() { return payload; }
+        public long getDeadlineMillis() { return deadlineMillis; }
+        public boolean isCancelled() { return cancelled; }
+        public boolean isExpired() { return expired; }
+
+        private synchronized boolean expire() {
+            if (cancelled) return false;
+            expired = true;
+            wheel.pending.decrementAndGet();
+            return true;
+        }
+
+        /** Returns false if the timeout already fired or was already cancelled. */
+        public synchronized boolean cancel() {
+            if (cancelled || expired) return false;
+            cancelled = true;
+            wheel.pending.decrementAndGet();
+            return true;
+        }
+    }
+}
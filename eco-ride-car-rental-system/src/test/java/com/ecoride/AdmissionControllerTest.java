@@ -0,0 +1,103 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControllerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testPerCustomerAndGlobalBuckets() {
+        AtomicLong now = new AtomicLong(123 * SECOND);
+        AdmissionController ac = new AdmissionController(new AdmissionLimits(2, 3, 10, 5, 10), now::get);
+
+        for (int i = 0; i < 3; i++) ac.admit("flood", () -> 1);
+        AdmissionRejectedException ex = assertThrows(AdmissionRejectedException.class, () -> ac.admit("flood", () -> 1));
+        assertEquals(AdmissionRejectedException.Reason.CUSTOMER_RATE, ex.getReason());
+
+        // others are unaffected until the global burst of 5 is used up
+        ac.admit("alice", () -> 1);
+        ac.admit("bob", () -> 1);
+        ex = assertThrows(AdmissionRejectedException.class, () -> ac.admit("carol", () -> 1));
+        assertEquals(AdmissionRejectedException.Reason.GLOBAL_RATE, ex.getReason());
+
+        // half a second refills one token for the flooding customer (2/s) and five globally (10/s)
+        now.addAndGet(SECOND / 2);
+        ac.admit("flood", () -> 1);
+        assertThrows(AdmissionRejectedException.class, () -> ac.admit("flood", () -> 1));
+        ac.admit("carol", () -> 1); // carol's earlier rejection did not cost her a token
+
+        // limits change at runtime
+        ac.setLimits(new AdmissionLimits(100, 100, 100, 100, 10));
+        for (int i = 0; i < 20; i++) ac.admit("flood", () -> 1);
+
+        AdmissionController.Stats s = ac.stats();
+        assertEquals(27, s.admitted());
+        assertEquals(2, s.rejectedCustomerRate());
+        assertEquals(1, s.rejectedGlobalRate());
+    }
+
+    @Test
+    public void testInFlightCapRejectsInsteadOfQueueing() throws Exception {
+        AdmissionController ac = new AdmissionController(new AdmissionLimits(1000, 1000, 1000, 1000, 1));
+        CountDownLatch entered = new CountDownLatch(1), release = new CountDownLatch(1);
+        Thread slow = new Thread(() -> ac.admit("a", () -> {
+            entered.countDown();
+            try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            return null;
+        }));
+        slow.start();
+        entered.await();
+        AdmissionRejectedException ex = assertThrows(AdmissionRejectedException.class, () -> ac.admit("b", () -> 1));
+        assertEquals(AdmissionRejectedException.Reason.OVERLOADED, ex.getReason());
+        release.countDown();
+        slow.join();
+        assertEquals(1, ac.admit("b", () -> 1));
+        assertEquals(0, ac.stats().inFlight());
+    }
+
+    @Test
+    public void testBookingFacadeRejectsFloodingCustomer() {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+        CarRentalSystem system = RentalFixtures.system(clock);
+        system.seedVehicles();
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        AtomicLong now = new AtomicLong();
+        RateLimitedRentalSystem gate = new RateLimitedRentalSystem(system,
+                new AdmissionController(new AdmissionLimits(1, 2, 100, 100, 8), now::get));
+
+        LocalDate start = LocalDate.of(2026, 11, 1);
+        gate.bookByCategory("NIC1", Category.ELECTRIC, start, 2, 100, null);
+        gate.bookByCategory("NIC1", Category.ELECTRIC, start, 2, 100, null);
+        assertThrows(AdmissionRejectedException.class, () -> gate.bookByCategory("NIC1", Category.HYBRID, start, 2, 100, null));
+        assertEquals(2, system.listBookings().size());
+    }
+
+    @Test
+    public void testIdleBucketSweepRunsAtMostOncePerInterval() {
+        AtomicLong now = new AtomicLong(5 * SECOND);
+        AdmissionController ac = new AdmissionController(new AdmissionLimits(1000, 1, 1e9, 1_000_000, 10), now::get);
+        for (int i = 0; i <= 10_000; i++) ac.admit("c" + i, () -> 1);
+        now.addAndGet(2 * SECOND);
+        ac.admit("x", () -> 1);
+        assertTrue(ac.stats().trackedCustomers() <= 1, "first request past the interval sweeps refilled buckets");
+
+        for (int i = 0; i <= 10_000; i++) ac.admit("d" + i, () -> 1);
+        now.addAndGet(SECOND / 2);
+        ac.admit("y", () -> 1);
+        assertTrue(ac.stats().trackedCustomers() > 10_000, "no second sweep within the interval");
+        now.addAndGet(SECOND);
+        ac.admit("z", () -> 1);
+        assertTrue(ac.stats().trackedCustomers() <= 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecoride;
+
+import com.ecoride.cli.BatchRunner;
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-07-01T08:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    public void testScriptRunsCommandsWithVariablesAndRoundTripsExport(@TempDir Path dir) throws IOException {
+        Path export = dir.resolve("export.tsv");
+        String script = String.join("\n",
+                "# nightly job",
+                "seed",
+                "customer local NIC1 \"Alice Perera\" 0771234567 alice@ex.com",
+                "$a = book NIC1 HYBRID 2026-07-10 3 250",
+                "$b = book NIC1 C-002 2026-07-12 2 100",
+                "update $a start=2026-07-11 km=300",
+                "cancel $b",
+                "complete $a",
+                "cancel R-doesnotexist",
+                "book NIC1 $unbound 2026-07-10 1 1",
+                "export " + export);
+        CarRentalSystem system = RentalFixtures.system(CLOCK);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchRunner runner = new BatchRunner(system, out);
+
+        assertEquals(2, runner.run(new StringReader(script)));
+        assertEquals(8, runner.getOk());
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("ERR  line 10"), text);
+        assertTrue(text.contains("Unbound variable $unbound"), text);
+        assertTrue(text.contains("DONE 10 commands, 8 ok, 2 failed"), text);
+        assertFalse(text.contains("\u001B["), "no ANSI escapes in batch output");
+
+        Booking a = system.searchBookingsByNameOrId("alice").stream()
+                .filter(b -> b.getStatus() == BookingStatus.COMPLETED).findFirst().orElseThrow();
+        assertEquals(LocalDate.of(2026, 7, 11), a.getStartDate());
+        assertEquals(300, a.getTotalKm());
+
+        CarRentalSystem copy = RentalFixtures.system(CLOCK);
+        BatchRunner importer = new BatchRunner(copy, new ByteArrayOutputStream());
+        assertEquals(0, importer.run(new StringReader("import " + export)));
+        assertEquals(system.listVehicles().size(), copy.listVehicles().size());
+        assertEquals(2, copy.listBookings().size());
+        assertEquals(BookingStatus.COMPLETED, copy.findBookingById(a.getBookingId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingBatchTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-05-01T08:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate START = LocalDate.of(2026, 5, 10);
+
+    private CarRentalSystem system;
+    private BookingRepository bRepo;
+
+    @BeforeEach
+    public void setUp() {
+        bRepo = new InMemoryBookingRepository();
+        system = RentalFixtures.system(CLOCK, bRepo);
+        system.seedVehicles();
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        system.addCustomer(new LocalCustomer("NIC2", "Bob", "0777654321", "b@ex.com"));
+    }
+
+    @Test
+    public void testBatchCommitsAllItems() {
+        BatchBookingResult result = system.bookBatch(List.of(
+                BookingRequest.byCategory("NIC1", Category.ELECTRIC, START, 3, 200),
+                BookingRequest.byCategory("NIC2", Category.ELECTRIC, START, 2, 100),
+                BookingRequest.specific("NIC1", "C-003", START, 1, 50)));
+
+        assertTrue(result.isCommitted());
+        assertEquals(3, result.bookings().size());
+        assertEquals(3, bRepo.findAll().size());
+        assertNotEquals(result.bookings().get(0).getVehicle(), result.bookings().get(1).getVehicle());
+        assertTrue(system.listAvailableByCategory(Category.ELECTRIC).isEmpty());
+    }
+
+    @Test
+    public void testBatchReusesVehicleOnDisjointDates() {
+        BatchBookingResult result = system.bookBatch(List.of(
+                BookingRequest.specific("NIC1", "C-001", START, 2, 50),
+                BookingRequest.specific("NIC2", "C-001", START.plusDays(2), 2, 50),
+                BookingRequest.byCategory("NIC1", Category.LUXURY_SUV, START, 3, 200),
+                BookingRequest.byCategory("NIC2", Category.LUXURY_SUV, START.plusDays(3), 3, 200))); // the one SUV, later
+
+        assertTrue(result.isCommitted(), () -> result.getItems().toString());
+        assertEquals(4, result.bookings().size());
+        assertEquals(result.bookings().get(2).getVehicle(), result.bookings().get(3).getVehicle());
+
+        BatchBookingResult overlap = system.bookBatch(List.of(
+                BookingRequest.specific("NIC1", "C-005", START, 3, 50),
+                BookingRequest.specific("NIC2", "C-005", START.plusDays(2), 1, 50)));
+        assertFalse(overlap.isCommitted());
+        assertEquals(BatchBookingResult.Outcome.REJECTED, overlap.getItems().get(1).outcome());
+    }
+
+    @Test
+    public void testBatchIsAllOrNothing() {
+        BatchBookingResult result = system.bookBatch(List.of(
+                BookingRequest.byCategory("NIC1", Category.LUXURY_SUV, START, 3, 200),
+                BookingRequest.byCategory("NIC2", Category.LUXURY_SUV, START, 3, 200),  // only one SUV
+                BookingRequest.specific("NIC1", "C-001", START.minusDays(8), 1, 50),     // lead time
+                BookingRequest.specific("NOPE", "C-002", START, 1, 50)));
+
+        assertFalse(result.isCommitted());
+        assertEquals(3, result.rejectedCount());
+        assertEquals(BatchBookingResult.Outcome.NOT_COMMITTED, result.getItems().get(0).outcome());
+        assertEquals("Customer not found", result.getItems().get(3).error());
+        assertTrue(bRepo.findAll().isEmpty());
+        assertEquals(1, system.listAvailableByCategory(Category.LUXURY_SUV).size());
+        assertThrows(IllegalArgumentException.class, () -> new BookingRequest("NIC1", null, null, START, 1, 50));
+    }
+}
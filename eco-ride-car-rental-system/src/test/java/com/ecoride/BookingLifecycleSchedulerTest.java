@@ -0,0 +1,79 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingLifecycleSchedulerTest {
+
+    /** Clock the test moves by hand. */
+    static class MutableClock extends Clock {
+        private Instant now;
+        MutableClock(Instant now) { this.now = now; }
+        void advance(Duration d) { now = now.plus(d); }
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    @Test
+    public void testTransitionsFireInOrderAndReleaseVehicle() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-03-01T10:00:00Z"));
+        BookingPolicy policy = new BookingPolicy(clock);
+        VehicleRepository vRepo = new InMemoryVehicleRepository();
+        CarRentalSystem system = new CarRentalSystem(vRepo, new InMemoryCustomerRepository(),
+                new InMemoryBookingRepository(), policy, new PricingService());
+        BookingLifecycleScheduler lifecycle = new BookingLifecycleScheduler(policy, null);
+        system.setLifecycleScheduler(lifecycle);
+        List<LifecycleEvent> fired = new ArrayList<>();
+        lifecycle.addListener((id, e) -> fired.add(e));
+
+        system.addVehicle(new HybridCar("C-001", "Toyota Aqua", 6.5, 25));
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        system.bookSpecific("NIC1", "C-001", LocalDate.of(2026, 3, 5), 2, 100);
+        assertEquals(3, lifecycle.pending());
+
+        clock.advance(Duration.ofDays(3).plusMinutes(1));
+        lifecycle.advance();
+        assertEquals(List.of(LifecycleEvent.AMENDMENT_WINDOW_CLOSED), fired);
+
+        clock.advance(Duration.ofDays(4)); // 2026-03-08T10:01, past the end of the 5th-6th rental
+        lifecycle.advance();
+        assertEquals(List.of(LifecycleEvent.AMENDMENT_WINDOW_CLOSED, LifecycleEvent.RENTAL_STARTED,
+                LifecycleEvent.RENTAL_ENDED), fired);
+        assertEquals(AvailabilityStatus.AVAILABLE, vRepo.findById("C-001").orElseThrow().getAvailabilityStatus());
+        assertEquals(0, lifecycle.pending());
+    }
+
+    @Test
+    public void testNoShowExpiresUncollectedBooking() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-03-01T10:00:00Z"));
+        BookingPolicy policy = new BookingPolicy(clock);
+        CarRentalSystem system = new CarRentalSystem(new InMemoryVehicleRepository(), new InMemoryCustomerRepository(),
+                new InMemoryBookingRepository(), policy, new PricingService());
+        BookingLifecycleScheduler lifecycle = new BookingLifecycleScheduler(policy, Duration.ofHours(12));
+        system.setLifecycleScheduler(lifecycle);
+
+        system.addVehicle(new HybridCar("C-001", "Toyota Aqua", 6.5, 25));
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        Booking collected = system.bookSpecific("NIC1", "C-001", LocalDate.of(2026, 3, 5), 3, 100);
+        system.recordPickup(collected.getBookingId());
+        system.addVehicle(new HybridCar("C-002", "Toyota Prius", 6.5, 25));
+        Booking missed = system.bookSpecific("NIC1", "C-002", LocalDate.of(2026, 3, 5), 3, 100);
+
+        clock.advance(Duration.ofDays(4).plusHours(3)); // 2026-03-05T13:00
+        lifecycle.advance();
+
+        assertEquals(BookingStatus.ACTIVE, collected.getStatus());
+        assertEquals(BookingStatus.CANCELLED, missed.getStatus());
+        assertEquals(AvailabilityStatus.AVAILABLE, missed.getVehicle().getAvailabilityStatus());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecoride;
+
+import com.ecoride.cache.*;
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingRepositoryTest {
+
+    /** Backing store that counts reads and writes, standing in for a disk-backed repository. */
+    private static class CountingCustomers extends InMemoryCustomerRepository {
+        int reads, writes;
+        @Override public Optional<Customer> findById(String id) { reads++; return super.findById(id); }
+        @Override public void save(Customer c) { writes++; super.save(c); }
+    }
+
+    @Test
+    public void testReadThroughServesRepeatLookupsFromCache() {
+        CountingCustomers backing = new CountingCustomers();
+        backing.save(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        CachingCustomerRepository repo = new CachingCustomerRepository(backing, CacheConfig.writeThrough(100, 1 << 20));
+
+        for (int i = 0; i < 10; i++) assertEquals("Alice", repo.findById("NIC1").orElseThrow().getName());
+        assertTrue(repo.findById("missing").isEmpty());
+
+        assertEquals(2, backing.reads);
+        CacheStats stats = repo.stats();
+        assertEquals(9, stats.hits());
+        assertEquals(9.0 / 11, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void testWriteBehindCoalescesAndFlushesBeforeScans() {
+        CountingCustomers backing = new CountingCustomers();
+        try (CachingCustomerRepository repo = new CachingCustomerRepository(backing,
+                CacheConfig.writeBehind(100, 1 << 20, Duration.ofHours(1)))) {
+            for (int i = 0; i < 5; i++) repo.save(new LocalCustomer("NIC1", "Alice " + i, "077", "a@ex.com"));
+
+            assertEquals(0, backing.writes);
+            assertEquals("Alice 4", repo.findById("NIC1").orElseThrow().getName());
+            assertEquals(1, repo.findByNameContains("alice").size()); // scan flushes first
+            assertEquals(1, backing.writes);
+            assertEquals(4, repo.stats().writesCoalesced());
+        }
+    }
+
+    @Test
+    public void testResaveOfSameInstanceDuringFlushIsNotLost() {
+        Vehicle car = new ElectricCar("E-001", "Nissan Leaf", 40, 7.0);
+        CachingVehicleRepository[] repo = new CachingVehicleRepository[1];
+        InMemoryVehicleRepository backing = new InMemoryVehicleRepository() {
+            boolean changed;
+            @Override public void save(Vehicle v) {
+                super.save(v);
+                if (!changed) { // the desk changes and re-saves the car while the flush is storing it
+                    changed = true;
+                    car.setAvailabilityStatus(AvailabilityStatus.UNDER_MAINTENANCE);
+                    repo[0].save(car);
+                }
+            }
+        };
+        try (CachingVehicleRepository r = new CachingVehicleRepository(backing,
+                CacheConfig.writeBehind(100, 1 << 20, Duration.ofHours(1)))) {
+            repo[0] = r;
+            r.save(car);
+            r.flush();
+            assertEquals(1, backing.countByStatus(AvailabilityStatus.AVAILABLE)); // stored before the change
+            r.flush();
+            assertEquals(0, backing.countByStatus(AvailabilityStatus.AVAILABLE));
+            assertEquals(1, backing.countByStatus(AvailabilityStatus.UNDER_MAINTENANCE));
+        }
+    }
+
+    /** Vehicle store that counts writes, to show counts leave buffered saves alone. */
+    private static class CountingVehicles extends InMemoryVehicleRepository {
+        int writes;
+        @Override public void save(Vehicle v) { writes++; super.save(v); }
+    }
+
+    @Test
+    public void testCountsIncludeBufferedWritesWithoutFlushing() {
+        CountingVehicles backing = new CountingVehicles();
+        backing.save(new ElectricCar("E-001", "Nissan Leaf", 40, 7.0));
+        backing.save(new ElectricCar("E-002", "BYD Atto 3", 60, 8.0));
+        try (CachingVehicleRepository repo = new CachingVehicleRepository(backing,
+                CacheConfig.writeBehind(100, 1 << 20, Duration.ofHours(1)))) {
+            // the app changes the instance it read and saves it again, so store and buffer share one object
+            Vehicle serviced = repo.findById("E-001").orElseThrow();
+            serviced.setAvailabilityStatus(AvailabilityStatus.UNDER_MAINTENANCE);
+            repo.save(serviced);
+            repo.save(new HybridCar("H-001", "Toyota Aqua", 6.5, 25));
+
+            assertEquals(3, repo.count());
+            assertEquals(2, repo.countByStatus(AvailabilityStatus.AVAILABLE));
+            assertEquals(1, repo.countByStatus(AvailabilityStatus.UNDER_MAINTENANCE));
+            assertEquals(2, backing.writes); // only the seeding saves; nothing was flushed
+            repo.flush();
+            assertEquals(3, backing.count());
+            assertEquals(2, backing.countByStatus(AvailabilityStatus.AVAILABLE));
+        }
+    }
+
+    @Test
+    public void testBoundedByCountAndWeightAndResistsScans() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 10_000, String::length);
+        for (int round = 0; round < 5; round++) {
+            for (int k = 0; k < 50; k++) cache.put(k, "v" + k);
+            for (int k = 0; k < 50; k++) cache.getIfPresent(k);
+        }
+        // a one-pass scan over many cold keys should not push out the hot set
+        for (int k = 1000; k < 3000; k++) cache.put(k, "cold");
+        int hot = 0;
+        for (int k = 0; k < 50; k++) if (cache.getIfPresent(k) != null) hot++;
+        assertTrue(hot >= 45, "hot keys survived: " + hot);
+        assertTrue(cache.size() <= 100);
+
+        TinyLfuCache<Integer, String> heavy = new TinyLfuCache<>(100, 50, String::length);
+        for (int k = 0; k < 20; k++) heavy.put(k, "0123456789");
+        assertTrue(heavy.weight() <= 50);
+    }
+}
@@ -0,0 +1,220 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.fleet.AvailabilityCalendar;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Random mixes of book, update, cancel and complete from many threads, followed by checks on the
+ * final state against the recorded history. Each thread's operations and arguments come from the
+ * seed; which booking an operation lands on, and the interleaving, are up to the scheduler.
+ *
+ * <pre>
+ *   mvn test -Dtest=ConcurrencyStressTest -Dstress.seed=42 -Dstress.threads=16 -Dstress.ops=5000
+ * </pre>
+ * Without {@code stress.seed} a few fixed seeds run; a failure names the seed that produced it.
+ */
+public class ConcurrencyStressTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 11, 1);
+    private static final int HORIZON_DAYS = 30;
+    private static final String[] VEHICLES = {"E-001", "E-002", "H-001", "H-002"};
+    private static final int CUSTOMERS = 6;
+
+    enum Kind { BOOK_CATEGORY, BOOK_VEHICLE, UPDATE, CANCEL, COMPLETE }
+
+    /** One call as the history saw it: what was asked, when it ran and how it ended. */
+    record Op(Kind kind, String bookingId, LocalDate start, Integer days, Integer km,
+              long invokedAt, long returnedAt, RuntimeException error) {
+        boolean ok() { return error == null; }
+        boolean precedes(Op other) { return returnedAt < other.invokedAt; }
+    }
+
+    @Test
+    public void testRandomMixesKeepInvariants() throws Exception {
+        Long seed = Long.getLong("stress.seed");
+        int threads = Integer.getInteger("stress.threads", 8);
+        int ops = Integer.getInteger("stress.ops", 1500);
+        long[] seeds = seed != null ? new long[] {seed} : new long[] {1, 2, 3, 4, 5};
+        for (long s : seeds) {
+            try {
+                runAndCheck(s, threads, ops);
+            } catch (AssertionError e) {
+                throw new AssertionError("stress seed " + s + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void runAndCheck(long seed, int threads, int opsPerThread) throws Exception {
+        CarRentalSystem system = RentalFixtures.system(CLOCK);
+        system.addVehicle(new ElectricCar("E-001", "Nissan Leaf", 40, 7.0));
+        system.addVehicle(new ElectricCar("E-002", "BYD Atto 3", 60, 8.0));
+        system.addVehicle(new HybridCar("H-001", "Toyota Aqua", 6.5, 25));
+        system.addVehicle(new HybridCar("H-002", "Honda Vezel", 7.0, 22));
+        for (int c = 1; c <= CUSTOMERS; c++) system.addCustomer(new LocalCustomer("NIC" + c, "Customer " + c, "077000000" + c, c + "@ex.com"));
+
+        List<String> booked = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<Op>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random rnd = new Random(seed * 1_000_003 + t);
+            futures.add(pool.submit(() -> {
+                go.await();
+                List<Op> history = new ArrayList<>(opsPerThread);
+                for (int i = 0; i < opsPerThread; i++) history.add(step(system, rnd, booked));
+                return history;
+            }));
+        }
+        go.countDown();
+        List<Op> history = new ArrayList<>();
+        try {
+            for (Future<List<Op>> f : futures) history.addAll(f.get(60, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        check(system, history);
+    }
+
+    private static Op step(CarRentalSystem system, Random rnd, List<String> booked) {
+        int roll = rnd.nextInt(100);
+        String customer = "NIC" + (1 + rnd.nextInt(CUSTOMERS));
+        LocalDate start = FIRST_DAY.plusDays(rnd.nextInt(HORIZON_DAYS));
+        int days = 1 + rnd.nextInt(4);
+        int km = 50 + rnd.nextInt(500);
+        String target;
+        synchronized (booked) { target = booked.isEmpty() ? null : booked.get(rnd.nextInt(booked.size())); }
+        Kind kind = target == null || roll < 30 ? Kind.BOOK_CATEGORY : roll < 45 ? Kind.BOOK_VEHICLE
+                : roll < 70 ? Kind.UPDATE : roll < 85 ? Kind.CANCEL : Kind.COMPLETE;
+        Integer newKm = rnd.nextBoolean() ? km : null;
+        String vehicle = VEHICLES[rnd.nextInt(VEHICLES.length)];
+        Category category = rnd.nextBoolean() ? Category.ELECTRIC : Category.HYBRID;
+
+        long invokedAt = System.nanoTime();
+        String bookingId = target;
+        RuntimeException error = null;
+        try {
+            switch (kind) {
+                case BOOK_CATEGORY -> bookingId = system.bookByCategory(customer, category, start, days, km).getBookingId();
+                case BOOK_VEHICLE -> bookingId = system.bookSpecific(customer, vehicle, start, days, km).getBookingId();
+                case UPDATE -> system.updateBooking(target, start, days, newKm);
+                case CANCEL -> system.cancelBooking(target);
+                case COMPLETE -> system.completeAndInvoice(target);
+            }
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        long returnedAt = System.nanoTime();
+        boolean isBook = kind == Kind.BOOK_CATEGORY || kind == Kind.BOOK_VEHICLE;
+        if (isBook && error == null) synchronized (booked) { booked.add(bookingId); }
+        return new Op(kind, isBook && error != null ? null : bookingId, start, days,
+                kind == Kind.UPDATE ? newKm : isBook ? Integer.valueOf(km) : null, invokedAt, returnedAt, error);
+    }
+
+    // ---- Invariants ----
+
+    private static void check(CarRentalSystem system, List<Op> history) {
+        // only the documented rejections; anything else is a race surfacing as a crash
+        for (Op op : history) {
+            if (op.error() != null && !(op.error() instanceof IllegalStateException || op.error() instanceof IllegalArgumentException)) {
+                fail(op.kind() + " threw " + op.error());
+            }
+        }
+
+        // no lost bookings: every successful book is stored, and nothing else is
+        Map<String, Booking> stored = new HashMap<>();
+        for (Booking b : system.listBookings()) stored.put(b.getBookingId(), b);
+        Map<String, List<Op>> byBooking = new HashMap<>();
+        long books = 0;
+        for (Op op : history) {
+            if (op.bookingId() == null) continue;
+            byBooking.computeIfAbsent(op.bookingId(), k -> new ArrayList<>()).add(op);
+            if (op.ok() && (op.kind() == Kind.BOOK_CATEGORY || op.kind() == Kind.BOOK_VEHICLE)) books++;
+        }
+        assertEquals(books, stored.size(), "bookings stored vs booked");
+
+        // no two active bookings on a vehicle overlap
+        Map<String, List<Booking>> activeByVehicle = new HashMap<>();
+        for (String v : VEHICLES) activeByVehicle.put(v, new ArrayList<>());
+        for (Booking b : stored.values()) {
+            if (b.getStatus() == BookingStatus.ACTIVE) activeByVehicle.get(b.getVehicle().getVehicleId()).add(b);
+        }
+        for (Map.Entry<String, List<Booking>> e : activeByVehicle.entrySet()) {
+            List<Booking> active = e.getValue();
+            active.sort(Comparator.comparingInt(Booking::getStartEpochDay));
+            for (int i = 1; i < active.size(); i++) {
+                assertTrue(active.get(i - 1).getEndEpochDay() < active.get(i).getStartEpochDay(),
+                        "overlapping active bookings " + active.get(i - 1).getBookingId() + " and " + active.get(i).getBookingId());
+            }
+
+            // status and calendar agree with the active bookings
+            Vehicle v = system.findVehicle(e.getKey()).orElseThrow();
+            assertEquals(active.isEmpty() ? AvailabilityStatus.AVAILABLE : AvailabilityStatus.RESERVED, v.getAvailabilityStatus(),
+                    "status of " + e.getKey());
+            Set<String> blocks = new HashSet<>();
+            for (AvailabilityCalendar.Block blk : system.getCalendar().blocks(e.getKey())) {
+                blocks.add(blk.ownerId() + "@" + blk.startDay() + ".." + blk.endDay());
+            }
+            Set<String> expected = new HashSet<>();
+            for (Booking b : active) expected.add(b.getBookingId() + "@" + b.getStartEpochDay() + ".." + b.getEndEpochDay());
+            assertEquals(expected, blocks, "calendar of " + e.getKey());
+        }
+
+        // per booking: one terminal transition at most, and the last update wins
+        for (Map.Entry<String, List<Op>> e : byBooking.entrySet()) {
+            Booking b = stored.get(e.getKey());
+            assertNotNull(b, "booking " + e.getKey());
+            Op created = null;
+            List<Op> updates = new ArrayList<>(), terminals = new ArrayList<>();
+            for (Op op : e.getValue()) {
+                if (!op.ok()) continue;
+                switch (op.kind()) {
+                    case BOOK_CATEGORY, BOOK_VEHICLE -> created = op;
+                    case UPDATE -> updates.add(op);
+                    case CANCEL, COMPLETE -> terminals.add(op);
+                }
+            }
+            assertNotNull(created);
+            assertTrue(terminals.size() <= 1, e.getKey() + " ended " + terminals.size() + " times");
+            BookingStatus expected = terminals.isEmpty() ? BookingStatus.ACTIVE
+                    : terminals.get(0).kind() == Kind.CANCEL ? BookingStatus.CANCELLED : BookingStatus.COMPLETED;
+            assertEquals(expected, b.getStatus(), "status of " + e.getKey());
+            for (Op u : updates) {
+                for (Op t : terminals) assertFalse(t.precedes(u), e.getKey() + " was updated after it ended");
+            }
+
+            List<Op> last = lastWriters(updates);
+            if (last.isEmpty()) {
+                assertEquals(created.start(), b.getStartDate(), "dates of " + e.getKey());
+                assertEquals(created.start().plusDays(created.days() - 1L), b.getEndDate());
+            } else {
+                assertTrue(last.stream().anyMatch(u -> u.start().equals(b.getStartDate())
+                        && u.start().plusDays(u.days() - 1L).equals(b.getEndDate())), "lost date update on " + e.getKey());
+            }
+            List<Op> kmWrites = new ArrayList<>(updates);
+            kmWrites.removeIf(u -> u.km() == null);
+            List<Op> lastKm = lastWriters(kmWrites);
+            if (lastKm.isEmpty()) assertEquals(created.km().intValue(), b.getTotalKm(), "km of " + e.getKey());
+            else assertTrue(lastKm.stream().anyMatch(u -> u.km() == b.getTotalKm()), "lost km update on " + e.getKey());
+        }
+    }
+
+    /** Writes that no other write wholly follows in real time: any of them may have been applied last. */
+    private static List<Op> lastWriters(List<Op> writes) {
+        List<Op> out = new ArrayList<>();
+        for (Op w : writes) {
+            if (writes.stream().noneMatch(o -> o != w && w.precedes(o))) out.add(w);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicPricingEngineTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-10T09:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    public void testFullyBookedDatesAreSurgedAndQuoted() {
+        VehicleRepository vRepo = new InMemoryVehicleRepository();
+        BookingRepository bRepo = new InMemoryBookingRepository();
+        Vehicle v = new ElectricCar("C-001", "Nissan Leaf", 40, 7.0);
+        vRepo.save(v);
+        Customer c = new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com");
+        LocalDate start = LocalDate.of(2026, 1, 15);
+        // booked well outside the 24h velocity window so only occupancy drives the surge
+        bRepo.save(new Booking("R-1", LocalDateTime.now(CLOCK).minusDays(3), start, start.plusDays(1), 0,
+                BookingPolicy.DEPOSIT, BookingStatus.ACTIVE, c, v));
+
+        DynamicPricingEngine engine = new DynamicPricingEngine(vRepo, bRepo, CLOCK);
+        PricingService pricing = new PricingService(engine);
+        assertEquals(1.0, pricing.surgeMultiplier(Category.ELECTRIC, start));
+
+        engine.recompute();
+
+        assertEquals(1.35, pricing.surgeMultiplier(Category.ELECTRIC, start), 1e-9);
+        assertEquals(1.35, pricing.surgeMultiplier(Category.ELECTRIC, start.plusDays(1)), 1e-9);
+        assertEquals(1.0, pricing.surgeMultiplier(Category.ELECTRIC, start.plusDays(2)));
+        assertEquals(1.0, pricing.surgeMultiplier(Category.HYBRID, start));
+        // 10000 * (1.35 + 1.35 + 1.0)
+        assertEquals(new BigDecimal("37000.00"), pricing.quoteBasePrice(Category.ELECTRIC, start, 3));
+    }
+
+    @Test
+    public void testInvoiceChargesTheSurgedQuote() {
+        VehicleRepository vRepo = new InMemoryVehicleRepository();
+        CustomerRepository cRepo = new InMemoryCustomerRepository();
+        BookingRepository bRepo = new InMemoryBookingRepository();
+        Customer c = new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com");
+        cRepo.save(c);
+        LocalDate start = LocalDate.of(2026, 1, 15);
+        for (int i = 1; i <= 3; i++) {
+            Vehicle v = new ElectricCar("C-00" + i, "Nissan Leaf", 40, 7.0);
+            vRepo.save(v);
+            if (i < 3) bRepo.save(new Booking("R-" + i, LocalDateTime.now(CLOCK).minusDays(3), start, start.plusDays(2), 0,
+                    BookingPolicy.DEPOSIT, BookingStatus.ACTIVE, c, v));
+        }
+        DynamicPricingEngine engine = new DynamicPricingEngine(vRepo, bRepo, CLOCK);
+        PricingService pricing = new PricingService(engine);
+        CarRentalSystem system = new CarRentalSystem(vRepo, cRepo, bRepo, new BookingPolicy(CLOCK), pricing);
+        engine.recompute();
+
+        BigDecimal quote = system.quote(Category.ELECTRIC, start, 3);
+        assertTrue(quote.compareTo(new BigDecimal("30000")) > 0, "surged: " + quote);
+        Booking b = system.bookSpecific("NIC1", "C-003", start, 3, 0);
+        engine.recompute(); // the fleet is now full, so a fresh quote would be higher still
+        assertEquals(0, quote.compareTo(pricing.basePrice(b)), "invoiced " + pricing.basePrice(b) + " for a quote of " + quote);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.invoice.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndOfDayInvoicingJobTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-07-01T08:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    public void testInvoicesInParallelAndReportsFailuresWithoutAborting(@TempDir Path dir) throws IOException {
+        CarRentalSystem system = RentalFixtures.system(CLOCK);
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            system.addVehicle(new CompactPetrolCar(String.format("P-%03d", i), "Toyota Corolla", 1.5, "AUTO"));
+            LocalDate start = i % 3 == 0 ? LocalDate.of(2026, 7, 10) : LocalDate.of(2026, 7, 8);
+            ids.add(system.bookSpecific("NIC1", String.format("P-%03d", i), start, i % 3 == 0 ? 1 : 4, 100).getBookingId());
+        }
+        system.cancelBooking(ids.get(1));
+        system.cancelBooking(ids.get(2));
+
+        EndOfDayInvoicingJob job = new EndOfDayInvoicingJob(system, dir, RenderTarget.JSON, 4);
+        List<String> request = new ArrayList<>(ids);
+        request.add("R-unknown");
+        EndOfDayInvoicingJob.Report report = job.run(request);
+
+        assertEquals(298, report.completed().size());
+        assertEquals(3, report.failed().size());
+        assertTrue(report.failed().stream().anyMatch(f -> f.bookingId().equals("R-unknown")));
+        assertEquals(100, Files.readAllLines(dir.resolve("invoices-2026-07-10.jsonl")).size());
+        assertEquals(200 - 2, Files.readAllLines(dir.resolve("invoices-2026-07-11.jsonl")).size());
+        assertTrue(system.listVehicles().stream().allMatch(v -> v.getAvailabilityStatus() == AvailabilityStatus.AVAILABLE));
+
+        // a second run over the same bookings invoices nothing twice
+        assertEquals(0, job.run(ids).completed().size());
+        assertEquals(0, job.runForEndDate(LocalDate.of(2026, 7, 10)).items().size());
+    }
+}
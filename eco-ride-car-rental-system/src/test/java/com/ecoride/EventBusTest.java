@@ -0,0 +1,99 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.event.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventBusTest {
+
+    @Test
+    public void testSubscribersSeeEveryEventInOrderAcrossWraps() throws Exception {
+        EventBus bus = new EventBus(8, WaitStrategy.yielding());
+        List<Long> fast = new ArrayList<>();
+        List<Long> slow = new ArrayList<>();
+        bus.subscribe("fast", (e, seq, end) -> fast.add(seq));
+        bus.subscribe("slow", (e, seq, end) -> { Thread.sleep(0, 1000); slow.add(seq); });
+        bus.start();
+
+        Vehicle v = new HybridCar("C-001", "Toyota Aqua", 6.5, 25);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 250; i++) bus.publishVehicleStatus(v, AvailabilityStatus.AVAILABLE);
+            });
+            producers[t].start();
+        }
+        for (Thread t : producers) t.join();
+        bus.halt();
+
+        assertEquals(1000, fast.size());
+        assertEquals(1000, slow.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, fast.get(i));
+            assertEquals(i, slow.get(i));
+        }
+    }
+
+    @Test
+    public void testProducerWaitingOnAStuckSubscriberGivesUpOnHalt() throws Exception {
+        EventBus bus = new EventBus(2, WaitStrategy.blocking());
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe("stuck", (e, seq, end) -> release.await());
+        bus.start();
+
+        Vehicle v = new HybridCar("C-001", "Toyota Aqua", 6.5, 25);
+        long[] last = {0};
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 4; i++) last[0] = bus.publishVehicleStatus(v, AvailabilityStatus.AVAILABLE);
+        });
+        producer.start();
+        while (bus.getCursor() < 2) Thread.sleep(1); // the third event is waiting for the stuck subscriber's slot
+        Thread halting = new Thread(bus::halt);
+        halting.start();
+
+        producer.join(2_000);
+        assertFalse(producer.isAlive());
+        assertEquals(-1, last[0]);
+        release.countDown();
+        halting.join();
+    }
+
+    @Test
+    public void testRentalSystemPublishesLifecycleEvents() {
+        EventBus bus = new EventBus(64, WaitStrategy.blocking());
+        List<EventType> seen = new CopyOnWriteArrayList<>();
+        List<BigDecimal> amounts = new CopyOnWriteArrayList<>();
+        bus.subscribe("recorder", (e, seq, end) -> {
+            seen.add(e.getType());
+            if (e.getType() == EventType.BOOKING_CREATED) amounts.add(e.getAmount());
+        });
+        bus.start();
+
+        Clock clock = Clock.fixed(Instant.parse("2026-06-01T08:00:00Z"), ZoneOffset.UTC);
+        CarRentalSystem system = RentalFixtures.system(clock);
+        system.setEventBus(bus);
+        system.addVehicle(new HybridCar("C-001", "Toyota Aqua", 6.5, 25));
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+
+        Booking b = system.bookSpecific("NIC1", "C-001", LocalDate.of(2026, 6, 10), 2, 100);
+        system.updateBooking(b.getBookingId(), null, 3, null);
+        system.completeAndInvoice(b.getBookingId());
+        bus.halt();
+
+        assertEquals(List.of(EventType.VEHICLE_STATUS_CHANGED, EventType.BOOKING_CREATED, EventType.BOOKING_UPDATED,
+                EventType.VEHICLE_STATUS_CHANGED, EventType.BOOKING_COMPLETED, EventType.INVOICE_ISSUED), seen);
+        assertEquals(List.of(b.getDeposit()), amounts); // carried as cents, rebuilt on the subscriber side
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.fleet.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FleetQueryTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+
+    private static CarRentalSystem fleet() {
+        CarRentalSystem system = RentalFixtures.system(CLOCK);
+        for (int i = 0; i < 100; i++) system.addVehicle(new CompactPetrolCar(String.format("P-%03d", i), "Toyota Axio", 1.0 + (i % 10) / 10.0, "AUTO"));
+        for (int i = 0; i < 20; i++) system.addVehicle(new ElectricCar(String.format("E-%03d", i), "Nissan Leaf", 30 + 2 * i, 6 + i % 4));
+        system.addVehicle(new HybridCar("H-001", "Toyota Aqua", 55, 25));
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        return system;
+    }
+
+    private static List<String> ids(List<Vehicle> vs) { return vs.stream().map(Vehicle::getVehicleId).collect(Collectors.toList()); }
+
+    @Test
+    public void testAttributeCategoryAndFreeWindowFilters() {
+        CarRentalSystem system = fleet();
+        FleetQuery q = FleetQuery.parse("electric, battery >= 60kWh, free 2026-11-01..05");
+        assertEquals(List.of("E-015", "E-016", "E-017", "E-018", "E-019"), ids(system.searchFleet(q)));
+
+        system.bookSpecific("NIC1", "E-016", LocalDate.of(2026, 11, 4), 3, 100);
+        system.changeAvailability("E-017", AvailabilityStatus.UNDER_MAINTENANCE);
+        assertEquals(List.of("E-015", "E-018", "E-019"), ids(system.searchFleet(q)));
+        // the booking only blocks its own dates
+        assertTrue(ids(system.searchFleet(FleetQuery.parse("electric, battery >= 60, free 2026-11-08..10"))).contains("E-016"));
+
+        // battery applies to hybrids too; charging time only to electrics
+        assertEquals(List.of("E-013", "E-014", "E-015", "E-016", "E-017", "H-001"),
+                ids(system.searchFleet(FleetQuery.all().between(VehicleAttribute.BATTERY_KWH, 55, 64))));
+        assertEquals(5, system.searchFleet(FleetQuery.parse("charging <= 6")).size());
+    }
+
+    @Test
+    public void testPlannerDrivesFromMostSelectiveIndex() {
+        CarRentalSystem system = fleet();
+        FleetQuery narrowRange = FleetQuery.parse("compact petrol, engine >= 1.9");
+        assertTrue(system.explainFleetQuery(narrowRange).driver().startsWith("range index ENGINE_LITRES"));
+        assertEquals(10, system.explainFleetQuery(narrowRange).estimate());
+        assertEquals(10, system.searchFleet(narrowRange).size());
+
+        FleetQuery narrowCategory = FleetQuery.parse("electric, engine >= 1.0");
+        assertTrue(system.explainFleetQuery(narrowCategory).driver().startsWith("category index ELECTRIC"));
+        assertTrue(system.searchFleet(narrowCategory).isEmpty());
+
+        assertEquals("full scan", system.explainFleetQuery(FleetQuery.parse("status available")).driver());
+
+        // edits are re-indexed
+        ElectricCar e = (ElectricCar) system.searchFleet(FleetQuery.parse("battery = 30")).get(0);
+        e.setBatteryCapacity(99);
+        system.updateVehicle(e);
+        assertTrue(system.searchFleet(FleetQuery.parse("battery = 30")).isEmpty());
+        assertEquals(List.of(e.getVehicleId()), ids(system.searchFleet(FleetQuery.parse("battery >= 90"))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecoride;
+
+import com.ecoride.BookingLifecycleSchedulerTest.MutableClock;
+import com.ecoride.cache.IdempotencyCache;
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyTest {
+
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    @Test
+    public void testRetriedMutationsReturnTheOriginalResult() {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+        CarRentalSystem system = RentalFixtures.system(clock);
+        system.addVehicle(new ElectricCar("E-001", "Nissan Leaf", 40, 7.0));
+        system.addVehicle(new ElectricCar("E-002", "BYD Atto 3", 60, 8.0));
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+
+        Booking first = system.bookByCategory("NIC1", Category.ELECTRIC, NOV_1, 3, 100, "req-1");
+        Booking retry = system.bookByCategory("NIC1", Category.ELECTRIC, NOV_1, 3, 100, "req-1");
+        assertSame(first, retry);
+        assertEquals(1, system.listBookings().size());
+        assertEquals(1, system.listFreeByCategory(Category.ELECTRIC, NOV_1, NOV_1).size());
+
+        assertThrows(IllegalArgumentException.class, () -> system.bookByCategory("NIC1", Category.ELECTRIC, NOV_1, 4, 100, "req-1"));
+
+        system.cancelBooking(first.getBookingId(), "cancel-1");
+        system.cancelBooking(first.getBookingId(), "cancel-1"); // would throw "Only active bookings..." if run again
+        assertThrows(IllegalStateException.class, () -> system.cancelBooking(first.getBookingId(), "cancel-2"));
+
+        IdempotencyCache.Stats stats = system.idempotencyStats();
+        assertEquals(2, stats.duplicates());
+        assertEquals(1, stats.mismatches());
+        assertEquals(2, stats.executed());
+        assertEquals(2, stats.size()); // the failed cancel-2 is not remembered
+    }
+
+    @Test
+    public void testConcurrentRetriesRunOnceAndEntriesAreBounded() throws Exception {
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-20T08:00:00Z"));
+        IdempotencyCache cache = new IdempotencyCache(3, Duration.ofMinutes(5), clock);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Callable<Integer> call = () -> cache.execute("k", "op", () -> {
+                runs.incrementAndGet();
+                try { release.await(); } catch (InterruptedException e) { throw new IllegalStateException(e); }
+                return 42;
+            });
+            Future<Integer> a = pool.submit(call), b = pool.submit(call), c = pool.submit(call);
+            while (cache.stats().inFlightWaits() < 2) Thread.onSpinWait();
+            release.countDown();
+            assertEquals(42, a.get());
+            assertEquals(42, b.get());
+            assertEquals(42, c.get());
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int i = 0; i < 5; i++) cache.execute("n" + i, "op", () -> 0);
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.stats().evictions());
+
+        clock.advance(Duration.ofMinutes(6));
+        cache.execute("fresh", "op", () -> 1);
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.stats().expirations());
+    }
+}
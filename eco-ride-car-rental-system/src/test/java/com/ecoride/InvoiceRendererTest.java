@@ -0,0 +1,87 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.invoice.*;
+import com.ecoride.service.BookingPolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvoiceRendererTest {
+
+    private static Invoice invoice(String customerName) {
+        Customer c = new LocalCustomer("NIC1", customerName, "0771234567", "a@ex.com");
+        Vehicle v = new LuxurySUVCar("C-003", "BMW X5", "Leather", true);
+        Booking b = new Booking("R-0000abcd", LocalDateTime.of(2026, 7, 1, 9, 30), LocalDate.of(2026, 7, 10),
+                LocalDate.of(2026, 7, 18), 1234, BookingPolicy.DEPOSIT, BookingStatus.ACTIVE, c, v);
+        return new Invoice(b);
+    }
+
+    /** The console layout exactly as Invoice.toString produced it before the renderer existed. */
+    private static String legacy(Invoice inv) {
+        String R = "\u001B[0m", G = "\u001B[32m", BG = "\u001B[92m", W = "\u001B[37m", GR = "\u001B[90m", N = "\u001B[34m";
+        String rule = "==============================================================\n";
+        Booking b = inv.getBooking();
+        StringBuilder sb = new StringBuilder("\n");
+        sb.append(G).append(rule).append("                       🧾  ECO RIDE INVOICE                   \n").append(rule).append(R);
+        sb.append(N).append("Invoice ID   : ").append(R).append(inv.getInvoiceId()).append("\n");
+        sb.append(N).append("Created At   : ").append(R).append(inv.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))).append("\n\n");
+        sb.append(BG).append("📘 BOOKING DETAILS").append(R).append("\n");
+        sb.append(W).append("Booking ID   : ").append(b.getBookingId()).append("\n");
+        sb.append("Customer     : ").append(b.getCustomer().getName()).append(" (").append(b.getCustomer().getCustomerId()).append(")\n");
+        sb.append("Vehicle      : ").append(b.getVehicle().getVehicleId()).append(" - ").append(b.getVehicle().getModel()).append("\n");
+        sb.append("Category     : ").append(b.getVehicle().getCategory().getDisplayName()).append("\n");
+        sb.append("Rental Days  : ").append(b.rentalDays()).append("\n");
+        sb.append("Total KM     : ").append(b.getTotalKm()).append(" km   ").append(GR).append("(Free KM: ").append(b.freeKmTotal()).append(")").append(R).append("\n\n");
+        sb.append(BG).append("💰 PRICE BREAKDOWN").append(R).append("\n");
+        sb.append(String.format(Locale.US, W + "Base Price        : LKR %,.2f%n", inv.getBasePrice()));
+        sb.append(String.format(Locale.US, "Extra KM Charge   : LKR %,.2f%n", inv.getExtraKmCharge()));
+        sb.append(String.format(Locale.US, "Discount Applied  : -LKR %,.2f%n", inv.getDiscount()));
+        sb.append(String.format(Locale.US, "Tax               : LKR %,.2f%n", inv.getTax()));
+        sb.append(String.format(Locale.US, "Deposit Deducted  : -LKR %,.2f%n", inv.getDepositDeducted()));
+        sb.append(GR).append("--------------------------------------------------------------\n").append(R);
+        sb.append(String.format(Locale.US, N + "TOTAL PAYABLE     : " + BG + "LKR %,.2f%n" + R, inv.getFinalPayable()));
+        sb.append(G).append(rule).append("        Thank you for choosing EcoRide! Drive Safe 🚗💚        \n").append(rule).append(R);
+        return sb.toString();
+    }
+
+    @Test
+    public void testAnsiOutputMatchesPreviousToString() throws Exception {
+        Invoice inv = invoice("Alice Perera");
+        assertEquals(legacy(inv), inv.toString());
+
+        StringWriter w = new StringWriter();
+        InvoiceRenderer.render(inv, RenderTarget.ANSI, w);
+        assertEquals(inv.toString(), w.toString());
+    }
+
+    @Test
+    public void testPlainAndJsonTargets() {
+        Invoice inv = invoice("Alice \"Al\" Perera");
+        String plain = InvoiceRenderer.render(inv, RenderTarget.PLAIN);
+        assertFalse(plain.contains("\u001B["));
+        assertTrue(plain.contains("Base Price        : LKR " + String.format(Locale.US, "%,.2f", inv.getBasePrice())), plain);
+
+        String json = InvoiceRenderer.render(inv, RenderTarget.JSON);
+        assertTrue(json.contains("\"customerName\":\"Alice \\\"Al\\\" Perera\""), json);
+        assertTrue(json.contains("\"finalPayable\":" + inv.getFinalPayable().setScale(2, java.math.RoundingMode.HALF_UP).toPlainString() + "}"), json);
+        assertTrue(json.contains("\"rentalDays\":9,"), json);
+    }
+
+    @Test
+    public void testMoneyFormattingMatchesFormatter() {
+        for (String s : new String[]{"0", "0.005", "999.995", "1234567.891", "-1234.5", "12345678901234567890.126"}) {
+            StringBuilder sb = new StringBuilder();
+            DecimalFormatter.appendMoney(sb, new BigDecimal(s), true);
+            assertEquals(String.format(Locale.US, "%,.2f", new BigDecimal(s)), sb.toString(), s);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.fleet.MaintenanceScheduler;
+import com.ecoride.fleet.ServiceSchedule;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaintenanceForecastTest {
+
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    private static final ServiceSchedule SCHEDULE = ServiceSchedule.builder()
+            .add(ElectricCar.class, new ServiceSchedule.Interval("battery-check", 1000, 0, 1))
+            .lead(0.1)
+            .build();
+
+    private static class CountingBookingRepository extends InMemoryBookingRepository {
+        final AtomicInteger scans = new AtomicInteger();
+        @Override public List<Booking> findAll() { scans.incrementAndGet(); return super.findAll(); }
+    }
+
+    private static CarRentalSystem system(BookingRepository bookings) {
+        return system(bookings, Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC));
+    }
+
+    private static CarRentalSystem system(BookingRepository bookings, Clock clock) {
+        return RentalFixtures.seeded(RentalFixtures.system(clock, bookings), 3,
+                new ElectricCar("E-001", "Nissan Leaf", 40, 7.0), new HybridCar("H-001", "Toyota Aqua", 6.5, 25));
+    }
+
+    private static List<LocalDate> windowStarts(CarRentalSystem system, String vehicleId) {
+        return system.getMaintenance().orElseThrow().windows(vehicleId).stream().map(MaintenanceScheduler.Window::start).toList();
+    }
+
+    @Test
+    public void testCompletionMovesCommittedUseIntoTheOdometer() {
+        CarRentalSystem system = system(new InMemoryBookingRepository());
+        system.setServiceSchedule(SCHEDULE);
+        Booking b = system.bookSpecific("NIC1", "E-001", NOV_1, 3, 300);
+        MaintenanceScheduler m = system.getMaintenance().orElseThrow();
+        assertEquals(new MaintenanceScheduler.Odometer("E-001", 0, 0, 300, 3), m.odometer("E-001"));
+
+        system.updateBooking(b.getBookingId(), null, 4, 350);
+        assertEquals(new MaintenanceScheduler.Odometer("E-001", 0, 0, 350, 4), m.odometer("E-001"));
+        system.completeAndInvoice(b.getBookingId());
+        assertEquals(new MaintenanceScheduler.Odometer("E-001", 350, 4, 0, 0), m.odometer("E-001"));
+
+        Booking cancelled = system.bookSpecific("NIC2", "E-001", NOV_1.plusDays(10), 2, 200);
+        system.cancelBooking(cancelled.getBookingId());
+        assertEquals(new MaintenanceScheduler.Odometer("E-001", 350, 4, 0, 0), m.odometer("E-001"));
+        assertTrue(m.windows("E-001").isEmpty());
+    }
+
+    @Test
+    public void testWindowIsBookedJustBeforeTheBookingThatGoesOver() {
+        CarRentalSystem system = system(new InMemoryBookingRepository());
+        system.setServiceSchedule(SCHEDULE);
+        system.bookSpecific("NIC1", "E-001", NOV_1, 3, 400);                  // Nov 1-3
+        system.bookSpecific("NIC2", "E-001", NOV_1.plusDays(5), 3, 400);      // Nov 6-8
+        assertTrue(windowStarts(system, "E-001").isEmpty());
+        system.bookSpecific("NIC3", "E-001", NOV_1.plusDays(11), 2, 400);     // Nov 12-13 crosses 1000 km
+        assertEquals(List.of(LocalDate.of(2026, 11, 11)), windowStarts(system, "E-001"));
+        assertThrows(BookingConflictException.class, () -> system.bookSpecific("NIC1", "E-001", LocalDate.of(2026, 11, 11), 1, 10));
+
+        // an earlier booking brings the crossing forward, so the window moves ahead of it
+        system.bookSpecific("NIC1", "E-001", NOV_1.plusDays(3), 2, 300);      // Nov 4-5
+        assertEquals(List.of(LocalDate.of(2026, 10, 31)), windowStarts(system, "E-001"));
+        system.bookSpecific("NIC2", "E-001", LocalDate.of(2026, 11, 11), 1, 10);
+
+        system.recordService("E-001", "battery-check");
+        assertTrue(windowStarts(system, "E-001").isEmpty());
+        system.bookSpecific("NIC3", "E-001", LocalDate.of(2026, 10, 31), 1, 10);
+    }
+
+    @Test
+    public void testIntervalsFollowTheVehicleSubtype() {
+        CarRentalSystem system = system(new InMemoryBookingRepository());
+        system.setServiceSchedule(SCHEDULE);
+        system.bookSpecific("NIC1", "H-001", NOV_1, 5, 5000);
+        assertTrue(windowStarts(system, "H-001").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> system.recordService("H-001", "battery-check"));
+
+        ServiceSchedule defaults = ServiceSchedule.defaults();
+        assertEquals("battery-check", defaults.intervals(new ElectricCar("E-9", "Leaf", 40, 7)).get(0).name());
+        assertEquals("oil-change", defaults.intervals(new CompactPetrolCar("P-9", "Corolla", 1.5, "AUTO")).get(0).name());
+    }
+
+    @Test
+    public void testCountersSeedOnceAndThenMoveWithoutScans() {
+        CountingBookingRepository bookings = new CountingBookingRepository();
+        CarRentalSystem system = system(bookings);
+        Booking done = system.bookSpecific("NIC1", "E-001", NOV_1, 2, 500);
+        system.completeAndInvoice(done.getBookingId());
+        system.setServiceSchedule(SCHEDULE);
+        assertEquals(500, system.getMaintenance().orElseThrow().odometer("E-001").totalKm());
+
+        int scans = bookings.scans.get();
+        for (int i = 0; i < 10; i++) {
+            Booking b = system.bookSpecific("NIC2", "E-001", NOV_1.plusDays(3 + i * 2L), 1, 30);
+            system.completeAndInvoice(b.getBookingId());
+        }
+        assertEquals(scans, bookings.scans.get());
+        assertEquals(800, system.getMaintenance().orElseThrow().odometer("E-001").totalKm());
+    }
+
+    @Test
+    public void testWindowIsTakenBackWhenTheServiceIsNoLongerDue() {
+        CarRentalSystem system = system(new InMemoryBookingRepository());
+        system.setServiceSchedule(SCHEDULE);
+        system.bookSpecific("NIC1", "E-001", NOV_1, 3, 400);                                 // Nov 1-3
+        system.bookSpecific("NIC2", "E-001", NOV_1.plusDays(5), 3, 400);                     // Nov 6-8
+        Booking over = system.bookSpecific("NIC3", "E-001", NOV_1.plusDays(11), 2, 400);    // Nov 12-13
+        assertEquals(List.of(LocalDate.of(2026, 11, 11)), windowStarts(system, "E-001"));
+
+        system.cancelBooking(over.getBookingId());
+        assertTrue(windowStarts(system, "E-001").isEmpty());
+        Booking filler = system.bookSpecific("NIC3", "E-001", LocalDate.of(2026, 11, 11), 1, 10);
+        system.cancelBooking(filler.getBookingId());
+
+        Booking again = system.bookSpecific("NIC3", "E-001", NOV_1.plusDays(11), 2, 400);
+        assertEquals(List.of(LocalDate.of(2026, 11, 11)), windowStarts(system, "E-001"));
+        system.updateBooking(again.getBookingId(), null, null, 50);                          // 850 km: under the lead
+        assertTrue(windowStarts(system, "E-001").isEmpty());
+        system.bookSpecific("NIC1", "E-001", LocalDate.of(2026, 11, 11), 1, 10);
+    }
+
+    @Test
+    public void testWindowThatPassedWithoutServiceIsBookedAgain() {
+        BookingLifecycleSchedulerTest.MutableClock clock = new BookingLifecycleSchedulerTest.MutableClock(Instant.parse("2026-10-20T08:00:00Z"));
+        CarRentalSystem system = system(new InMemoryBookingRepository(), clock);
+        system.setServiceSchedule(SCHEDULE);
+        Booking first = system.bookSpecific("NIC1", "E-001", NOV_1, 3, 400);
+        system.bookSpecific("NIC2", "E-001", NOV_1.plusDays(5), 3, 400);
+        system.bookSpecific("NIC3", "E-001", NOV_1.plusDays(11), 2, 400);
+        assertEquals(List.of(LocalDate.of(2026, 11, 11)), windowStarts(system, "E-001"));
+
+        clock.advance(Duration.ofDays(25));                                                 // Nov 14, never serviced
+        system.completeAndInvoice(first.getBookingId());
+        assertEquals(List.of(LocalDate.of(2026, 11, 14)), windowStarts(system, "E-001"));
+    }
+}
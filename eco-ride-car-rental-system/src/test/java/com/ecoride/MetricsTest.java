@@ -0,0 +1,128 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.event.EventBus;
+import com.ecoride.event.WaitStrategy;
+import com.ecoride.metrics.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    /** Counts full reads so a test can prove scrapes never scan. */
+    private static class CountingBookingRepository extends InMemoryBookingRepository {
+        final AtomicInteger scans = new AtomicInteger();
+        @Override public List<Booking> findAll() { scans.incrementAndGet(); return super.findAll(); }
+    }
+
+    private static CarRentalSystem system(BookingRepository bookings, VehicleRepository vehicles, CustomerRepository customers) {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+        return RentalFixtures.seeded(RentalFixtures.system(clock, vehicles, customers, bookings), 3,
+                new ElectricCar("E-001", "Nissan Leaf", 40, 7.0), new ElectricCar("E-002", "BYD Atto 3", 60, 8.0),
+                new HybridCar("H-001", "Toyota Aqua", 6.5, 25));
+    }
+
+    private static double value(String scrape, String series) {
+        for (String line : scrape.split("\n")) {
+            if (line.startsWith(series + " ")) return Double.parseDouble(line.substring(series.length() + 1));
+        }
+        throw new AssertionError("No sample " + series + " in\n" + scrape);
+    }
+
+    @Test
+    public void testScrapeReflectsBookingActivity() {
+        VehicleRepository vehicles = new InMemoryVehicleRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        BookingRepository bookings = new InMemoryBookingRepository();
+        CarRentalSystem system = system(bookings, vehicles, customers);
+        RentalMetrics metrics = new RentalMetrics(new MetricsRegistry(), vehicles, customers, bookings);
+        metrics.bind(system);
+        EventBus bus = new EventBus(64, WaitStrategy.blocking());
+        bus.subscribe("metrics", metrics);
+        bus.start();
+        system.setEventBus(bus);
+
+        Booking a = system.bookSpecific("NIC1", "E-001", NOV_1, 3, 100);
+        Booking b = system.bookSpecific("NIC2", "E-002", NOV_1, 2, 100);
+        system.bookSpecific("NIC3", "H-001", NOV_1, 1, 50);
+        system.cancelBooking(b.getBookingId());
+        Invoice invoice = system.completeAndInvoice(a.getBookingId());
+        bus.halt();
+
+        String text = metrics.registry().scrape();
+        assertEquals(2, value(text, "ecoride_bookings_total{category=\"ELECTRIC\",event=\"created\"}"));
+        assertEquals(1, value(text, "ecoride_bookings_total{category=\"HYBRID\",event=\"created\"}"));
+        assertEquals(1, value(text, "ecoride_bookings_total{category=\"ELECTRIC\",event=\"cancelled\"}"));
+        assertEquals(1, value(text, "ecoride_bookings_active"));
+        assertEquals(invoice.getFinalPayable().doubleValue(), value(text, "ecoride_revenue_lkr_total{category=\"ELECTRIC\"}"), 0.001);
+        assertEquals(3, value(text, "ecoride_repository_entries{repository=\"bookings\"}"));
+        assertEquals(3, value(text, "ecoride_fleet_vehicles{status=\"AVAILABLE\"}") + value(text, "ecoride_fleet_vehicles{status=\"RESERVED\"}"));
+        assertEquals(1, value(text, "ecoride_fleet_vehicles{status=\"RESERVED\"}"));
+        assertEquals(3, value(text, "ecoride_operation_duration_seconds_count{operation=\"book\"}"));
+        assertEquals(3, value(text, "ecoride_operation_duration_seconds_bucket{operation=\"book\",le=\"+Inf\"}"));
+        assertTrue(text.contains("# TYPE ecoride_operation_duration_seconds histogram\n"));
+        assertTrue(text.contains("ecoride_cache_hit_ratio{cache=\"idempotency\"}"));
+    }
+
+    @Test
+    public void testScrapeDoesNotScanRepositories() {
+        CountingBookingRepository bookings = new CountingBookingRepository();
+        VehicleRepository vehicles = new InMemoryVehicleRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        CarRentalSystem system = system(bookings, vehicles, customers);
+        for (int i = 0; i < 20; i++) system.bookSpecific("NIC1", i % 2 == 0 ? "E-001" : "E-002", NOV_1.plusDays(i * 2L), 1, 10);
+        RentalMetrics metrics = new RentalMetrics(new MetricsRegistry(), vehicles, customers, bookings);
+        metrics.bind(system);
+
+        int before = bookings.scans.get();
+        for (int i = 0; i < 100; i++) metrics.registry().scrape();
+        assertEquals(before, bookings.scans.get());
+        assertEquals(20, value(metrics.registry().scrape(), "ecoride_bookings_active"));
+    }
+
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram h = registry.histogram("op_seconds", "Latency.", new double[]{0.01, 0.1, 1}, "op");
+        h.labels("a").observe(0.005);
+        h.labels("a").observe(0.05);
+        h.labels("a").observe(0.05);
+        h.labels("a").observe(5);
+        String text = registry.scrape();
+        assertEquals(1, value(text, "op_seconds_bucket{op=\"a\",le=\"0.01\"}"));
+        assertEquals(3, value(text, "op_seconds_bucket{op=\"a\",le=\"0.1\"}"));
+        assertEquals(3, value(text, "op_seconds_bucket{op=\"a\",le=\"1\"}"));
+        assertEquals(4, value(text, "op_seconds_bucket{op=\"a\",le=\"+Inf\"}"));
+        assertEquals(5.105, value(text, "op_seconds_sum{op=\"a\"}"), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("op_seconds", "Again."));
+        assertThrows(IllegalArgumentException.class, () -> h.labels("a", "b"));
+    }
+
+    @Test
+    public void testServerServesTextFormat() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests.").add(3);
+        try (MetricsServer server = new MetricsServer(registry, 0)) {
+            HttpResponse<String> res = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, res.statusCode());
+            assertEquals(MetricsServer.CONTENT_TYPE, res.headers().firstValue("Content-Type").orElseThrow());
+            assertEquals("# HELP requests_total Requests.\n# TYPE requests_total counter\nrequests_total 3\n", res.body());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.payment.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+import com.ecoride.util.CircuitBreaker;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentPipelineTest {
+
+    private static PaymentConfig fastRetries(int maxAttempts) {
+        return new PaymentConfig(10, Duration.ofMillis(5), 2, maxAttempts, Duration.ofMillis(2), Duration.ofMillis(20),
+                3, Duration.ofMillis(30));
+    }
+
+    private static PaymentRequest request(int i) {
+        return new PaymentRequest("REQ-" + i, "R-" + i, Payment.Purpose.DEPOSIT, new BigDecimal("5000"), "CARD");
+    }
+
+    @Test
+    public void testRequestsAreBatchedAndDuplicatesChargedOnce() throws Exception {
+        SimulatedGateway gateway = SimulatedGateway.instant();
+        try (PaymentProcessor payments = new PaymentProcessor(gateway, fastRetries(3), Clock.systemUTC())) {
+            List<CompletableFuture<Payment>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) futures.add(payments.submit(request(i)));
+            payments.submit(request(7)); // a retry from the caller's side
+            assertTrue(payments.awaitIdle(Duration.ofSeconds(5)));
+
+            for (CompletableFuture<Payment> f : futures) assertEquals(PaymentLedger.CAPTURED, f.get().getStatus());
+            assertEquals(100, gateway.charged());
+            assertEquals(100, payments.ledger().size());
+            assertTrue(gateway.calls() <= 100 / 2, "requests should share gateway calls, got " + gateway.calls());
+            assertEquals(new BigDecimal("5000"), payments.ledger().captured("R-42"));
+        }
+    }
+
+    @Test
+    public void testRetriesRideOutAnOutage() throws Exception {
+        SimulatedGateway gateway = new SimulatedGateway(Duration.ZERO, 1.0, 0, 7);
+        try (PaymentProcessor payments = new PaymentProcessor(gateway, fastRetries(200), Clock.systemUTC())) {
+            CompletableFuture<Payment> f = payments.submit(request(1));
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertFalse(f.isDone());
+            assertTrue(payments.stats().retries() > 0);
+            gateway.setFailureRate(0);
+
+            assertEquals(PaymentLedger.CAPTURED, f.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(CircuitBreaker.State.CLOSED, payments.breakerState());
+            assertEquals(1, gateway.charged());
+        }
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttemptsAndOpensTheBreaker() throws Exception {
+        SimulatedGateway gateway = new SimulatedGateway(Duration.ZERO, 1.0, 0, 7);
+        try (PaymentProcessor payments = new PaymentProcessor(gateway, fastRetries(4), Clock.systemUTC())) {
+            CompletableFuture<Payment> f = payments.submit(request(1));
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(PaymentFailedException.class, ex.getCause());
+            assertEquals(PaymentLedger.FAILED, payments.ledger().forBooking("R-1").get(0).getStatus());
+            assertEquals(1, payments.stats().failed());
+            assertEquals(3, payments.stats().retries());
+            assertEquals(CircuitBreaker.State.OPEN, payments.breakerState());
+        }
+    }
+
+    @Test
+    public void testUndeclaredGatewayExceptionsAreRetriedAndReleaseTheBreakerProbe() throws Exception {
+        SimulatedGateway healthy = SimulatedGateway.instant();
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway flaky = batch -> {
+            // three failures open the breaker; the fourth is the half-open probe and fails too
+            if (calls.incrementAndGet() <= 4) throw new NullPointerException();
+            return healthy.charge(batch);
+        };
+        try (PaymentProcessor payments = new PaymentProcessor(flaky, fastRetries(40), Clock.systemUTC())) {
+            CompletableFuture<Payment> f = payments.submit(request(1));
+            assertEquals(PaymentLedger.CAPTURED, f.get(5, TimeUnit.SECONDS).getStatus());
+            assertTrue(payments.awaitIdle(Duration.ofSeconds(5)));
+            assertEquals(CircuitBreaker.State.CLOSED, payments.breakerState());
+            assertTrue(calls.get() >= 5);
+        }
+        PaymentGateway broken = batch -> { throw new IllegalStateException("driver bug"); };
+        try (PaymentProcessor payments = new PaymentProcessor(broken, fastRetries(2), Clock.systemUTC())) {
+            CompletableFuture<Payment> f = payments.submit(request(2));
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(PaymentFailedException.class, ex.getCause());
+            assertTrue(payments.awaitIdle(Duration.ofSeconds(5)));
+        }
+    }
+
+    @Test
+    public void testBookingCapturesDepositAndCompletionSettlesInvoice() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+        CarRentalSystem system = RentalFixtures.system(clock);
+        system.addVehicle(new ElectricCar("E-001", "Nissan Leaf", 40, 7.0));
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        try (PaymentProcessor payments = new PaymentProcessor(SimulatedGateway.instant(), fastRetries(3), Clock.systemUTC())) {
+            system.setPaymentProcessor(payments);
+
+            Booking b = system.bookByCategory("NIC1", Category.ELECTRIC, LocalDate.of(2026, 11, 1), 3, 100);
+            assertTrue(payments.awaitIdle(Duration.ofSeconds(5)));
+            assertEquals(b.getDeposit(), payments.ledger().captured(b.getBookingId()));
+
+            Invoice invoice = system.completeAndInvoice(b.getBookingId());
+            assertTrue(payments.awaitIdle(Duration.ofSeconds(5)));
+            List<Payment> taken = payments.ledger().forBooking(b.getBookingId());
+            assertEquals(List.of(Payment.Purpose.DEPOSIT, Payment.Purpose.SETTLEMENT), taken.stream().map(Payment::getPurpose).toList());
+            assertEquals(b.getDeposit().add(invoice.getFinalPayable()), payments.ledger().captured(b.getBookingId()));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.pricing.RateCard;
+import com.ecoride.pricing.RateCardSource;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateCardTest {
+
+    private static final String CARD = """
+            # test card
+            deposit 4000
+            category ELECTRIC fee=9000 extraKm=30
+            discount 5 0.05
+            discount 10 0.15
+            season peak 12-20..01-05 1.5 ELECTRIC
+            @kandy deposit 6000
+            @kandy category ELECTRIC fee=9500
+            """;
+
+    private static Booking booking(Category c, LocalDate start, int days, int km, BigDecimal deposit) {
+        Vehicle v = new Vehicle("V-1", "Test", c, AvailabilityStatus.AVAILABLE) {};
+        Customer cust = new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com");
+        return new Booking("R-1", LocalDateTime.now(), start, start.plusDays(days - 1), km, deposit, BookingStatus.ACTIVE, cust, v);
+    }
+
+    @Test
+    public void testDefaultCardMatchesBuiltInPricing() {
+        Booking b = booking(Category.HYBRID, LocalDate.of(2026, 3, 1), 8, 1500, BookingPolicy.DEPOSIT);
+        assertEquals(Charges.of(b), new PricingService().charges(b));
+    }
+
+    @Test
+    public void testTiersSeasonsAndBranches() {
+        RateCard card = RateCard.parse(CARD);
+        PricingService main = new PricingService(null, new RateCardSource(card), RateCard.DEFAULT_BRANCH);
+        PricingService kandy = new PricingService(null, new RateCardSource(card), "kandy");
+        assertEquals(new BigDecimal("4000"), main.deposit());
+        assertEquals(new BigDecimal("6000"), kandy.deposit());
+
+        // out of season, 6 days: 5% tier; untouched fields keep the category defaults (200 free km/day, 8% tax)
+        Booking b = booking(Category.ELECTRIC, LocalDate.of(2026, 3, 1), 6, 1300, new BigDecimal("4000"));
+        Charges ch = main.charges(b);
+        assertEquals(new BigDecimal("54000"), ch.basePrice());
+        assertEquals(new BigDecimal("3000"), ch.extraKmCharge());
+        assertEquals(0, new BigDecimal("2700").compareTo(ch.discount()));
+        assertEquals(0, new BigDecimal("4344").compareTo(ch.tax()));
+        assertEquals(0, new BigDecimal("54644").compareTo(ch.finalPayable()));
+        assertEquals(0, new BigDecimal("57000").compareTo(kandy.charges(b).basePrice()));
+
+        // Dec 30 - Jan 2 is peak for electrics only; the range wraps the year
+        assertEquals(0, new BigDecimal("54000").compareTo(main.quoteBasePrice(Category.ELECTRIC, LocalDate.of(2026, 12, 30), 4)));
+        assertEquals(0, new BigDecimal("30000").compareTo(main.quoteBasePrice(Category.HYBRID, LocalDate.of(2026, 12, 30), 4)));
+        assertNull(card.discountRate(0, 4));
+        assertEquals(new BigDecimal("0.15"), card.discountRate(0, 12));
+
+        IllegalArgumentException bad = assertThrows(IllegalArgumentException.class, () -> RateCard.parse("category ELECTRIC speed=3"));
+        assertTrue(bad.getMessage().startsWith("Rate card line 1"));
+    }
+
+    @Test
+    public void testReloadSwapsWholeCardAndKeepsOldOnError(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("rates.txt");
+        Files.writeString(file, "deposit 4000\n");
+        RateCardSource source = new RateCardSource(file);
+        RateCard before = source.current();
+
+        Files.writeString(file, "deposit 4500\ncategory SPACESHIP fee=1\n");
+        assertFalse(source.reload());
+        assertSame(before, source.current());
+        assertEquals(1, source.failedReloads());
+        assertTrue(source.lastError().contains("SPACESHIP"), source.lastError());
+
+        Files.writeString(file, "deposit 4500\n");
+        assertTrue(source.reload());
+        assertEquals(new BigDecimal("4500"), source.current().deposit(0));
+    }
+
+    @Test
+    public void testNarrowerLaterSeasonLeavesOtherCategoriesAlone() {
+        RateCard card = RateCard.parse("season peak 12-15..01-05 1.25\nseason xmas 12-24..12-26 2.0 ELECTRIC\n");
+        LocalDate xmas = LocalDate.of(2026, 12, 25);
+        assertEquals(new BigDecimal("2.0"), card.seasonMultiplier(Category.ELECTRIC, xmas));
+        assertEquals(new BigDecimal("1.25"), card.seasonMultiplier(Category.HYBRID, xmas));
+        assertEquals(new BigDecimal("1.25"), card.seasonMultiplier(Category.ELECTRIC, LocalDate.of(2026, 12, 27)));
+        assertNull(card.seasonMultiplier(Category.HYBRID, LocalDate.of(2026, 12, 10)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecoride;
+
+import com.ecoride.domain.Payment;
+import com.ecoride.payment.ReconciliationJob;
+import com.ecoride.payment.ReconciliationJob.Discrepancy;
+import com.ecoride.payment.ReconciliationJob.InvoiceLine;
+import com.ecoride.payment.ReconciliationJob.Kind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReconciliationTest {
+
+    private static InvoiceLine invoice(String booking, String deposit, String payable) {
+        return new InvoiceLine(booking, "INV-" + booking, new BigDecimal(deposit), new BigDecimal(payable));
+    }
+
+    private static Payment payment(String booking, String id, Payment.Purpose purpose, String amount, String status) {
+        return new Payment(id, booking, purpose, new BigDecimal(amount), "CARD", status);
+    }
+
+    private static final Payment.Purpose DEP = Payment.Purpose.DEPOSIT;
+    private static final Payment.Purpose SET = Payment.Purpose.SETTLEMENT;
+
+    @Test
+    public void testReportsEachKindOfDiscrepancy() {
+        List<InvoiceLine> invoices = List.of(
+                invoice("R-1", "5000", "12000"),      // matches
+                invoice("R-2", "5000", "8000"),       // settlement short
+                invoice("R-3", "5000", "3000"),       // settlement never captured
+                invoice("R-4", "5000", "0"),          // deposit captured twice
+                invoice("R-5", "5000", "0"), invoice("R-5", "5000", "0"));
+        List<Payment> payments = List.of(
+                payment("R-1", "P1", DEP, "5000", "CAPTURED"), payment("R-1", "P2", SET, "12000.00", "CAPTURED"),
+                payment("R-2", "P3", DEP, "5000", "CAPTURED"), payment("R-2", "P4", SET, "7000", "CAPTURED"),
+                payment("R-3", "P5", DEP, "5000", "CAPTURED"), payment("R-3", "SET-R-3", SET, "3000", "FAILED"),
+                payment("R-4", "P6", DEP, "5000", "CAPTURED"), payment("R-4", "P7", DEP, "5000", "CAPTURED"),
+                payment("R-5", "P8", DEP, "5000", "CAPTURED"),
+                payment("R-6", "P9", DEP, "5000", "CAPTURED"),                     // still open: not a discrepancy
+                payment("R-7", "P10", SET, "900", "CAPTURED"));                    // settled without an invoice
+        List<Discrepancy> found = new ArrayList<>();
+        ReconciliationJob.Summary s = new ReconciliationJob(found::add).run(invoices.iterator(), payments.iterator());
+
+        Map<String, Kind> byBooking = new TreeMap<>();
+        for (Discrepancy d : found) byBooking.merge(d.bookingId(), d.kind(), (a, b) -> a);
+        assertEquals(Map.of("R-2", Kind.AMOUNT_MISMATCH, "R-3", Kind.MISSING_PAYMENT, "R-4", Kind.DUPLICATE_PAYMENT,
+                "R-5", Kind.DUPLICATE_INVOICE, "R-7", Kind.UNINVOICED_PAYMENT), byBooking);
+        assertEquals(7, s.bookings());
+        assertEquals(1, s.matched());
+        assertEquals(1, s.openDeposits());
+        assertEquals(6, s.invoices());
+        assertEquals(11, s.payments());
+    }
+
+    @Test
+    public void testUnsortedInputIsRejected() {
+        List<InvoiceLine> invoices = List.of(invoice("R-2", "0", "1"), invoice("R-1", "0", "1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReconciliationJob(d -> {}).run(invoices.iterator(), Collections.emptyIterator()));
+    }
+
+    @Test
+    public void testReconcilesFiles(@TempDir Path dir) throws Exception {
+        Path inv = dir.resolve("invoices.tsv"), pay = dir.resolve("payments.tsv");
+        Files.writeString(inv, "R-1\tINV-1\t5000\t100\nR-2\tINV-2\t5000\t0\n");
+        Files.writeString(pay, String.join("\n",
+                ReconciliationJob.encode(payment("R-1", "P1", DEP, "5000", "CAPTURED")),
+                ReconciliationJob.encode(payment("R-1", "P2", SET, "100", "CAPTURED")),
+                ReconciliationJob.encode(payment("R-2", "P3", DEP, "4000", "CAPTURED"))) + "\n");
+        List<Discrepancy> found = new ArrayList<>();
+        ReconciliationJob.Summary s = new ReconciliationJob(found::add).run(inv, pay);
+        assertEquals(1, s.matched());
+        assertEquals(1, found.size());
+        assertEquals(Kind.AMOUNT_MISMATCH, found.get(0).kind());
+        assertEquals(0, new BigDecimal("4000").compareTo(found.get(0).actual()));
+    }
+
+    @Test
+    public void testMillionsOfRecordsStreamWithoutBeingHeld() {
+        int n = 1_000_000;
+        Iterator<InvoiceLine> invoices = new Iterator<>() {
+            int i;
+            public boolean hasNext() { return i < n; }
+            public InvoiceLine next() { return invoice(String.format("R-%08d", i++), "5000", "1000"); }
+        };
+        Iterator<Payment> payments = new Iterator<>() {
+            int i;
+            public boolean hasNext() { return i < 2 * n; }
+            public Payment next() {
+                String booking = String.format("R-%08d", i / 2);
+                boolean deposit = i++ % 2 == 0;
+                // every 1000th booking was short-paid
+                String amount = deposit ? "5000" : (i / 2) % 1000 == 0 ? "900" : "1000";
+                return payment(booking, "P" + i, deposit ? DEP : SET, amount, "CAPTURED");
+            }
+        };
+        long[] mismatches = {0};
+        ReconciliationJob.Summary s = new ReconciliationJob(d -> mismatches[0]++).run(invoices, payments);
+        assertEquals(n, s.bookings());
+        assertEquals(n / 1000, mismatches[0]);
+        assertEquals(n - n / 1000, s.matched());
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import java.time.Clock;
+
+/** The rental system most tests start from: in-memory repositories, default pricing, a policy on the test clock. */
+final class RentalFixtures {
+
+    private RentalFixtures() {}
+
+    static CarRentalSystem system(Clock clock) { return system(clock, new InMemoryBookingRepository()); }
+
+    static CarRentalSystem system(Clock clock, BookingRepository bookings) {
+        return system(clock, new InMemoryVehicleRepository(), new InMemoryCustomerRepository(), bookings);
+    }
+
+    static CarRentalSystem system(Clock clock, VehicleRepository vehicles, CustomerRepository customers, BookingRepository bookings) {
+        return new CarRentalSystem(vehicles, customers, bookings, new BookingPolicy(clock), new PricingService());
+    }
+
+    /** Adds the vehicles plus local customers NIC1..NIC{@code customers}. */
+    static CarRentalSystem seeded(CarRentalSystem system, int customers, Vehicle... vehicles) {
+        for (Vehicle v : vehicles) system.addVehicle(v);
+        for (int i = 1; i <= customers; i++) {
+            system.addCustomer(new LocalCustomer("NIC" + i, "Customer " + i, "0771234567", "c" + i + "@ex.com"));
+        }
+        return system;
+    }
+}
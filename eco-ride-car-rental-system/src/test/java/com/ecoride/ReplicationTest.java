@@ -0,0 +1,85 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.replication.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-07-01T08:00:00Z"), ZoneOffset.UTC);
+
+    private static CarRentalSystem primarySystem(ReplicationPrimary primary) {
+        return RentalFixtures.system(CLOCK, primary.vehicles(), primary.customers(), primary.bookings());
+    }
+
+    @Test
+    public void testReplicaFollowsPrimaryAndCatchesUpFromSnapshot(@TempDir Path dir) throws IOException {
+        ReplicationPrimary primary = new ReplicationPrimary(dir, new InMemoryVehicleRepository(),
+                new InMemoryCustomerRepository(), new InMemoryBookingRepository());
+        CarRentalSystem system = primarySystem(primary);
+        system.seedVehicles();
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        Booking b = system.bookSpecific("NIC1", "C-002", LocalDate.of(2026, 7, 10), 2, 100);
+
+        ReplicaNode replica = new ReplicaNode(dir, CLOCK);
+        assertEquals(8, replica.poll());
+        assertEquals(primary.log().getSequence(), replica.getAppliedSequence());
+        assertEquals(AvailabilityStatus.RESERVED, replica.vehicles().findById("C-002").orElseThrow().getAvailabilityStatus());
+        Booking copy = replica.bookings().findById(b.getBookingId()).orElseThrow();
+        assertSame(replica.vehicles().findById("C-002").orElseThrow(), copy.getVehicle());
+
+        system.cancelBooking(b.getBookingId());
+        system.removeVehicle("C-005");
+        replica.poll();
+        assertEquals(BookingStatus.CANCELLED, replica.bookings().findById(b.getBookingId()).orElseThrow().getStatus());
+        assertEquals(AvailabilityStatus.AVAILABLE, copy.getVehicle().getAvailabilityStatus());
+        assertTrue(replica.vehicles().findById("C-005").isEmpty());
+        assertEquals(0, replica.getPendingBytes());
+
+        // a new replica after a snapshot starts from the snapshot, not from entry 1
+        long snapSeq = primary.snapshot();
+        system.addCustomer(new LocalCustomer("NIC2", "Bob", "0777654321", "b@ex.com"));
+        ReplicaNode late = new ReplicaNode(dir, CLOCK);
+        assertEquals(1, late.poll());
+        assertEquals(1, late.getSnapshotsLoaded());
+        assertEquals(snapSeq + 1, late.getAppliedSequence());
+        assertEquals(4, late.vehicles().findAll().size());
+        assertEquals(2, late.customers().findAll().size());
+        primary.close();
+    }
+
+    @Test
+    public void testReplicaProcessServesReplicatedBookings(@TempDir Path dir) throws Exception {
+        ReplicationPrimary primary = new ReplicationPrimary(dir, new InMemoryVehicleRepository(),
+                new InMemoryCustomerRepository(), new InMemoryBookingRepository());
+        CarRentalSystem system = primarySystem(primary);
+        system.seedVehicles();
+        system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+        Booking b = system.bookSpecific("NIC1", "C-001", LocalDate.of(2026, 7, 10), 2, 100);
+        primary.close();
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process replica = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                App.class.getName(), "--replica", dir.toString())
+                .redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        replica.getOutputStream().write("search alice\nexit\n".getBytes(StandardCharsets.UTF_8));
+        replica.getOutputStream().close();
+        assertTrue(replica.waitFor(30, TimeUnit.SECONDS));
+        String out = new String(replica.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertTrue(out.contains(b.getBookingId() + " | 2026-07-10 to 2026-07-11 | C-001 | NIC1 | ACTIVE"), out);
+        assertEquals(0, replica.exitValue());
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecoride;
+
+import com.ecoride.BookingLifecycleSchedulerTest.MutableClock;
+import com.ecoride.domain.*;
+import com.ecoride.fleet.FleetQuery;
+import com.ecoride.fleet.SlotSuggester;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationHoldsTest {
+
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    private static CarRentalSystem system(Clock clock) {
+        return RentalFixtures.seeded(RentalFixtures.system(clock), 2,
+                new ElectricCar("E-001", "Nissan Leaf", 40, 7.0), new ElectricCar("E-002", "BYD Atto 3", 60, 8.0));
+    }
+
+    @Test
+    public void testHoldBlocksOthersAndConvertsIntoBooking() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-20T08:00:00Z"));
+        CarRentalSystem system = system(clock);
+        ReservationHolds.Hold hold = system.placeHold("NIC1", "E-001", NOV_1, 3);
+
+        // another desk sees the car as taken, for the held dates only
+        assertThrows(BookingConflictException.class, () -> system.bookSpecific("NIC2", "E-001", NOV_1.plusDays(1), 2, 100));
+        assertThrows(BookingConflictException.class, () -> system.placeHold("NIC2", "E-001", NOV_1, 1));
+        assertEquals(List.of("E-002"), system.listFreeByCategory(Category.ELECTRIC, NOV_1, NOV_1.plusDays(2))
+                .stream().map(Vehicle::getVehicleId).toList());
+        assertEquals(1, system.searchFleet(FleetQuery.parse("electric, free 2026-11-02..03")).size());
+        assertEquals("E-002", system.bookByCategory("NIC2", Category.ELECTRIC, NOV_1, 3, 100).getVehicle().getVehicleId());
+
+        Booking b = system.bookSpecific("NIC1", "E-001", NOV_1, 3, 150);
+        assertEquals(0, system.getHolds().size());
+        assertTrue(system.getHolds().find(hold.holdId()).isEmpty());
+        assertEquals(b.getBookingId(), system.getCalendar().conflicts("E-001", NOV_1, NOV_1, null).get(0).ownerId());
+        assertFalse(system.releaseHold(hold.holdId()));
+    }
+
+    @Test
+    public void testHoldsExpire() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-20T08:00:00Z"));
+        CarRentalSystem system = system(clock);
+        system.placeHold("NIC1", "E-001", NOV_1, 3);
+        system.placeHold("NIC1", "E-002", NOV_1, 3);
+        assertThrows(IllegalStateException.class, () -> system.bookByCategory("NIC2", Category.ELECTRIC, NOV_1, 2, 100));
+
+        clock.advance(BookingPolicy.HOLD_TTL.minusSeconds(5));
+        assertTrue(system.listFreeByCategory(Category.ELECTRIC, NOV_1, NOV_1).isEmpty());
+
+        // past the deadline the holds stop counting at once; the wheel clears their blocks on its next advance
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals(2, system.listFreeByCategory(Category.ELECTRIC, NOV_1, NOV_1).size());
+        assertEquals(0, system.getHolds().size());
+        assertTrue(system.getCalendar().isFree("E-001", NOV_1, NOV_1.plusDays(2)));
+        assertEquals("E-001", system.bookSpecific("NIC2", "E-001", NOV_1, 2, 100).getVehicle().getVehicleId());
+    }
+
+    @Test
+    public void testExpiredHoldDoesNotCountBeforeTheWheelClearsIt() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-20T08:00:00Z"));
+        CarRentalSystem system = system(clock);
+        system.placeHold("NIC1", "E-001", NOV_1, 3);
+        clock.advance(BookingPolicy.HOLD_TTL.plusSeconds(5));
+
+        // nothing has advanced the wheel, so the block is still in the calendar
+        assertFalse(system.getCalendar().isFree("E-001", NOV_1, NOV_1.plusDays(2)));
+        Vehicle car = system.findVehicle("E-001").orElseThrow();
+        assertTrue(FleetQuery.parse("electric, free 2026-11-01..03").matches(car, system.getCalendar(), system.getHolds()::isStale));
+        assertEquals(List.of(new SlotSuggester.Slot("E-001", NOV_1, NOV_1.plusDays(2))),
+                system.suggestAlternatives("E-002", null, NOV_1, 3).alternatives());
+    }
+}
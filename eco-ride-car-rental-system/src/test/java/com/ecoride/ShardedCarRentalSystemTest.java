@@ -0,0 +1,59 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedCarRentalSystemTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-08-01T08:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate START = LocalDate.of(2026, 8, 10);
+
+    @Test
+    public void testCategoryBookingFansOutAcrossBranches() {
+        Map<String, Integer> branches = Map.of("C-001", 0, "C-002", 1, "C-003", 2);
+        try (ShardedCarRentalSystem system = new ShardedCarRentalSystem(3,
+                ShardedCarRentalSystem.branchRouter(branches, 3), CLOCK)) {
+            system.addVehicle(new ElectricCar("C-001", "Nissan Leaf", 40, 7.0));
+            system.addVehicle(new ElectricCar("C-002", "BYD Atto 3", 60, 8.0));
+            system.addVehicle(new HybridCar("C-003", "Toyota Aqua", 6.5, 25));
+            system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+
+            Booking first = system.bookByCategory("NIC1", Category.ELECTRIC, START, 2, 100);
+            Booking second = system.bookByCategory("NIC1", Category.ELECTRIC, START, 2, 100);
+            assertNotEquals(first.getVehicle(), second.getVehicle());
+            assertThrows(NoVehicleAvailableException.class,
+                    () -> system.bookByCategory("NIC1", Category.ELECTRIC, START, 2, 100));
+
+            system.cancelBooking(first.getBookingId());
+            assertEquals(1, system.listAvailableByCategory(Category.ELECTRIC).size());
+            assertEquals(2, system.searchBookingsByNameOrId("alice").size());
+            assertEquals(2, system.viewBookingsByDate(START).size());
+            assertEquals(BookingStatus.CANCELLED, system.findBookingById(first.getBookingId()).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    public void testCategoryBookingsRotateTheFirstShard() {
+        Map<String, Integer> branches = Map.of("C-001", 0, "C-002", 0, "C-003", 1, "C-004", 1);
+        try (ShardedCarRentalSystem system = new ShardedCarRentalSystem(2,
+                ShardedCarRentalSystem.branchRouter(branches, 2), CLOCK)) {
+            system.addVehicle(new ElectricCar("C-001", "Nissan Leaf", 40, 7.0));
+            system.addVehicle(new ElectricCar("C-002", "Nissan Leaf", 40, 7.0));
+            system.addVehicle(new ElectricCar("C-003", "BYD Atto 3", 60, 8.0));
+            system.addVehicle(new ElectricCar("C-004", "BYD Atto 3", 60, 8.0));
+            system.addCustomer(new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com"));
+
+            Booking first = system.bookByCategory("NIC1", Category.ELECTRIC, START, 2, 100);
+            Booking second = system.bookByCategory("NIC1", Category.ELECTRIC, START, 2, 100);
+            assertNotEquals(branches.get(first.getVehicle().getVehicleId()),
+                    branches.get(second.getVehicle().getVehicleId()));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.fleet.SlotSuggester;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotSuggesterTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    private static CarRentalSystem system() {
+        return RentalFixtures.seeded(RentalFixtures.system(CLOCK), 1,
+                new ElectricCar("E-001", "Nissan Leaf", 40, 7.0), new ElectricCar("E-002", "BYD Atto 3", 60, 8.0),
+                new ElectricCar("E-003", "Tesla Model 3", 75, 6.0), new HybridCar("H-001", "Toyota Aqua", 6.5, 25));
+    }
+
+    @Test
+    public void testConflictCarriesNearestWindowsAndAlternatives() {
+        CarRentalSystem system = system();
+        system.bookSpecific("NIC1", "E-001", NOV_1, 5, 100);                    // Nov 1-5
+        system.bookSpecific("NIC1", "E-001", NOV_1.plusDays(7), 3, 100);        // Nov 8-10
+        system.bookSpecific("NIC1", "E-002", NOV_1.minusDays(2), 6, 100);       // Oct 30 - Nov 4
+        system.changeAvailability("E-003", AvailabilityStatus.UNDER_MAINTENANCE);
+
+        BookingConflictException ex = assertThrows(BookingConflictException.class,
+                () -> system.bookSpecific("NIC1", "E-001", NOV_1.plusDays(2), 2, 50));
+        SlotSuggester.Suggestions s = ex.getSuggestions();
+        assertTrue(s.complete());
+        // the two-day hole on Nov 6-7 is closest, then the lead-time-limited window before Nov 1
+        assertEquals(NOV_1.plusDays(5), s.sameVehicle().get(0).start());
+        assertEquals(NOV_1.plusDays(6), s.sameVehicle().get(0).end());
+        assertEquals(LocalDate.of(2026, 10, 30), s.sameVehicle().get(1).start());
+        // E-003 is in maintenance, the hybrid is another category
+        assertEquals(1, s.alternatives().size());
+        assertEquals("E-002", s.alternatives().get(0).vehicleId());
+        assertEquals(NOV_1.plusDays(4), s.alternatives().get(0).start());
+
+        Booking taken = system.bookSpecific("NIC1", s.sameVehicle().get(0).vehicleId(), s.sameVehicle().get(0).start(), 2, 50);
+        assertEquals(BookingStatus.ACTIVE, taken.getStatus());
+    }
+
+    @Test
+    public void testVehicleIsBookedByDateNotByStatus() {
+        CarRentalSystem system = system();
+        Booking first = system.bookSpecific("NIC1", "H-001", NOV_1, 3, 100);
+        Booking later = system.bookSpecific("NIC1", "H-001", NOV_1.plusDays(10), 3, 100);
+        assertEquals(AvailabilityStatus.RESERVED, system.findVehicle("H-001").orElseThrow().getAvailabilityStatus());
+
+        system.cancelBooking(first.getBookingId());
+        // still held by the later booking
+        assertEquals(AvailabilityStatus.RESERVED, system.findVehicle("H-001").orElseThrow().getAvailabilityStatus());
+        system.cancelBooking(later.getBookingId());
+        assertEquals(AvailabilityStatus.AVAILABLE, system.findVehicle("H-001").orElseThrow().getAvailabilityStatus());
+    }
+
+    @Test
+    public void testMovingBookingCountsItsOwnDatesAsFree() {
+        CarRentalSystem system = system();
+        Booking b = system.bookSpecific("NIC1", "H-001", NOV_1, 3, 100);        // Nov 1-3
+        system.bookSpecific("NIC1", "H-001", NOV_1.plusDays(4), 3, 100);        // Nov 5-7
+
+        Booking moved = system.updateBooking(b.getBookingId(), NOV_1.plusDays(1), null, null);
+        assertEquals(NOV_1.plusDays(3), moved.getEndDate());
+
+        BookingConflictException ex = assertThrows(BookingConflictException.class,
+                () -> system.updateBooking(b.getBookingId(), null, 5, null));
+        assertEquals(NOV_1.plusDays(1), system.findBookingById(b.getBookingId()).orElseThrow().getStartDate());
+        assertFalse(ex.getSuggestions().sameVehicle().isEmpty());
+        for (SlotSuggester.Slot slot : ex.getSuggestions().sameVehicle()) {
+            assertTrue(slot.end().isBefore(NOV_1.plusDays(4)) || slot.start().isAfter(NOV_1.plusDays(6)));
+        }
+    }
+}
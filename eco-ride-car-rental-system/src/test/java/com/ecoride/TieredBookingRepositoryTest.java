@@ -0,0 +1,96 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.BookingPolicy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredBookingRepositoryTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-07-01T08:00:00Z"), ZoneOffset.UTC);
+
+    private final Customer alice = new LocalCustomer("NIC1", "Alice", "0771234567", "a@ex.com");
+    private final Vehicle car = new CompactPetrolCar("C-001", "Toyota Axio", 1.5, "AUTO");
+
+    private TieredBookingRepository open(Path dir) throws IOException {
+        return new TieredBookingRepository(dir, 30, CLOCK, id -> alice, id -> car);
+    }
+
+    private Booking booking(int n, LocalDate start, BookingStatus status) {
+        return new Booking(String.format("R-%08x", n), start.atStartOfDay().minusDays(5), start, start.plusDays(2),
+                100, BookingPolicy.DEPOSIT, status, alice, car);
+    }
+
+    @Test
+    public void testArchivesOldTerminalBookingsAndReadsThemBack(@TempDir Path dir) throws IOException {
+        TieredBookingRepository repo = open(dir);
+        LocalDate old = LocalDate.of(2026, 1, 10);
+        for (int i = 0; i < 300; i++) repo.save(booking(i, old.plusDays(i % 20), i % 3 == 0 ? BookingStatus.CANCELLED : BookingStatus.COMPLETED));
+        repo.save(booking(1000, LocalDate.of(2026, 6, 25), BookingStatus.COMPLETED)); // too recent
+        repo.save(booking(1001, old, BookingStatus.ACTIVE));                          // never archived
+
+        assertEquals(300, repo.archive());
+        assertEquals(2, repo.hotCount());
+        assertEquals(300, repo.coldCount());
+
+        long before = repo.coldBlocksRead();
+        Booking b = repo.findById(String.format("R-%08x", 150)).orElseThrow();
+        assertEquals(old.plusDays(150 % 20), b.getStartDate());
+        assertEquals(BookingStatus.CANCELLED, b.getStatus());
+        assertEquals(1, repo.coldBlocksRead() - before, "an ID lookup decompresses a single block");
+        assertTrue(repo.findById("R-ffffffff").isEmpty());
+
+        assertEquals(16, repo.findByDate(old).size()); // 15 cold + the hot active one
+        assertEquals(302, repo.findAll().size());
+        assertEquals(1, repo.findActive().size());
+
+        // segments and tombstones survive a restart
+        repo.delete(String.format("R-%08x", 7));
+        TieredBookingRepository reopened = open(dir);
+        assertEquals(300, reopened.coldCount());
+        assertTrue(reopened.findById(String.format("R-%08x", 7)).isEmpty());
+        assertTrue(reopened.findById(String.format("R-%08x", 8)).isPresent());
+    }
+
+    @Test
+    public void testNewerCopiesShadowArchivedOnes(@TempDir Path dir) throws IOException {
+        TieredBookingRepository repo = open(dir);
+        Booking b = booking(1, LocalDate.of(2026, 1, 10), BookingStatus.COMPLETED);
+        repo.save(b);
+        repo.archive();
+
+        Booking changed = booking(1, LocalDate.of(2026, 1, 10), BookingStatus.COMPLETED);
+        changed.setTotalKm(999);
+        repo.save(changed);
+        assertEquals(999, repo.findById(b.getBookingId()).orElseThrow().getTotalKm());
+        assertEquals(1, repo.findAll().size());
+
+        repo.archive();
+        assertEquals(2, repo.segmentCount());
+        assertEquals(999, repo.findById(b.getBookingId()).orElseThrow().getTotalKm());
+        assertEquals(1, repo.findAll().size());
+    }
+
+    @Test
+    public void testDeletingAHotOnlyBookingInsideAColdRangeLeavesNoTombstone(@TempDir Path dir) throws IOException {
+        TieredBookingRepository repo = open(dir);
+        for (int i = 0; i < 10; i += 2) repo.save(booking(i, LocalDate.of(2026, 1, 10), BookingStatus.COMPLETED));
+        repo.archive();
+        repo.save(booking(5, LocalDate.of(2026, 7, 20), BookingStatus.ACTIVE)); // between two archived IDs
+        assertEquals(6, repo.count());
+
+        repo.delete(String.format("R-%08x", 5));
+        assertEquals(5, repo.count());
+        repo.delete(String.format("R-%08x", 4));
+        assertEquals(4, repo.count());
+        assertEquals(4, open(dir).count());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+import com.ecoride.trace.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracingTest {
+
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    private static CarRentalSystem tracedSystem(Tracer tracer) {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+        CarRentalSystem system = new CarRentalSystem(new TracingVehicleRepository(new InMemoryVehicleRepository(), tracer),
+                new TracingCustomerRepository(new InMemoryCustomerRepository(), tracer),
+                new TracingBookingRepository(new InMemoryBookingRepository(), tracer), new BookingPolicy(clock), new PricingService());
+        system.setTracer(tracer);
+        system.addVehicle(new ElectricCar("E-001", "Nissan Leaf", 40, 7.0));
+        system.addVehicle(new ElectricCar("E-002", "BYD Atto 3", 60, 8.0));
+        for (int i = 1; i <= 4; i++) system.addCustomer(new LocalCustomer("NIC" + i, "Customer " + i, "0771234567", i + "@ex.com"));
+        return system;
+    }
+
+    private static List<TraceSpan> read(Path file) throws Exception {
+        List<TraceSpan> spans = new ArrayList<>();
+        TraceFile.read(file, spans::add);
+        return spans;
+    }
+
+    @Test
+    public void testBookingStepsAreRecordedAsOneTrace(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("trace.bin");
+        Tracer tracer = new Tracer(file, 1.0, Duration.ofSeconds(10));
+        CarRentalSystem system = tracedSystem(tracer);
+        system.bookSpecific("NIC1", "E-001", NOV_1, 3, 100);
+        tracer.close();
+
+        List<TraceSpan> spans = read(file);
+        TraceSpan root = spans.stream().filter(s -> s.name().equals("booking.book")).findFirst().orElseThrow();
+        assertTrue(root.isRoot());
+        List<TraceSpan> trace = spans.stream().filter(s -> s.traceId() == root.traceId()).collect(Collectors.toList());
+        Set<String> children = trace.stream().filter(s -> s.parentId() == root.spanId()).map(TraceSpan::name).collect(Collectors.toSet());
+        assertEquals(Set.of("customer.lookup", "vehicle.lookup", "reservation.lockWait", "policy.check", "conflict.scan", "booking.reserve"), children);
+        TraceSpan reserve = trace.stream().filter(s -> s.name().equals("booking.reserve")).findFirst().orElseThrow();
+        assertTrue(trace.stream().anyMatch(s -> s.name().equals("repo.bookings.save") && s.parentId() == reserve.spanId()));
+        for (TraceSpan s : trace) assertTrue(s.durationNanos() <= root.durationNanos(), s.name());
+    }
+
+    @Test
+    public void testSamplingRateCanBeChangedWhileRunning(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("trace.bin");
+        Tracer tracer = new Tracer(file, 0.0, Duration.ofMillis(5));
+        CarRentalSystem system = tracedSystem(tracer);
+        system.bookSpecific("NIC1", "E-001", NOV_1, 1, 100);
+        assertEquals(0, tracer.traces());
+
+        tracer.setSampleRate(1.0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int customer = t + 1;
+            done.add(pool.submit(() -> {
+                for (int d = 0; d < 20; d++) {
+                    try { system.bookByCategory("NIC" + customer, Category.ELECTRIC, NOV_1.plusDays(2 + customer * 20L + d), 1, 50); }
+                    catch (IllegalStateException ignored) { /* both cars taken */ }
+                }
+            }));
+        }
+        for (Future<?> f : done) f.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+        tracer.close();
+
+        assertEquals(80, tracer.traces());
+        assertEquals(0, tracer.spansDropped());
+        List<TraceSpan> spans = read(file);
+        assertEquals(tracer.spansWritten(), spans.size());
+        assertEquals(80, spans.stream().filter(s -> s.isRoot() && s.name().equals("booking.byCategory")).count());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraceSummary.summarize(file, 3, "booking.byCategory", new PrintStream(out, true, StandardCharsets.UTF_8));
+        String summary = out.toString(StandardCharsets.UTF_8);
+        assertTrue(summary.contains("slowest 3 traces"), summary);
+        assertTrue(summary.contains("conflict.scan"), summary);
+    }
+
+    @Test
+    public void testTruncatedFileReadsUpToLastWholeSpan(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("trace.bin");
+        Tracer tracer = new Tracer(file, 1.0, Duration.ofSeconds(10));
+        CarRentalSystem system = tracedSystem(tracer);
+        system.bookSpecific("NIC1", "E-001", NOV_1, 1, 100);
+        tracer.close();
+        int whole = read(file).size();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertEquals(whole - 1, read(file).size());
+    }
+}
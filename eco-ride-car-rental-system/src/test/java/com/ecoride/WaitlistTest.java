@@ -0,0 +1,91 @@
+package com.ecoride;
+
+import com.ecoride.domain.*;
+import com.ecoride.repository.*;
+import com.ecoride.service.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WaitlistTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-20T08:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate NOV_1 = LocalDate.of(2026, 11, 1);
+
+    private static CarRentalSystem system() {
+        return RentalFixtures.seeded(RentalFixtures.system(CLOCK), 4, new LuxurySUVCar("S-001", "BMW X5", "Leather", true));
+    }
+
+    @Test
+    public void testCancellationBooksOldestFittingRequest() {
+        CarRentalSystem system = system();
+        Booking held = system.bookByCategory("NIC1", Category.LUXURY_SUV, NOV_1, 5, 100);    // Nov 1-5
+        assertThrows(IllegalStateException.class, () -> system.bookByCategory("NIC2", Category.LUXURY_SUV, NOV_1, 3, 100));
+
+        Waitlist.Entry tooLong = system.joinWaitlist("NIC2", Category.LUXURY_SUV, NOV_1, 40, 100);
+        Waitlist.Entry fits = system.joinWaitlist("NIC3", Category.LUXURY_SUV, NOV_1.plusDays(1), 3, 100);
+        Waitlist.Entry alsoFits = system.joinWaitlist("NIC4", Category.LUXURY_SUV, NOV_1, 2, 100);
+        // block the car after the freed window so the 40-day request cannot fit
+        system.bookSpecific("NIC1", "S-001", NOV_1.plusDays(6), 2, 100);
+
+        system.cancelBooking(held.getBookingId());
+
+        // NIC2 asked first but does not fit; NIC3 wins, and its booking then blocks NIC4's Nov 1-2
+        String booked = system.getWaitlist().fulfilledBooking(fits.entryId()).orElseThrow();
+        Booking b = system.findBookingById(booked).orElseThrow();
+        assertEquals("NIC3", b.getCustomer().getCustomerId());
+        assertEquals(NOV_1.plusDays(1), b.getStartDate());
+        assertEquals(BookingStatus.ACTIVE, b.getStatus());
+        assertTrue(system.getWaitlist().find(alsoFits.entryId()).isPresent());
+        assertTrue(system.getWaitlist().find(tooLong.entryId()).isPresent());
+        assertEquals(AvailabilityStatus.RESERVED, system.findVehicle("S-001").orElseThrow().getAvailabilityStatus());
+    }
+
+    @Test
+    public void testFreedWindowServesSeveralRequestsAndSkipsOtherCategories() {
+        CarRentalSystem system = system();
+        system.addVehicle(new HybridCar("H-001", "Toyota Aqua", 6.5, 25));
+        Booking held = system.bookSpecific("NIC1", "S-001", NOV_1, 6, 100);                    // Nov 1-6
+        system.bookSpecific("NIC1", "H-001", NOV_1, 6, 100);
+        Waitlist.Entry hybrid = system.joinWaitlist("NIC2", Category.HYBRID, NOV_1, 2, 100);
+        Waitlist.Entry first = system.joinWaitlist("NIC3", Category.LUXURY_SUV, NOV_1, 3, 100);
+        Waitlist.Entry second = system.joinWaitlist("NIC4", Category.LUXURY_SUV, NOV_1.plusDays(3), 3, 100);
+
+        system.cancelBooking(held.getBookingId());
+
+        assertTrue(system.getWaitlist().fulfilledBooking(first.entryId()).isPresent());
+        assertTrue(system.getWaitlist().fulfilledBooking(second.entryId()).isPresent());
+        assertTrue(system.getWaitlist().find(hybrid.entryId()).isPresent());
+        assertEquals(1, system.getWaitlist().size());
+    }
+
+    @Test
+    public void testClaimHandsAnEntryToOneCallerAndRestoreKeepsItsPlace() throws Exception {
+        Waitlist w = new Waitlist();
+        LocalDateTime now = LocalDateTime.now(CLOCK);
+        Waitlist.Entry first = w.add("NIC1", Category.HYBRID, NOV_1, 2, 100, now);
+        Waitlist.Entry second = w.add("NIC2", Category.HYBRID, NOV_1, 2, 100, now);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Optional<Waitlist.Entry>>> claims = new ArrayList<>();
+        for (int i = 0; i < 8; i++) claims.add(pool.submit(() -> w.claim(Category.HYBRID, NOV_1, NOV_1.plusDays(1))));
+        List<String> got = new ArrayList<>();
+        for (Future<Optional<Waitlist.Entry>> f : claims) f.get().ifPresent(e -> got.add(e.entryId()));
+        pool.shutdown();
+        assertEquals(2, got.size());
+        assertEquals(Set.of(first.entryId(), second.entryId()), new HashSet<>(got));
+        assertEquals(0, w.size());
+
+        w.restore(second);
+        w.restore(first);
+        assertEquals(first, w.bestFit(Category.HYBRID, NOV_1, NOV_1.plusDays(1)).orElseThrow());
+        w.markFulfilled(first, "R-1");
+        w.restore(first); // already booked: stays out
+        assertEquals(1, w.size());
+    }
+}
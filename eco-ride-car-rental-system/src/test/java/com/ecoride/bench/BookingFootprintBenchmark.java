@@ -0,0 +1,101 @@
+package com.ecoride.bench;
+
+import com.ecoride.domain.*;
+import com.ecoride.service.BookingPolicy;
+
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+/**
+ * Retained heap per booking for the previous object layout versus the current compact one.
+ *
+ * <pre>
+ *   java -Xmx8g -cp target/classes:target/test-classes com.ecoride.bench.BookingFootprintBenchmark [count ...]
+ * </pre>
+ *
+ * Defaults to 1M and 10M bookings. Customers and vehicles come from small shared pools, as in a real
+ * fleet, so the figures are the cost of the booking objects themselves (including their ID strings).
+ */
+public class BookingFootprintBenchmark {
+
+    /** The field layout Booking had before it was compacted, kept here only for comparison. */
+    static final class LegacyBooking {
+        private final String bookingId;
+        private final LocalDateTime bookingDate;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final int totalKm;
+        private final BigDecimal deposit;
+        private final BookingStatus status;
+        private boolean pickedUp;
+        private final Customer customer;
+        private final Vehicle vehicle;
+
+        LegacyBooking(String bookingId, LocalDateTime bookingDate, LocalDate startDate, LocalDate endDate, int totalKm,
+                      BigDecimal deposit, BookingStatus status, Customer customer, Vehicle vehicle) {
+            this.bookingId = bookingId; this.bookingDate = bookingDate; this.startDate = startDate; this.endDate = endDate;
+            this.totalKm = totalKm; this.deposit = deposit; this.status = status; this.customer = customer; this.vehicle = vehicle;
+        }
+    }
+
+    private static final LocalDate BASE = LocalDate.of(2020, 1, 1);
+    private static final Customer[] CUSTOMERS = new Customer[1_000];
+    private static final Vehicle[] VEHICLES = new Vehicle[200];
+
+    static {
+        for (int i = 0; i < CUSTOMERS.length; i++) CUSTOMERS[i] = new LocalCustomer("NIC" + i, "Customer " + i, "077", "c@ex.com");
+        // separately built model strings, as they would be when loaded from storage
+        for (int i = 0; i < VEHICLES.length; i++) VEHICLES[i] = new CompactPetrolCar("C-" + i, new String("Toyota Corolla".toCharArray()), 1.5, "AUTO");
+    }
+
+    public static void main(String[] args) {
+        long[] counts = args.length == 0 ? new long[]{1_000_000, 10_000_000} : parse(args);
+        System.out.printf("%-12s %18s %18s %10s%n", "bookings", "legacy B/booking", "compact B/booking", "saved");
+        for (long count : counts) {
+            int n = Math.toIntExact(count);
+            double legacy = measure(n, i -> new LegacyBooking(id(i), bookedAt(i), start(i), start(i).plusDays(3), 100 + i % 400,
+                    BookingPolicy.DEPOSIT, BookingStatus.COMPLETED, CUSTOMERS[i % CUSTOMERS.length], VEHICLES[i % VEHICLES.length]));
+            double compact = measure(n, i -> new Booking(id(i), bookedAt(i), start(i), start(i).plusDays(3), 100 + i % 400,
+                    BookingPolicy.DEPOSIT, BookingStatus.COMPLETED, CUSTOMERS[i % CUSTOMERS.length], VEHICLES[i % VEHICLES.length]));
+            System.out.printf("%-12d %18s %18s %10s%n", count, fmt(legacy), fmt(compact),
+                    legacy > 0 && compact > 0 ? String.format("%.0f%%", 100 * (1 - compact / legacy)) : "-");
+        }
+    }
+
+    /** Bytes retained per element after filling an array of n objects, or -1 if the heap was too small. */
+    private static double measure(int n, IntFunction<Object> factory) {
+        try {
+            long before = usedAfterGc();
+            Object[] keep = new Object[n];
+            for (int i = 0; i < n; i++) keep[i] = factory.apply(i);
+            long after = usedAfterGc();
+            Reference.reachabilityFence(keep);
+            return (double) (after - before - 16L - 4L * n) / n; // minus the holding array (compressed refs)
+        } catch (OutOfMemoryError oom) {
+            return -1;
+        }
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try { Thread.sleep(100); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static String id(int i) { return String.format("R-%08x", i); }
+    private static LocalDate start(int i) { return BASE.plusDays(i % 2_000); }
+    private static LocalDateTime bookedAt(int i) { return start(i).minusDays(5).atTime(9, i % 60, (i / 60) % 60); }
+    private static String fmt(double v) { return v < 0 ? "OOM" : String.format("%.1f", v); }
+
+    private static long[] parse(String[] args) {
+        long[] out = new long[args.length];
+        for (int i = 0; i < args.length; i++) out[i] = Long.parseLong(args[i].replace("_", ""));
+        return out;
+    }
+}
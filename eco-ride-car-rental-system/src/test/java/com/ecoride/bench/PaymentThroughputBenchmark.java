@@ -0,0 +1,38 @@
+package com.ecoride.bench;
+
+import com.ecoride.domain.Payment;
+import com.ecoride.payment.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Payment throughput against the simulated gateway, to size batching and sender threads offline.
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.ecoride.bench.PaymentThroughputBenchmark [payments] [latencyMs] [failureRate]
+ * </pre>
+ *
+ * Defaults to 100k payments, 20 ms per gateway call and a 1% outage rate, with {@link PaymentConfig#defaults()}.
+ */
+public class PaymentThroughputBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        double failureRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.01;
+
+        SimulatedGateway gateway = new SimulatedGateway(Duration.ofMillis(latencyMs), failureRate, 0, 42);
+        try (PaymentProcessor payments = new PaymentProcessor(gateway, PaymentConfig.defaults(), Clock.systemUTC())) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                payments.submit(new PaymentRequest("REQ-" + i, "R-" + i, Payment.Purpose.DEPOSIT, new BigDecimal("5000"), "CARD"));
+            }
+            payments.awaitIdle(Duration.ofMinutes(10));
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("%d payments in %.2f s (%.0f/s), %d gateway calls%n", count, secs, count / secs, gateway.calls());
+            System.out.println(payments.stats());
+        }
+    }
+}